@@ -6,13 +6,26 @@ package com.cardpricer.exception;
  */
 public class ScryfallApiException extends Exception {
 
+    private final boolean notFound;
+
     /**
      * Constructs a new exception with the given detail message.
      *
      * @param message human-readable description of the failure
      */
     public ScryfallApiException(String message) {
+        this(message, false);
+    }
+
+    /**
+     * Constructs a new exception with the given detail message.
+     *
+     * @param message  human-readable description of the failure
+     * @param notFound {@code true} if the card or set does not exist on Scryfall
+     */
+    public ScryfallApiException(String message, boolean notFound) {
         super(message);
+        this.notFound = notFound;
     }
 
     /**
@@ -23,5 +36,16 @@ public class ScryfallApiException extends Exception {
      */
     public ScryfallApiException(String message, Throwable cause) {
         super(message, cause);
+        this.notFound = false;
+    }
+
+    /**
+     * Returns whether the request failed because the card or set does not exist,
+     * as opposed to a network or server error.
+     *
+     * @return {@code true} for a not-found failure
+     */
+    public boolean isNotFound() {
+        return notFound;
     }
 }
\ No newline at end of file
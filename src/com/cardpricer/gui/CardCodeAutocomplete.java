@@ -0,0 +1,247 @@
+package com.cardpricer.gui;
+
+import com.cardpricer.service.catalog.CatalogPrefixIndex;
+import com.cardpricer.service.catalog.CatalogPrefixIndex.Suggestion;
+import com.cardpricer.service.catalog.CatalogRecord;
+import com.cardpricer.service.catalog.CatalogVersion;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Suggestion popup under a card-code text field, fed by the catalog's
+ * {@link CatalogPrefixIndex}: typing a name prefix ({@code "black lo"}) or a set
+ * code and number prefix ({@code "mh3 12"}) lists the most valuable matching
+ * printings with their code and price.
+ *
+ * <p>Lookups run on one background thread; only the newest keystroke's result is
+ * shown, so the EDT never waits on the index. The first query against a catalog
+ * version builds that version's index on this thread; the catalog does not build
+ * it ahead of time, since doing so reads every name and loads every shard.
+ *
+ * <p>Keys while the popup is open: Up/Down move the selection, Escape closes it,
+ * and Enter replaces the field text with the selected code — or with the first
+ * suggestion when the input has no digits, i.e. is a card name — before the
+ * field's own Enter handling runs. Clicking a suggestion replaces the text and
+ * calls the {@code onPicked} callback.
+ */
+public class CardCodeAutocomplete {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final JTextField field;
+    private final Supplier<CatalogVersion> catalog;
+    private final Runnable onPicked;
+
+    private final JScrollPane scroll;
+    /** Created on first use, once the field is inside a window to own it. */
+    private JWindow popup;
+    private final DefaultListModel<Row> listModel = new DefaultListModel<>();
+    private final JList<Row> list = new JList<>(listModel);
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "code-autocomplete");
+        t.setDaemon(true);
+        return t;
+    });
+    /** Incremented on every edit; results for older input are dropped. Read off the EDT. */
+    private volatile long querySeq;
+    /** Set while this class writes the field, so the edit does not trigger a lookup. */
+    private boolean applying;
+
+    /** One popup row: the suggestion and the card name it stands for. */
+    private record Row(Suggestion suggestion, String name) {}
+
+    /**
+     * Attaches a popup to {@code field}.
+     *
+     * @param field    the code field to complete
+     * @param catalog  supplies the catalog version to suggest from; {@code null} disables suggestions
+     * @param onPicked called on the EDT after a suggestion was clicked into the field
+     */
+    public CardCodeAutocomplete(JTextField field, Supplier<CatalogVersion> catalog, Runnable onPicked) {
+        this.field = field;
+        this.catalog = catalog;
+        this.onPicked = onPicked;
+
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFocusable(false);
+        list.setCellRenderer(new SuggestionRenderer());
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int idx = list.locationToIndex(e.getPoint());
+                if (idx < 0) return;
+                apply(listModel.getElementAt(idx));
+                onPicked.run();
+            }
+        });
+        scroll = new JScrollPane(list);
+        scroll.setBorder(BorderFactory.createLineBorder(UIManager.getColor("Component.borderColor") != null
+                ? UIManager.getColor("Component.borderColor") : Color.GRAY));
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e)  { onEdit(); }
+            @Override public void removeUpdate(DocumentEvent e)  { onEdit(); }
+            @Override public void changedUpdate(DocumentEvent e) { }
+        });
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                handleKey(e);
+            }
+        });
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                hide();
+            }
+        });
+    }
+
+    /** Closes the popup. */
+    public void hide() {
+        if (popup != null) popup.setVisible(false);
+        list.clearSelection();
+    }
+
+    // ── Input ─────────────────────────────────────────────────────────────────
+
+    private void onEdit() {
+        if (applying) return;
+        long seq = ++querySeq;
+        String text = field.getText();
+        if (text.trim().length() < 2) {
+            hide();
+            return;
+        }
+        worker.execute(() -> {
+            if (seq != querySeq) return;
+            CatalogVersion version = catalog.get();
+            if (version == null) return;
+            List<Suggestion> found = version.prefixIndex().suggest(text, MAX_SUGGESTIONS);
+            Row[] rows = new Row[found.size()];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new Row(found.get(i), version.store().name(found.get(i).record()));
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (seq == querySeq) show(rows);
+            });
+        });
+    }
+
+    private void handleKey(KeyEvent e) {
+        if (popup == null || !popup.isVisible()) return;
+        int size = listModel.getSize();
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+                list.setSelectedIndex(Math.min(list.getSelectedIndex() + 1, size - 1));
+                list.ensureIndexIsVisible(list.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_UP:
+                list.setSelectedIndex(Math.max(list.getSelectedIndex() - 1, 0));
+                list.ensureIndexIsVisible(list.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_ESCAPE:
+                hide();
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER: {
+                Row row = list.getSelectedValue();
+                if (row == null && size > 0 && !field.getText().matches(".*\\d.*")) {
+                    row = listModel.getElementAt(0);
+                }
+                if (row != null) apply(row);
+                hide();
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private void apply(Row row) {
+        applying = true;
+        try {
+            querySeq++;
+            field.setText(row.suggestion().code());
+        } finally {
+            applying = false;
+        }
+        hide();
+    }
+
+    // ── Popup ─────────────────────────────────────────────────────────────────
+
+    private void show(Row[] rows) {
+        listModel.clear();
+        if (rows.length == 0 || !field.isShowing() || !field.isFocusOwner()) {
+            hide();
+            return;
+        }
+        for (Row row : rows) listModel.addElement(row);
+        list.setVisibleRowCount(rows.length);
+
+        Window owner = SwingUtilities.getWindowAncestor(field);
+        if (popup == null || popup.getOwner() != owner) {
+            if (popup != null) popup.dispose();
+            popup = new JWindow(owner);
+            popup.setFocusableWindowState(false);
+            popup.getContentPane().add(scroll);
+        }
+
+        Point p = field.getLocationOnScreen();
+        popup.pack();
+        popup.setSize(field.getWidth(), popup.getHeight());
+        popup.setLocation(p.x, p.y + field.getHeight());
+        popup.setVisible(true);
+    }
+
+    /** Name and code on the left, price on the right. */
+    private static class SuggestionRenderer extends JPanel implements ListCellRenderer<Row> {
+        private final JLabel left = new JLabel();
+        private final JLabel right = new JLabel();
+
+        SuggestionRenderer() {
+            super(new BorderLayout(10, 0));
+            setBorder(new EmptyBorder(3, 6, 3, 6));
+            add(left, BorderLayout.CENTER);
+            add(right, BorderLayout.EAST);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Row> list, Row row,
+                                                      int index, boolean isSelected, boolean cellHasFocus) {
+            left.setText("<html><b>" + escapeHtml(row.name()) + "</b> <span style='color:gray;'>"
+                    + escapeHtml(row.suggestion().code()) + "</span></html>");
+            String price = CatalogRecord.fromCents(row.suggestion().priceCents());
+            right.setText(price == null ? "No price" : "$" + price);
+
+            Color bg = isSelected ? list.getSelectionBackground() : list.getBackground();
+            Color fg = isSelected ? list.getSelectionForeground() : list.getForeground();
+            setBackground(bg);
+            left.setForeground(fg);
+            right.setForeground(fg);
+            return this;
+        }
+
+        private static String escapeHtml(String text) {
+            return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        }
+    }
+}
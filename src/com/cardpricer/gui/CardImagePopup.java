@@ -1,22 +1,28 @@
 package com.cardpricer.gui;
 
+import com.cardpricer.service.ScryfallHttp;
+
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.net.URL;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
 /**
  * Floating popup that displays a Scryfall card image near the mouse cursor.
- * Images are fetched asynchronously and cached (LRU, max 20 entries).
+ * Images are fetched asynchronously over the shared {@link ScryfallHttp} client
+ * and cached (LRU, max 20 entries).
  */
 public class CardImagePopup {
 
     private static final int DISPLAY_WIDTH = 230;
     private static final int MAX_CACHE_SIZE = 20;
+    private static final Duration IMAGE_TIMEOUT = Duration.ofSeconds(15);
 
     private final JWindow popup;
     private final JLabel imageLabel;
@@ -86,7 +92,18 @@ public class CardImagePopup {
         loader = new SwingWorker<>() {
             @Override
             protected ImageIcon doInBackground() throws Exception {
-                BufferedImage img = ImageIO.read(new URL(urlToLoad));
+                HttpResponse<InputStream> response = ScryfallHttp.send(
+                        ScryfallHttp.get(urlToLoad, IMAGE_TIMEOUT).build());
+                if (response.statusCode() != 200) {
+                    ScryfallHttp.discard(response);
+                    return null;
+                }
+                BufferedImage img;
+                try {
+                    img = ImageIO.read(ScryfallHttp.body(response));
+                } finally {
+                    ScryfallHttp.discard(response);
+                }
                 if (img == null || isCancelled()) return null;
                 int h = img.getHeight() * DISPLAY_WIDTH / img.getWidth();
                 Image scaled = img.getScaledInstance(DISPLAY_WIDTH, h, Image.SCALE_SMOOTH);
@@ -7,7 +7,9 @@ import com.cardpricer.gui.panel.InventoryPanel;
 import com.cardpricer.gui.panel.ManagedPanel;
 import com.cardpricer.gui.panel.PreferencesPanel;
 import com.cardpricer.gui.panel.TradePanel;
+import com.cardpricer.service.ScryfallApiHealth;
 import com.cardpricer.service.ScryfallCatalogService;
+import com.cardpricer.service.ScryfallHttp;
 import com.cardpricer.service.TradeReceivingExportService;
 import com.cardpricer.service.UpdateCheckService;
 import java.util.List;
@@ -42,6 +44,9 @@ public class MainSwingApplication {
     private CardLayout cardLayout;       // screen switching
     private JLabel statusLabel;
     private JLabel catalogChip;          // persistent catalog state indicator
+    private String catalogChipText;      // chip state before the API state is added
+    private Color  catalogChipColor;
+    private String catalogChipTip;
 
     // Update-banner slot (NORTH of root; hidden until update found)
     private JPanel updateBannerSlot;
@@ -150,7 +155,10 @@ public class MainSwingApplication {
         // Sync any trade files that failed to copy last session (background, best-effort)
         TradeReceivingExportService.syncMissingToSharedFolder();
 
-        // Auto-load catalog: download if missing/stale (>3 days), otherwise load from disk
+        // Open the Scryfall connections now so the first card lookup skips the handshakes
+        ScryfallHttp.warmUp();
+
+        // Auto-load catalog from disk, then refresh it if Scryfall has published newer data
         startCatalogAutoLoad();
     }
 
@@ -288,10 +296,11 @@ public class MainSwingApplication {
             themeToggleBtn.setText(isDarkTheme() ? "\u2600" : "\uD83C\uDF19");
         });
 
-        catalogChip = new JLabel("\u25CB Catalog");
-        catalogChip.setForeground(UIManager.getColor("Label.disabledForeground"));
+        catalogChip = new JLabel();
         catalogChip.setFont(catalogChip.getFont().deriveFont(11f));
-        catalogChip.setToolTipText("Card catalog not loaded");
+        setCatalogChip("\u25CB Catalog", UIManager.getColor("Label.disabledForeground"),
+                "Card catalog not loaded");
+        ScryfallApiHealth.getInstance().addListener(() -> SwingUtilities.invokeLater(this::renderCatalogChip));
 
         JPanel eastPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 0));
         eastPanel.setOpaque(false);
@@ -421,8 +430,9 @@ public class MainSwingApplication {
      * Starts a background worker that loads or downloads the Scryfall card catalog:
      * <ul>
      *   <li>Already loaded — skips immediately.</li>
-     *   <li>Cache missing or older than 3 days — downloads and builds from Scryfall.</li>
-     *   <li>Cache present and fresh — loads from disk into memory.</li>
+     *   <li>Cache missing — points the user at Preferences → Catalog.</li>
+     *   <li>Cache present — loads from disk into memory, then, if the data is older
+     *       than 3 days, runs {@link #startCatalogRefresh()}.</li>
      * </ul>
      * Progress is reported in the status bar; the UI is never blocked.
      */
@@ -432,23 +442,29 @@ public class MainSwingApplication {
 
         if (!catalog.isCatalogAvailable()) {
             // No local cache at all — nudge user to download via Preferences
-            catalogChip.setText("\u25CB Catalog");
-            catalogChip.setForeground(UIManager.getColor("Label.disabledForeground"));
-            catalogChip.setToolTipText("No catalog — download via Preferences → Catalog");
+            setCatalogChip("\u25CB Catalog", UIManager.getColor("Label.disabledForeground"),
+                    "No catalog — download via Preferences → Catalog");
             statusLabel.setText("Catalog not downloaded — go to Preferences to download");
             return;
         }
 
         // Amber ⟳ while loading from disk
-        catalogChip.setText("\u29D7 Catalog");
-        catalogChip.setForeground(new Color(0xD97706));
-        catalogChip.setToolTipText("Loading card catalog from disk…");
+        setCatalogChip("\u29D7 Catalog", new Color(0xD97706), "Loading card catalog from disk…");
 
         new SwingWorker<String, String>() {
             @Override
             protected String doInBackground() throws Exception {
                 publish("Loading card catalog\u2026");
-                catalog.loadFromDisk();
+                catalog.loadFromDisk(new ScryfallCatalogService.DownloadProgress() {
+                    @Override
+                    public void onUpdate(int cardsProcessed, String phase) {
+                        publish(String.format("Loading card catalog\u2026 %,d cards", cardsProcessed));
+                    }
+                    @Override
+                    public boolean isCancelled() {
+                        return false;
+                    }
+                });
                 return "Catalog ready \u2014 " + String.format("%,d", catalog.getCardCount()) + " cards";
             }
 
@@ -461,23 +477,104 @@ public class MainSwingApplication {
             protected void done() {
                 try {
                     statusLabel.setText(get());
-                    catalogChip.setText("\u25CF Catalog");
-                    catalogChip.setForeground(new Color(0x22C55E));
-                    long ageMs  = catalog.getCacheAgeMs();
-                    long ageDays = ageMs / 86_400_000L;
-                    String ageStr = ageDays > 0 ? ageDays + "d old" : "fresh";
-                    catalogChip.setToolTipText(
-                            String.format("%,d cards  (%s)", catalog.getCardCount(), ageStr));
+                    showCatalogReady(catalog);
+                    if (catalog.isRefreshDue()) startCatalogRefresh();
                 } catch (Exception ex) {
                     statusLabel.setText("Catalog failed to load \u2014 open Preferences to retry");
-                    catalogChip.setText("\u25CB Catalog");
-                    catalogChip.setForeground(UIManager.getColor("Label.disabledForeground"));
-                    catalogChip.setToolTipText("Catalog failed — check Preferences");
+                    setCatalogChip("\u25CB Catalog", UIManager.getColor("Label.disabledForeground"),
+                            "Catalog failed — check Preferences");
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Checks Scryfall's bulk-data metadata in the background and downloads the
+     * catalog only if a newer file has been published; an unchanged catalog costs
+     * one small metadata request. The loaded catalog stays in use throughout.
+     */
+    private void startCatalogRefresh() {
+        ScryfallCatalogService catalog = ScryfallCatalogService.getInstance();
+        setCatalogChip("\u29D7 Catalog", new Color(0xD97706),
+                "Checking Scryfall for newer catalog data\u2026");
+
+        new SwingWorker<Boolean, String>() {
+            @Override
+            protected Boolean doInBackground() throws Exception {
+                return catalog.downloadAndBuild(new ScryfallCatalogService.DownloadProgress() {
+                    @Override
+                    public void onUpdate(int cardsProcessed, String phase) {
+                        publish(cardsProcessed > 0
+                                ? String.format("Refreshing catalog\u2026 %,d cards", cardsProcessed)
+                                : "Refreshing catalog\u2026 " + phase);
+                    }
+                    @Override
+                    public boolean isCancelled() {
+                        return false;
+                    }
+                });
+            }
+
+            @Override
+            protected void process(List<String> chunks) {
+                statusLabel.setText(chunks.get(chunks.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    statusLabel.setText(get()
+                            ? "Catalog refreshed \u2014 " + String.format("%,d", catalog.getCardCount()) + " cards"
+                            : "Catalog up to date");
+                } catch (Exception ex) {
+                    statusLabel.setText("Catalog refresh failed \u2014 using cached data");
                 }
+                showCatalogReady(catalog);
             }
         }.execute();
     }
 
+    /** Shows the green catalog chip with card count and data age. */
+    private void showCatalogReady(ScryfallCatalogService catalog) {
+        long ageDays = catalog.getCacheAgeMs() / 86_400_000L;
+        String ageStr = ageDays > 0 ? "data " + ageDays + "d old" : "fresh";
+        if (catalog.isUpdateAvailable()) ageStr += ", newer data available";
+        setCatalogChip("\u25CF Catalog", new Color(0x22C55E),
+                String.format("%,d cards  (%s)", catalog.getCardCount(), ageStr));
+    }
+
+    /** Sets the catalog chip's own state and shows it with the API state added. */
+    private void setCatalogChip(String text, Color color, String tooltip) {
+        catalogChipText  = text;
+        catalogChipColor = color;
+        catalogChipTip   = tooltip;
+        renderCatalogChip();
+    }
+
+    /**
+     * Shows the catalog chip, marked "Offline" in red while the Scryfall circuit
+     * breaker is open; the tooltip also counts codes Scryfall recently did not find.
+     */
+    private void renderCatalogChip() {
+        ScryfallApiHealth api = ScryfallApiHealth.getInstance();
+        String tip = catalogChipTip;
+        if (api.isOpen()) {
+            catalogChip.setText(catalogChipText + " \u00B7 Offline");
+            catalogChip.setForeground(AppTheme.DANGER);
+            tip += " \u2014 Scryfall unreachable since "
+                    + new java.text.SimpleDateFormat("HH:mm").format(new java.util.Date(api.getOpenedAt()))
+                    + ", cards not in the catalog cannot be priced";
+        } else {
+            catalogChip.setText(catalogChipText);
+            catalogChip.setForeground(catalogChipColor);
+        }
+        int notFound = api.getNotFoundCount();
+        if (notFound > 0) {
+            tip += " \u2014 " + notFound + " code" + (notFound == 1 ? "" : "s") + " recently not found";
+        }
+        catalogChip.setToolTipText(tip);
+    }
+
     private void showAboutDialog() {
         String text =
                 "A comprehensive Magic: The Gathering card pricing and trading platform.\n\n" +
@@ -1,13 +1,15 @@
 package com.cardpricer.gui.dialog;
 
-import com.cardpricer.exception.ScryfallApiException;
 import com.cardpricer.gui.CardImagePopup;
 import com.cardpricer.model.Card;
-import com.cardpricer.service.ScryfallApiService;
+import com.cardpricer.service.ScryfallAsync;
+import com.cardpricer.service.ScryfallCatalogService;
+import com.cardpricer.service.catalog.CatalogNameIndex;
+import com.cardpricer.service.catalog.CatalogQuery;
+import com.cardpricer.service.catalog.CatalogStore;
+import com.cardpricer.service.catalog.CatalogVersion;
 import com.cardpricer.util.CardCodeParser;
 import com.cardpricer.util.VintageUtil;
-import org.json.JSONArray;
-import org.json.JSONObject;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -18,15 +20,31 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Modal dialog for searching Magic cards by name when the collector number is unknown.
- * Results are fetched from the Scryfall search API and displayed in a scrollable list
- * with card art previews on hover.
+ * Results are displayed in a scrollable list with card art previews on hover.
+ *
+ * <p>When the local catalog is loaded, names are matched offline through its
+ * typo-tolerant name index and every match can be paged through
+ * {@value #PAGE_SIZE} at a time. Input with search keywords ({@code set:mh3
+ * r:mythic usd>20}, {@code is:reserved}, …) runs as a {@link CatalogQuery} over
+ * the catalog instead, with matches added to the list as they are found. The
+ * Scryfall search API is used only when no catalog is loaded.
  */
 public class CardSearchDialog extends JDialog {
 
-    private final ScryfallApiService apiService;
+    /** Results added to the list per page. */
+    private static final int PAGE_SIZE = 50;
+    /** Most cards listed from an API search. */
+    private static final int API_RESULT_LIMIT = 50;
+    /** Keystroke debounce for API searches, which cost a network round trip. */
+    private static final int API_DEBOUNCE_MS = 400;
+    /** Keystroke debounce for offline searches, which take a few milliseconds. */
+    private static final int OFFLINE_DEBOUNCE_MS = 100;
+
+    private final ScryfallCatalogService catalog = ScryfallCatalogService.getInstance();
 
     private JTextField searchField;
     private JTextField setCodeField;
@@ -35,6 +53,7 @@ public class CardSearchDialog extends JDialog {
     private JComboBox<String> finishCombo;
     private JButton selectButton;
     private JLabel statusLabel;
+    private JButton moreButton;
 
     private Card selectedCard;
     private String selectedFinish;
@@ -42,15 +61,24 @@ public class CardSearchDialog extends JDialog {
     private Timer searchTimer;
     private CardImagePopup imagePopup;
 
+    /** Incremented per search so a slower, older search never replaces newer results. */
+    private long searchSeq;
+    /** Offline matches (record numbers into {@link #offlineStore}), how many there are and how many are listed. */
+    private int[] offlineHits;
+    private int offlineCount;
+    private CatalogStore offlineStore;
+    private int offlineShown;
+    /** Timing shown once an offline search is complete; {@code null} while results are still arriving. */
+    private String offlineTiming;
+    private SwingWorker<?, ?> activeQuery;
+
     /**
      * Creates the dialog.
      *
-     * @param owner      parent window used for centering and modal blocking
-     * @param apiService Scryfall service used to perform name searches
+     * @param owner parent window used for centering and modal blocking
      */
-    public CardSearchDialog(Window owner, ScryfallApiService apiService) {
+    public CardSearchDialog(Window owner) {
         super(owner, "Search for Card", ModalityType.APPLICATION_MODAL);
-        this.apiService = apiService;
 
         initializeUI();
 
@@ -202,7 +230,16 @@ public class CardSearchDialog extends JDialog {
 
         statusLabel = new JLabel("Enter a card name to search...");
         statusLabel.setBorder(new EmptyBorder(5, 5, 5, 5));
-        panel.add(statusLabel, BorderLayout.SOUTH);
+
+        moreButton = new JButton("Show " + PAGE_SIZE + " more");
+        moreButton.putClientProperty("JButton.buttonType", "roundRect");
+        moreButton.setVisible(false);
+        moreButton.addActionListener(e -> showNextPage());
+
+        JPanel statusPanel = new JPanel(new BorderLayout(5, 0));
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(moreButton, BorderLayout.EAST);
+        panel.add(statusPanel, BorderLayout.SOUTH);
 
         return panel;
     }
@@ -243,7 +280,8 @@ public class CardSearchDialog extends JDialog {
             searchTimer.stop();
         }
 
-        searchTimer = new Timer(400, e -> performSearch());
+        int delay = catalog.isLoaded() ? OFFLINE_DEBOUNCE_MS : API_DEBOUNCE_MS;
+        searchTimer = new Timer(delay, e -> performSearch());
         searchTimer.setRepeats(false);
         searchTimer.start();
     }
@@ -251,8 +289,13 @@ public class CardSearchDialog extends JDialog {
     private void performSearch() {
         String query = searchField.getText().trim();
 
+        long seq = ++searchSeq;
+        if (activeQuery != null) {
+            activeQuery.cancel(false);
+            activeQuery = null;
+        }
         if (query.isEmpty() || query.length() < 2) {
-            listModel.clear();
+            clearResults();
             statusLabel.setText("Enter at least 2 characters to search...");
             selectButton.setEnabled(false);
             return;
@@ -261,20 +304,77 @@ public class CardSearchDialog extends JDialog {
         statusLabel.setText("Searching for \"" + query + "\"...");
         selectButton.setEnabled(false);
 
-        SwingWorker<List<CardSearchResult>, Void> worker = new SwingWorker<>() {
+        // A catalog of only some sets would hide the rest; search those online
+        CatalogVersion version = catalog.currentVersion();
+        if (version != null && version.coversAllPrintings()) {
+            if (CatalogQuery.looksLikeQuery(query)) {
+                runQuery(version, query, seq);
+            } else {
+                searchOffline(version, query, seq);
+            }
+            return;
+        }
+
+        // Append optional set filter; resolve name aliases first
+        String setCode = setCodeField.getText().trim();
+        String fullQuery = setCode.isEmpty() ? query : query + " set:" + VintageUtil.resolveSetAlias(setCode);
+
+        ScryfallAsync async = ScryfallAsync.getInstance();
+        CompletableFuture<List<Card>> search = async.searchAsync(fullQuery, API_RESULT_LIMIT)
+                // Nothing matched — try Scryfall's fuzzy name match instead
+                .exceptionallyCompose(e -> async.namedAsync(fullQuery).thenApply(List::of))
+                .exceptionally(e -> List.of());
+        ScryfallAsync.onEdt(search, cards -> {
+            if (seq != searchSeq) return;
+            List<CardSearchResult> results = new ArrayList<>();
+            for (Card card : cards) results.add(new CardSearchResult(card));
+            displayResults(results);
+        }, error -> {
+            if (seq != searchSeq) return;
+            statusLabel.setText("Search failed: " + error.getMessage());
+            clearResults();
+        });
+    }
+
+    /**
+     * Matches {@code query} against the catalog's name index off the EDT. The
+     * first search after a catalog load also builds the index.
+     */
+    private void searchOffline(CatalogVersion version, String query, long seq) {
+        String setCode = setCodeField.getText().trim();
+
+        SwingWorker<int[], Void> worker = new SwingWorker<>() {
+            private long elapsedMs;
+
             @Override
-            protected List<CardSearchResult> doInBackground() throws Exception {
-                return searchCards(query);
+            protected int[] doInBackground() {
+                CatalogNameIndex index = version.nameIndex();
+                long start = System.nanoTime();
+                int[] hits = index.search(query, setCode);
+                elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                return hits;
             }
 
             @Override
             protected void done() {
+                if (seq != searchSeq) return;
                 try {
-                    List<CardSearchResult> results = get();
-                    displayResults(results);
+                    int[] hits = get();
+                    clearResults();
+                    if (hits.length == 0) {
+                        statusLabel.setText("No cards found matching \"" + query + "\"");
+                        return;
+                    }
+                    offlineHits   = hits;
+                    offlineCount  = hits.length;
+                    offlineStore  = version.store();
+                    offlineTiming = elapsedMs + " ms, offline";
+                    showNextPage();
+                    resultList.setSelectedIndex(0);
+                    selectButton.setEnabled(true);
                 } catch (Exception e) {
                     statusLabel.setText("Search failed: " + e.getMessage());
-                    listModel.clear();
+                    clearResults();
                 }
             }
         };
@@ -282,52 +382,94 @@ public class CardSearchDialog extends JDialog {
         worker.execute();
     }
 
-    private List<CardSearchResult> searchCards(String query) throws Exception {
-        List<CardSearchResult> results = new ArrayList<>();
-
-        // Append optional set filter before encoding; resolve name aliases first
+    /**
+     * Runs a keyword query over the catalog off the EDT, counting matches as each
+     * batch arrives and listing the first page, in Scryfall's order, once all are in.
+     */
+    private void runQuery(CatalogVersion version, String text, long seq) {
         String setCode = setCodeField.getText().trim();
-        if (!setCode.isEmpty()) {
-            query = query + " set:" + VintageUtil.resolveSetAlias(setCode);
-        }
+        String queryText = setCode.isEmpty() ? text : text + " set:" + setCode.replace(" ", "");
 
-        // Use Scryfall's search API with fuzzy name matching
-        String encodedQuery = java.net.URLEncoder.encode(query, "UTF-8");
-        String url = "https://api.scryfall.com/cards/search?q=" + encodedQuery + "&unique=prints";
+        clearResults();
 
-        try {
-            JSONObject response = apiService.makeApiCall(url);
+        SwingWorker<int[], Integer> worker = new SwingWorker<>() {
+            private final long start = System.nanoTime();
 
-            if (!response.has("data")) {
-                return results;
+            @Override
+            protected int[] doInBackground() {
+                CatalogQuery query = CatalogQuery.parse(queryText);
+                return query.collect(version, n -> publish(n), this::isCancelled);
             }
 
-            JSONArray data = response.getJSONArray("data");
-            int limit = Math.min(50, data.length()); // Limit to 50 results
-
-            for (int i = 0; i < limit; i++) {
-                JSONObject cardJson = data.getJSONObject(i);
-                Card card = apiService.parseCardFromJson(cardJson);
-                results.add(new CardSearchResult(card));
+            @Override
+            protected void process(List<Integer> counts) {
+                if (seq != searchSeq) return;
+                for (int n : counts) offlineCount += n;
+                updateOfflineStatus();
             }
 
-        } catch (ScryfallApiException e) {
-            // Try fuzzy named search as fallback
-            try {
-                url = "https://api.scryfall.com/cards/named?fuzzy=" + encodedQuery;
-                JSONObject cardJson = apiService.makeApiCall(url);
-                Card card = apiService.parseCardFromJson(cardJson);
-                results.add(new CardSearchResult(card));
-            } catch (Exception ignored) {
-                // No results found
+            @Override
+            protected void done() {
+                if (seq != searchSeq || isCancelled()) return;
+                activeQuery = null;
+                try {
+                    int[] hits = get();
+                    offlineHits   = hits;
+                    offlineCount  = hits.length;
+                    offlineStore  = version.store();
+                    offlineTiming = (System.nanoTime() - start) / 1_000_000 + " ms, offline";
+                    if (offlineCount == 0) {
+                        statusLabel.setText("No cards match \"" + queryText + "\"");
+                    } else {
+                        showNextPage();
+                        resultList.setSelectedIndex(0);
+                        selectButton.setEnabled(true);
+                    }
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    statusLabel.setText(cause instanceof IllegalArgumentException
+                            ? "Query error: " + cause.getMessage()
+                            : "Search failed: " + cause.getMessage());
+                }
             }
+        };
+
+        activeQuery = worker;
+        worker.execute();
+    }
+
+    /** Lists offline matches up to the next page boundary. */
+    private void showNextPage() {
+        if (offlineHits == null) return;
+        int page = offlineShown / PAGE_SIZE + 1;
+        int end = Math.min(page * PAGE_SIZE, offlineCount);
+        for (int i = offlineShown; i < end; i++) {
+            listModel.addElement(new CardSearchResult(offlineStore.card(offlineHits[i])));
         }
+        offlineShown = Math.max(offlineShown, end);
+        updateOfflineStatus();
+    }
 
-        return results;
+    private void updateOfflineStatus() {
+        moreButton.setVisible(offlineHits != null && offlineShown < offlineCount);
+        statusLabel.setText(offlineTiming == null
+                ? "Found " + offlineCount + " card(s) so far..."
+                : "Showing " + offlineShown + " of " + offlineCount + " card(s) (" + offlineTiming + ")");
     }
 
-    private void displayResults(List<CardSearchResult> results) {
+    private void clearResults() {
         listModel.clear();
+        offlineHits   = null;
+        offlineCount  = 0;
+        offlineStore  = null;
+        offlineShown  = 0;
+        offlineTiming = null;
+        moreButton.setVisible(false);
+        selectButton.setEnabled(false);
+    }
+
+    private void displayResults(List<CardSearchResult> results) {
+        clearResults();
 
         if (results.isEmpty()) {
             statusLabel.setText("No cards found matching \"" + searchField.getText() + "\"");
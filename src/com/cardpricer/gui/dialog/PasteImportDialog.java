@@ -6,7 +6,6 @@ import com.cardpricer.service.ScryfallApiService;
 import com.cardpricer.service.ScryfallCatalogService;
 import com.cardpricer.util.AppTheme;
 import com.cardpricer.util.CardCodeParser;
-import com.cardpricer.util.CardConstants;
 import com.cardpricer.util.SetList;
 
 import javax.swing.*;
@@ -17,7 +16,10 @@ import java.awt.*;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -423,40 +425,51 @@ public class PasteImportDialog extends JDialog {
 
             @Override
             protected List<FetchedResult> doInBackground() throws Exception {
-                List<FetchedResult> allResults = new ArrayList<>();
-                boolean lastWasApiCall = false;
-
-                for (ParsedCode parsed : codesToFetch) {
-                    if (isCancelled()) break;
-
-                    // Throttle only between consecutive API calls
-                    if (lastWasApiCall) Thread.sleep(CardConstants.API_RATE_LIMIT_MS);
-
-                    // Try the local catalog first (O(1), instant)
+                // Results are kept in input order; hits are shown as soon as they are found
+                FetchedResult[] results = new FetchedResult[codesToFetch.size()];
+                List<Integer> misses = new ArrayList<>();
+
+                // Try the local catalog — and cards fetched earlier — first (O(1), instant)
+                for (int i = 0; i < results.length; i++) {
+                    if (isCancelled()) return collected(results);
+                    ParsedCode parsed = codesToFetch.get(i);
                     java.util.Optional<Card> hit =
                             catalog.lookup(parsed.setCode, parsed.collectorNumber);
                     if (hit.isPresent()) {
-                        FetchedResult r = new FetchedResult(parsed, hit.get(), null);
-                        allResults.add(r);
-                        publish(r);
-                        lastWasApiCall = false;
+                        results[i] = new FetchedResult(parsed, hit.get(), null);
+                        publish(results[i]);
                     } else {
-                        // Catalog miss — fall back to Scryfall API
-                        try {
-                            Card card = apiService.fetchCard(
-                                    parsed.setCode, parsed.collectorNumber);
-                            FetchedResult r = new FetchedResult(parsed, card, null);
-                            allResults.add(r);
-                            publish(r);
-                        } catch (Exception e) {
-                            FetchedResult r = new FetchedResult(parsed, null, e.getMessage());
-                            allResults.add(r);
-                            publish(r);
-                        }
-                        lastWasApiCall = true;
+                        misses.add(i);
                     }
                 }
-                return allResults;
+                if (misses.isEmpty() || isCancelled()) return collected(results);
+
+                // Catalog misses — one /cards/collection request per 75 printings.
+                // A quantity repeats the same code instance, so a repeat gets its
+                // own copy of the card from the overlay the batch just filled.
+                Set<ParsedCode> missed = new LinkedHashSet<>();
+                for (int i : misses) missed.add(codesToFetch.get(i));
+                ScryfallApiService.CollectionResult fetched = catalog.fetchCards(apiService, missed);
+                Set<Card> handedOut = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (int i : misses) {
+                    ParsedCode parsed = codesToFetch.get(i);
+                    Card card = fetched.found().get(parsed);
+                    if (card != null && !handedOut.add(card)) {
+                        card = catalog.lookup(parsed.setCode, parsed.collectorNumber).orElse(card);
+                    }
+                    String error = card != null ? null
+                            : fetched.failed().getOrDefault(parsed, "Card or set not found");
+                    results[i] = new FetchedResult(parsed, card, error);
+                    publish(results[i]);
+                }
+                return collected(results);
+            }
+
+            /** The results filled in so far, in input order. */
+            private List<FetchedResult> collected(FetchedResult[] results) {
+                List<FetchedResult> list = new ArrayList<>();
+                for (FetchedResult r : results) if (r != null) list.add(r);
+                return list;
             }
 
             @Override
@@ -3,10 +3,9 @@ package com.cardpricer.gui.dialog;
 import com.cardpricer.model.Card;
 import com.cardpricer.model.ParsedCode;
 import com.cardpricer.service.BuyRateService;
-import com.cardpricer.service.ScryfallApiService;
+import com.cardpricer.service.ScryfallAsync;
 import com.cardpricer.util.AppTheme;
 import com.cardpricer.util.CardCodeParser;
-import org.json.JSONObject;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -16,7 +15,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.math.BigDecimal;
-import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
 /**
@@ -31,13 +30,12 @@ public class PriceCheckDialog extends JDialog {
 
     private static PriceCheckDialog INSTANCE;
 
-    private final ScryfallApiService apiService;
     private final BuyRateService buyRateService;
 
     private Card currentCard;
     private BiConsumer<Card, String> onAddCallback;
     private Timer debounceTimer;
-    private SwingWorker<?, ?> activeWorker;
+    private CompletableFuture<Card> activeLookup;
 
     // UI components
     private JTextField inputField;
@@ -57,7 +55,6 @@ public class PriceCheckDialog extends JDialog {
     private PriceCheckDialog(Window owner, BiConsumer<Card, String> onAddToTrade) {
         super(owner, "Quick Price Check", ModalityType.MODELESS);
         this.onAddCallback = onAddToTrade;
-        this.apiService = new ScryfallApiService();
         this.buyRateService = new BuyRateService();
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         setResizable(true);
@@ -215,7 +212,7 @@ public class PriceCheckDialog extends JDialog {
         if (debounceTimer != null) debounceTimer.stop();
         String text = inputField.getText().trim();
         if (text.isEmpty()) {
-            if (activeWorker != null) activeWorker.cancel(true);
+            if (activeLookup != null) activeLookup.cancel(true);
             clearDisplay();
             return;
         }
@@ -225,45 +222,29 @@ public class PriceCheckDialog extends JDialog {
     }
 
     private void doSearch(String input) {
-        if (activeWorker != null && !activeWorker.isDone()) {
-            activeWorker.cancel(true);
-        }
+        if (activeLookup != null) activeLookup.cancel(true);
         statusLabel.setText("Searching\u2026");
         statusLabel.setForeground(UIManager.getColor("Label.disabledForeground"));
         addButton.setEnabled(false);
 
         final ParsedCode parsed = CardCodeParser.parse(input);
 
-        activeWorker = new SwingWorker<Card, Void>() {
-            @Override
-            protected Card doInBackground() throws Exception {
-                if (parsed != null) {
-                    return apiService.fetchCard(parsed.setCode, parsed.collectorNumber);
-                } else {
-                    String encoded = java.net.URLEncoder.encode(input, "UTF-8");
-                    String url = "https://api.scryfall.com/cards/named?fuzzy=" + encoded;
-                    JSONObject json = apiService.makeApiCall(url);
-                    return apiService.parseCardFromJson(json);
-                }
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    Card card = get();
-                    currentCard = card;
-                    String initialFinish = (parsed != null) ? parsed.finish : "";
-                    onCardFetched(card, initialFinish);
-                } catch (CancellationException ignored) {
-                    // Worker was cancelled — keep UI as-is
-                } catch (Exception e) {
-                    statusLabel.setText("Not found");
-                    statusLabel.setForeground(AppTheme.DANGER);
-                    clearDisplay();
-                }
-            }
-        };
-        activeWorker.execute();
+        ScryfallAsync async = ScryfallAsync.getInstance();
+        CompletableFuture<Card> lookup = parsed != null
+                ? async.lookupAsync(null, parsed.setCode, parsed.collectorNumber, parsed.finish)
+                : async.namedAsync(input);
+        activeLookup = lookup;
+        ScryfallAsync.onEdt(lookup, card -> {
+            if (lookup != activeLookup) return; // superseded by a newer search
+            currentCard = card;
+            String initialFinish = (parsed != null) ? parsed.finish : "";
+            onCardFetched(card, initialFinish);
+        }, error -> {
+            if (lookup != activeLookup) return;
+            statusLabel.setText("Not found");
+            statusLabel.setForeground(AppTheme.DANGER);
+            clearDisplay();
+        });
     }
 
     // -----------------------------------------------------------------------
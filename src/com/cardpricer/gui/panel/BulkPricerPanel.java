@@ -4,8 +4,8 @@ import com.cardpricer.gui.ShortcutHelpDialog;
 import com.cardpricer.model.Card;
 import com.cardpricer.service.CsvExportService;
 import com.cardpricer.service.ScryfallApiService;
+import com.cardpricer.service.ScryfallCatalogService;
 import com.cardpricer.util.AppTheme;
-import com.cardpricer.util.CardConstants;
 import com.cardpricer.util.SetList;
 
 import javax.swing.*;
@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Panel for bulk set price fetching with multi-set selection.
@@ -45,6 +46,8 @@ public class BulkPricerPanel extends JPanel implements ManagedPanel {
     private JScrollPane setScrollPane;
     private Map<String, JCheckBox> setCheckboxes;
     private List<JCheckBox> visibleCheckboxes;
+    /** Sets offered, in display order: the curated list plus newer sets Scryfall lists. */
+    private final List<String> allSets;
 
     private JComboBox<CsvExportService.ExportFormat> formatCombo;
     private JCheckBox combinedFileCheckbox;
@@ -64,6 +67,7 @@ public class BulkPricerPanel extends JPanel implements ManagedPanel {
         this.csvService = new CsvExportService();
         this.setCheckboxes = new HashMap<>();
         this.visibleCheckboxes = new ArrayList<>();
+        this.allSets = SetList.getBulkSets();
 
         setLayout(new BorderLayout(10, 10));
         setBorder(new EmptyBorder(20, 20, 20, 20));
@@ -192,8 +196,6 @@ public class BulkPricerPanel extends JPanel implements ManagedPanel {
     }
 
     private void initializeSetCheckboxes() {
-        List<String> allSets = SetList.ALL_SETS_CUSTOM_CODES;
-
         for (String setCode : allSets) {
             JCheckBox checkbox = new JCheckBox(setCode);
             checkbox.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -213,7 +215,7 @@ public class BulkPricerPanel extends JPanel implements ManagedPanel {
         setCheckboxPanel.removeAll();
         visibleCheckboxes.clear();
 
-        for (String setCode : SetList.ALL_SETS_CUSTOM_CODES) {
+        for (String setCode : allSets) {
             if (searchText.isEmpty() || setCode.toLowerCase().contains(searchText)) {
                 JCheckBox checkbox = setCheckboxes.get(setCode);
                 visibleCheckboxes.add(checkbox);
@@ -248,7 +250,7 @@ public class BulkPricerPanel extends JPanel implements ManagedPanel {
         List<String> selected = new ArrayList<>();
 
         // Maintain SetList order
-        for (String setCode : SetList.ALL_SETS_CUSTOM_CODES) {
+        for (String setCode : allSets) {
             JCheckBox checkbox = setCheckboxes.get(setCode);
             if (checkbox != null && checkbox.isSelected()) {
                 selected.add(setCode);
@@ -527,7 +529,10 @@ public class BulkPricerPanel extends JPanel implements ManagedPanel {
                 try {
                     // Convert our custom code to Scryfall API code (e.g., COK -> chk)
                     String apiSetCode = SetList.toScryfallCode(setCode);
-                    List<Card> cards = apiService.fetchCardsFromSet(apiSetCode);
+                    // Catalog first; only sets missing from it cost paged API calls
+                    Optional<List<Card>> listed = ScryfallCatalogService.getInstance().cardsInSet(apiSetCode);
+                    boolean fromApi = listed.isEmpty();
+                    List<Card> cards = fromApi ? apiService.fetchCardsFromSet(apiSetCode) : listed.get();
 
                     String filename = setCode.toUpperCase() + "_prices.csv";
                     csvService.exportCardsToCsv(cards, filename, format);
@@ -536,13 +541,10 @@ public class BulkPricerPanel extends JPanel implements ManagedPanel {
                         allCardEntries.addAll(flattenCards(cards));
                     }
 
-                    publish("✓ " + setCode + " - Success (" + cards.size() + " cards)");
+                    publish("✓ " + setCode + " - Success (" + cards.size() + " cards"
+                            + (fromApi ? ", API" : "") + ")");
                     successCount++;
 
-                    if (current < sets.size()) {
-                        Thread.sleep(CardConstants.API_RATE_LIMIT_MS);
-                    }
-
                 } catch (Exception e) {
                     publish("✗ " + setCode + " - Failed: " + e.getMessage());
                     failureCount++;
@@ -5,7 +5,7 @@ import com.cardpricer.gui.ShortcutHelpDialog;
 import com.cardpricer.model.Card;
 import com.cardpricer.model.CardEntry;
 import com.cardpricer.service.CsvExportService;
-import com.cardpricer.service.ScryfallApiService;
+import com.cardpricer.service.ScryfallAsync;
 import com.cardpricer.util.SetList;
 
 import javax.swing.*;
@@ -36,7 +36,6 @@ public class InventoryPanel extends JPanel implements ManagedPanel {
         {"Clear Quantities", "Reset all quantities back to zero"},
     };
 
-    private final ScryfallApiService apiService;
     private static final String DATA_DIRECTORY = com.cardpricer.util.AppDataDirectory.inventoryPath();
 
     // UI Components
@@ -54,7 +53,6 @@ public class InventoryPanel extends JPanel implements ManagedPanel {
 
     /** Constructs the Inventory Update panel and initialises its UI components. */
     public InventoryPanel() {
-        this.apiService = new ScryfallApiService();
         this.loadedCards = new ArrayList<>();
         this.quantities = new ArrayList<>();
 
@@ -110,7 +108,7 @@ public class InventoryPanel extends JPanel implements ManagedPanel {
         JLabel setLabel = new JLabel("Select Set:");
 
         // Populate set dropdown with all available sets
-        String[] sets = SetList.ALL_SETS_CUSTOM_CODES.toArray(new String[0]);
+        String[] sets = SetList.getBulkSets().toArray(new String[0]);
         setComboBox = new JComboBox<>(sets);
         setComboBox.setPreferredSize(new Dimension(150, 32));
 
@@ -298,38 +296,27 @@ public class InventoryPanel extends JPanel implements ManagedPanel {
         progressBar.setIndeterminate(true);
         statusLabel.setText("Loading cards from set " + selectedSet + "...");
 
-        SwingWorker<List<Card>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<Card> doInBackground() throws Exception {
-                // Convert custom code to Scryfall API code (e.g., COK -> chk)
-                String apiSetCode = SetList.toScryfallCode(selectedSet);
-                return apiService.fetchCardsFromSet(apiSetCode);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<Card> cards = get();
-                    loadedCards = cards;
-                    populateTable(cards);
-
-                    statusLabel.setText(String.format("Loaded %d cards from set %s", cards.size(), selectedSet));
-                    exportButton.setEnabled(true);
-                    clearQuantitiesButton.setEnabled(true);
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(InventoryPanel.this,
-                            "Failed to load set: " + e.getMessage(),
-                            "Load Error",
-                            JOptionPane.ERROR_MESSAGE);
-                    statusLabel.setText("Failed to load set");
-                } finally {
-                    progressBar.setVisible(false);
-                    loadSetButton.setEnabled(true);
-                }
-            }
-        };
-
-        worker.execute();
+        // Convert custom code to Scryfall API code (e.g., COK -> chk). The catalog
+        // lists a whole set at once; the API is paged only for sets it lacks.
+        String apiSetCode = SetList.toScryfallCode(selectedSet);
+        ScryfallAsync.onEdt(ScryfallAsync.getInstance().fetchSetAsync(apiSetCode), cards -> {
+            loadedCards = cards;
+            populateTable(cards);
+
+            statusLabel.setText(String.format("Loaded %d cards from set %s", cards.size(), selectedSet));
+            exportButton.setEnabled(true);
+            clearQuantitiesButton.setEnabled(true);
+            progressBar.setVisible(false);
+            loadSetButton.setEnabled(true);
+        }, error -> {
+            JOptionPane.showMessageDialog(InventoryPanel.this,
+                    "Failed to load set: " + error.getMessage(),
+                    "Load Error",
+                    JOptionPane.ERROR_MESSAGE);
+            statusLabel.setText("Failed to load set");
+            progressBar.setVisible(false);
+            loadSetButton.setEnabled(true);
+        });
     }
 
     private void populateTable(List<Card> cards) {
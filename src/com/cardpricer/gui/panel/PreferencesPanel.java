@@ -6,6 +6,7 @@ import com.cardpricer.util.AppTheme;
 import com.cardpricer.model.BuyRateRule;
 import com.cardpricer.service.BuyRateService;
 import com.cardpricer.service.ScryfallCatalogService;
+import com.cardpricer.service.catalog.CatalogProfile;
 import com.formdev.flatlaf.*;
 import com.formdev.flatlaf.themes.*;
 
@@ -59,6 +60,8 @@ public class PreferencesPanel extends JPanel {
         {"--- Card Catalog", ""},
         {"Download Catalog", "Download the full Scryfall card list for instant paste-import (~30 MB download)"},
         {"Load into Memory", "Load an existing catalog file into memory for this session"},
+        {"Memory Profile",   "Full catalog, prices only (no artist or stored image links; images load on demand), or only recently traded sets — cards left out are looked up online"},
+        {"Months of trades", "How far back trade history is read to pick the recently traded sets"},
     };
 
     /**
@@ -72,6 +75,9 @@ public class PreferencesPanel extends JPanel {
     private static final Preferences prefs = Preferences.userNodeForPackage(PreferencesPanel.class);
     private static final String THEME_KEY              = "app.theme";
     public static final  String SHARED_FOLDER_KEY      = "shared.trades.folder";
+    private static final String CATALOG_PROFILE_KEY    = "catalog.profile";
+    private static final String CATALOG_HOT_MONTHS_KEY = "catalog.hot.months";
+    private static final int    DEFAULT_HOT_MONTHS     = 6;
 
     /**
      * Registry mapping theme display names to their application actions.
@@ -135,6 +141,9 @@ public class PreferencesPanel extends JPanel {
     private JLabel     catalogProgressLabel;
     private JButton    downloadCatalogBtn;
     private JButton    loadCatalogBtn;
+    private JComboBox<CatalogProfile> catalogProfileCombo;
+    private JSpinner   catalogHotMonthsSpinner;
+    private JButton    applyProfileBtn;
 
     // Buy Rates tab state
     private final BuyRateService buyRateService = new BuyRateService();
@@ -342,6 +351,16 @@ public class PreferencesPanel extends JPanel {
         return prefs.get(SHARED_FOLDER_KEY, "");
     }
 
+    /** Returns the saved catalog memory profile ({@link CatalogProfile#FULL} if none). */
+    public static CatalogProfile getCatalogProfile() {
+        return CatalogProfile.parse(prefs.get(CATALOG_PROFILE_KEY, null));
+    }
+
+    /** Returns how many months of trade history pick the recently traded sets. */
+    public static int getCatalogHotMonths() {
+        return Math.max(1, prefs.getInt(CATALOG_HOT_MONTHS_KEY, DEFAULT_HOT_MONTHS));
+    }
+
     // -------------------------------------------------------------------------
     // Buy Rates tab
     // -------------------------------------------------------------------------
@@ -859,6 +878,33 @@ public class PreferencesPanel extends JPanel {
         panel.add(btnRow);
         panel.add(Box.createVerticalStrut(10));
 
+        // ── Memory profile ────────────────────────────────────────────────────
+        JPanel profileSection = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        profileSection.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createTitledBorder("Memory Profile"),
+                new EmptyBorder(6, 6, 6, 6)));
+        profileSection.setMaximumSize(new Dimension(Integer.MAX_VALUE, 70));
+        profileSection.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        catalogProfileCombo = new JComboBox<>(CatalogProfile.values());
+        catalogProfileCombo.setSelectedItem(getCatalogProfile());
+        catalogHotMonthsSpinner = new JSpinner(new SpinnerNumberModel(getCatalogHotMonths(), 1, 60, 1));
+        catalogHotMonthsSpinner.setEnabled(getCatalogProfile() == CatalogProfile.HOT_SUBSET);
+        catalogProfileCombo.addActionListener(e -> catalogHotMonthsSpinner.setEnabled(
+                catalogProfileCombo.getSelectedItem() == CatalogProfile.HOT_SUBSET));
+
+        applyProfileBtn = new JButton("Apply");
+        applyProfileBtn.setFocusPainted(false);
+        applyProfileBtn.addActionListener(e -> applyCatalogProfile());
+
+        profileSection.add(new JLabel("Keep in memory:"));
+        profileSection.add(catalogProfileCombo);
+        profileSection.add(new JLabel("Months of trades:"));
+        profileSection.add(catalogHotMonthsSpinner);
+        profileSection.add(applyProfileBtn);
+        panel.add(profileSection);
+        panel.add(Box.createVerticalStrut(10));
+
         // ── Progress area (hidden until an operation starts) ──────────────────
         JPanel progressSection = new JPanel(new BorderLayout(0, 4));
         progressSection.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -887,8 +933,11 @@ public class PreferencesPanel extends JPanel {
         ScryfallCatalogService catalog = ScryfallCatalogService.getInstance();
 
         if (catalog.isLoaded()) {
+            CatalogProfile profile = catalog.getProfile();
             catalogStatusLabel.setText("Loaded in memory \u2014 "
-                    + String.format("%,d", catalog.getCardCount()) + " cards");
+                    + String.format("%,d", catalog.getCardCount()) + " cards ("
+                    + (profile == CatalogProfile.FULL ? "" : profile.label().toLowerCase() + ", ")
+                    + String.format("%.1f", catalog.getResidentBytes() / 1e6) + "\u00a0MB)");
             catalogStatusLabel.setForeground(AppTheme.SUCCESS);
         } else if (catalog.isCatalogAvailable()) {
             catalogStatusLabel.setText("Available on disk \u2014 not yet loaded into memory");
@@ -899,15 +948,16 @@ public class PreferencesPanel extends JPanel {
         }
 
         if (catalog.isCatalogAvailable()) {
-            long ageMs  = catalog.getCacheAgeMs();
-            long days   = ageMs / 86_400_000L;
-            long hours  = (ageMs % 86_400_000L) / 3_600_000L;
-            if (days > 0) {
-                catalogAgeLabel.setText(days + " day" + (days == 1 ? "" : "s") + " ago");
-            } else {
-                catalogAgeLabel.setText(hours + " hour" + (hours == 1 ? "" : "s") + " ago");
+            // Age of the Scryfall data itself, plus when we last asked for newer data
+            long days = catalog.getCacheAgeMs() / 86_400_000L;
+            String text = "Scryfall data from " + formatAgo(catalog.getCacheAgeMs());
+            long checked = catalog.getLastCheckedMs();
+            if (checked > 0) {
+                text += " \u2014 checked " + formatAgo(System.currentTimeMillis() - checked);
             }
-            catalogAgeLabel.setForeground(days >= 7
+            if (catalog.isUpdateAvailable()) text += " \u2014 newer data available";
+            catalogAgeLabel.setText(text);
+            catalogAgeLabel.setForeground(days >= 7 || catalog.isUpdateAvailable()
                     ? new Color(0xD97706) : UIManager.getColor("Label.disabledForeground"));
         } else {
             catalogAgeLabel.setText("Never");
@@ -917,6 +967,14 @@ public class PreferencesPanel extends JPanel {
         loadCatalogBtn.setVisible(catalog.isCatalogAvailable() && !catalog.isLoaded());
     }
 
+    /** Formats a duration as {@code "N days ago"} / {@code "N hours ago"}. */
+    private static String formatAgo(long ageMs) {
+        long days  = ageMs / 86_400_000L;
+        long hours = (ageMs % 86_400_000L) / 3_600_000L;
+        if (days > 0) return days + " day" + (days == 1 ? "" : "s") + " ago";
+        return hours + " hour" + (hours == 1 ? "" : "s") + " ago";
+    }
+
     /** Downloads (or re-downloads) the Scryfall catalog in a background worker. */
     private void startCatalogDownload() {
         downloadCatalogBtn.setEnabled(false);
@@ -927,12 +985,12 @@ public class PreferencesPanel extends JPanel {
         catalogProgressLabel.setVisible(true);
         catalogProgressLabel.setText("Starting download\u2026");
 
-        new javax.swing.SwingWorker<Void, String>() {
+        new javax.swing.SwingWorker<Boolean, String>() {
             @Override
-            protected Void doInBackground() throws Exception {
+            protected Boolean doInBackground() throws Exception {
                 // Capture cancel state before entering anonymous inner class
                 java.util.function.BooleanSupplier cancelCheck = this::isCancelled;
-                ScryfallCatalogService.getInstance().downloadAndBuild(
+                return ScryfallCatalogService.getInstance().downloadAndBuild(
                         new ScryfallCatalogService.DownloadProgress() {
                             @Override
                             public void onUpdate(int cardsProcessed, String phase) {
@@ -943,7 +1001,6 @@ public class PreferencesPanel extends JPanel {
                                 return cancelCheck.getAsBoolean();
                             }
                         });
-                return null;
             }
 
             @Override
@@ -966,8 +1023,10 @@ public class PreferencesPanel extends JPanel {
             protected void done() {
                 catalogProgressBar.setValue(100);
                 try {
-                    get(); // re-throws any exception from doInBackground
-                    catalogProgressLabel.setText("Catalog downloaded and ready.");
+                    boolean downloaded = get(); // re-throws any exception from doInBackground
+                    catalogProgressLabel.setText(downloaded
+                            ? "Catalog downloaded and ready."
+                            : "Catalog already up to date \u2014 nothing downloaded.");
                     catalogProgressLabel.setForeground(AppTheme.SUCCESS);
                 } catch (java.util.concurrent.CancellationException ignored) {
                     catalogProgressLabel.setText("Download cancelled.");
@@ -984,6 +1043,50 @@ public class PreferencesPanel extends JPanel {
         }.execute();
     }
 
+    /** Saves the chosen memory profile and rebuilds the loaded catalog under it. */
+    private void applyCatalogProfile() {
+        CatalogProfile profile = (CatalogProfile) catalogProfileCombo.getSelectedItem();
+        prefs.put(CATALOG_PROFILE_KEY, profile.name());
+        prefs.putInt(CATALOG_HOT_MONTHS_KEY, (Integer) catalogHotMonthsSpinner.getValue());
+        if (!ScryfallCatalogService.getInstance().isLoaded()) {
+            refreshCatalogStatus();
+            return;
+        }
+
+        applyProfileBtn.setEnabled(false);
+        downloadCatalogBtn.setEnabled(false);
+        catalogProgressBar.setIndeterminate(true);
+        catalogProgressBar.setVisible(true);
+        catalogProgressLabel.setVisible(true);
+        catalogProgressLabel.setForeground(UIManager.getColor("Label.foreground"));
+        catalogProgressLabel.setText("Applying " + profile.label().toLowerCase() + " profile\u2026");
+
+        new javax.swing.SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                ScryfallCatalogService.getInstance().applyProfile();
+                return null;
+            }
+            @Override
+            protected void done() {
+                catalogProgressBar.setIndeterminate(false);
+                catalogProgressBar.setValue(100);
+                try {
+                    get();
+                    catalogProgressLabel.setText("Profile applied.");
+                    catalogProgressLabel.setForeground(AppTheme.SUCCESS);
+                } catch (Exception ex) {
+                    String msg = ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage();
+                    catalogProgressLabel.setText("Could not apply profile: " + msg);
+                    catalogProgressLabel.setForeground(AppTheme.DANGER);
+                }
+                applyProfileBtn.setEnabled(true);
+                downloadCatalogBtn.setEnabled(true);
+                refreshCatalogStatus();
+            }
+        }.execute();
+    }
+
     /** Loads an existing catalog file from disk into memory in a background worker. */
     private void startCatalogLoad() {
         downloadCatalogBtn.setEnabled(false);
@@ -994,10 +1097,26 @@ public class PreferencesPanel extends JPanel {
         catalogProgressLabel.setForeground(UIManager.getColor("Label.foreground"));
         catalogProgressLabel.setText("Loading catalog from disk\u2026");
 
-        new javax.swing.SwingWorker<Integer, Void>() {
+        new javax.swing.SwingWorker<Integer, Integer>() {
             @Override
             protected Integer doInBackground() throws Exception {
-                return ScryfallCatalogService.getInstance().loadFromDisk();
+                java.util.function.BooleanSupplier cancelCheck = this::isCancelled;
+                return ScryfallCatalogService.getInstance().loadFromDisk(
+                        new ScryfallCatalogService.DownloadProgress() {
+                            @Override
+                            public void onUpdate(int cardsProcessed, String phase) {
+                                publish(cardsProcessed);
+                            }
+                            @Override
+                            public boolean isCancelled() {
+                                return cancelCheck.getAsBoolean();
+                            }
+                        });
+            }
+            @Override
+            protected void process(java.util.List<Integer> chunks) {
+                catalogProgressLabel.setText("Loading catalog from disk\u2026 "
+                        + String.format("%,d", chunks.get(chunks.size() - 1)) + " cards");
             }
             @Override
             protected void done() {
@@ -1,5 +1,7 @@
 package com.cardpricer.gui.panel;
 
+import com.cardpricer.exception.ScryfallApiException;
+import com.cardpricer.gui.CardCodeAutocomplete;
 import com.cardpricer.gui.CardImagePopup;
 import com.cardpricer.gui.ShortcutHelpDialog;
 import com.cardpricer.gui.dialog.CardSearchDialog;
@@ -15,12 +17,15 @@ import com.cardpricer.service.BuyRateService;
 import com.cardpricer.service.PricingService;
 import com.cardpricer.service.ReceiptPrintService;
 import com.cardpricer.service.ScryfallApiService;
+import com.cardpricer.service.ScryfallAsync;
 import com.cardpricer.service.ScryfallCatalogService;
 import com.cardpricer.service.TradeReceivingExportService;
 import com.cardpricer.service.TradeSessionService;
+import com.cardpricer.service.catalog.CatalogVersion;
 import com.cardpricer.util.AppTheme;
 import com.cardpricer.util.CardCodeParser;
 import com.cardpricer.util.PosMoneyField;
+import com.cardpricer.util.SetRegistry;
 import com.cardpricer.util.CardConstants;
 import com.cardpricer.util.VintageUtil;
 
@@ -48,7 +53,9 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.prefs.Preferences;
 import java.util.function.BiConsumer;
 
@@ -110,6 +117,12 @@ public class TradePanel extends JPanel {
     private List<String> cardConditions; // Track condition for each card
     private final List<BuyRateService.PayoutResult> rowPayouts = new ArrayList<>();
     private boolean isRefreshingSummary = false;
+    /**
+     * Catalog version this trade prices from; pinned on the first lookup and
+     * released when the trade is cleared, so a background refresh cannot change
+     * prices half-way through a trade.
+     */
+    private volatile CatalogVersion pinnedCatalog;
 
     // Input field
     private JTextField cardCodeField;
@@ -449,6 +462,9 @@ public class TradePanel extends JPanel {
             }
         });
 
+        // Name and set/number prefixes suggest priced printings from the catalog
+        new CardCodeAutocomplete(cardCodeField, this::pinnedCatalog, this::fetchPreview);
+
         inputPanel.add(cardCodeField, BorderLayout.CENTER);
 
         panel.add(inputPanel, BorderLayout.CENTER);
@@ -958,6 +974,12 @@ public class TradePanel extends JPanel {
             return;
         }
 
+        // A card name being typed for autocomplete is not a code to look up
+        if (isNameInput(parsed)) {
+            clearPreview();
+            return;
+        }
+
         // Clear preview if the code changed significantly
         if (lastPreviewCode != null && !lastPreviewCode.equals(parsed.setCode + " " + parsed.collectorNumber)) {
             clearPreview();
@@ -965,46 +987,20 @@ public class TradePanel extends JPanel {
 
         String fetchingCode = parsed.setCode + " " + parsed.collectorNumber;
 
-        new SwingWorker<Card, Void>() {
-            @Override
-            protected Card doInBackground() throws Exception {
-                try {
-                    java.util.Optional<Card> hit = ScryfallCatalogService.getInstance()
-                            .lookup(parsed.setCode, parsed.collectorNumber);
-                    if (hit.isPresent()) {
-                        Card c = hit.get();
-                        boolean isFoil = "F".equals(parsed.finish) || "E".equals(parsed.finish)
-                                      || "S".equals(parsed.finish);
-                        boolean hasPrice = isFoil ? c.hasFoilPrice() : c.hasNormalPrice();
-                        if (hasPrice) return c;
-                        // found in bulk but price is N/A — fall through to live API
-                    }
-                } catch (Exception ignored) {
-                    // catalog miss or error — fall through to API
-                }
-                return apiService.fetchCard(parsed.setCode, parsed.collectorNumber);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    Card card = get();
-                    // Only display if the input hasn't changed
-                    String currentInput = cardCodeField.getText();
-                    ParsedCode currentParsed = CardCodeParser.parse(currentInput);
-                    if (currentParsed != null) {
-                        String currentCode = currentParsed.setCode + " " + currentParsed.collectorNumber;
-                        if (currentCode.equals(fetchingCode)) {
-                            lastPreviewCode = fetchingCode;
-                            previewOriginalSetCode = parsed.setCode;
-                            displayPreview(card, parsed.finish);
-                        }
-                    }
-                } catch (Exception e) {
-                    clearPreview();
+        ScryfallAsync.onEdt(ScryfallAsync.getInstance().lookupAsync(
+                pinnedCatalog(), parsed.setCode, parsed.collectorNumber, parsed.finish), card -> {
+            // Only display if the input hasn't changed
+            String currentInput = cardCodeField.getText();
+            ParsedCode currentParsed = CardCodeParser.parse(currentInput);
+            if (currentParsed != null) {
+                String currentCode = currentParsed.setCode + " " + currentParsed.collectorNumber;
+                if (currentCode.equals(fetchingCode)) {
+                    lastPreviewCode = fetchingCode;
+                    previewOriginalSetCode = parsed.setCode;
+                    displayPreview(card, parsed.finish);
                 }
             }
-        }.execute();
+        }, error -> clearPreview());
     }
 
     private void fetchPreviewAndAdd() {
@@ -1028,75 +1024,57 @@ public class TradePanel extends JPanel {
             return;
         }
 
-        cardPreviewLabel.setText("Loading...");
+        if (isNameInput(parsed)) {
+            cardPreviewLabel.setText("No card named \"" + input.trim() + "\" in the catalog \u2014 Ctrl+F to search");
+            return;
+        }
 
-        new SwingWorker<Card, Void>() {
-            @Override
-            protected Card doInBackground() throws Exception {
-                try {
-                    java.util.Optional<Card> hit = ScryfallCatalogService.getInstance()
-                            .lookup(parsed.setCode, parsed.collectorNumber);
-                    if (hit.isPresent()) {
-                        Card c = hit.get();
-                        boolean isFoil = "F".equals(parsed.finish) || "E".equals(parsed.finish)
-                                      || "S".equals(parsed.finish);
-                        boolean hasPrice = isFoil ? c.hasFoilPrice() : c.hasNormalPrice();
-                        if (hasPrice) return c;
-                        // found in bulk but price is N/A — fall through to live API
-                    }
-                } catch (Exception ignored) {
-                    // catalog miss or error — fall through to API
-                }
-                return apiService.fetchCard(parsed.setCode, parsed.collectorNumber);
-            }
+        cardPreviewLabel.setText("Loading...");
 
-            @Override
-            protected void done() {
-                try {
-                    Card card = get();
-                    previewCard = card;
-                    previewFinish = parsed.finish;
-                    previewOriginalSetCode = parsed.setCode;
+        // Shares the preview's request if it is still in flight for this code
+        ScryfallAsync.onEdt(ScryfallAsync.getInstance().lookupAsync(
+                pinnedCatalog(), parsed.setCode, parsed.collectorNumber, parsed.finish), card -> {
+            previewCard = card;
+            previewFinish = parsed.finish;
+            previewOriginalSetCode = parsed.setCode;
 
-                    // Check if card has a price
-                    boolean isFoil = "F".equals(parsed.finish) || "E".equals(parsed.finish) || "S".equals(parsed.finish);
-                    boolean hasPrice = isFoil ? card.hasFoilPrice() : card.hasNormalPrice();
+            // Check if card has a price
+            boolean isFoil = "F".equals(parsed.finish) || "E".equals(parsed.finish) || "S".equals(parsed.finish);
+            boolean hasPrice = isFoil ? card.hasFoilPrice() : card.hasNormalPrice();
 
-                    if (!hasPrice) {
-                        // No price available - prompt user for manual entry
-                        promptForManualPriceOnCard(card, parsed);
-                        return;
-                    }
+            if (!hasPrice) {
+                // No price available - prompt user for manual entry
+                promptForManualPriceOnCard(card, parsed);
+                return;
+            }
 
-                    displayPreview(card, parsed.finish);
+            displayPreview(card, parsed.finish);
 
-                    // Feature 8: auto-show card image for vintage sets so the
-                    // trader can visually verify the card before committing.
-                    if (VintageUtil.isVintageSet(card.getSetCode()) && card.getImageUrl() != null) {
-                        try {
-                            Point labelLoc = cardPreviewLabel.getLocationOnScreen();
-                            getImagePopup().show(card.getImageUrl(),
-                                    new Point(labelLoc.x + cardPreviewLabel.getWidth() + 12,
-                                              labelLoc.y));
-                        } catch (java.awt.IllegalComponentStateException ignored) {}
-                    }
+            // Feature 8: auto-show card image for vintage sets so the
+            // trader can visually verify the card before committing.
+            if (VintageUtil.isVintageSet(card.getSetCode()) && card.getImageUrl() != null) {
+                try {
+                    Point labelLoc = cardPreviewLabel.getLocationOnScreen();
+                    getImagePopup().show(card.getImageUrl(),
+                            new Point(labelLoc.x + cardPreviewLabel.getWidth() + 12,
+                                      labelLoc.y));
+                } catch (java.awt.IllegalComponentStateException ignored) {}
+            }
 
-                    addCard();
-                } catch (Exception e) {
-                    // Check if it's a card not found error
-                    if (e.getMessage() != null && e.getMessage().contains("not found")) {
-                        // Card not found, prompt for manual entry
-                        promptForManualPrice(parsed);
-                    } else {
-                        JOptionPane.showMessageDialog(TradePanel.this,
-                                "Failed to fetch card: " + e.getMessage(),
-                                "API Error",
-                                JOptionPane.ERROR_MESSAGE);
-                        clearPreview();
-                    }
-                }
+            addCard();
+        }, error -> {
+            // Check if it's a card not found error
+            if (error instanceof ScryfallApiException && ((ScryfallApiException) error).isNotFound()) {
+                // Card not found, prompt for manual entry
+                promptForManualPrice(parsed);
+            } else {
+                JOptionPane.showMessageDialog(TradePanel.this,
+                        "Failed to fetch card: " + error.getMessage(),
+                        "API Error",
+                        JOptionPane.ERROR_MESSAGE);
+                clearPreview();
             }
-        }.execute();
+        });
     }
 
     /**
@@ -1897,6 +1875,7 @@ public class TradePanel extends JPanel {
 
         if (result == JOptionPane.YES_OPTION) {
             receivedCards.clear();
+            pinnedCatalog = null;
             cardConditions.clear();
             rowPayouts.clear();
             tableModel.setRowCount(0);
@@ -1913,6 +1892,7 @@ public class TradePanel extends JPanel {
     /** Clears all trade state without prompting. Called after a successful save/export. */
     private void clearTradeState() {
         receivedCards.clear();
+        pinnedCatalog = null;
         cardConditions.clear();
         rowPayouts.clear();
         tableModel.setRowCount(0);
@@ -1928,6 +1908,34 @@ public class TradePanel extends JPanel {
         cardCodeField.requestFocusInWindow();
     }
 
+    /**
+     * Returns the catalog version for this trade, pinning the current one if the
+     * trade has none yet; {@code null} while no catalog is loaded.
+     */
+    private CatalogVersion pinnedCatalog() {
+        CatalogVersion v = pinnedCatalog;
+        if (v == null) {
+            v = ScryfallCatalogService.getInstance().currentVersion();
+            pinnedCatalog = v;
+        }
+        return v;
+    }
+
+    /**
+     * Returns {@code true} if {@code parsed} came from a card name rather than a
+     * code: {@code "black lotus"} parses as set BLACK, number LOTUS. With a catalog
+     * loaded, an unknown set and a number without digits is a name, which the
+     * autocomplete resolves locally — looking it up would be a wasted API call.
+     * A catalog holding only some sets asks the set registry instead.
+     */
+    private boolean isNameInput(ParsedCode parsed) {
+        CatalogVersion catalog = pinnedCatalog();
+        if (catalog == null || parsed.collectorNumber.chars().anyMatch(Character::isDigit)) return false;
+        return catalog.coversAllPrintings()
+                ? !catalog.setIndex().contains(parsed.setCode)
+                : !SetRegistry.current().isKnownCode(parsed.setCode);
+    }
+
     private boolean exportToPOS() {
         if (receivedCards.isEmpty()) {
             JOptionPane.showMessageDialog(getParentWindow(),
@@ -2240,10 +2248,7 @@ public class TradePanel extends JPanel {
     }
 
     private void openSearchDialog() {
-        CardSearchDialog dialog = new CardSearchDialog(
-                SwingUtilities.getWindowAncestor(this),
-                apiService
-        );
+        CardSearchDialog dialog = new CardSearchDialog(SwingUtilities.getWindowAncestor(this));
         dialog.setVisible(true);
 
         Card selectedCard = dialog.getSelectedCard();
@@ -2601,21 +2606,28 @@ public class TradePanel extends JPanel {
         new SwingWorker<Void, Void>() {
             @Override
             protected Void doInBackground() {
-                ScryfallCatalogService catalog = ScryfallCatalogService.getInstance();
+                CatalogVersion catalog = pinnedCatalog();
+                // Code → stub for the cards the catalog cannot answer
+                Map<ParsedCode, Card> misses = new LinkedHashMap<>();
                 for (Card stub : stubs) {
                     if ("MISC".equalsIgnoreCase(stub.getSetCode())) continue;
-                    // Try catalog first — no network call, no sleep needed
-                    java.util.Optional<Card> hit = catalog.lookup(
-                            stub.getSetCode(), stub.getCollectorNumber());
+                    // Try catalog first — no network call
+                    java.util.Optional<Card> hit = catalog == null ? java.util.Optional.empty()
+                            : catalog.lookup(stub.getSetCode(), stub.getCollectorNumber());
                     if (hit.isPresent() && hit.get().getImageUrl() != null) {
                         stub.setImageUrl(hit.get().getImageUrl());
                         continue;
                     }
-                    try {
-                        Card fetched = apiService.fetchCard(stub.getSetCode(), stub.getCollectorNumber());
-                        stub.setImageUrl(fetched.getImageUrl());
-                    } catch (Exception ignored) {}
-                    try { Thread.sleep(110); } catch (InterruptedException ignored) { break; }
+                    misses.put(new ParsedCode(stub.getSetCode(), stub.getCollectorNumber(), ""), stub);
+                }
+                if (misses.isEmpty()) return null;
+
+                // One /cards/collection request per 75 cards instead of one each
+                ScryfallApiService.CollectionResult fetched = ScryfallCatalogService.getInstance()
+                        .fetchCards(apiService, misses.keySet());
+                for (Map.Entry<ParsedCode, Card> e : misses.entrySet()) {
+                    Card card = fetched.found().get(e.getKey());
+                    if (card != null) e.getValue().setImageUrl(card.getImageUrl());
                 }
                 return null;
             }
@@ -0,0 +1,113 @@
+package com.cardpricer.service;
+
+import com.cardpricer.exception.ScryfallApiException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Single-flight fetching: while a fetch for a key is running, further callers for
+ * the same key wait for it instead of starting their own. The preview, the add on
+ * Enter and the price-check dialog often ask for the same card within a few
+ * hundred milliseconds; they now share one request.
+ *
+ * <p>Fetches run on a small pool of daemon threads, so a caller that gives up —
+ * its worker cancelled, its thread interrupted — stops waiting at once. The fetch
+ * itself is cancelled only when every caller waiting for it has given up; the
+ * others still get its result. A finished fetch is forgotten immediately: the
+ * next caller starts a new one, so results are never cached here.
+ *
+ * @param <V> fetched value
+ */
+final class InFlightFetches<V> {
+
+    /** The work shared by the callers of one key. */
+    interface Fetch<V> {
+        V fetch() throws ScryfallApiException;
+    }
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        Future<?> task;
+        int waiters;
+    }
+
+    private final ExecutorService executor;
+    /** Guarded by itself. */
+    private final Map<String, Flight<V>> flights = new HashMap<>();
+
+    /** @param threadName name of the threads running the fetches */
+    InFlightFetches(String threadName) {
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Returns the result of the fetch running for {@code key}, starting
+     * {@code fetch} if none is. Every caller for one flight receives the same value.
+     *
+     * @throws ScryfallApiException if the fetch failed, or this caller was
+     *                              interrupted while waiting (its interrupt flag is
+     *                              then set again)
+     */
+    V get(String key, Fetch<V> fetch) throws ScryfallApiException {
+        Flight<V> flight;
+        synchronized (flights) {
+            flight = flights.get(key);
+            if (flight == null) {
+                Flight<V> started = new Flight<>();
+                started.task = executor.submit(() -> run(key, started, fetch));
+                flights.put(key, started);
+                flight = started;
+            }
+            flight.waiters++;
+        }
+
+        try {
+            return flight.result.get();
+        } catch (InterruptedException e) {
+            leave(key, flight);
+            Thread.currentThread().interrupt();
+            throw new ScryfallApiException("Request interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ScryfallApiException) throw (ScryfallApiException) cause;
+            throw new ScryfallApiException("Failed to fetch data from Scryfall: " + cause.getMessage(), cause);
+        }
+    }
+
+    private void run(String key, Flight<V> flight, Fetch<V> fetch) {
+        V value = null;
+        Throwable failure = null;
+        try {
+            value = fetch.fetch();
+        } catch (Throwable t) {
+            failure = t;
+        }
+        // Forget the flight before completing it, so a caller arriving after the
+        // result starts afresh rather than joining a finished fetch
+        synchronized (flights) {
+            flights.remove(key, flight);
+        }
+        if (failure != null) flight.result.completeExceptionally(failure);
+        else                 flight.result.complete(value);
+    }
+
+    /** A caller stopped waiting; cancels the fetch once no one waits for it. */
+    private void leave(String key, Flight<V> flight) {
+        synchronized (flights) {
+            if (--flight.waiters > 0) return;
+            flights.remove(key, flight);
+        }
+        flight.task.cancel(true);
+        flight.result.cancel(false);
+    }
+}
@@ -0,0 +1,191 @@
+package com.cardpricer.service;
+
+import com.cardpricer.exception.ScryfallApiException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide view of whether the Scryfall API is worth calling, shared by every
+ * {@link ScryfallApiService} instance.
+ *
+ * <p><b>Circuit breaker.</b> After {@value #FAILURE_THRESHOLD} consecutive
+ * connection failures (no route, DNS failure, timeout, or a 5xx reply) the breaker
+ * opens and requests fail at once instead of each waiting out the connect
+ * timeout. While open, a background probe contacts the API — after 5 s, then
+ * doubling up to a minute — and closes the breaker on the first reply.
+ *
+ * <p><b>Not-found cache.</b> A URL that answered 404 (a mistyped code, usually)
+ * is answered "not found" without a request for {@value #NOT_FOUND_TTL_MIN}
+ * minutes.
+ *
+ * <p>Listeners are told of every change, on the thread that made it; the status
+ * bar uses this to show the API state in its catalog chip.
+ */
+public final class ScryfallApiHealth {
+
+    private static final int  FAILURE_THRESHOLD  = 3;
+    private static final int  NOT_FOUND_TTL_MIN  = 10;
+    private static final long NOT_FOUND_TTL_MS   = NOT_FOUND_TTL_MIN * 60_000L;
+    private static final int  MAX_NOT_FOUND      = 2_000;
+    private static final long FIRST_PROBE_MS     = 5_000;
+    private static final long MAX_PROBE_MS       = 60_000;
+    private static final Duration PROBE_TIMEOUT  = Duration.ofSeconds(5);
+    private static final String PROBE_URL        = "https://api.scryfall.com/";
+
+    private static final ScryfallApiHealth INSTANCE = new ScryfallApiHealth();
+
+    /** Returns the singleton instance. */
+    public static ScryfallApiHealth getInstance() { return INSTANCE; }
+
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "scryfall-probe");
+        t.setDaemon(true);
+        return t;
+    });
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private int  consecutiveFailures;
+    private long openedAt;
+    private long probeDelayMs;
+    private String lastFailure;
+    /** URL → expiry millis, oldest first. */
+    private final Map<String, Long> notFound = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_NOT_FOUND;
+        }
+    };
+
+    private ScryfallApiHealth() {}
+
+    // ── Queries ───────────────────────────────────────────────────────────────
+
+    /** Returns {@code true} while the breaker is open, i.e. the API is treated as unreachable. */
+    public synchronized boolean isOpen() { return openedAt > 0; }
+
+    /** Epoch millis when the breaker opened, or 0 while closed. */
+    public synchronized long getOpenedAt() { return openedAt; }
+
+    /** Message of the failure that opened the breaker, or {@code null}. */
+    public synchronized String getLastFailure() { return lastFailure; }
+
+    /** Number of URLs currently answered "not found" from the cache. */
+    public synchronized int getNotFoundCount() {
+        purgeExpired(System.currentTimeMillis());
+        return notFound.size();
+    }
+
+    /** Registers a callback run after every change of state. */
+    public void addListener(Runnable listener) { listeners.add(listener); }
+
+    // ── Request gate ──────────────────────────────────────────────────────────
+
+    /**
+     * Fails fast if {@code url} should not be requested now.
+     *
+     * @throws ScryfallApiException if the breaker is open or the URL recently answered 404
+     */
+    public synchronized void checkRequest(String url) throws ScryfallApiException {
+        if (openedAt > 0) {
+            throw new ScryfallApiException("Scryfall unreachable — working offline ("
+                    + (lastFailure != null ? lastFailure : "no connection") + ")");
+        }
+        Long expires = notFound.get(url);
+        if (expires != null) {
+            if (expires > System.currentTimeMillis()) {
+                throw new ScryfallApiException("Card or set not found", true);
+            }
+            notFound.remove(url);
+        }
+    }
+
+    /** Records that the API replied (any status below 500). */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+    }
+
+    /** Records a 404 for {@code url}. */
+    public void recordNotFound(String url) {
+        synchronized (this) {
+            consecutiveFailures = 0;
+            notFound.put(url, System.currentTimeMillis() + NOT_FOUND_TTL_MS);
+        }
+        fireChanged();
+    }
+
+    /**
+     * Records a failed connection or a 5xx reply; opens the breaker once enough
+     * have happened in a row.
+     */
+    public void recordFailure(String reason) {
+        synchronized (this) {
+            lastFailure = reason;
+            if (openedAt > 0 || ++consecutiveFailures < FAILURE_THRESHOLD) return;
+            openedAt = System.currentTimeMillis();
+            probeDelayMs = FIRST_PROBE_MS;
+            prober.schedule(this::probe, probeDelayMs, TimeUnit.MILLISECONDS);
+        }
+        System.err.println("[ScryfallApiService] " + FAILURE_THRESHOLD
+                + " connection failures in a row — working offline until Scryfall answers");
+        fireChanged();
+    }
+
+    // ── Probe ─────────────────────────────────────────────────────────────────
+
+    /** Contacts the API once; closes the breaker on any reply, else reschedules. */
+    private void probe() {
+        boolean reachable;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(PROBE_URL))
+                    .timeout(PROBE_TIMEOUT)
+                    .header("User-Agent", ScryfallHttp.USER_AGENT)
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            reachable = ScryfallHttp.client()
+                    .send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+        } catch (IOException e) {
+            reachable = false;
+        } catch (InterruptedException e) {
+            return; // shutting down
+        }
+
+        synchronized (this) {
+            if (!reachable) {
+                probeDelayMs = Math.min(probeDelayMs * 2, MAX_PROBE_MS);
+                prober.schedule(this::probe, probeDelayMs, TimeUnit.MILLISECONDS);
+                return;
+            }
+            openedAt = 0;
+            consecutiveFailures = 0;
+            lastFailure = null;
+        }
+        System.out.println("[ScryfallApiService] Scryfall reachable again");
+        fireChanged();
+    }
+
+    private void purgeExpired(long now) {
+        notFound.values().removeIf(expires -> expires <= now);
+    }
+
+    private void fireChanged() {
+        for (Runnable l : listeners) {
+            try {
+                l.run();
+            } catch (RuntimeException e) {
+                System.err.println("[ScryfallApiService] Health listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
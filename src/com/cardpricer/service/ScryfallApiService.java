@@ -2,32 +2,51 @@ package com.cardpricer.service;
 
 import com.cardpricer.exception.ScryfallApiException;
 import com.cardpricer.model.Card;
+import com.cardpricer.model.ParsedCode;
 import com.cardpricer.util.SetList;
+import com.cardpricer.util.SetRegistry;
 import com.cardpricer.util.VintageUtil;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URI;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Provides access to the Scryfall REST API for fetching individual cards and
  * full set listings.  All network calls are synchronous; callers are responsible
- * for running them off the EDT.
+ * for running them off the EDT — {@link ScryfallAsync} does so for the panels.
+ *
+ * <p>Requests share the pooled client of {@link ScryfallHttp}, so consecutive
+ * calls reuse one kept-alive connection. Every call goes through
+ * {@link ScryfallApiHealth}: while the API is unreachable, or for a URL that just
+ * answered 404, calls fail at once without touching the network. Requests are
+ * paced by the process-wide {@link ScryfallRateLimiter}, so callers need not
+ * sleep between them.
  */
 public class ScryfallApiService {
     private static final String SEARCH_API = "https://api.scryfall.com/cards/search";
     private static final String CARD_API = "https://api.scryfall.com/cards";
-    private static final String USER_AGENT = "CardPricerApp/1.0";
-    /** /cards/search is limited to 2 req/sec — wait at least 500 ms between paginated calls. */
-    private static final int SEARCH_RATE_LIMIT_MS = 500;
-    /** How long to pause after receiving HTTP 429 before retrying (Scryfall docs: 30 seconds). */
-    private static final int RATE_LIMITED_BACKOFF_MS = 30_000;
+    private static final String COLLECTION_API = "https://api.scryfall.com/cards/collection";
+    /** Identifiers per /cards/collection request — Scryfall's maximum. */
+    private static final int COLLECTION_BATCH = 75;
+    /** Limit for one API response to arrive, connection included. */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    /** Retries of one request answered HTTP 429; each waits out Retry-After first. */
+    private static final int MAX_RATE_LIMITED_RETRIES = 3;
 
     /**
      * Fetches all cards from a specific set
@@ -36,40 +55,51 @@ public class ScryfallApiService {
      * @throws ScryfallApiException if API call fails
      */
     public List<Card> fetchCardsFromSet(String setCode) throws ScryfallApiException {
-        List<Card> allCards = new ArrayList<>();
-        String nextPage = SEARCH_API + "?q=set:" + setCode.toLowerCase() + "&unique=prints";
-
-        try {
-            while (nextPage != null) {
-                System.out.println("Fetching page from Scryfall...");
-                JSONObject response = makeApiCall(nextPage);
-                JSONArray data = response.getJSONArray("data");
-
-                // Parse each card in the response
-                for (int i = 0; i < data.length(); i++) {
-                    Card card = parseCardFromJson(data.getJSONObject(i));
-                    allCards.add(card);
-                }
+        return searchCards("set:" + setCode.toLowerCase(), Integer.MAX_VALUE);
+    }
 
-                // Check if there are more pages
-                if (response.getBoolean("has_more")) {
-                    nextPage = response.getString("next_page");
-                    Thread.sleep(SEARCH_RATE_LIMIT_MS); // /cards/search: 2 req/sec
-                } else {
-                    nextPage = null;
-                }
+    /**
+     * Runs a Scryfall search query, every printing of each match.
+     * @param query Scryfall search syntax (e.g. "lightning bolt set:m10")
+     * @param limit stop after this many cards; further pages are not requested
+     * @return the matching cards in Scryfall's order
+     * @throws ScryfallApiException if nothing matches or the API call fails
+     */
+    public List<Card> searchCards(String query, int limit) throws ScryfallApiException {
+        List<Card> allCards = new ArrayList<>();
+        String nextPage = SEARCH_API + "?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8) + "&unique=prints";
+
+        // Pages are paced by ScryfallRateLimiter (/cards/search: 2 req/sec)
+        while (nextPage != null && allCards.size() < limit) {
+            System.out.println("Fetching page from Scryfall...");
+            JSONObject response = makeApiCall(nextPage);
+            JSONArray data = response.getJSONArray("data");
+
+            // Parse each card in the response
+            for (int i = 0; i < data.length() && allCards.size() < limit; i++) {
+                Card card = parseCardFromJson(data.getJSONObject(i));
+                allCards.add(card);
             }
 
-            System.out.println("Successfully fetched " + allCards.size() + " cards");
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new ScryfallApiException("Request interrupted", e);
+            // Check if there are more pages
+            nextPage = response.getBoolean("has_more") ? response.getString("next_page") : null;
         }
 
+        System.out.println("Successfully fetched " + allCards.size() + " cards");
         return allCards;
     }
 
+    /**
+     * Fetches the card whose name best matches {@code name} (Scryfall's fuzzy match).
+     * @param name full or partial card name
+     * @return the card
+     * @throws ScryfallApiException if no single card matches or the API call fails
+     */
+    public Card fetchCardByName(String name) throws ScryfallApiException {
+        return parseCardFromJson(makeApiCall(
+                CARD_API + "/named?fuzzy=" + URLEncoder.encode(name, StandardCharsets.UTF_8)));
+    }
+
     /**
      * Fetches a specific card by set and collector number
      * @param theSetCode The set code (e.g., "MKM")
@@ -80,6 +110,12 @@ public class ScryfallApiService {
     public Card fetchCard(final String theSetCode, final String theCollectorNumber)
             throws ScryfallApiException {
         try {
+            // Once the full set list is known, an unknown set cannot succeed — skip the call.
+            SetRegistry sets = SetRegistry.current();
+            if (sets.isComplete() && !sets.isKnown(theSetCode)) {
+                throw new ScryfallApiException(
+                        "Card or set not found (unknown set " + theSetCode + ")", true);
+            }
             // Resolve friendly set-name aliases (e.g. "alpha" → "lea") before the call.
             String scryfallSetCode = VintageUtil.resolveSetAlias(theSetCode);
 
@@ -98,6 +134,88 @@ public class ScryfallApiService {
         }
     }
 
+    /**
+     * Outcome of {@link #fetchCards}. Every code passed in lands in exactly one of
+     * the three parts; the maps are keyed by the caller's own instances.
+     *
+     * @param found    the card for each code Scryfall has, a separate copy per code
+     * @param notFound codes Scryfall does not have, in input order
+     * @param failed   codes whose request failed, with the reason
+     */
+    public record CollectionResult(Map<ParsedCode, Card> found, List<ParsedCode> notFound,
+                                   Map<ParsedCode, String> failed) {}
+
+    /**
+     * Fetches many cards by set and collector number through {@code /cards/collection},
+     * {@value #COLLECTION_BATCH} printings per request, instead of one request each.
+     * Codes naming the same printing (e.g. in different finishes) share one
+     * identifier. PLST composites ({@code "ARB-1"}) and surge-foil numbers
+     * ({@code "73★"}) are sent as given and matched back the same way.
+     *
+     * <p>A failed request fails only its own batch; the others still complete.
+     *
+     * @param codes the printings to fetch; set codes may be user-facing aliases
+     * @return the cards found, the codes not found and the codes that failed
+     */
+    public CollectionResult fetchCards(Collection<ParsedCode> codes) {
+        Map<ParsedCode, Card> found = new IdentityHashMap<>();
+        List<ParsedCode> notFound = new ArrayList<>();
+        Map<ParsedCode, String> failed = new IdentityHashMap<>();
+
+        // identifier key → the codes asking for that printing, in input order
+        Map<String, List<ParsedCode>> byKey = new LinkedHashMap<>();
+        Map<String, JSONObject> identifiers = new LinkedHashMap<>();
+        SetRegistry sets = SetRegistry.current();
+        for (ParsedCode code : codes) {
+            // Once the full set list is known, an unknown set cannot succeed — skip it.
+            if (sets.isComplete() && !sets.isKnown(code.setCode)) {
+                notFound.add(code);
+                continue;
+            }
+            String set = VintageUtil.resolveSetAlias(code.setCode).toLowerCase(Locale.ROOT);
+            String key = identifierKey(set, code.collectorNumber);
+            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(code);
+            identifiers.putIfAbsent(key, new JSONObject()
+                    .put("set", set).put("collector_number", code.collectorNumber));
+        }
+
+        List<String> keys = new ArrayList<>(identifiers.keySet());
+        for (int from = 0; from < keys.size(); from += COLLECTION_BATCH) {
+            List<String> batch = keys.subList(from, Math.min(from + COLLECTION_BATCH, keys.size()));
+            JSONArray ids = new JSONArray();
+            for (String key : batch) ids.put(identifiers.get(key));
+            JSONObject response;
+            try {
+                response = makeApiCall(COLLECTION_API, new JSONObject().put("identifiers", ids).toString(), 0);
+            } catch (ScryfallApiException e) {
+                for (String key : batch) {
+                    for (ParsedCode code : byKey.get(key)) failed.put(code, e.getMessage());
+                }
+                continue;
+            }
+
+            Set<String> unanswered = new HashSet<>(batch);
+            JSONArray data = response.getJSONArray("data");
+            for (int i = 0; i < data.length(); i++) {
+                JSONObject json = data.getJSONObject(i);
+                String key = identifierKey(json.getString("set"), json.getString("collector_number"));
+                if (!unanswered.remove(key)) continue;
+                for (ParsedCode code : byKey.get(key)) found.put(code, parseCardFromJson(json));
+            }
+            // Scryfall lists these under "not_found"; an identifier it answered with a
+            // differently numbered printing is not the card that was asked for either
+            for (String key : batch) {
+                if (unanswered.contains(key)) notFound.addAll(byKey.get(key));
+            }
+        }
+        return new CollectionResult(found, notFound, failed);
+    }
+
+    /** Case-insensitive key for matching collection results to their identifiers. */
+    private static String identifierKey(String set, String collectorNumber) {
+        return set.toLowerCase(Locale.ROOT) + ':' + collectorNumber.toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Makes an HTTP GET request to Scryfall API
      * @param urlStr The full URL to call
@@ -105,52 +223,52 @@ public class ScryfallApiService {
      * @throws ScryfallApiException if the call fails
      */
     public JSONObject makeApiCall(String urlStr) throws ScryfallApiException {
-        return makeApiCall(urlStr, false);
+        return makeApiCall(urlStr, null, 0);
     }
 
-    private JSONObject makeApiCall(String urlStr, boolean isRetry) throws ScryfallApiException {
-        HttpURLConnection conn = null;
+    /** Sends a GET, or a POST of {@code jsonBody} when it is non-null. */
+    private JSONObject makeApiCall(String urlStr, String jsonBody, int retries) throws ScryfallApiException {
+        ScryfallApiHealth health = ScryfallApiHealth.getInstance();
+        health.checkRequest(urlStr);
+        ScryfallRateLimiter limiter = ScryfallRateLimiter.getInstance();
         try {
-            URI uri = new URI(urlStr);
-            URL url = uri.toURL();
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("User-Agent", USER_AGENT);
-            conn.setConnectTimeout(10000); // 10 second timeout
-            conn.setReadTimeout(10000);
-
-            int responseCode = conn.getResponseCode();
+            limiter.acquire(urlStr);
+            HttpResponse<InputStream> response;
+            try {
+                response = ScryfallHttp.send((jsonBody == null
+                        ? ScryfallHttp.get(urlStr, REQUEST_TIMEOUT)
+                        : ScryfallHttp.post(urlStr, jsonBody, REQUEST_TIMEOUT)).build());
+            } catch (IOException e) {
+                health.recordFailure(e.getClass().getSimpleName());
+                throw new ScryfallApiException("Could not reach Scryfall: " + e.getMessage(), e);
+            }
+            int responseCode = response.statusCode();
+            if (responseCode >= 500) {
+                health.recordFailure("HTTP " + responseCode);
+            } else {
+                health.recordSuccess();
+            }
+            if (responseCode != 200) ScryfallHttp.discard(response);
 
             if (responseCode == 429) {
-                if (isRetry) {
+                limiter.throttled(urlStr, retryAfterMs(response));
+                if (retries >= MAX_RATE_LIMITED_RETRIES) {
                     throw new ScryfallApiException("Rate limited by Scryfall (HTTP 429) even after backoff — aborting");
                 }
-                System.err.println("[ScryfallApiService] HTTP 429 — backing off " + RATE_LIMITED_BACKOFF_MS / 1000 + "s before retry");
-                conn.disconnect();
-                Thread.sleep(RATE_LIMITED_BACKOFF_MS);
-                return makeApiCall(urlStr, true);
+                return makeApiCall(urlStr, jsonBody, retries + 1);
             }
 
             // Handle different response codes
             if (responseCode == 404) {
-                throw new ScryfallApiException("Card or set not found");
+                if (jsonBody == null) health.recordNotFound(urlStr);
+                throw new ScryfallApiException("Card or set not found", true);
             } else if (responseCode != 200) {
                 throw new ScryfallApiException(
                         "API call failed with response code: " + responseCode);
             }
 
-            // Read the response
-            BufferedReader in = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-
-            while ((line = in.readLine()) != null) {
-                response.append(line);
-            }
-            in.close();
-
-            return new JSONObject(response.toString());
+            // Parse straight from the (decompressed) stream
+            return ScryfallHttp.readJson(response);
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -160,10 +278,19 @@ public class ScryfallApiService {
                 throw (ScryfallApiException) e;
             }
             throw new ScryfallApiException("Failed to fetch data from Scryfall: " + e.getMessage(), e);
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
+        }
+    }
+
+    /**
+     * Reads a 429 reply's {@code Retry-After} in millis; -1 when absent or given
+     * as a date rather than seconds.
+     */
+    private static long retryAfterMs(HttpResponse<?> response) {
+        try {
+            return response.headers().firstValue("Retry-After")
+                    .map(v -> (long) (Double.parseDouble(v.trim()) * 1000)).orElse(-1L);
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 
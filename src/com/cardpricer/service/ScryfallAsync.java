@@ -0,0 +1,188 @@
+package com.cardpricer.service;
+
+import com.cardpricer.exception.ScryfallApiException;
+import com.cardpricer.model.Card;
+import com.cardpricer.service.catalog.CatalogVersion;
+
+import javax.swing.SwingUtilities;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous front to the catalog and {@link ScryfallApiService}, so panels
+ * need not wrap the blocking calls in their own {@code SwingWorker}s.
+ *
+ * <p>Every call returns a {@link CompletableFuture} that
+ * <ul>
+ *   <li>runs on a virtual thread of its own, so a call blocked on the rate
+ *       limiter or the network holds no platform thread;</li>
+ *   <li>fails with a {@link ScryfallApiException} once its timeout passes;</li>
+ *   <li>interrupts the work when cancelled or timed out, which abandons a
+ *       rate-limiter wait or an HTTP request under way.</li>
+ * </ul>
+ * {@link #onEdt} delivers the outcome on the Event Dispatch Thread, with
+ * {@link ExecutionException} and {@link CompletionException} wrappers removed
+ * and cancellations dropped.
+ *
+ * <p>{@link #lookupAsync} resolves a printing through the same chain everywhere:
+ * the catalog, if it has the card priced in the wanted finish, then the cards
+ * fetched earlier, then the API (see {@link ScryfallCatalogService#fetchCard}).
+ */
+public final class ScryfallAsync {
+
+    /** Limit for a single-card lookup, a rate-limiter wait included. */
+    public static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(20);
+    /** Limit for a search (first page or few). */
+    public static final Duration SEARCH_TIMEOUT = Duration.ofSeconds(30);
+    /** Limit for listing a whole set, which may take several paced pages. */
+    public static final Duration SET_TIMEOUT    = Duration.ofMinutes(3);
+
+    private static final ScryfallAsync INSTANCE = new ScryfallAsync();
+
+    /** Returns the singleton instance. */
+    public static ScryfallAsync getInstance() { return INSTANCE; }
+
+    private final ScryfallApiService api = new ScryfallApiService();
+    private final ScryfallCatalogService catalog = ScryfallCatalogService.getInstance();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService timer;
+
+    private ScryfallAsync() {
+        ScheduledThreadPoolExecutor t = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "scryfall-async-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        t.setRemoveOnCancelPolicy(true);
+        timer = t;
+    }
+
+    // ── Lookups ───────────────────────────────────────────────────────────────
+
+    /** Resolves a printing in its normal finish against the current catalog. */
+    public CompletableFuture<Card> lookupAsync(String setCode, String collectorNumber) {
+        return lookupAsync(null, setCode, collectorNumber, "");
+    }
+
+    /**
+     * Resolves a printing: catalog, then fetched cards, then the API.
+     *
+     * @param version         catalog version to read (a trade pins one), or
+     *                        {@code null} for the current one
+     * @param setCode         Scryfall or user-facing set code (any case)
+     * @param collectorNumber collector number as entered
+     * @param finish          {@code ""}, {@code "F"}, {@code "E"} or {@code "S"}; a
+     *                        catalog entry without that finish's price is passed over
+     *                        for a live one
+     */
+    public CompletableFuture<Card> lookupAsync(CatalogVersion version, String setCode,
+                                               String collectorNumber, String finish) {
+        return submit(() -> {
+            CatalogVersion v = version != null ? version : catalog.currentVersion();
+            try {
+                Optional<Card> hit = v == null ? Optional.empty() : v.lookup(setCode, collectorNumber);
+                if (hit.isPresent() && hasPrice(hit.get(), finish)) return hit.get();
+                // found in bulk but price is N/A — fall through to live API
+            } catch (RuntimeException e) {
+                // catalog miss or error — fall through to API
+            }
+            return catalog.fetchCard(api, setCode, collectorNumber);
+        }, LOOKUP_TIMEOUT);
+    }
+
+    /** Fetches the card whose name best matches {@code name}. */
+    public CompletableFuture<Card> namedAsync(String name) {
+        return submit(() -> api.fetchCardByName(name), LOOKUP_TIMEOUT);
+    }
+
+    /**
+     * Runs a Scryfall search.
+     *
+     * @param query Scryfall search syntax
+     * @param limit most cards to return; later pages are not requested
+     */
+    public CompletableFuture<List<Card>> searchAsync(String query, int limit) {
+        return submit(() -> api.searchCards(query, limit), SEARCH_TIMEOUT);
+    }
+
+    /** Lists every printing of a set — from the catalog if it has the set, else from the API. */
+    public CompletableFuture<List<Card>> fetchSetAsync(String setCode) {
+        return submit(() -> {
+            Optional<List<Card>> listed = catalog.cardsInSet(setCode);
+            return listed.isPresent() ? listed.get() : api.fetchCardsFromSet(setCode);
+        }, SET_TIMEOUT);
+    }
+
+    // ── Execution ─────────────────────────────────────────────────────────────
+
+    /**
+     * Runs {@code task} on a new virtual thread. The future fails with a
+     * {@link ScryfallApiException} after {@code timeout}; cancelling it or the
+     * timeout interrupts the task.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        Future<?> deadline = timer.schedule(() -> result.completeExceptionally(new ScryfallApiException(
+                        "No answer from Scryfall within " + timeout.toSeconds() + " s")),
+                timeout.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((value, error) -> {
+            deadline.cancel(false);
+            // Finished work ignores this; cancelled or timed-out work stops waiting
+            if (error != null) running.cancel(true);
+        });
+        return result;
+    }
+
+    /**
+     * Delivers the outcome of {@code future} on the EDT: {@code onSuccess} with its
+     * value, or {@code onFailure} with the underlying cause. Nothing is called if
+     * the future was cancelled.
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+                                 Consumer<? super Throwable> onFailure) {
+        future.whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                onSuccess.accept(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (!(cause instanceof CancellationException)) onFailure.accept(cause);
+        }));
+    }
+
+    /** Strips {@link CompletionException} and {@link ExecutionException} wrappers. */
+    public static Throwable unwrap(Throwable error) {
+        Throwable t = error;
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static boolean hasPrice(Card card, String finish) {
+        boolean isFoil = "F".equals(finish) || "E".equals(finish) || "S".equals(finish);
+        return isFoil ? card.hasFoilPrice() : card.hasNormalPrice();
+    }
+}
@@ -1,20 +1,47 @@
 package com.cardpricer.service;
 
+import com.cardpricer.exception.ScryfallApiException;
+import com.cardpricer.gui.panel.PreferencesPanel;
 import com.cardpricer.model.Card;
+import com.cardpricer.model.ParsedCode;
+import com.cardpricer.service.catalog.BulkCardReader;
+import com.cardpricer.service.catalog.BulkCardReader.Field;
+import com.cardpricer.service.catalog.BulkDataInfo;
+import com.cardpricer.service.catalog.BulkImportPipeline;
+import com.cardpricer.service.catalog.CatalogCacheFile;
+import com.cardpricer.service.catalog.CatalogDelta;
+import com.cardpricer.service.catalog.CatalogKeys;
+import com.cardpricer.service.catalog.CatalogOverlay;
+import com.cardpricer.service.catalog.CatalogProfile;
+import com.cardpricer.service.catalog.CatalogRecord;
+import com.cardpricer.service.catalog.CatalogSnapshot;
+import com.cardpricer.service.catalog.CatalogStore;
+import com.cardpricer.service.catalog.CatalogVersion;
+import com.cardpricer.service.catalog.CompactCatalogStore;
+import com.cardpricer.service.catalog.PatchedCatalogStore;
+import com.cardpricer.service.catalog.ResumableDownload;
+import com.cardpricer.service.catalog.ShardedCatalogStore;
 import com.cardpricer.util.AppDataDirectory;
+import com.cardpricer.util.SetRegistry;
 import com.cardpricer.util.VintageUtil;
 import org.json.JSONArray;
 import org.json.JSONObject;
-import org.json.JSONTokener;
 
 import java.io.*;
 import java.io.PushbackInputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Singleton service that maintains a local catalog of Scryfall cards for
@@ -23,14 +50,50 @@ import java.util.zip.GZIPOutputStream;
  * <p>The catalog is built from Scryfall's {@code default_cards} bulk-data file
  * (every English printing). After the first download the data is saved as a
  * compact NDJSON.gz file (~15–25 MB) in the application cache directory and
- * reloaded on subsequent launches without another network call.
+ * reloaded on subsequent launches without another network call. The file is made
+ * of independent gzip members with a side offset table (see {@link CatalogCacheFile}),
+ * so a reload parses the members in parallel on the common {@link ForkJoinPool}.
+ *
+ * <p>Next to the NDJSON.gz file a fixed-layout binary {@link CatalogSnapshot} is
+ * written and memory-mapped on startup, so lookups work within milliseconds and
+ * the catalog stays off the Java heap. The NDJSON.gz file remains the portable
+ * fallback: if the snapshot is missing, stale, or unreadable it is parsed instead
+ * and the snapshot is rebuilt from it.
+ *
+ * <p>The same printings are also split into per-set snapshot files with a small
+ * manifest ({@link ShardedCatalogStore}). When the shards match the cache they are
+ * what {@link #loadFromDisk} opens: only the manifest is read at startup, each set
+ * is memory-mapped the first time a lookup touches it, and the sets from the last
+ * three months of trades are mapped in the background.
+ *
+ * <p>Routine refreshes leave these files alone. The new bulk file is diffed
+ * against them into a small cumulative {@link CatalogDelta} — mostly price
+ * changes — that is written beside the cache, applied to the live catalog as a
+ * {@link PatchedCatalogStore}, and re-applied on the next startup. Once the delta
+ * has grown to a quarter of the catalog the next refresh rebuilds both files.
+ *
+ * <p>What is loaded is published as an immutable {@link CatalogVersion}. Loads
+ * and refreshes build the next version in the background — they are serialised
+ * with each other — while lookups keep reading the current one without locking;
+ * the swap is a single volatile write. A caller may hold on to a version (a trade
+ * does, for its whole length) and keeps seeing exactly those prices.
+ *
+ * <p>Cards the catalog lacks — usually a set newer than the last bulk file — are
+ * fetched from the API by {@link #fetchCard}, or in batches by {@link #fetchCards}, and kept in a {@link CatalogOverlay}
+ * for a day, persisted beside the cache, so entering the same card again costs no
+ * request. A bulk refresh that brings those printings in evicts them.
  *
  * <p><b>Index key format:</b> {@code "SETCODE:COLLNUM"} — both components are
  * upper-case; special characters (★) are stripped from the collector number;
  * hyphens are preserved (required for PLST composites, e.g. {@code "PLST:ARB-1"}).
- * Vintage set aliases (e.g. {@code "alpha"} → {@code "lea"}) are resolved via
- * {@link VintageUtil#resolveSetAlias(String)} so that user input always maps to
- * the canonical Scryfall set code.
+ * In memory the key is packed into a primitive {@code long} (see
+ * {@link com.cardpricer.service.catalog.CatalogKeys}) and looked up in an
+ * open-addressing {@link com.cardpricer.service.catalog.CatalogIndex}, so a
+ * lookup runs no regex and builds no strings. Custom codes, set names and
+ * vintage aliases (e.g. {@code "alpha"} → {@code "lea"}) are resolved through the
+ * {@link SetRegistry} so that user input always maps to the canonical Scryfall
+ * set code. Each refresh also downloads Scryfall's {@code /sets} list, which the
+ * registry uses to know every set.
  */
 public class ScryfallCatalogService {
 
@@ -66,39 +129,161 @@ public class ScryfallCatalogService {
     // ── Constants ─────────────────────────────────────────────────────────────
 
     private static final String BULK_DATA_API  = "https://api.scryfall.com/bulk-data";
-    private static final String USER_AGENT     = "CardPricerApp/1.0";
+    private static final String SETS_API       = "https://api.scryfall.com/sets";
     private static final String CACHE_FILENAME = "catalog.ndjson.gz";
+    private static final String SNAPSHOT_FILENAME = "catalog.snap";
+    private static final String INFO_FILENAME  = "catalog.meta.json";
+    private static final String DELTA_FILENAME = "catalog.delta";
+    private static final String SHARD_DIRNAME  = "catalog-shards";
+    private static final String OVERLAY_FILENAME = "catalog.fetched.json";
+
+    /** Limit for a metadata or set-list response to arrive. */
+    private static final Duration API_TIMEOUT = Duration.ofSeconds(30);
+    /** Data older than this is due for a refresh check. */
+    private static final long REFRESH_AFTER_MS  = 3L * 86_400_000L;
+    /** Minimum spacing between metadata checks that found nothing new. */
+    private static final long RECHECK_AFTER_MS  = 12L * 3_600_000L;
+    /** A delta with more entries than {@code base size / this} is folded into a full rebuild. */
+    private static final int  DELTA_REBUILD_DIVISOR = 4;
+    /** Sets traded within this many days are preloaded when the catalog opens sharded. */
+    private static final int  PRELOAD_TRADE_DAYS = 90;
+    /** API-fetched cards are served from the overlay this long; Scryfall reprices daily. */
+    private static final long OVERLAY_TTL_MS    = 86_400_000L;
 
     // ── State ─────────────────────────────────────────────────────────────────
 
-    /** Populated after a successful load or build; {@code null} when not loaded. */
-    private volatile Map<String, Card> index;
-    private volatile int cardCount;
+    /**
+     * The published catalog; {@code null} when not loaded. Replaced in one write by
+     * {@link #publish} — never cleared during a load or refresh — so lookups never
+     * wait and never see a gap.
+     */
+    private volatile CatalogVersion current;
+    /** Sequence for {@link CatalogVersion#number()}; guarded by {@code this}. */
+    private long versionSeq;
+    /**
+     * The unreduced catalog {@link #current} was built from, which the next price
+     * refresh diffs against. {@code null} under a reduced {@link CatalogProfile} —
+     * keeping it would defeat the profile — in which case it is reopened from disk
+     * when needed. Guarded by {@code this}.
+     */
+    private CatalogStore source;
+    /** Cards fetched from the API because the catalog lacked them. */
+    private final CatalogOverlay overlay =
+            new CatalogOverlay(new File(AppDataDirectory.cache(), OVERLAY_FILENAME), OVERLAY_TTL_MS);
+    /** API fetches under way, shared by concurrent callers for the same printing. */
+    private final InFlightFetches<Card> inFlight = new InFlightFetches<>("scryfall-fetch");
+    /** Result of the last metadata check this session; cleared by a download. */
+    private volatile boolean updateAvailable;
 
     // ── Public accessors ──────────────────────────────────────────────────────
 
-    /** Returns {@code true} if the local NDJSON.gz cache file exists on disk. */
-    public boolean isCatalogAvailable() { return getCacheFile().exists(); }
+    /** Returns {@code true} if the local NDJSON.gz cache or binary snapshot exists on disk. */
+    public boolean isCatalogAvailable() {
+        return getCacheFile().exists() || getSnapshotFile().exists();
+    }
 
     /**
-     * Returns the age of the cache file in milliseconds,
-     * or {@link Long#MAX_VALUE} if the cache does not exist.
+     * Returns the age of the cached card data in milliseconds, or
+     * {@link Long#MAX_VALUE} if the cache does not exist.
+     *
+     * <p>The age is measured from Scryfall's {@code updated_at} for the downloaded
+     * bulk file when it is known, so it reflects how old the prices are rather than
+     * when the file was written; caches from older versions fall back to the file time.
      */
     public long getCacheAgeMs() {
-        File f = getCacheFile();
-        return f.exists() ? System.currentTimeMillis() - f.lastModified() : Long.MAX_VALUE;
+        if (!isCatalogAvailable()) return Long.MAX_VALUE;
+        BulkDataInfo info = BulkDataInfo.read(getInfoFile());
+        long published = info != null ? info.updatedAtMillis() : -1;
+        if (published > 0) return Math.max(0, System.currentTimeMillis() - published);
+        File f = getCacheFile().exists() ? getCacheFile() : getSnapshotFile();
+        return System.currentTimeMillis() - f.lastModified();
+    }
+
+    /**
+     * Returns when Scryfall was last asked whether newer bulk data exists
+     * (epoch millis), or 0 if never.
+     */
+    public long getLastCheckedMs() {
+        BulkDataInfo info = BulkDataInfo.read(getInfoFile());
+        return info != null ? info.checkedAt : 0;
+    }
+
+    /**
+     * Returns {@code true} if the last {@link #checkForUpdate()} this session found
+     * newer data on Scryfall that has not been downloaded yet.
+     */
+    public boolean isUpdateAvailable() { return updateAvailable; }
+
+    /**
+     * Returns {@code true} if a cache exists, its data is older than three days and
+     * Scryfall has not been checked for newer data in the last twelve hours.
+     * A due refresh is still cheap: {@link #downloadAndBuild} only downloads
+     * when the published file has changed.
+     */
+    public boolean isRefreshDue() {
+        if (!isCatalogAvailable()) return false;
+        return getCacheAgeMs() >= REFRESH_AFTER_MS
+                && System.currentTimeMillis() - getLastCheckedMs() >= RECHECK_AFTER_MS;
     }
 
     /** Returns the number of cards in the currently loaded index, or 0 if not loaded. */
-    public int getCardCount() { return cardCount; }
+    public int getCardCount() {
+        CatalogVersion v = current;
+        return v == null ? 0 : v.cardCount();
+    }
 
     /** Returns {@code true} if the index is loaded into memory and ready for lookup. */
-    public boolean isLoaded() { return index != null; }
+    public boolean isLoaded() { return current != null; }
+
+    /**
+     * Returns the approximate memory held by the loaded catalog and the search
+     * indexes built over it so far, or 0 if not loaded.
+     */
+    public long getResidentBytes() {
+        CatalogVersion v = current;
+        return v == null ? 0 : v.residentBytes();
+    }
 
-    /** Clears the in-memory index without deleting the cache file. */
-    public void invalidate() {
-        index = null;
-        cardCount = 0;
+    /** Returns the profile of the loaded catalog, else the one saved in preferences. */
+    public CatalogProfile getProfile() {
+        CatalogVersion v = current;
+        return v != null ? v.profile() : PreferencesPanel.getCatalogProfile();
+    }
+
+    /**
+     * Returns the current catalog version, or {@code null} if none is loaded.
+     * Callers that need stable prices across several lookups (e.g. one trade) keep
+     * the returned version and look up through it instead of through this service.
+     */
+    public CatalogVersion currentVersion() { return current; }
+
+    /**
+     * Unloads the catalog without deleting the cache file; lookups miss until the
+     * next load. Pinned versions stay usable. Loads and refreshes never need this —
+     * they replace the current version in place.
+     */
+    public synchronized void invalidate() {
+        current = null;
+        source  = null;
+    }
+
+    /**
+     * Rebuilds the loaded catalog under the profile saved in preferences
+     * ({@link PreferencesPanel#getCatalogProfile()}). The unreduced catalog is
+     * reopened from disk if a reduced profile dropped it. Does nothing when no
+     * catalog is loaded; the next load applies the profile.
+     *
+     * @throws IOException if the catalog has to be reloaded and cannot be read
+     */
+    public synchronized void applyProfile() throws IOException {
+        CatalogVersion v = current;
+        if (v == null) return;
+        CatalogStore live = source != null ? source : openSource();
+        if (live == null) {
+            loadFromDisk(null);
+            return;
+        }
+        publish(live, v.releasedAt());
     }
 
     /**
@@ -107,28 +292,106 @@ public class ScryfallCatalogService {
      * <p>The set code is resolved through the vintage alias table before the
      * lookup, so {@code "alpha"} and {@code "lea"} both find Alpha cards.
      *
+     * <p>A printing the catalog lacks is answered from the cards recently fetched
+     * through {@link #fetchCard}, if any.
+     *
      * @param setCode         Scryfall or user-facing set code (any case)
      * @param collectorNumber collector number, possibly with finish markers (e.g. {@code "73★"})
-     * @return the matching {@link Card}, or {@link Optional#empty()} if not in the catalog
+     * @return the matching {@link Card}, or {@link Optional#empty()} if neither has it
      */
     public Optional<Card> lookup(String setCode, String collectorNumber) {
-        Map<String, Card> snapshot = index;
-        if (snapshot == null) return Optional.empty();
-        return Optional.ofNullable(snapshot.get(buildKey(setCode, collectorNumber)));
+        CatalogVersion v = current;
+        Optional<Card> hit = v == null ? Optional.empty() : v.lookup(setCode, collectorNumber);
+        return hit.isPresent() ? hit : Optional.ofNullable(overlay.get(setCode, collectorNumber));
+    }
+
+    /**
+     * Fetches a card the catalog could not answer (or answered without a price).
+     * A copy fetched within the last day is returned without a request; otherwise
+     * {@code api} is called and the result recorded for next time. Concurrent
+     * calls for the same printing share one request (see {@link InFlightFetches});
+     * a caller interrupted while waiting stops waiting without cancelling the
+     * request for the others.
+     *
+     * @param api             client for the live request
+     * @param setCode         Scryfall or user-facing set code (any case)
+     * @param collectorNumber collector number as entered
+     * @return the card, owned by the caller
+     * @throws ScryfallApiException if the card is not cached and the request fails
+     */
+    public Card fetchCard(ScryfallApiService api, String setCode, String collectorNumber)
+            throws ScryfallApiException {
+        Card cached = overlay.get(setCode, collectorNumber);
+        if (cached != null) return cached;
+        Card shared = inFlight.get(fetchKey(setCode, collectorNumber), () -> {
+            Card card = api.fetchCard(setCode, collectorNumber);
+            overlay.put(setCode, collectorNumber, card);
+            return card;
+        });
+        // Everyone waiting on one request receives the same card; hand out copies
+        Card own = overlay.get(setCode, collectorNumber);
+        return own != null ? own : shared;
+    }
+
+    /**
+     * Key of the request {@link ScryfallApiService#fetchCard} makes for a printing:
+     * its set alias resolved, case ignored, finish markers (★) kept.
+     */
+    private static String fetchKey(String setCode, String collectorNumber) {
+        return VintageUtil.resolveSetAlias(setCode).toLowerCase(Locale.ROOT)
+                + '/' + collectorNumber.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Batch form of {@link #fetchCard}: codes with a copy fetched within the last
+     * day are answered from it, the rest go to {@code api} in
+     * {@code /cards/collection} batches and the cards found are recorded for next
+     * time.
+     *
+     * @param api   client for the live requests
+     * @param codes the printings the catalog could not answer
+     * @return per code, the card, "not found" or the failure; cards are owned by the caller
+     */
+    public ScryfallApiService.CollectionResult fetchCards(ScryfallApiService api,
+                                                          Collection<ParsedCode> codes) {
+        Map<ParsedCode, Card> cached = new IdentityHashMap<>();
+        List<ParsedCode> missing = new ArrayList<>();
+        for (ParsedCode code : codes) {
+            Card card = overlay.get(code.setCode, code.collectorNumber);
+            if (card != null) cached.put(code, card);
+            else missing.add(code);
+        }
+        if (missing.isEmpty()) {
+            return new ScryfallApiService.CollectionResult(cached, new ArrayList<>(), new IdentityHashMap<>());
+        }
+        ScryfallApiService.CollectionResult fetched = api.fetchCards(missing);
+        overlay.putAll(fetched.found());
+        fetched.found().putAll(cached);
+        return fetched;
     }
 
-    // ── Key normalisation ─────────────────────────────────────────────────────
+    /** Drops fetched cards that the just-published bulk data now covers. */
+    private void evictCoveredFromOverlay() {
+        CatalogStore covered = source != null ? source : current.store();
+        int dropped = overlay.evictCovered(covered);
+        if (dropped > 0) {
+            System.out.println("[Catalog] " + dropped + " fetched card(s) now covered by bulk data");
+        }
+    }
 
     /**
-     * Builds a lookup key: {@code "SETCODE:COLLNUM"} — both upper-case;
-     * finish markers and other special chars stripped; hyphens preserved.
+     * Lists every printing of a set from the catalog, ordered by collector number.
+     *
+     * <p>Replaces the paged {@code set:} search for sets the catalog holds: the
+     * whole set is read from memory instead of several rate-limited API pages.
+     *
+     * @param setCode Scryfall or user-facing set code (any case)
+     * @return new {@link Card}s, or {@link Optional#empty()} if the catalog is not
+     *         loaded or does not have the set
      */
-    private static String buildKey(String setCode, String collectorNumber) {
-        // Resolve vintage aliases ("alpha" → "lea") to match how fetchCard() works
-        String resolved  = VintageUtil.resolveSetAlias(setCode);
-        // Strip non-alphanumeric except hyphens (removes ★ for surge foil)
-        String cleanColl = collectorNumber.replaceAll("[^0-9A-Za-z\\-]", "").toUpperCase();
-        return resolved.toUpperCase() + ":" + cleanColl;
+    public Optional<List<Card>> cardsInSet(String setCode) {
+        CatalogVersion v = current;
+        return v == null ? Optional.empty() : v.cardsInSet(setCode);
     }
 
     // ── Cache file path ───────────────────────────────────────────────────────
@@ -137,67 +400,329 @@ public class ScryfallCatalogService {
         return new File(AppDataDirectory.cache(), CACHE_FILENAME);
     }
 
+    private static File getSnapshotFile() {
+        return new File(AppDataDirectory.cache(), SNAPSHOT_FILENAME);
+    }
+
+    /** Identity of the bulk file the cache was built from (see {@link BulkDataInfo}). */
+    private static File getInfoFile() {
+        return new File(AppDataDirectory.cache(), INFO_FILENAME);
+    }
+
+    /** Price-refresh delta against the cache and snapshot (see {@link CatalogDelta}). */
+    private static File getDeltaFile() {
+        return new File(AppDataDirectory.cache(), DELTA_FILENAME);
+    }
+
+    /**
+     * Per-set shards of the current cache (see {@link ShardedCatalogStore}). The
+     * directory is named after the checksum of the cache it was split from, so a
+     * full refresh writes new shards beside the old ones, which a version still in
+     * use may be reading; stale directories are removed by the next first load.
+     */
+    private static File getShardDir() {
+        return new File(AppDataDirectory.cache(), SHARD_DIRNAME + "-" + Long.toHexString(cacheChecksum()));
+    }
+
+    /** Deletes shard directories that belong to an older cache. */
+    private static void removeStaleShards() {
+        File current = getShardDir();
+        File[] dirs = AppDataDirectory.cache().listFiles(f -> f.isDirectory()
+                && f.getName().startsWith(SHARD_DIRNAME) && !f.equals(current));
+        if (dirs == null) return;
+        for (File dir : dirs) {
+            try {
+                ShardedCatalogStore.deleteTree(dir);
+            } catch (IOException e) {
+                System.err.println("[Catalog] Could not remove old shards " + dir.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /** Raw bulk download in progress; resumed with Range requests (see {@link ResumableDownload}). */
+    private static File getPartialDownloadFile() {
+        return new File(AppDataDirectory.cache(), "catalog.bulk.part");
+    }
+
+    /** Snapshot written while the live one was still mapped (Windows cannot replace it). */
+    private static File getPendingSnapshotFile() {
+        return new File(AppDataDirectory.cache(), SNAPSHOT_FILENAME + ".tmp");
+    }
+
     // ── Load from local cache ─────────────────────────────────────────────────
 
     /**
-     * Loads the catalog from the local NDJSON.gz cache into memory.
+     * Loads the catalog from local cache into memory.
      *
      * @return the number of cards loaded
-     * @throws IOException if the cache file does not exist or cannot be read
+     * @throws IOException if no cache file exists or none can be read
+     * @see #loadFromDisk(DownloadProgress)
      */
     public int loadFromDisk() throws IOException {
-        File cacheFile = getCacheFile();
+        return loadFromDisk(null);
+    }
+
+    /**
+     * Loads the catalog from local cache into memory.
+     *
+     * <p>Per-set shards split from the current cache are opened first; they read
+     * only a manifest now and map each set on first use. Failing that, the binary
+     * snapshot is memory-mapped when it is present and at least as
+     * new as the NDJSON.gz cache. Otherwise the NDJSON.gz cache is parsed — its gzip
+     * members in parallel when the chunk index is present, sequentially for a cache
+     * written by an older version or on a single-core machine — and the snapshot is rebuilt from it for the
+     * next launch, and the shards are split from whichever was loaded. A
+     * price-refresh delta written since is then applied on top.
+     *
+     * @param progress optional progress / cancellation callback; may be {@code null}.
+     *                 Parallel loads report from pool threads.
+     * @return the number of cards loaded
+     * @throws java.io.InterruptedIOException if cancelled via the progress callback
+     * @throws IOException if no cache file exists or none can be read
+     */
+    public synchronized int loadFromDisk(DownloadProgress progress) throws IOException {
+        File cacheFile    = getCacheFile();
+        File snapshotFile = getSnapshotFile();
+        promotePendingSnapshot();
+        if (current == null) removeStaleShards();
+
+        try {
+            ShardedCatalogStore sharded = ShardedCatalogStore.open(getShardDir(), cacheChecksum());
+            if (sharded != null) {
+                setCatalog(sharded, readDeltaLog(sharded), recordedRelease());
+                if (source != null) preloadRecentSets(sharded);
+                return getCardCount();
+            }
+        } catch (IOException e) {
+            System.err.println("[Catalog] Shard manifest unreadable, loading in full: " + e.getMessage());
+        }
+
+        if (snapshotFile.exists()
+                && (!cacheFile.exists() || snapshotFile.lastModified() >= cacheFile.lastModified())) {
+            try {
+                CatalogSnapshot snapshot = CatalogSnapshot.open(snapshotFile);
+                setCatalog(snapshot, readDeltaLog(snapshot), recordedRelease());
+                installShards(snapshot);
+                return getCardCount();
+            } catch (IOException e) {
+                System.err.println("[Catalog] Snapshot unreadable, falling back to NDJSON: "
+                        + e.getMessage());
+            }
+        }
+
         if (!cacheFile.exists()) {
             throw new IOException("Catalog cache not found: " + cacheFile.getAbsolutePath());
         }
 
-        Map<String, Card> newIndex = new HashMap<>(400_000);
-        int count = 0;
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                new GZIPInputStream(new FileInputStream(cacheFile)), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.isBlank()) continue;
-                try {
-                    JSONObject obj = new JSONObject(line);
-                    Card card = cardFromCacheLine(obj);
-                    newIndex.put(obj.getString("k"), card);
-                    count++;
-                } catch (Exception ignored) {
-                    // Skip any malformed lines — they should not occur in a clean cache
-                }
+        IntConsumer onCards = progress == null ? null
+                : n -> progress.onUpdate(n, "Reading catalog\u2026");
+        BooleanSupplier cancelled = progress == null ? null : progress::isCancelled;
+
+        // On a single-core machine the common pool has one worker; merging would only add cost
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long[] chunks = pool.getParallelism() > 1 ? CatalogCacheFile.readChunkOffsets(cacheFile) : null;
+        CompactCatalogStore store = chunks != null
+                ? CatalogCacheFile.readParallel(cacheFile, chunks, pool, onCards, cancelled)
+                : CatalogCacheFile.readSequential(cacheFile, onCards, cancelled);
+
+        CatalogStore loaded = installSnapshot(store);
+        setCatalog(loaded, readDeltaLog(loaded), recordedRelease());
+        installShards(store);
+        return getCardCount();
+    }
+
+    /**
+     * Splits {@code base} into per-set shards for the next launch. Runs after the
+     * catalog is published, so lookups already work; failures are logged and only
+     * mean the next launch loads in full again.
+     */
+    private static void installShards(CatalogStore base) {
+        try {
+            ShardedCatalogStore.write(getShardDir(), base, cacheChecksum());
+        } catch (IOException e) {
+            System.err.println("[Catalog] Could not write catalog shards: " + e.getMessage());
+        }
+    }
+
+    /** Maps the shards of recently traded sets on a background thread. */
+    private static void preloadRecentSets(ShardedCatalogStore sharded) {
+        Thread t = new Thread(() -> {
+            List<String> sets = TradeHistoryService.recentSetCodes(AppDataDirectory.tradesPath(),
+                    LocalDateTime.now().minusDays(PRELOAD_TRADE_DAYS));
+            int read = sharded.preload(sets);
+            System.out.println("[Catalog] Preloaded " + read + " of " + sharded.shardCount()
+                    + " set shards from recent trades");
+        }, "catalog-preload");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Publishes {@code store}, patched by {@code delta} if given, as the next
+     * version. Its autocomplete index is built by the first query that needs it —
+     * building reads every name, which would load every shard of a sharded store.
+     */
+    private synchronized void setCatalog(CatalogStore store, CatalogDelta delta, String releasedAt) {
+        // Read the overlay now, off the EDT, rather than on the first catalog miss
+        overlay.preload();
+        publish(delta == null ? store : new PatchedCatalogStore(store, delta), releasedAt);
+    }
+
+    /**
+     * Publishes {@code live} reduced to the saved {@link CatalogProfile}. If the
+     * reduced copy cannot be built the full catalog is published instead.
+     */
+    private synchronized void publish(CatalogStore live, String releasedAt) {
+        CatalogProfile profile = PreferencesPanel.getCatalogProfile();
+        CatalogStore selected = live;
+        if (profile != CatalogProfile.FULL) {
+            long start = System.currentTimeMillis();
+            try {
+                selected = profile.select(live, hotSetCodes());
+                System.out.println("[Catalog] " + profile.label() + " profile built in "
+                        + (System.currentTimeMillis() - start) + " ms");
+            } catch (RuntimeException | OutOfMemoryError e) {
+                System.err.println("[Catalog] Could not build " + profile.label()
+                        + " profile, keeping the full catalog: " + e.getMessage());
+                profile = CatalogProfile.FULL;
             }
         }
+        source  = profile == CatalogProfile.FULL ? live : null;
+        current = new CatalogVersion(++versionSeq, selected, releasedAt, profile);
+        System.out.printf("[Catalog] Published %s, %.1f MB resident%n",
+                current, current.residentBytes() / 1e6);
+    }
 
-        this.index     = Collections.unmodifiableMap(newIndex);
-        this.cardCount = count;
-        return count;
+    /** Index set codes of sets traded within the configured number of months. */
+    private static List<String> hotSetCodes() {
+        List<String> traded = TradeHistoryService.recentSetCodes(AppDataDirectory.tradesPath(),
+                LocalDateTime.now().minusMonths(PreferencesPanel.getCatalogHotMonths()));
+        List<String> codes = new ArrayList<>(traded.size());
+        for (String code : traded) codes.add(SetRegistry.current().toScryfallCode(code));
+        return codes;
     }
 
-    /** Deserialises a {@link Card} from a compact cache-line JSON object. */
-    private static Card cardFromCacheLine(JSONObject obj) {
-        Card card = new Card();
-        card.setName(obj.getString("nm"));
-        card.setSetCode(obj.getString("s"));
-        card.setCollectorNumber(obj.getString("n"));
-        card.setRarity(obj.optString("r", "common"));
+    /**
+     * Reopens the unreduced catalog — shards, else the mapped snapshot — with its
+     * delta, for a refresh to diff against.
+     *
+     * @return the store, or {@code null} if neither is on disk
+     */
+    private CatalogStore openSource() {
+        try {
+            CatalogStore base = ShardedCatalogStore.open(getShardDir(), cacheChecksum());
+            File snapshotFile = getSnapshotFile();
+            File cacheFile    = getCacheFile();
+            if (base == null && CatalogSnapshot.isValid(snapshotFile)
+                    && (!cacheFile.exists() || snapshotFile.lastModified() >= cacheFile.lastModified())) {
+                base = CatalogSnapshot.open(snapshotFile);
+            }
+            if (base == null) return null;
+            CatalogDelta delta = readDeltaLog(base);
+            return delta == null ? base : new PatchedCatalogStore(base, delta);
+        } catch (IOException e) {
+            System.err.println("[Catalog] Could not reopen catalog: " + e.getMessage());
+            return null;
+        }
+    }
 
-        // Prices: absent key → null → Card.setPrice(null) stores "N/A"
-        card.setPrice(    obj.has("p")  ? obj.getString("p")  : null);
-        card.setFoilPrice(obj.has("fp") ? obj.getString("fp") : null);
-        card.setEtchedPrice(obj.has("ep") ? obj.getString("ep") : null);
+    /** Release recorded beside the cache (which includes any delta), or {@code null}. */
+    private static String recordedRelease() {
+        BulkDataInfo info = BulkDataInfo.read(getInfoFile());
+        return info != null ? info.updatedAt : null;
+    }
 
-        card.setReserved(obj.optBoolean("rl", false));
+    /**
+     * Reads the delta log written against {@code base}. A log that belongs to
+     * another base, or cannot be read, is deleted together with the bulk-data
+     * info (which describes the release the log brought the catalog to), so the
+     * next refresh downloads in full rather than trusting either.
+     *
+     * @return the delta, or {@code null} if there is none to apply
+     */
+    private static CatalogDelta readDeltaLog(CatalogStore base) {
+        File deltaFile = getDeltaFile();
+        if (!deltaFile.exists()) return null;
+        try {
+            CatalogDelta delta = CatalogDelta.read(deltaFile, base, cacheChecksum());
+            if (delta != null) return delta;
+            System.err.println("[Catalog] Delta log does not match the cache, discarding it");
+        } catch (IOException e) {
+            System.err.println("[Catalog] Delta log unreadable, discarding it: " + e.getMessage());
+        }
+        deltaFile.delete();
+        getInfoFile().delete();
+        return null;
+    }
+
+    /** Checksum of the cache file as it was at the given length and modification time. */
+    private record CacheChecksum(long length, long modified, long crc) {}
+
+    private static volatile CacheChecksum knownChecksum;
 
-        if (obj.has("fx")) {
-            JSONArray fxArr = obj.getJSONArray("fx");
-            List<String> fx = new ArrayList<>(fxArr.length());
-            for (int i = 0; i < fxArr.length(); i++) fx.add(fxArr.getString(i));
-            card.setFrameEffects(fx);
+    /**
+     * Checksum of the NDJSON.gz cache, which identifies the base the shards and a
+     * delta were built from (0 if there is no cache). Remembered while the file keeps
+     * its length and modification time, since a cache without a chunk index has to
+     * be read in full to compute it.
+     */
+    private static long cacheChecksum() {
+        File cacheFile = getCacheFile();
+        if (!cacheFile.isFile()) return 0;
+        long length   = cacheFile.length();
+        long modified = cacheFile.lastModified();
+        CacheChecksum known = knownChecksum;
+        if (known != null && known.length() == length && known.modified() == modified) return known.crc();
+        try {
+            known = new CacheChecksum(length, modified, CatalogCacheFile.checksum(cacheFile));
+        } catch (IOException e) {
+            System.err.println("[Catalog] Could not checksum the cache: " + e.getMessage());
+            return 0;
+        }
+        knownChecksum = known;
+        return known.crc();
+    }
+
+    /**
+     * Writes a binary snapshot of {@code cards} and, when it can be put in place,
+     * returns the mapped file so the heap copy can be collected. When it cannot be
+     * mapped, {@code cards} is kept as {@link CatalogSnapshot#inMemory} decides: on
+     * the heap, unless off-heap storage is enabled.
+     */
+    private static CatalogStore installSnapshot(CompactCatalogStore cards) {
+        File snapshotFile = getSnapshotFile();
+        File pendingFile  = getPendingSnapshotFile();
+        try {
+            CatalogSnapshot.write(pendingFile, cards);
+            try {
+                Files.move(pendingFile.toPath(), snapshotFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // The current snapshot is still mapped (Windows locks mapped files);
+                // the pending file is promoted on the next loadFromDisk().
+                return CatalogSnapshot.inMemory(cards);
+            }
+            return CatalogSnapshot.open(snapshotFile);
+        } catch (IOException e) {
+            System.err.println("[Catalog] Could not write snapshot: " + e.getMessage());
+            return CatalogSnapshot.inMemory(cards);
+        }
+    }
+
+    /** Moves a complete pending snapshot over the live one before anything maps it. */
+    private static void promotePendingSnapshot() {
+        File pendingFile = getPendingSnapshotFile();
+        if (!pendingFile.exists()) return;
+        try {
+            if (CatalogSnapshot.isValid(pendingFile)) {
+                Files.move(pendingFile.toPath(), getSnapshotFile().toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(pendingFile.toPath());
+            }
+        } catch (IOException e) {
+            System.err.println("[Catalog] Could not promote pending snapshot: " + e.getMessage());
         }
-        if (obj.has("i")) card.setImageUrl(obj.getString("i"));
-        return card;
     }
 
     // ── Download and build ────────────────────────────────────────────────────
@@ -207,100 +732,162 @@ public class ScryfallCatalogService {
      * streaming (no OOM risk), writes a compact NDJSON.gz cache to disk, and
      * loads the result into the in-memory index.
      *
+     * <p>Reading, splitting, parsing and cache writing run as separate stages of a
+     * {@link BulkImportPipeline} with bounded queues between them, so the build is
+     * limited by the slowest stage (normally the network) rather than by the sum
+     * of all four. A per-stage throughput summary is logged when it finishes.
+     *
+     * <p>The download is skipped when the local cache already holds the published
+     * file: first by comparing {@code updated_at} and size from the bulk-data
+     * listing with what was recorded beside the cache, then by sending the
+     * recorded ETag / Last-Modified as a conditional GET. A skipped refresh loads
+     * the existing cache if it is not in memory yet.
+     *
+     * <p>The raw bulk file is written to a partial file with a checkpoint beside
+     * it and parsed from there as it arrives. Dropped connections are resumed with
+     * {@code Range} requests, and a download that still fails is resumed by the next
+     * call rather than restarted, as long as Scryfall has not published a newer file.
+     *
+     * <p>When a catalog is on disk and its delta is still small, the download is
+     * diffed against it instead of rebuilt: only changed prices, new or altered
+     * printings and removals are kept, written to the delta log and laid over the
+     * live catalog. The cache and snapshot are not rewritten. The churn is logged
+     * and reported as the final progress message.
+     *
      * <p>This method is synchronous and should be called from a background thread
      * (e.g. a {@link javax.swing.SwingWorker}).
      *
      * @param progress optional progress / cancellation callback; may be {@code null}
+     * @return {@code true} if a new file was downloaded, {@code false} if the cache
+     *         was already current (or the operation was cancelled before starting)
      * @throws InterruptedException if cancelled via the progress callback
      * @throws Exception            on any network or I/O failure
      */
-    public void downloadAndBuild(DownloadProgress progress) throws Exception {
+    public boolean downloadAndBuild(DownloadProgress progress) throws Exception {
+        return downloadAndBuild(progress, false);
+    }
+
+    /**
+     * As {@link #downloadAndBuild(DownloadProgress)}; with {@code force} the
+     * download happens even if the cache looks current (e.g. to repair it), and
+     * the cache is always rebuilt in full.
+     */
+    public synchronized boolean downloadAndBuild(DownloadProgress progress, boolean force) throws Exception {
         // Step 1 — find the download URI in Scryfall's bulk-data catalogue
         if (progress != null) {
-            if (progress.isCancelled()) return;
+            if (progress.isCancelled()) return false;
             progress.onUpdate(0, "Looking up Scryfall bulk data URL\u2026");
         }
 
-        JSONObject bulkMeta   = fetchBulkDataMeta();
-        String     downloadUrl = bulkMeta.getString("download_uri");
+        JSONObject   bulkMeta    = fetchBulkDataMeta();
+        refreshSetRegistry();
+        String       downloadUrl = bulkMeta.getString("download_uri");
+        long         now         = System.currentTimeMillis();
+        BulkDataInfo remote      = BulkDataInfo.fromBulkItem(bulkMeta, now);
+        BulkDataInfo local       = isCatalogAvailable() ? BulkDataInfo.read(getInfoFile()) : null;
+
+        if (!force && local != null && local.sameRelease(remote)) {
+            return skipDownload(local.checkedAt(now), progress);
+        }
 
         if (progress != null) {
-            if (progress.isCancelled()) return;
+            if (progress.isCancelled()) return false;
             progress.onUpdate(0, "Connecting to Scryfall\u2026");
         }
 
-        // Step 2 — stream, parse, and write cache simultaneously
+        // Step 2 — diff against the catalog on disk while its delta is small, else rebuild
+        if (!force && !isLoaded() && isCatalogAvailable()) {
+            try {
+                loadFromDisk(progress);
+            } catch (InterruptedIOException e) {
+                return false;
+            } catch (IOException e) {
+                System.err.println("[Catalog] Cache unreadable, rebuilding: " + e.getMessage());
+            }
+        }
+        // Readers keep using the current version until the next one is published
+        CatalogStore live       = source != null ? source : isLoaded() ? openSource() : null;
+        CatalogStore baseStore  = live instanceof PatchedCatalogStore p ? p.base() : live;
+        boolean incremental = !force && baseStore != null
+                && (!(live instanceof PatchedCatalogStore patched)
+                    || patched.delta().entryCount() <= baseStore.size() / DELTA_REBUILD_DIVISOR);
+
+        // Step 3 — stream, parse, and write cache (or diff) simultaneously on separate threads
         File cacheFile = getCacheFile();
         File tmpFile   = new File(cacheFile.getParent(), CACHE_FILENAME + ".tmp");
-        Map<String, Card> newIndex = new HashMap<>(400_000);
+        File indexFile = CatalogCacheFile.indexFileFor(cacheFile);
+        File tmpIndex  = CatalogCacheFile.indexFileFor(tmpFile);
+        CompactCatalogStore.Builder builder = incremental ? null : new CompactCatalogStore.Builder(120_000);
+        CatalogDelta.Builder deltaBuilder   = incremental ? new CatalogDelta.Builder(baseStore, live) : null;
+
+        // The raw body goes to a checkpointed partial file that survives failures and
+        // restarts; the pipeline parses from that file while the bytes are arriving.
+        ResumableDownload download = new ResumableDownload(downloadUrl, getPartialDownloadFile(),
+                remote.updatedAt + "|" + remote.size, ScryfallCatalogService::openConnection,
+                progress == null ? null : progress::isCancelled);
+
+        // Index English, non-digital printings only; the filter runs before anything is decoded
+        BulkImportPipeline pipeline = new BulkImportPipeline(
+                () -> {
+                    BulkCardReader card = new BulkCardReader();
+                    return (cardJson, rec) -> card.parse(cardJson, 0, cardJson.length)
+                            && card.isEnglishPaper()
+                            && processCard(card, rec);
+                },
+                progress == null ? null : progress::isCancelled,
+                progress == null ? null : (phase, cards) -> progress.onUpdate(cards,
+                        download.isComplete() || download.percent() < 0
+                                ? phase : phase + " (" + download.percent() + "% downloaded)"));
 
-        HttpURLConnection conn = null;
         try {
-            conn = openConnection(downloadUrl);
-
-            try (InputStream       httpIn     = conn.getInputStream();
-                 InputStream       streamIn   = maybeWrapGzip(httpIn);
-                 BufferedReader    reader     = new BufferedReader(
-                         new InputStreamReader(streamIn, StandardCharsets.UTF_8), 65_536);
-                 FileOutputStream  fos        = new FileOutputStream(tmpFile);
-                 GZIPOutputStream  gzOut      = new GZIPOutputStream(new BufferedOutputStream(fos));
-                 PrintWriter       cacheWriter = new PrintWriter(
-                         new OutputStreamWriter(gzOut, StandardCharsets.UTF_8))) {
-
-                // The Scryfall bulk file is one giant JSON array: [{card}, {card}, …]
-                // Stream it token-by-token so we never load the whole thing into memory.
-                JSONTokener tokener = new JSONTokener(reader);
-
-                char open = tokener.nextClean();
-                if (open != '[') {
-                    throw new IOException("Expected '[' at start of bulk data, got: '" + open + "'");
-                }
+            boolean conditional = !force && local != null;
+            if (!download.start(conditional ? local.etag : null, conditional ? local.lastModified : null)) {
+                // Same file under a new listing timestamp — adopt it so the next check is cheap
+                return skipDownload(remote.withValidators(local.etag, local.lastModified), progress);
+            }
 
-                int     cardsProcessed = 0;
-                boolean done           = false;
-
-                while (!done) {
-                    if (progress != null && progress.isCancelled()) {
-                        tmpFile.delete();
-                        throw new InterruptedException("Catalog download cancelled by user");
-                    }
-
-                    char c = tokener.nextClean();
-                    switch (c) {
-                        case ']' -> done = true;
-                        case ',' -> { /* separator between objects */ }
-                        case '{' -> {
-                            tokener.back();
-                            JSONObject cardJson = new JSONObject(tokener);
-
-                            // Index English, non-digital printings only
-                            if ("en".equals(cardJson.optString("lang"))
-                                    && !cardJson.optBoolean("digital", false)) {
-                                processCardJson(cardJson, newIndex, cacheWriter);
-                                cardsProcessed++;
-
-                                if (cardsProcessed % 5_000 == 0 && progress != null) {
-                                    progress.onUpdate(cardsProcessed, "Parsing cards\u2026");
-                                }
-                            }
-                        }
-                        default -> {
-                            // Unexpected character; treat end-of-stream as end of array
-                            if (!tokener.more()) done = true;
-                        }
-                    }
+            int cardsProcessed;
+            try (InputStream rawIn    = download.openStream();
+                 InputStream streamIn = maybeWrapGzip(rawIn);
+                 CatalogCacheFile.Writer cacheWriter = incremental ? null
+                         : new CatalogCacheFile.Writer(tmpFile, tmpIndex)) {
+                cardsProcessed = incremental
+                        ? pipeline.run(streamIn, deltaBuilder::accept)
+                        : pipeline.run(streamIn, builder, cacheWriter);
+            } catch (IOException | InterruptedException e) {
+                // The writer is closed by now, so its files can be deleted
+                if (!incremental) {
+                    tmpFile.delete();
+                    tmpIndex.delete();
                 }
+                // A fully downloaded file that does not parse would fail the same way
+                // on every resume — drop it. Otherwise keep it for the next attempt.
+                if (download.isComplete() && !(e instanceof InterruptedException)) download.discard();
+                throw e;
+            }
+            System.out.println("[Catalog] " + pipeline.summary());
 
-                cacheWriter.flush();
-                if (progress != null) {
-                    progress.onUpdate(cardsProcessed, "Saving catalog to disk\u2026");
-                }
+            if (progress != null && !incremental) {
+                progress.onUpdate(cardsProcessed, "Saving catalog to disk\u2026");
             }
         } finally {
-            if (conn != null) conn.disconnect();
+            download.close();
         }
-
-        // Step 3 — atomically replace the old cache file
+        String etag         = download.etag();
+        String lastModified = download.lastModified();
+        download.discard();
+
+        BulkDataInfo info = remote.withValidators(etag, lastModified);
+        if (incremental) return applyDelta(deltaBuilder, baseStore, info, progress);
+
+        // Step 4 — atomically replace the old cache file; the chunk index and the
+        // bulk-data info go last so that an interrupted swap leaves neither describing
+        // the wrong file. The delta log goes first: it only fits the old cache.
+        File infoFile = getInfoFile();
+        File deltaFile = getDeltaFile();
+        if (deltaFile.exists()) deltaFile.delete();
+        if (infoFile.exists())  infoFile.delete();
+        if (indexFile.exists()) indexFile.delete();
         if (cacheFile.exists()) cacheFile.delete();
         if (!tmpFile.renameTo(cacheFile)) {
             // Fallback for cross-device moves (e.g. temp dir on a different drive)
@@ -310,13 +897,87 @@ public class ScryfallCatalogService {
             }
             tmpFile.delete();
         }
+        if (!tmpIndex.renameTo(indexFile)) tmpIndex.delete(); // falls back to a sequential load
+        recordInfo(info);
+        updateAvailable = false;
 
-        this.index     = Collections.unmodifiableMap(newIndex);
-        this.cardCount = newIndex.size();
+        CompactCatalogStore built = builder.build();
+        setCatalog(installSnapshot(built), null, info.updatedAt);
+        installShards(built);
+        evictCoveredFromOverlay();
 
         if (progress != null) {
-            progress.onUpdate(this.cardCount,
-                    "Done \u2014 " + this.cardCount + " cards indexed.");
+            progress.onUpdate(getCardCount(),
+                    "Done \u2014 " + getCardCount() + " cards indexed.");
+        }
+        return true;
+    }
+
+    /**
+     * Asks Scryfall whether the published bulk file differs from the cached one,
+     * without downloading it. Records the check time beside the cache.
+     *
+     * @return {@code true} if newer data is available (or nothing is cached)
+     * @throws Exception on any network failure
+     */
+    public boolean checkForUpdate() throws Exception {
+        long now = System.currentTimeMillis();
+        BulkDataInfo remote = BulkDataInfo.fromBulkItem(fetchBulkDataMeta(), now);
+        BulkDataInfo local  = isCatalogAvailable() ? BulkDataInfo.read(getInfoFile()) : null;
+        boolean newer = local == null || !local.sameRelease(remote);
+        if (local != null) recordInfo(local.checkedAt(now));
+        updateAvailable = newer;
+        return newer;
+    }
+
+    /**
+     * Completes an incremental refresh: persists the delta, lays it over the base
+     * and records the new release. If the delta cannot be written the catalog is
+     * still patched for this session, but the old release stays recorded so the
+     * next refresh fetches the prices again.
+     */
+    private boolean applyDelta(CatalogDelta.Builder deltaBuilder, CatalogStore baseStore,
+                               BulkDataInfo info, DownloadProgress progress) {
+        CatalogDelta delta = deltaBuilder.build(cacheChecksum(), info.updatedAt);
+        String churn = deltaBuilder.churnSummary();
+        System.out.println("[Catalog] Price refresh: " + churn + "; delta holds "
+                + delta.entryCount() + " entries");
+
+        boolean saved = true;
+        try {
+            delta.write(getDeltaFile());
+        } catch (IOException e) {
+            saved = false;
+            System.err.println("[Catalog] Could not write delta log: " + e.getMessage());
+        }
+        setCatalog(baseStore, delta, info.updatedAt);
+        evictCoveredFromOverlay();
+        if (saved) recordInfo(info);
+        updateAvailable = false;
+
+        if (progress != null) {
+            progress.onUpdate(getCardCount(), "Done \u2014 " + churn + ".");
+        }
+        return true;
+    }
+
+    /** Completes a refresh that found the cache current: records the check and ensures it is loaded. */
+    private boolean skipDownload(BulkDataInfo info, DownloadProgress progress) throws IOException {
+        recordInfo(info);
+        updateAvailable = false;
+        if (!isLoaded()) loadFromDisk(progress);
+        if (progress != null) {
+            progress.onUpdate(getCardCount(), "Catalog already up to date \u2014 "
+                    + getCardCount() + " cards.");
+        }
+        return false;
+    }
+
+    private static void recordInfo(BulkDataInfo info) {
+        try {
+            info.write(getInfoFile());
+        } catch (IOException e) {
+            System.err.println("[Catalog] Could not record bulk-data info: " + e.getMessage());
         }
     }
 
@@ -327,27 +988,43 @@ public class ScryfallCatalogService {
      * the {@code default_cards} type.
      */
     private JSONObject fetchBulkDataMeta() throws Exception {
-        HttpURLConnection conn = openConnection(BULK_DATA_API);
+        ScryfallRateLimiter.getInstance().acquire(BULK_DATA_API);
+        HttpResponse<InputStream> conn = ScryfallHttp.send(
+                ScryfallHttp.get(BULK_DATA_API, API_TIMEOUT).build());
+        if (conn.statusCode() != 200) {
+            ScryfallHttp.discard(conn);
+            throw new IOException("Scryfall bulk-data API returned HTTP " + conn.statusCode());
+        }
+        JSONObject response = ScryfallHttp.readJson(conn);
+        JSONArray  items    = response.getJSONArray("data");
+        for (int i = 0; i < items.length(); i++) {
+            JSONObject item = items.getJSONObject(i);
+            if ("default_cards".equals(item.optString("type"))) return item;
+        }
+        throw new IOException("'default_cards' type not found in Scryfall bulk-data response");
+    }
+
+    /**
+     * Downloads Scryfall's set list, caches it and installs it as the current
+     * {@link SetRegistry}, so sets released since the last refresh are known. On
+     * failure the registry in use is kept.
+     */
+    private void refreshSetRegistry() {
         try {
-            if (conn.getResponseCode() != 200) {
-                throw new IOException("Scryfall bulk-data API returned HTTP "
-                        + conn.getResponseCode());
-            }
-            StringBuilder sb = new StringBuilder();
-            try (BufferedReader r = new BufferedReader(new InputStreamReader(
-                    conn.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = r.readLine()) != null) sb.append(line);
+            ScryfallRateLimiter.getInstance().acquire(SETS_API);
+            HttpResponse<InputStream> conn = ScryfallHttp.send(
+                    ScryfallHttp.get(SETS_API, API_TIMEOUT).build());
+            if (conn.statusCode() != 200) {
+                ScryfallHttp.discard(conn);
+                throw new IOException("Scryfall sets API returned HTTP " + conn.statusCode());
             }
-            JSONObject response = new JSONObject(sb.toString());
-            JSONArray  items    = response.getJSONArray("data");
-            for (int i = 0; i < items.length(); i++) {
-                JSONObject item = items.getJSONObject(i);
-                if ("default_cards".equals(item.optString("type"))) return item;
-            }
-            throw new IOException("'default_cards' type not found in Scryfall bulk-data response");
-        } finally {
-            conn.disconnect();
+            SetRegistry registry = SetRegistry.fromJson(ScryfallHttp.readJson(conn).getJSONArray("data"));
+            registry.write(SetRegistry.cacheFile());
+            SetRegistry.install(registry);
+            System.out.println("[Sets] Set list updated: " + registry.sets().size()
+                    + " sets, " + registry.keyCount() + " lookup keys");
+        } catch (Exception e) {
+            System.err.println("[Sets] Could not refresh set list: " + e.getMessage());
         }
     }
 
@@ -368,121 +1045,61 @@ public class ScryfallCatalogService {
         return pb;
     }
 
+    /**
+     * Opens the bulk-file connection for {@link ResumableDownload}. The bulk file is
+     * one long transfer from its own host, where a pooled connection would save
+     * nothing; the small API requests go through {@link ScryfallHttp}.
+     */
     private static HttpURLConnection openConnection(String url) throws Exception {
         HttpURLConnection conn = (HttpURLConnection) new URI(url).toURL().openConnection();
-        conn.setRequestProperty("User-Agent", USER_AGENT);
+        conn.setRequestProperty("User-Agent", ScryfallHttp.USER_AGENT);
         conn.setConnectTimeout(30_000);
         conn.setReadTimeout(180_000); // bulk file is large — allow up to 3 min
         return conn;
     }
 
     /**
-     * Parses one card JSON object from the Scryfall bulk array, adds it to the
-     * in-memory index, and appends a compact line to the NDJSON.gz cache writer.
+     * Fills {@code rec} from one bulk card located by {@code card}.
      *
      * <p>PLST cards are stored with the <em>source</em> set code and collector
      * number (e.g. setCode="ARB", collNum="1") to match the behaviour of
      * {@link ScryfallApiService#parseCardFromJson}, while the index key uses the
      * full PLST composite number (e.g. {@code "PLST:ARB-1"}).
+     *
+     * @return {@code true} if {@code rec} was filled; {@code false} for malformed entries
      */
-    private static void processCardJson(JSONObject json,
-                                        Map<String, Card> index,
-                                        PrintWriter cacheWriter) {
-        try {
-            String rawSet  = json.getString("set");               // "tdm", "plst", "lea"
-            String rawColl = json.getString("collector_number");  // "3", "ARB-1", "73★"
-            String name    = json.getString("name");
-            String rarity  = json.optString("rarity", "common");
-            boolean reserved = json.optBoolean("reserved", false);
-
-            // ── Set code and collector number normalisation ────────────────────
-            String setCode; // stored in Card and cache
-            String collNum; // stored in Card and cache
-            String key;     // index key
-
-            if ("plst".equals(rawSet)) {
-                // PLST composite collector numbers are "SET-NUM", e.g. "ARB-1"
-                int hyphen = rawColl.lastIndexOf('-');
-                if (hyphen <= 0) return; // malformed — skip
-                setCode = rawColl.substring(0, hyphen).toUpperCase(); // "ARB"
-                collNum = rawColl.substring(hyphen + 1);              // "1"
-                key     = "PLST:" + rawColl.toUpperCase();            // "PLST:ARB-1"
-            } else {
-                setCode = rawSet.toUpperCase();                                // "TDM"
-                collNum = rawColl.replaceAll("[^0-9A-Za-z\\-]", "");           // "73" (strips ★)
-                key     = setCode + ":" + collNum.toUpperCase();               // "TDM:3"
-            }
-
-            // ── Prices ────────────────────────────────────────────────────────
-            String normalPrice  = null;
-            String foilPrice    = null;
-            String etchedPrice  = null;
-            if (json.has("prices")) {
-                JSONObject prices = json.getJSONObject("prices");
-                if (!prices.isNull("usd"))        normalPrice  = prices.getString("usd");
-                if (!prices.isNull("usd_foil"))   foilPrice    = prices.getString("usd_foil");
-                if (!prices.isNull("usd_etched")) etchedPrice  = prices.getString("usd_etched");
-            }
-
-            // ── Frame effects ─────────────────────────────────────────────────
-            List<String> frameEffects = new ArrayList<>();
-            if (json.has("frame_effects")) {
-                JSONArray fxArr = json.getJSONArray("frame_effects");
-                for (int i = 0; i < fxArr.length(); i++) frameEffects.add(fxArr.getString(i));
-            }
-
-            // ── Image URL ─────────────────────────────────────────────────────
-            String imageUrl = null;
-            if (json.has("image_uris")) {
-                JSONObject iu = json.getJSONObject("image_uris");
-                if (iu.has("normal")) imageUrl = iu.getString("normal");
-            } else if (json.has("card_faces")) {
-                JSONArray faces = json.getJSONArray("card_faces");
-                if (faces.length() > 0) {
-                    JSONObject front = faces.getJSONObject(0);
-                    if (front.has("image_uris")) {
-                        JSONObject iu = front.getJSONObject("image_uris");
-                        if (iu.has("normal")) imageUrl = iu.getString("normal");
-                    }
-                }
-            }
-
-            // ── Build Card object ─────────────────────────────────────────────
-            Card card = new Card();
-            card.setName(name);
-            card.setSetCode(setCode);
-            card.setCollectorNumber(collNum);
-            card.setRarity(rarity);
-            card.setPrice(normalPrice);
-            card.setFoilPrice(foilPrice);
-            card.setEtchedPrice(etchedPrice);
-            card.setReserved(reserved);
-            if (!frameEffects.isEmpty()) card.setFrameEffects(frameEffects);
-            if (imageUrl != null) card.setImageUrl(imageUrl);
-
-            index.put(key, card);
-
-            // ── Write compact NDJSON cache line ───────────────────────────────
-            JSONObject cacheObj = new JSONObject();
-            cacheObj.put("k",  key);
-            cacheObj.put("nm", name);
-            cacheObj.put("s",  setCode);
-            cacheObj.put("n",  collNum);
-            cacheObj.put("r",  rarity);
-            if (normalPrice  != null) cacheObj.put("p",  normalPrice);
-            if (foilPrice    != null) cacheObj.put("fp", foilPrice);
-            if (etchedPrice  != null) cacheObj.put("ep", etchedPrice);
-            if (reserved)             cacheObj.put("rl", true);
-            if (!frameEffects.isEmpty()) {
-                JSONArray fxArr = new JSONArray();
-                frameEffects.forEach(fxArr::put);
-                cacheObj.put("fx", fxArr);
-            }
-            if (imageUrl != null) cacheObj.put("i", imageUrl);
-            cacheWriter.println(cacheObj);
-
-        } catch (Exception ignored) {
-            // Skip individual malformed entries without aborting the whole build
+    private static boolean processCard(BulkCardReader card, CatalogRecord rec) {
+        rec.clear();
+        String rawSet  = card.string(Field.SET);               // "tdm", "plst", "lea"
+        String rawColl = card.string(Field.COLLECTOR_NUMBER);  // "3", "ARB-1", "73★"
+        rec.name       = card.string(Field.NAME);
+        if (rawSet == null || rawColl == null || rec.name == null) return false; // malformed — skip
+        if (card.has(Field.RARITY)) rec.rarity = card.string(Field.RARITY);
+        rec.reserved = card.bool(Field.RESERVED);
+        rec.artist   = card.string(Field.ARTIST);
+
+        // ── Set code and collector number normalisation ────────────────────
+        if ("plst".equals(rawSet)) {
+            // PLST composite collector numbers are "SET-NUM", e.g. "ARB-1"
+            int hyphen = rawColl.lastIndexOf('-');
+            if (hyphen <= 0) return false; // malformed — skip
+            rec.setCode         = rawColl.substring(0, hyphen).toUpperCase(); // "ARB"
+            rec.collectorNumber = rawColl.substring(hyphen + 1);              // "1"
+            rec.keySet          = "PLST";
+            rec.keyCollector    = rawColl.toUpperCase();                      // "ARB-1"
+        } else {
+            rec.setCode         = rawSet.toUpperCase();                       // "TDM"
+            rec.collectorNumber = CatalogKeys.stripCollector(rawColl);        // "73" (strips ★)
+            rec.keySet          = rec.setCode;
+            rec.keyCollector    = rec.collectorNumber.toUpperCase();          // "3"
         }
+
+        // ── Prices, frame effects, image ──────────────────────────────────────
+        rec.priceCents  = card.cents(Field.USD);
+        rec.foilCents   = card.cents(Field.USD_FOIL);
+        rec.etchedCents = card.cents(Field.USD_ETCHED);
+        card.strings(Field.FRAME_EFFECTS, rec.frameEffects);
+        rec.imageUrl = card.string(Field.IMAGE_NORMAL);
+        return true;
     }
 }
@@ -0,0 +1,133 @@
+package com.cardpricer.service;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The one {@link HttpClient} every Scryfall request goes through: API calls,
+ * catalog metadata, the set list and card images.
+ *
+ * <p>Sharing the client is what makes connections reusable — it keeps them alive
+ * between requests and speaks HTTP/2 where the server does, so a card preview
+ * after the first one skips the TCP and TLS handshakes. Responses are requested
+ * gzip-compressed and decoded by {@link #body}. {@link #warmUp} opens the
+ * connections at startup so even the first lookup finds them ready.
+ */
+public final class ScryfallHttp {
+
+    public static final String USER_AGENT = "CardPricerApp/1.0";
+
+    /** Hosts connected to ahead of the first request. */
+    private static final String[] WARM_UP_URLS = {
+            "https://api.scryfall.com/", "https://cards.scryfall.io/"
+    };
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private ScryfallHttp() {}
+
+    /** Returns the shared client. */
+    public static HttpClient client() { return CLIENT; }
+
+    /**
+     * Starts a GET with the app's User-Agent, asking for a gzip-compressed body.
+     *
+     * @param url     absolute, already-encoded URL
+     * @param timeout limit for the whole response to arrive
+     */
+    public static HttpRequest.Builder get(String url, Duration timeout) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+    }
+
+    /**
+     * Starts a POST of a JSON body with the app's User-Agent, asking for a
+     * gzip-compressed reply.
+     *
+     * @param url     absolute, already-encoded URL
+     * @param json    request body
+     * @param timeout limit for the whole response to arrive
+     */
+    public static HttpRequest.Builder post(String url, String json, Duration timeout) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", "gzip")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8));
+    }
+
+    /** Sends {@code request} and returns the response with its body as a stream. */
+    public static HttpResponse<InputStream> send(HttpRequest request) throws IOException, InterruptedException {
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /** The response body, decompressed if the server sent it gzip-encoded. */
+    public static InputStream body(HttpResponse<InputStream> response) throws IOException {
+        InputStream in = response.body();
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(v -> v.equalsIgnoreCase("gzip")).orElse(false);
+        return gzip ? new GZIPInputStream(in, 8_192) : in;
+    }
+
+    /**
+     * Parses the response body as a JSON object straight from the stream, then
+     * finishes the body with {@link #discard}.
+     */
+    public static JSONObject readJson(HttpResponse<InputStream> response) throws IOException {
+        try {
+            return new JSONObject(new JSONTokener(new InputStreamReader(body(response), StandardCharsets.UTF_8)));
+        } finally {
+            discard(response);
+        }
+    }
+
+    /**
+     * Reads whatever is left of a response body and closes it. A body closed
+     * before its end takes its connection down with it; read to the end, the
+     * connection goes back to the pool. Parsers stop at the end of their data,
+     * so call this after them too. Failures are ignored; the connection is then
+     * simply not reused.
+     */
+    public static void discard(HttpResponse<InputStream> response) {
+        try (InputStream in = response.body()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Opens connections to the Scryfall hosts in the background, so the first
+     * lookup does not pay for the handshakes. Failures are ignored — the
+     * request that needs the connection will report them.
+     */
+    public static void warmUp() {
+        for (String url : WARM_UP_URLS) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("User-Agent", USER_AGENT)
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            CLIENT.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.cardpricer.service;
+
+import com.cardpricer.exception.ScryfallApiException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Command-line latency benchmark for single-card API fetches. Not used by the
+ * application; run by hand:
+ *
+ * <pre>
+ *   java -cp out:lib/* com.cardpricer.service.ScryfallHttpBenchmark [steps] [rttMs] [keystore.p12 password]
+ * </pre>
+ *
+ * <p>Starts a local stub of {@code /cards/{set}/{number}} that answers one
+ * number with a card object sized like Scryfall's (gzip-compressed when asked,
+ * as Scryfall does) and every other number with a 404, then runs two workloads
+ * {@code steps} times (default 500) each way:
+ * <ul>
+ *   <li><b>hits</b> — the same card again and again;</li>
+ *   <li><b>typing</b> — a code that does not exist, then the card, as when a
+ *       preview fires on a partly typed or mistyped code before the right one.</li>
+ * </ul>
+ * The two ways are <b>per-request</b> — a new {@link HttpURLConnection} per call,
+ * body read with {@code readLine()} and the connection disconnected, as
+ * {@code makeApiCall} did before it moved to {@link ScryfallHttp} — and
+ * <b>pooled</b>, {@link ScryfallApiService#makeApiCall} on the shared client. It
+ * reports p50, p95 and mean latency per step.
+ *
+ * <p>The JDK keeps a {@code HttpURLConnection} socket alive once its body has
+ * been read to the end, so the old code already reused connections after a
+ * success; it lost them on every error reply, whose body it never read.
+ *
+ * <p>On loopback a handshake costs almost nothing, which hides what reuse saves.
+ * {@code rttMs} (default 0) stands in for the network: the stub holds every reply
+ * for one round trip and every new connection for the handshake's round trips —
+ * one for TCP, one more for TLS 1.3. With a keystore the stub serves HTTPS on
+ * {@code localhost}; create one with:
+ * <pre>
+ *   keytool -genkeypair -keyalg EC -alias stub -dname CN=localhost -ext SAN=dns:localhost \
+ *           -validity 30 -storetype PKCS12 -keystore stub.p12 -storepass changeit
+ * </pre>
+ */
+public final class ScryfallHttpBenchmark {
+
+    private static final int WARM_UP_STEPS = 20;
+    private static final String CARD_PATH = "/cards/mh3/12";
+    private static final byte[] NOT_FOUND = ("{\"object\":\"error\",\"code\":\"not_found\",\"status\":404,"
+            + "\"details\":\"No card found with the given ID or set code and collector number.\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private ScryfallHttpBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int rttMs = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        boolean tls = args.length > 3;
+        if (tls) trustStubCertificate(args[2], args[3].toCharArray());
+
+        byte[] card = sampleCard();
+        ServerSocket server = startStub(card, rttMs, tls ? args[2] : null, tls ? args[3].toCharArray() : null);
+        String base = (tls ? "https" : "http") + "://localhost:" + server.getLocalPort();
+        System.out.printf("Stub at %s, card body %,d bytes, %d ms round trip, %d steps%n",
+                base, card.length, rttMs, steps);
+        try {
+            ScryfallApiService api = new ScryfallApiService();
+            for (boolean typing : new boolean[]{false, true}) {
+                for (int i = 0; i < WARM_UP_STEPS; i++) {
+                    step(base, typing, -1 - i, false, api);
+                    step(base, typing, -1 - i, true, api);
+                }
+                long[] legacy = new long[steps];
+                long[] pooled = new long[steps];
+                for (int i = 0; i < steps; i++) {
+                    legacy[i] = step(base, typing, i, false, api);
+                    pooled[i] = step(base, typing, i, true, api);
+                }
+                System.out.println(typing ? "typing (miss, then hit):" : "hits:");
+                report("per-request", legacy);
+                report("pooled", pooled);
+                System.out.printf("  p50 reduced by %.0f%%%n",
+                        100.0 * (1 - (double) percentile(pooled, 50) / percentile(legacy, 50)));
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    /** Runs one step of a workload; returns its duration in nanoseconds. */
+    private static long step(String base, boolean typing, int i, boolean pooled, ScryfallApiService api)
+            throws Exception {
+        long start = System.nanoTime();
+        if (typing) {
+            // A distinct miss each time, so the not-found cache does not answer it
+            String miss = base + "/cards/mh3/" + (pooled ? "p" : "l") + i;
+            if (pooled) {
+                try {
+                    api.makeApiCall(miss);
+                } catch (ScryfallApiException expected) {
+                    // 404
+                }
+            } else {
+                legacyCall(miss);
+            }
+        }
+        if (pooled) api.makeApiCall(base + CARD_PATH);
+        else        legacyCall(base + CARD_PATH);
+        return System.nanoTime() - start;
+    }
+
+    // ── Clients ───────────────────────────────────────────────────────────────
+
+    /**
+     * The request as {@code makeApiCall} made it before the shared client.
+     *
+     * @return the parsed body, or {@code null} for an error reply
+     */
+    private static JSONObject legacyCall(String url) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URI(url).toURL().openConnection();
+        try {
+            conn.setRequestMethod("GET");
+            conn.setRequestProperty("User-Agent", ScryfallHttp.USER_AGENT);
+            conn.setConnectTimeout(10000);
+            conn.setReadTimeout(10000);
+            if (conn.getResponseCode() != 200) return null;
+            StringBuilder response = new StringBuilder();
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
+                String line;
+                while ((line = in.readLine()) != null) response.append(line);
+            }
+            return new JSONObject(response.toString());
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    // ── Stub server ───────────────────────────────────────────────────────────
+
+    /**
+     * Minimal HTTP/1.1 server: keeps each connection open for as many requests as
+     * the client sends and writes every response in one piece, so neither client
+     * is held up by the server (the JDK's built-in server writes headers and body
+     * separately, which stalls on delayed ACKs).
+     */
+    private static ServerSocket startStub(byte[] body, int rttMs, String keystore, char[] password)
+            throws Exception {
+        ServerSocket server = keystore != null
+                ? stubContext(keystore, password).getServerSocketFactory().createServerSocket()
+                : new ServerSocket();
+        server.bind(new InetSocketAddress("localhost", 0));
+        byte[] plain   = response(200, body, false);
+        byte[] gzipped = response(200, gzip(body), true);
+        byte[] missing = response(404, NOT_FOUND, false);
+        int handshakeMs = rttMs * (keystore != null ? 2 : 1);
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread t = new Thread(() -> serve(socket, plain, gzipped, missing, handshakeMs, rttMs), "stub-connection");
+                    t.setDaemon(true);
+                    t.start();
+                } catch (IOException e) {
+                    return; // closed
+                }
+            }
+        }, "stub-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server;
+    }
+
+    private static void serve(Socket socket, byte[] plain, byte[] gzipped, byte[] missing,
+                              int handshakeMs, int rttMs) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            pause(handshakeMs);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            StringBuilder headers = new StringBuilder();
+            int c;
+            while ((c = in.read()) >= 0) {
+                headers.append((char) c);
+                if (headers.length() >= 4 && headers.lastIndexOf("\r\n\r\n") == headers.length() - 4) {
+                    String request = headers.toString();
+                    String path = request.substring(request.indexOf(' ') + 1, request.indexOf(" HTTP/"));
+                    boolean gzip = request.toLowerCase(Locale.ROOT).contains("accept-encoding: gzip");
+                    pause(rttMs);
+                    out.write(!path.equals(CARD_PATH) ? missing : gzip ? gzipped : plain);
+                    out.flush();
+                    headers.setLength(0);
+                }
+            }
+        } catch (IOException ignored) {
+            // client went away
+        }
+    }
+
+    private static void pause(int ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** A complete response, headers and body. */
+    private static byte[] response(int status, byte[] body, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(("HTTP/1.1 " + status + (status == 200 ? " OK" : " Not Found") + "\r\n"
+                + "Content-Type: application/json; charset=utf-8\r\n"
+                + (gzip ? "Content-Encoding: gzip\r\n" : "")
+                + "Content-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+        return out.toByteArray();
+    }
+
+    private static SSLContext stubContext(String keystore, char[] password) throws Exception {
+        KeyStore ks = KeyStore.getInstance("PKCS12");
+        try (InputStream in = new FileInputStream(keystore)) {
+            ks.load(in, password);
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(ks, password);
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(ks);
+        SSLContext ctx = SSLContext.getInstance("TLS");
+        ctx.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
+        return ctx;
+    }
+
+    /**
+     * Makes the stub's self-signed certificate trusted by both clients. Must run
+     * before {@link ScryfallHttp} is first used, since its client captures the
+     * default context when it is built.
+     */
+    private static void trustStubCertificate(String keystore, char[] password) throws Exception {
+        SSLContext ctx = stubContext(keystore, password);
+        SSLContext.setDefault(ctx);
+        HttpsURLConnection.setDefaultSSLSocketFactory(ctx.getSocketFactory());
+    }
+
+    /** A card object shaped and sized like a real {@code /cards/{set}/{number}} reply. */
+    private static byte[] sampleCard() {
+        JSONObject card = new JSONObject()
+                .put("object", "card").put("id", "4f9b0ae9-36c9-4bd7-8e51-1b3c3f9e0b52")
+                .put("name", "Sample Card").put("set", "mh3").put("collector_number", "12")
+                .put("rarity", "rare").put("lang", "en").put("reserved", false)
+                .put("artist", "Sample Artist").put("type_line", "Creature — Elemental")
+                .put("mana_cost", "{2}{U}{U}").put("cmc", 4)
+                .put("oracle_text", "Flying\nWhen this creature enters, draw two cards, then discard a card.")
+                .put("frame_effects", new JSONArray().put("showcase"))
+                .put("prices", new JSONObject().put("usd", "12.34").put("usd_foil", "23.45")
+                        .put("usd_etched", JSONObject.NULL).put("eur", "10.00"));
+        JSONObject images = new JSONObject();
+        for (String size : new String[]{"small", "normal", "large", "png", "art_crop", "border_crop"}) {
+            images.put(size, "https://cards.scryfall.io/" + size + "/front/4/f/4f9b0ae9-36c9-4bd7-8e51-1b3c3f9e0b52.jpg?1717012345");
+        }
+        card.put("image_uris", images);
+        JSONObject legalities = new JSONObject();
+        for (String format : new String[]{"standard", "future", "historic", "timeless", "gladiator", "pioneer",
+                "explorer", "modern", "legacy", "pauper", "vintage", "penny", "commander", "oathbreaker",
+                "standardbrawl", "brawl", "alchemy", "paupercommander", "duel", "oldschool", "premodern", "predh"}) {
+            legalities.put(format, "legal");
+        }
+        card.put("legalities", legalities);
+        return card.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(bytes)) {
+            gz.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    // ── Reporting ─────────────────────────────────────────────────────────────
+
+    private static void report(String label, long[] nanos) {
+        double mean = Arrays.stream(nanos).average().orElse(0) / 1e6;
+        System.out.printf("  %-12s p50 %7.3f ms   p95 %7.3f ms   mean %7.3f ms%n",
+                label, percentile(nanos, 50) / 1e6, percentile(nanos, 95) / 1e6, mean);
+    }
+
+    private static long percentile(long[] values, int p) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)];
+    }
+}
@@ -0,0 +1,185 @@
+package com.cardpricer.service;
+
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide pacing of Scryfall API requests, shared by every caller: single
+ * lookups, set listings, collection batches and the catalog's metadata checks.
+ *
+ * <p>Each endpoint group has its own token bucket sized to Scryfall's published
+ * limits — {@code /cards/search}, {@code /cards/named}, {@code /cards/random} and
+ * {@code /cards/collection} 2 requests a second, everything else 10. A caller
+ * {@link #acquire acquires} a permit before each request and waits only as long
+ * as its bucket requires; permits are handed out in arrival order, so parallel
+ * callers together stay within the limit instead of each pacing itself.
+ *
+ * <p>A 429 reply is reported through {@link #throttled}: the group pauses for the
+ * server's {@code Retry-After} (or a short back-off when it sends none) and its
+ * rate is halved, then climbs back to the published limit over the following
+ * seconds while no further 429 arrives.
+ */
+public final class ScryfallRateLimiter {
+
+    /** Endpoint groups with separate budgets. */
+    public enum Endpoint {
+        SEARCH(2, 1),
+        COLLECTION(2, 1),
+        CARD(10, 2);
+
+        /** Published limit, requests per second. */
+        final double ratePerSecond;
+        /** Requests that may go out back to back after an idle spell. */
+        final int burst;
+
+        Endpoint(double ratePerSecond, int burst) {
+            this.ratePerSecond = ratePerSecond;
+            this.burst = burst;
+        }
+
+        /** Classifies an API URL by its path; unknown paths count as {@link #CARD}. */
+        public static Endpoint of(String url) {
+            String path;
+            try {
+                path = Optional.ofNullable(URI.create(url).getRawPath()).orElse("");
+            } catch (IllegalArgumentException e) {
+                path = "";
+            }
+            if (path.startsWith("/cards/collection")) return COLLECTION;
+            if (path.startsWith("/cards/search") || path.startsWith("/cards/named")
+                    || path.startsWith("/cards/random")) return SEARCH;
+            return CARD;
+        }
+    }
+
+    /** Back-off after a 429 that carries no Retry-After. */
+    private static final long DEFAULT_BACKOFF_MS = 1_000;
+    /** Retry-After values beyond this are capped; Scryfall asks for seconds, not minutes. */
+    private static final long MAX_BACKOFF_MS = 60_000;
+    /** After a 429, the rate never drops below the published limit divided by this. */
+    private static final int  MAX_SLOWDOWN = 8;
+    /** Seconds without a 429 for a halved rate to recover fully. */
+    private static final double RECOVERY_SECONDS = 10;
+
+    private static final ScryfallRateLimiter INSTANCE = new ScryfallRateLimiter();
+
+    /** Returns the singleton instance. */
+    public static ScryfallRateLimiter getInstance() { return INSTANCE; }
+
+    private final Map<Endpoint, Bucket> buckets = new EnumMap<>(Endpoint.class);
+
+    private ScryfallRateLimiter() {
+        for (Endpoint e : Endpoint.values()) buckets.put(e, new Bucket(e));
+    }
+
+    // ── Permits ───────────────────────────────────────────────────────────────
+
+    /**
+     * Waits until a request to {@code url} may be sent.
+     *
+     * @throws InterruptedException if interrupted while waiting; no permit is then used
+     */
+    public void acquire(String url) throws InterruptedException {
+        acquire(Endpoint.of(url));
+    }
+
+    /** Waits until a request to {@code endpoint} may be sent. */
+    public void acquire(Endpoint endpoint) throws InterruptedException {
+        Bucket bucket = buckets.get(endpoint);
+        long waitNanos = bucket.reserve();
+        if (waitNanos <= 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            bucket.giveBack();
+            throw e;
+        }
+    }
+
+    /**
+     * Records a 429 for {@code url}: pauses its group and halves its rate.
+     *
+     * @param retryAfterMs the server's {@code Retry-After} in millis, or a negative
+     *                     value when the reply carried none
+     */
+    public void throttled(String url, long retryAfterMs) {
+        Endpoint endpoint = Endpoint.of(url);
+        long pauseMs = retryAfterMs < 0 ? DEFAULT_BACKOFF_MS : Math.min(retryAfterMs, MAX_BACKOFF_MS);
+        double rate = buckets.get(endpoint).slowDown(pauseMs);
+        System.err.printf("[ScryfallApiService] HTTP 429 on %s — pausing %d ms, then %.1f req/s%n",
+                endpoint, pauseMs, rate);
+    }
+
+    /** Current rate of {@code endpoint} in requests per second. */
+    public double getRate(Endpoint endpoint) {
+        return buckets.get(endpoint).currentRate();
+    }
+
+    // ── Bucket ────────────────────────────────────────────────────────────────
+
+    /**
+     * One token bucket. Tokens may go negative: a caller takes its token at once and
+     * sleeps off the deficit outside the lock, so callers queue in arrival order.
+     */
+    private static final class Bucket {
+        private final Endpoint endpoint;
+        // Guarded by this
+        private double tokens;
+        private double rate;
+        private long   refilledAt = System.nanoTime();
+        private long   pausedUntil;
+
+        Bucket(Endpoint endpoint) {
+            this.endpoint = endpoint;
+            this.rate     = endpoint.ratePerSecond;
+            this.tokens   = endpoint.burst;
+        }
+
+        /** Takes one token; returns how long the caller must wait before using it. */
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            refill(now);
+            tokens -= 1;
+            long deficit = tokens >= 0 ? 0 : (long) (-tokens / rate * 1e9);
+            return Math.max(0, pausedUntil - now) + deficit;
+        }
+
+        /** Returns a token whose caller gave up waiting. */
+        synchronized void giveBack() {
+            tokens = Math.min(tokens + 1, endpoint.burst);
+        }
+
+        /** Pauses the bucket and halves its rate; returns the new rate. */
+        synchronized double slowDown(long pauseMs) {
+            long now = System.nanoTime();
+            refill(now);
+            rate = Math.max(rate / 2, endpoint.ratePerSecond / MAX_SLOWDOWN);
+            pausedUntil = Math.max(pausedUntil, now + TimeUnit.MILLISECONDS.toNanos(pauseMs));
+            // Callers already queued would all fire when the pause ends; start it empty
+            tokens = Math.min(tokens, 0);
+            return rate;
+        }
+
+        synchronized double currentRate() {
+            refill(System.nanoTime());
+            return rate;
+        }
+
+        private void refill(long now) {
+            // No tokens accrue while paused
+            long from = Math.max(refilledAt, pausedUntil);
+            if (now > from) {
+                double seconds = (now - from) / 1e9;
+                tokens = Math.min(endpoint.burst, tokens + seconds * rate);
+                if (rate < endpoint.ratePerSecond) {
+                    rate = Math.min(endpoint.ratePerSecond,
+                            rate + seconds * endpoint.ratePerSecond / RECOVERY_SECONDS);
+                }
+            }
+            refilledAt = Math.max(refilledAt, now);
+        }
+    }
+}
@@ -53,10 +53,53 @@ public class TradeHistoryService {
         return result;
     }
 
+    /**
+     * Returns the set codes of cards received in trades since {@code since}, most
+     * recently traded first, from the POS export CSVs written beside each trade
+     * (the plain-text receipts carry names only).
+     *
+     * @param localDirectory path to the local trades directory (e.g. "data/trades")
+     * @param since          oldest trade to include
+     */
+    public static List<String> recentSetCodes(String localDirectory, LocalDateTime since) {
+        List<File> files = new ArrayList<>();
+        collectCsvFiles(localDirectory, files);
+        String sharedPath = PreferencesPanel.getSharedTradesFolder();
+        if (sharedPath != null && !sharedPath.isBlank()) collectCsvFiles(sharedPath, files);
+
+        Map<File, LocalDateTime> dates = new HashMap<>();
+        for (File f : files) dates.put(f, parseDateFromFilename(f));
+        files.removeIf(f -> dates.get(f).isBefore(since));
+        files.sort((a, b) -> dates.get(b).compareTo(dates.get(a)));
+
+        Set<String> codes = new LinkedHashSet<>();
+        for (File f : files) {
+            try {
+                List<String> lines = Files.readAllLines(f.toPath(), StandardCharsets.UTF_8);
+                for (int i = 1; i < lines.size(); i++) {   // skip the header row
+                    // LINE NO,DEPARTMENT,CATEGORY,TYPE,CODE,... — CODE is "SET NUM[F]"
+                    String[] cols = lines.get(i).split(",", 6);
+                    if (cols.length < 6) continue;
+                    String code = cols[4].trim();
+                    int space = code.indexOf(' ');
+                    if (space > 0) codes.add(code.substring(0, space).toUpperCase());
+                }
+            } catch (IOException ignored) {
+                // Unreadable export — skip it
+            }
+        }
+        return new ArrayList<>(codes);
+    }
+
     // -------------------------------------------------------------------------
     // Helpers
     // -------------------------------------------------------------------------
 
+    private static void collectCsvFiles(String dirPath, List<File> out) {
+        File[] files = new File(dirPath).listFiles(f -> f.isFile() && f.getName().endsWith(".csv"));
+        if (files != null) out.addAll(Arrays.asList(files));
+    }
+
     private static void loadFromDirectory(String dirPath, Map<String, TradeRecord> out) {
         File dir = new File(dirPath);
         if (!dir.exists() || !dir.isDirectory()) return;
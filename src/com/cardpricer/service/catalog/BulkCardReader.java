@@ -0,0 +1,359 @@
+package com.cardpricer.service.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Field-selective reader for one card object of the Scryfall bulk JSON array,
+ * working directly on its UTF-8 bytes.
+ *
+ * <p>A {@link #parse} pass walks the object once and only records <em>where</em>
+ * the handful of wanted values are ({@link Field}); every other subtree —
+ * legalities, oracle text, all-but-one image size, {@code purchase_uris}, … — is
+ * skipped by scanning brackets and quotes, without allocating. Values are decoded
+ * on demand afterwards, so a caller can apply the {@code lang} / {@code digital}
+ * filter ({@link #isEnglishPaper()}) before a single {@code String} is built.
+ * Prices are read straight into cents.
+ *
+ * <p>Instances are reusable but not thread-safe; keep one per parsing thread.
+ */
+public final class BulkCardReader {
+
+    /** Values the reader extracts. */
+    public enum Field {
+        SET("set"),
+        COLLECTOR_NUMBER("collector_number"),
+        NAME("name"),
+        RARITY("rarity"),
+        RESERVED("reserved"),
+        ARTIST("artist"),
+        LANG("lang"),
+        DIGITAL("digital"),
+        FRAME_EFFECTS("frame_effects"),
+        /** {@code prices.usd} */
+        USD("usd"),
+        /** {@code prices.usd_foil} */
+        USD_FOIL("usd_foil"),
+        /** {@code prices.usd_etched} */
+        USD_ETCHED("usd_etched"),
+        /** {@code image_uris.normal}, or {@code card_faces[0].image_uris.normal} when absent */
+        IMAGE_NORMAL("normal");
+
+        final byte[] key;
+
+        Field(String key) { this.key = key.getBytes(StandardCharsets.US_ASCII); }
+    }
+
+    private static final Field[] TOP_LEVEL = {
+            Field.SET, Field.COLLECTOR_NUMBER, Field.NAME, Field.RARITY, Field.RESERVED,
+            Field.ARTIST, Field.LANG, Field.DIGITAL, Field.FRAME_EFFECTS};
+    private static final Field[] PRICE_FIELDS = {Field.USD, Field.USD_FOIL, Field.USD_ETCHED};
+
+    private static final byte[] PRICES     = ascii("prices");
+    private static final byte[] IMAGE_URIS = ascii("image_uris");
+    private static final byte[] CARD_FACES = ascii("card_faces");
+    private static final byte[] EN         = ascii("en");
+
+    // Object contexts: the card, its prices / image_uris, a card face, a face's image_uris
+    private static final int CARD = 0, PRICES_OBJ = 1, IMAGES_OBJ = 2, FACE_OBJ = 3, FACE_IMAGES_OBJ = 4;
+
+    private final int[] start = new int[Field.values().length];
+    private final int[] end   = new int[Field.values().length];
+    private final boolean[] escaped = new boolean[Field.values().length];
+
+    private byte[] buf;
+    private int pos, limit;
+    private boolean topLevelImage;
+    private char[] chars = new char[256];
+
+    // ── Parsing ───────────────────────────────────────────────────────────────
+
+    /**
+     * Locates the wanted fields in one JSON object.
+     *
+     * @return {@code false} if the bytes are not a well-formed object
+     */
+    public boolean parse(byte[] bytes, int offset, int length) {
+        buf   = bytes;
+        pos   = offset;
+        limit = offset + length;
+        Arrays.fill(start, -1);
+        topLevelImage = false;
+        try {
+            readObject(CARD);
+            return true;
+        } catch (IndexOutOfBoundsException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /** Reads an object in one of the {@code CARD} … {@code FACE_IMAGES_OBJ} contexts. */
+    private void readObject(int context) {
+        skipWs();
+        expect('{');
+        skipWs();
+        if (peek() == '}') { pos++; return; }
+        while (true) {
+            skipWs();
+            expect('"');
+            int keyStart = pos;
+            skipStringBody();
+            int keyEnd = pos - 1;
+            skipWs();
+            expect(':');
+            skipWs();
+            dispatch(context, keyStart, keyEnd);
+            skipWs();
+            byte c = buf[pos++];
+            if (c == '}') return;
+            if (c != ',') throw new IllegalStateException();
+        }
+    }
+
+    private void dispatch(int context, int keyStart, int keyEnd) {
+        switch (context) {
+            case CARD -> {
+                for (Field f : TOP_LEVEL) {
+                    if (keyIs(keyStart, keyEnd, f.key)) { capture(f); return; }
+                }
+                if (keyIs(keyStart, keyEnd, PRICES) && peek() == '{') {
+                    readObject(PRICES_OBJ);
+                } else if (keyIs(keyStart, keyEnd, IMAGE_URIS) && peek() == '{') {
+                    topLevelImage = true;
+                    start[Field.IMAGE_NORMAL.ordinal()] = -1; // top-level wins over a face seen earlier
+                    readObject(IMAGES_OBJ);
+                } else if (keyIs(keyStart, keyEnd, CARD_FACES) && peek() == '[') {
+                    readFaces();
+                } else {
+                    skipValue();
+                }
+            }
+            case PRICES_OBJ -> {
+                for (Field f : PRICE_FIELDS) {
+                    if (keyIs(keyStart, keyEnd, f.key)) { capture(f); return; }
+                }
+                skipValue();
+            }
+            case IMAGES_OBJ, FACE_IMAGES_OBJ -> {
+                if (keyIs(keyStart, keyEnd, Field.IMAGE_NORMAL.key)
+                        && (context == IMAGES_OBJ || !topLevelImage)) {
+                    capture(Field.IMAGE_NORMAL);
+                } else {
+                    skipValue();
+                }
+            }
+            case FACE_OBJ -> {
+                if (keyIs(keyStart, keyEnd, IMAGE_URIS) && peek() == '{') readObject(FACE_IMAGES_OBJ);
+                else skipValue();
+            }
+            default -> skipValue();
+        }
+    }
+
+    /** Reads the first face for its image; skips the others. */
+    private void readFaces() {
+        expect('[');
+        skipWs();
+        if (peek() == ']') { pos++; return; }
+        boolean first = true;
+        while (true) {
+            skipWs();
+            if (first && peek() == '{') readObject(FACE_OBJ);
+            else skipValue();
+            first = false;
+            skipWs();
+            byte c = buf[pos++];
+            if (c == ']') return;
+            if (c != ',') throw new IllegalStateException();
+        }
+    }
+
+    /** Records the position of the value at {@code pos} and skips it. */
+    private void capture(Field f) {
+        int i = f.ordinal();
+        if (peek() == '"') {
+            pos++;
+            start[i] = pos;
+            escaped[i] = skipStringBody();
+            end[i] = pos - 1;
+        } else {
+            start[i] = pos;
+            escaped[i] = false;
+            skipValue();
+            end[i] = pos;
+            if (buf[start[i]] == 'n') start[i] = -1; // null
+        }
+    }
+
+    // ── Skipping ──────────────────────────────────────────────────────────────
+
+    private void skipValue() {
+        byte c = buf[pos];
+        if (c == '"') {
+            pos++;
+            skipStringBody();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = buf[pos++];
+                if (c == '"') skipStringBody();
+                else if (c == '{' || c == '[') depth++;
+                else if (c == '}' || c == ']') depth--;
+            } while (depth > 0);
+        } else {
+            while (pos < limit) {
+                c = buf[pos];
+                if (c == ',' || c == '}' || c == ']' || c <= ' ') break;
+                pos++;
+            }
+        }
+    }
+
+    /** Advances past the closing quote; returns {@code true} if the string has escapes. */
+    private boolean skipStringBody() {
+        boolean esc = false;
+        while (true) {
+            byte c = buf[pos++];
+            if (c == '"') return esc;
+            if (c == '\\') {
+                esc = true;
+                pos++;
+            }
+        }
+    }
+
+    private void skipWs() {
+        while (pos < limit && buf[pos] <= ' ') pos++;
+    }
+
+    private byte peek() {
+        if (pos >= limit) throw new IllegalStateException();
+        return buf[pos];
+    }
+
+    private void expect(char c) {
+        if (buf[pos++] != c) throw new IllegalStateException();
+    }
+
+    private boolean keyIs(int from, int to, byte[] key) {
+        if (to - from != key.length) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (buf[from + i] != key[i]) return false;
+        }
+        return true;
+    }
+
+    // ── Values ────────────────────────────────────────────────────────────────
+
+    /** Returns {@code true} for English, non-digital printings; decodes nothing. */
+    public boolean isEnglishPaper() {
+        int l = Field.LANG.ordinal();
+        if (start[l] < 0 || !keyIs(start[l], end[l], EN)) return false;
+        return !bool(Field.DIGITAL);
+    }
+
+    /** Returns {@code true} if the field is present and not {@code null}. */
+    public boolean has(Field f) {
+        return start[f.ordinal()] >= 0;
+    }
+
+    /** Returns a string field, or {@code null} if absent or {@code null}. */
+    public String string(Field f) {
+        int i = f.ordinal();
+        if (start[i] < 0) return null;
+        return decode(start[i], end[i], escaped[i]);
+    }
+
+    /** Returns a boolean field; absent counts as {@code false}. */
+    public boolean bool(Field f) {
+        int i = f.ordinal();
+        return start[i] >= 0 && buf[start[i]] == 't';
+    }
+
+    /**
+     * Reads a decimal price string such as {@code "12.34"} as cents without
+     * allocating.
+     *
+     * @return cents, or -1 if absent, {@code null} or not a plain decimal
+     */
+    public int cents(Field f) {
+        int i = f.ordinal();
+        if (start[i] < 0) return -1;
+        long whole = 0;
+        int frac = 0, fracDigits = -1;
+        for (int p = start[i]; p < end[i]; p++) {
+            byte c = buf[p];
+            if (c == '.' && fracDigits < 0) {
+                fracDigits = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (fracDigits < 0) {
+                    whole = whole * 10 + (c - '0');
+                    if (whole > Integer.MAX_VALUE / 100) return -1;
+                } else if (fracDigits < 2) {
+                    frac = frac * 10 + (c - '0');
+                    fracDigits++;
+                }
+            } else {
+                return -1;
+            }
+        }
+        if (fracDigits == 1) frac *= 10;
+        return (int) (whole * 100 + frac);
+    }
+
+    /** Appends every string of an array field (e.g. frame effects) to {@code out}. */
+    public void strings(Field f, List<String> out) {
+        int i = f.ordinal();
+        if (start[i] < 0 || buf[start[i]] != '[') return;
+        int p = start[i] + 1;
+        int e = end[i] - 1;
+        while (p < e) {
+            byte c = buf[p];
+            if (c == '"') {
+                int s = p + 1;
+                int q = s;
+                boolean esc = false;
+                while (buf[q] != '"') {
+                    if (buf[q] == '\\') { esc = true; q++; }
+                    q++;
+                }
+                out.add(decode(s, q, esc));
+                p = q + 1;
+            } else {
+                p++;
+            }
+        }
+    }
+
+    /** Decodes UTF-8 bytes, resolving JSON escapes when present. */
+    private String decode(int from, int to, boolean hasEscapes) {
+        if (!hasEscapes) return new String(buf, from, to - from, StandardCharsets.UTF_8);
+        String raw = new String(buf, from, to - from, StandardCharsets.UTF_8);
+        if (chars.length < raw.length()) chars = new char[raw.length()];
+        int n = 0;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\') { chars[n++] = c; continue; }
+            char x = raw.charAt(++i);
+            chars[n++] = switch (x) {
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 't' -> '\t';
+                case 'u' -> {
+                    char u = (char) Integer.parseInt(raw, i + 1, i + 5, 16);
+                    i += 4;
+                    yield u;
+                }
+                default -> x; // \" \\ \/
+            };
+        }
+        return new String(chars, 0, n);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
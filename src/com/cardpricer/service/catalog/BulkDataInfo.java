@@ -0,0 +1,115 @@
+package com.cardpricer.service.catalog;
+
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Identity of one published Scryfall bulk file, kept in a small JSON file beside
+ * the catalog cache so a refresh can tell whether anything changed before
+ * downloading.
+ *
+ * <p>{@code updatedAt} and {@code size} come from the {@code /bulk-data} listing;
+ * {@code etag} and {@code lastModified} from the download response, for a
+ * conditional GET. {@code checkedAt} is when the listing was last compared.
+ */
+public final class BulkDataInfo {
+
+    /** Scryfall {@code updated_at} (ISO-8601), or {@code null}. */
+    public final String updatedAt;
+    /** Scryfall {@code size} in bytes, or -1. */
+    public final long size;
+    /** {@code ETag} of the download, or {@code null}. */
+    public final String etag;
+    /** {@code Last-Modified} of the download, or {@code null}. */
+    public final String lastModified;
+    /** Epoch millis of the last metadata check, or 0. */
+    public final long checkedAt;
+
+    public BulkDataInfo(String updatedAt, long size, String etag, String lastModified, long checkedAt) {
+        this.updatedAt    = updatedAt;
+        this.size         = size;
+        this.etag         = etag;
+        this.lastModified = lastModified;
+        this.checkedAt    = checkedAt;
+    }
+
+    /** Builds the published identity from one {@code /bulk-data} item. */
+    public static BulkDataInfo fromBulkItem(JSONObject item, long checkedAt) {
+        return new BulkDataInfo(item.optString("updated_at", null), item.optLong("size", -1),
+                null, null, checkedAt);
+    }
+
+    /**
+     * Returns {@code true} if {@code remote} describes the same published file:
+     * same {@code updated_at} and, when both are known, the same size.
+     */
+    public boolean sameRelease(BulkDataInfo remote) {
+        if (updatedAt == null || remote.updatedAt == null) return false;
+        if (size >= 0 && remote.size >= 0 && size != remote.size) return false;
+        return updatedAt.equals(remote.updatedAt);
+    }
+
+    /** Epoch millis of {@code updatedAt}, or -1 if unknown or unparseable. */
+    public long updatedAtMillis() {
+        if (updatedAt == null) return -1;
+        try {
+            return OffsetDateTime.parse(updatedAt).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /** Returns a copy with a new {@code checkedAt}. */
+    public BulkDataInfo checkedAt(long millis) {
+        return new BulkDataInfo(updatedAt, size, etag, lastModified, millis);
+    }
+
+    /** Returns a copy carrying the download response validators. */
+    public BulkDataInfo withValidators(String etag, String lastModified) {
+        return new BulkDataInfo(updatedAt, size, etag, lastModified, checkedAt);
+    }
+
+    // ── Persistence ───────────────────────────────────────────────────────────
+
+    /** Reads {@code file}; returns {@code null} if it is missing or unreadable. */
+    public static BulkDataInfo read(File file) {
+        if (!file.isFile()) return null;
+        try {
+            JSONObject obj = new JSONObject(Files.readString(file.toPath(), StandardCharsets.UTF_8));
+            return new BulkDataInfo(
+                    obj.optString("updated_at", null),
+                    obj.optLong("size", -1),
+                    obj.optString("etag", null),
+                    obj.optString("last_modified", null),
+                    obj.optLong("checked_at", 0));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /** Writes this info to {@code file}, replacing it atomically where possible. */
+    public void write(File file) throws IOException {
+        JSONObject obj = new JSONObject();
+        if (updatedAt    != null) obj.put("updated_at", updatedAt);
+        if (size         >= 0)    obj.put("size", size);
+        if (etag         != null) obj.put("etag", etag);
+        if (lastModified != null) obj.put("last_modified", lastModified);
+        obj.put("checked_at", checkedAt);
+
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.writeString(tmp.toPath(), obj.toString(2), StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
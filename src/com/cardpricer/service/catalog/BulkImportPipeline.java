@@ -0,0 +1,349 @@
+package com.cardpricer.service.catalog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Staged producer/consumer import of the Scryfall bulk JSON array.
+ *
+ * <pre>
+ *   net ──bytes──▶ split ──JSON spans──▶ parse ×N ──records──▶ write (calling thread)
+ * </pre>
+ *
+ * <ul>
+ *   <li><b>net</b> reads (and, if the caller wrapped it, inflates) the HTTP body
+ *       into 64&nbsp;KB blocks.</li>
+ *   <li><b>split</b> scans the bytes for top-level {@code {…}} objects without
+ *       decoding them and hands them on in batches.</li>
+ *   <li><b>parse</b> workers turn each span into a {@link CatalogRecord} through
+ *       the caller's {@link RecordParser} (normally a {@link BulkCardReader}).</li>
+ *   <li><b>write</b> puts batches back into file order and hands each record to
+ *       the {@link RecordSink}: normally the {@link CompactCatalogStore.Builder}
+ *       plus the {@link CatalogCacheFile.Writer} (gzip compression happens here),
+ *       or a {@link CatalogDelta.Builder} for a price-only refresh.</li>
+ * </ul>
+ *
+ * <p>Every queue is bounded, so a slow stage applies back-pressure to the ones in
+ * front of it rather than letting memory grow. All waits poll the cancellation
+ * check (as do the network reader and the writer between blocks), and a failure
+ * in any stage stops the others. Each stage records how long
+ * it spent working, starved for input and blocked on output; {@link #summary()}
+ * reports that after the run so the bottleneck is visible.
+ */
+public final class BulkImportPipeline {
+
+    /**
+     * Fills {@code rec} from the UTF-8 bytes of one bulk card object; returns
+     * {@code false} to skip it. Each parse thread gets its own instance.
+     */
+    @FunctionalInterface
+    public interface RecordParser {
+        boolean parse(byte[] cardJson, CatalogRecord rec);
+    }
+
+    /** Receives every accepted record, in file order, on the calling thread. */
+    @FunctionalInterface
+    public interface RecordSink {
+        void accept(CatalogRecord rec) throws IOException;
+    }
+
+    private static final int BLOCK_BYTES    = 65_536;
+    private static final int BATCH_SPANS    = 256;
+    private static final int BYTES_QUEUE    = 64;  // ≈ 4 MB of raw JSON in flight
+    private static final int SPANS_QUEUE    = 16;  // batches
+    private static final int RECORDS_QUEUE  = 16;  // batches
+    private static final long POLL_MS       = 100;
+
+    private final Supplier<RecordParser> parsers;
+    private final BooleanSupplier cancelled;
+    private final ObjIntConsumer<String> progress;
+    private final int parseThreads;
+
+    private final BlockingQueue<byte[]>      bytesQ   = new ArrayBlockingQueue<>(BYTES_QUEUE);
+    private final BlockingQueue<SpanBatch>   spansQ   = new ArrayBlockingQueue<>(SPANS_QUEUE);
+    private final BlockingQueue<RecordBatch> recordsQ = new ArrayBlockingQueue<>(RECORDS_QUEUE);
+
+    private final Stage net   = new Stage("net");
+    private final Stage split = new Stage("split");
+    private final Stage parse = new Stage("parse");
+    private final Stage write = new Stage("write");
+
+    private volatile boolean stopped;
+    private volatile Throwable failure;
+    private long startNanos, endNanos;
+
+    /**
+     * @param parsers   creates the per-thread parser that turns one card object into a record
+     * @param cancelled polled by every stage while waiting; may be {@code null}
+     * @param progress  receives {@code ("Parsing cards…", cards written)} every
+     *                  5,000 cards on the calling thread; may be {@code null}
+     */
+    public BulkImportPipeline(Supplier<RecordParser> parsers, BooleanSupplier cancelled,
+                              ObjIntConsumer<String> progress) {
+        this.parsers   = parsers;
+        this.cancelled = cancelled;
+        this.progress  = progress;
+        this.parseThreads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Runs the pipeline to completion on {@code in}.
+     *
+     * @param in      decompressed bulk JSON (one array of card objects); closed on
+     *                return so a blocked network read is released on cancellation
+     * @param builder receives every accepted record, in file order
+     * @param cache   receives every accepted record, in file order
+     * @return the number of records written
+     * @throws InterruptedException if cancelled
+     * @throws IOException          on a read, format or write failure in any stage
+     */
+    public int run(InputStream in, CompactCatalogStore.Builder builder,
+                   CatalogCacheFile.Writer cache) throws IOException, InterruptedException {
+        return run(in, rec -> {
+            builder.add(rec);
+            cache.write(rec);
+        });
+    }
+
+    /**
+     * Runs the pipeline to completion on {@code in}.
+     *
+     * @param in   decompressed bulk JSON; closed on return
+     * @param sink receives every accepted record, in file order; it must copy
+     *             what it keeps rather than hold on to the record
+     * @return the number of records written
+     * @throws InterruptedException if cancelled
+     * @throws IOException          on a read, format or write failure in any stage
+     */
+    public int run(InputStream in, RecordSink sink) throws IOException, InterruptedException {
+        startNanos = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        threads.add(start("catalog-net", () -> readBytes(in)));
+        threads.add(start("catalog-split", this::splitSpans));
+        for (int i = 0; i < parseThreads; i++) {
+            threads.add(start("catalog-parse-" + (i + 1), this::parseSpans));
+        }
+
+        try {
+            return writeRecords(sink);
+        } catch (Throwable t) {
+            fail(t);
+            throw t;
+        } finally {
+            stopped = true;
+            try { in.close(); } catch (IOException ignored) {}
+            for (Thread t : threads) t.interrupt();
+            for (Thread t : threads) t.join(5_000);
+            endNanos = System.nanoTime();
+        }
+    }
+
+    // ── Stages ────────────────────────────────────────────────────────────────
+
+    private void readBytes(InputStream in) throws IOException, InterruptedException {
+        while (true) {
+            checkStopped();
+            long t0 = System.nanoTime();
+            byte[] block = new byte[BLOCK_BYTES];
+            int n = in.readNBytes(block, 0, BLOCK_BYTES);
+            net.work(t0, n);
+            if (n < BLOCK_BYTES) {
+                if (n > 0) put(bytesQ, Arrays.copyOf(block, n), net);
+                put(bytesQ, new byte[0], net); // end of input
+                return;
+            }
+            put(bytesQ, block, net);
+        }
+    }
+
+    private void splitSpans() throws IOException, InterruptedException {
+        JsonArraySplitter splitter = new JsonArraySplitter();
+        List<byte[]> pending = new ArrayList<>(BATCH_SPANS * 2);
+        long seq = 0;
+
+        while (true) {
+            byte[] block = take(bytesQ, split);
+            if (block.length == 0) break;
+            long t0 = System.nanoTime();
+            int before = pending.size();
+            splitter.feed(block, block.length, pending);
+            split.work(t0, pending.size() - before);
+            while (pending.size() >= BATCH_SPANS) {
+                List<byte[]> batch = new ArrayList<>(pending.subList(0, BATCH_SPANS));
+                pending.subList(0, BATCH_SPANS).clear();
+                put(spansQ, new SpanBatch(seq++, batch), split);
+            }
+        }
+        if (!pending.isEmpty()) put(spansQ, new SpanBatch(seq, pending), split);
+        for (int i = 0; i < parseThreads; i++) put(spansQ, SpanBatch.END, split);
+    }
+
+    private void parseSpans() throws IOException, InterruptedException {
+        RecordParser parser = parsers.get();
+        while (true) {
+            SpanBatch in = take(spansQ, parse);
+            if (in == SpanBatch.END) {
+                put(recordsQ, RecordBatch.END, parse);
+                return;
+            }
+            long t0 = System.nanoTime();
+            List<CatalogRecord> out = new ArrayList<>(in.spans.size());
+            CatalogRecord rec = new CatalogRecord();
+            for (byte[] span : in.spans) {
+                if (parser.parse(span, rec)) {
+                    out.add(rec);
+                    rec = new CatalogRecord();
+                }
+            }
+            parse.work(t0, in.spans.size());
+            put(recordsQ, new RecordBatch(in.seq, out), parse);
+        }
+    }
+
+    private int writeRecords(RecordSink sink) throws IOException, InterruptedException {
+        Map<Long, RecordBatch> pending = new HashMap<>();
+        long nextSeq = 0;
+        int parsersDone = 0;
+        int written = 0;
+        while (parsersDone < parseThreads) {
+            RecordBatch batch = take(recordsQ, write);
+            if (batch == RecordBatch.END) {
+                parsersDone++;
+                continue;
+            }
+            checkStopped();
+            pending.put(batch.seq, batch);
+            while ((batch = pending.remove(nextSeq)) != null) {
+                long t0 = System.nanoTime();
+                for (CatalogRecord rec : batch.records) {
+                    sink.accept(rec);
+                    if (++written % 5_000 == 0 && progress != null) {
+                        progress.accept("Parsing cards\u2026", written);
+                    }
+                }
+                write.work(t0, batch.records.size());
+                nextSeq++;
+            }
+        }
+        if (!pending.isEmpty()) throw new IOException("Import pipeline lost a batch");
+        return written;
+    }
+
+    // ── Queue helpers ─────────────────────────────────────────────────────────
+
+    private <T> void put(BlockingQueue<T> q, T item, Stage stage) throws IOException, InterruptedException {
+        long t0 = System.nanoTime();
+        while (!q.offer(item, POLL_MS, TimeUnit.MILLISECONDS)) checkStopped();
+        stage.blocked(t0);
+    }
+
+    private <T> T take(BlockingQueue<T> q, Stage stage) throws IOException, InterruptedException {
+        long t0 = System.nanoTime();
+        T item;
+        while ((item = q.poll(POLL_MS, TimeUnit.MILLISECONDS)) == null) checkStopped();
+        stage.starved(t0);
+        return item;
+    }
+
+    /** Throws the first stage failure, or a cancellation, so that every stage unwinds. */
+    private void checkStopped() throws IOException, InterruptedException {
+        Throwable t = failure;
+        if (t != null) {
+            if (t instanceof IOException e) throw e;
+            if (t instanceof InterruptedException e) throw e;
+            throw new IOException("Catalog import failed: " + t.getMessage(), t);
+        }
+        if (cancelled != null && cancelled.getAsBoolean()) {
+            throw new InterruptedException("Catalog download cancelled by user");
+        }
+        if (stopped) throw new InterruptedIOException("Import pipeline stopped");
+    }
+
+    private void fail(Throwable t) {
+        if (failure == null) failure = t;
+        stopped = true;
+    }
+
+    private Thread start(String name, StageBody body) {
+        Thread t = new Thread(() -> {
+            try {
+                body.run();
+            } catch (Throwable e) {
+                if (!stopped) fail(e);
+            }
+        }, name);
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    @FunctionalInterface
+    private interface StageBody {
+        void run() throws Exception;
+    }
+
+    // ── Throughput ────────────────────────────────────────────────────────────
+
+    /**
+     * Returns one line per stage: items, rate, and the share of wall time spent
+     * working, starved for input and blocked on a full output queue. Parse times
+     * are summed over its worker threads. The stage closest to 100% busy is the
+     * bottleneck; a network-bound build shows {@code net} busy and the rest starved.
+     */
+    public String summary() {
+        double wall = Math.max(1, endNanos - startNanos) / 1e9;
+        StringBuilder sb = new StringBuilder(String.format("Import pipeline: %.1fs wall, %d parse threads%n",
+                wall, parseThreads));
+        sb.append(String.format("  %-6s %,12.1f KB %,10.1f KB/s", net.name, net.items / 1024.0,
+                net.items / 1024.0 / wall)).append(net.shares(wall, 1)).append('\n');
+        for (Stage s : new Stage[]{split, parse, write}) {
+            int threads = s == parse ? parseThreads : 1;
+            sb.append(String.format("  %-6s %,12d    %,10.0f /s  ", s.name, s.items, s.items / wall))
+              .append(s.shares(wall, threads)).append('\n');
+        }
+        return sb.toString().stripTrailing();
+    }
+
+    /** Per-stage counters; parse is shared by its workers, so updates are synchronised. */
+    private static final class Stage {
+        final String name;
+        long items, busy, starved, blocked;
+
+        Stage(String name) { this.name = name; }
+
+        synchronized void work(long since, long count) {
+            busy  += System.nanoTime() - since;
+            items += count;
+        }
+
+        synchronized void starved(long since) { starved += System.nanoTime() - since; }
+
+        synchronized void blocked(long since) { blocked += System.nanoTime() - since; }
+
+        synchronized String shares(double wallSeconds, int threads) {
+            double total = wallSeconds * 1e9 * threads;
+            return String.format("  busy %3.0f%%  starved %3.0f%%  blocked %3.0f%%",
+                    100 * busy / total, 100 * starved / total, 100 * blocked / total);
+        }
+    }
+
+    private record SpanBatch(long seq, List<byte[]> spans) {
+        static final SpanBatch END = new SpanBatch(-1, List.of());
+    }
+
+    private record RecordBatch(long seq, List<CatalogRecord> records) {
+        static final RecordBatch END = new RecordBatch(-1, List.of());
+    }
+}
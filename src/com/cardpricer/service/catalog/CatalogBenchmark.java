@@ -0,0 +1,398 @@
+package com.cardpricer.service.catalog;
+
+import com.cardpricer.model.Card;
+import com.cardpricer.util.AppDataDirectory;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Command-line micro-benchmarks for the catalog storage layer. Not used by the
+ * application; run by hand against a real cache file:
+ *
+ * <pre>
+ *   java -cp out:lib/* com.cardpricer.service.catalog.CatalogBenchmark load [catalog.ndjson.gz] [runs]
+ *   java -cp out:lib/* com.cardpricer.service.catalog.CatalogBenchmark parse default-cards.json[.gz] [runs] [maxCards]
+ *   java -Xmx256m -cp out:lib/* com.cardpricer.service.catalog.CatalogBenchmark gc [catalog.ndjson.gz] [entries] [heap|offheap]
+ * </pre>
+ *
+ * <p>{@code load} compares {@link CatalogCacheFile#readSequential} with
+ * {@link CatalogCacheFile#readParallel} on the same file. A cache without a chunk
+ * index (written by an older version) is first re-written as gzip members into a
+ * temporary copy so both paths read identical data.
+ *
+ * <p>{@code parse} takes a recorded Scryfall bulk file (as downloaded, gzip or
+ * plain), splits the first {@code maxCards} objects into memory, and compares a
+ * {@link JSONObject} per card with {@link BulkCardReader}, both extracting the same
+ * fields behind the same {@code lang}/{@code digital} filter. It reports parse
+ * throughput and bytes allocated per card (HotSpot thread allocation counters).
+ *
+ * <p>{@code gc} loads the cache and keeps it either as the on-heap
+ * {@link CompactCatalogStore} or as an off-heap {@link CatalogSnapshot#allocate
+ * snapshot}, then replays a trade-entry workload: each entry is a preview lookup
+ * and an add, trades of 10–40 cards are closed and kept in a bounded history, as
+ * a shop's session does. It reports the live heap after load, each collector's
+ * pause count, total and worst pause, and direct memory in use. Run it once per
+ * storage mode, each in its own JVM, with the heap size of the target machine.
+ */
+public final class CatalogBenchmark {
+
+    private CatalogBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "load";
+        File cache = args.length > 1 ? new File(args[1])
+                : new File(AppDataDirectory.cache(), "catalog.ndjson.gz");
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        if (mode.equals("parse")) {
+            int maxCards = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+            benchmarkParse(cache, runs, maxCards);
+            return;
+        }
+        if (!cache.isFile()) {
+            System.err.println("Catalog cache not found: " + cache.getAbsolutePath());
+            System.exit(1);
+        }
+        switch (mode) {
+            case "load" -> benchmarkLoad(cache, runs);
+            case "gc" -> benchmarkGc(cache, args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000,
+                    args.length > 3 && args[3].equals("offheap"));
+            default -> {
+                System.err.println("Unknown benchmark: " + mode + " (expected: load, parse, gc)");
+                System.exit(1);
+            }
+        }
+    }
+
+    // ── load ──────────────────────────────────────────────────────────────────
+
+    private static void benchmarkLoad(File cache, int runs) throws IOException {
+        File chunked = cache;
+        long[] offsets = CatalogCacheFile.readChunkOffsets(cache);
+        if (offsets == null) {
+            chunked = File.createTempFile("catalog-bench", ".ndjson.gz");
+            chunked.deleteOnExit();
+            CatalogCacheFile.indexFileFor(chunked).deleteOnExit();
+            rechunk(cache, chunked);
+            offsets = CatalogCacheFile.readChunkOffsets(chunked);
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.printf("File: %s (%,d bytes, %d chunks), parallelism %d, %d runs%n",
+                chunked.getName(), chunked.length(), offsets.length - 1, pool.getParallelism(), runs);
+
+        // Warm-up: one pass of each so JIT and page cache are hot for both
+        int cards = CatalogCacheFile.readSequential(chunked, null, null).size();
+        CatalogCacheFile.readParallel(chunked, offsets, pool, null, null);
+
+        long[] seq = new long[runs];
+        long[] par = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long t0 = System.nanoTime();
+            CatalogCacheFile.readSequential(chunked, null, null);
+            seq[i] = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            int n = CatalogCacheFile.readParallel(chunked, offsets, pool, null, null).size();
+            par[i] = System.nanoTime() - t0;
+            if (n != cards) throw new IllegalStateException("Parallel load found " + n + " cards, expected " + cards);
+        }
+
+        report("single-threaded", seq, cards);
+        report("parallel", par, cards);
+        System.out.printf("Speed-up (median): %.2fx%n", (double) median(seq) / median(par));
+    }
+
+    /** Copies a cache line-by-line into the chunked format. */
+    private static void rechunk(File source, File target) throws IOException {
+        CatalogRecord rec = new CatalogRecord();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     new GZIPInputStream(new FileInputStream(source), 65_536), StandardCharsets.UTF_8));
+             CatalogCacheFile.Writer writer =
+                     new CatalogCacheFile.Writer(target, CatalogCacheFile.indexFileFor(target))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                CatalogCacheFile.parseLine(line, rec);
+                writer.write(rec);
+            }
+        }
+    }
+
+    // ── parse ─────────────────────────────────────────────────────────────────
+
+    private static void benchmarkParse(File bulk, int runs, int maxCards) throws IOException {
+        if (!bulk.isFile()) {
+            System.err.println("Bulk file not found: " + bulk.getAbsolutePath());
+            System.exit(1);
+        }
+        List<byte[]> spans = readSpans(bulk, maxCards);
+        long bytes = spans.stream().mapToLong(b -> b.length).sum();
+        System.out.printf("File: %s, %,d cards, %,d bytes of JSON, %d runs%n",
+                bulk.getName(), spans.size(), bytes, runs);
+
+        // Both paths must agree before their speed means anything
+        int kept = parseWithJsonObject(spans, null);
+        int keptSelective = parseSelective(spans, null);
+        if (kept != keptSelective) {
+            throw new IllegalStateException("JSONObject kept " + kept + " cards, reader kept " + keptSelective);
+        }
+        StringBuilder a = new StringBuilder(), b = new StringBuilder();
+        parseWithJsonObject(spans.subList(0, Math.min(2_000, spans.size())), a);
+        parseSelective(spans.subList(0, Math.min(2_000, spans.size())), b);
+        if (!a.toString().equals(b.toString())) throw new IllegalStateException("Extracted fields differ");
+
+        long[] jsonNs = new long[runs], readerNs = new long[runs];
+        long jsonAlloc = 0, readerAlloc = 0;
+        for (int i = 0; i < runs; i++) {
+            long a0 = allocatedBytes(), t0 = System.nanoTime();
+            parseWithJsonObject(spans, null);
+            jsonNs[i] = System.nanoTime() - t0;
+            jsonAlloc += allocatedBytes() - a0;
+
+            a0 = allocatedBytes();
+            t0 = System.nanoTime();
+            parseSelective(spans, null);
+            readerNs[i] = System.nanoTime() - t0;
+            readerAlloc += allocatedBytes() - a0;
+        }
+
+        reportParse("JSONObject", jsonNs, jsonAlloc / runs, spans.size(), bytes);
+        reportParse("BulkCardReader", readerNs, readerAlloc / runs, spans.size(), bytes);
+        System.out.printf("Speed-up (median): %.2fx, allocation: %.1fx less%n",
+                (double) median(jsonNs) / median(readerNs),
+                readerAlloc > 0 ? (double) jsonAlloc / readerAlloc : Double.NaN);
+    }
+
+    /** Splits up to {@code maxCards} card objects of a bulk file into memory. */
+    private static List<byte[]> readSpans(File bulk, int maxCards) throws IOException {
+        List<byte[]> spans = new ArrayList<>();
+        JsonArraySplitter splitter = new JsonArraySplitter();
+        try (InputStream raw = new BufferedInputStream(new FileInputStream(bulk), 65_536)) {
+            raw.mark(2);
+            boolean gzip = raw.read() == 0x1f && raw.read() == 0x8b;
+            raw.reset();
+            InputStream in = gzip ? new GZIPInputStream(raw, 65_536) : raw;
+            byte[] block = new byte[65_536];
+            int n;
+            while (spans.size() < maxCards && (n = in.readNBytes(block, 0, block.length)) > 0) {
+                splitter.feed(block, n, spans);
+            }
+        }
+        return spans.size() > maxCards ? new ArrayList<>(spans.subList(0, maxCards)) : spans;
+    }
+
+    /** Baseline: full {@link JSONObject} per card, then the fields the catalog uses. */
+    private static int parseWithJsonObject(List<byte[]> spans, StringBuilder dump) {
+        int kept = 0;
+        List<String> fx = new ArrayList<>();
+        for (byte[] span : spans) {
+            JSONObject json = new JSONObject(new String(span, StandardCharsets.UTF_8));
+            if (!"en".equals(json.optString("lang")) || json.optBoolean("digital", false)) continue;
+            String set = json.optString("set", null), coll = json.optString("collector_number", null);
+            String name = json.optString("name", null), rarity = json.optString("rarity", null);
+            String artist = json.optString("artist", null);
+            boolean reserved = json.optBoolean("reserved", false);
+            int usd = -1, foil = -1, etched = -1;
+            JSONObject prices = json.optJSONObject("prices");
+            if (prices != null) {
+                usd    = prices.isNull("usd")        ? -1 : CatalogRecord.toCents(prices.getString("usd"));
+                foil   = prices.isNull("usd_foil")   ? -1 : CatalogRecord.toCents(prices.getString("usd_foil"));
+                etched = prices.isNull("usd_etched") ? -1 : CatalogRecord.toCents(prices.getString("usd_etched"));
+            }
+            fx.clear();
+            JSONArray fxArr = json.optJSONArray("frame_effects");
+            if (fxArr != null) for (int i = 0; i < fxArr.length(); i++) fx.add(fxArr.getString(i));
+            String image = null;
+            if (json.has("image_uris")) {
+                image = json.getJSONObject("image_uris").optString("normal", null);
+            } else if (json.has("card_faces")) {
+                JSONObject front = json.getJSONArray("card_faces").optJSONObject(0);
+                JSONObject iu = front != null ? front.optJSONObject("image_uris") : null;
+                if (iu != null) image = iu.optString("normal", null);
+            }
+            kept++;
+            if (dump != null) dump.append(String.join("|", set, coll, name, rarity, artist,
+                    String.valueOf(reserved), usd + "/" + foil + "/" + etched, fx.toString(), image)).append('\n');
+        }
+        return kept;
+    }
+
+    /** Selective path, as used by the catalog download. */
+    private static int parseSelective(List<byte[]> spans, StringBuilder dump) {
+        int kept = 0;
+        BulkCardReader card = new BulkCardReader();
+        List<String> fx = new ArrayList<>();
+        for (byte[] span : spans) {
+            if (!card.parse(span, 0, span.length) || !card.isEnglishPaper()) continue;
+            String set = card.string(BulkCardReader.Field.SET);
+            String coll = card.string(BulkCardReader.Field.COLLECTOR_NUMBER);
+            String name = card.string(BulkCardReader.Field.NAME);
+            String rarity = card.string(BulkCardReader.Field.RARITY);
+            String artist = card.string(BulkCardReader.Field.ARTIST);
+            boolean reserved = card.bool(BulkCardReader.Field.RESERVED);
+            int usd    = card.cents(BulkCardReader.Field.USD);
+            int foil   = card.cents(BulkCardReader.Field.USD_FOIL);
+            int etched = card.cents(BulkCardReader.Field.USD_ETCHED);
+            fx.clear();
+            card.strings(BulkCardReader.Field.FRAME_EFFECTS, fx);
+            String image = card.string(BulkCardReader.Field.IMAGE_NORMAL);
+            kept++;
+            if (dump != null) dump.append(String.join("|", set, coll, name, rarity, artist,
+                    String.valueOf(reserved), usd + "/" + foil + "/" + etched, fx.toString(), image)).append('\n');
+        }
+        return kept;
+    }
+
+    // ── gc ────────────────────────────────────────────────────────────────────
+
+    private static void benchmarkGc(File cache, int entries, boolean offHeap) throws IOException {
+        long t0 = System.nanoTime();
+        CompactCatalogStore heapStore = CatalogCacheFile.readSequential(cache, null, null);
+        CatalogStore store = offHeap ? CatalogSnapshot.allocate(heapStore) : heapStore;
+        heapStore = null;
+        System.out.printf("Loaded %,d printings %s in %.0f ms%n", store.size(),
+                offHeap ? "off-heap" : "on-heap", (System.nanoTime() - t0) / 1e6);
+
+        // Codes as a clerk types them, drawn from the catalog itself
+        Random random = new Random(42);
+        String[][] codes = new String[20_000][];
+        for (int i = 0; i < codes.length; i++) {
+            int r = random.nextInt(store.size());
+            codes[i] = new String[]{store.keySet(r).toLowerCase(), store.collectorNumber(r)};
+        }
+        // Young and concurrent old collections leave garbage behind; settle before measuring
+        for (int i = 0; i < 3; i++) System.gc();
+        long liveHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+        PauseRecorder pauses = new PauseRecorder();
+        Deque<List<Card>> history = new ArrayDeque<>();
+        List<Card> trade = new ArrayList<>();
+        int tradeSize = 10 + random.nextInt(31);
+        long found = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        t0 = System.nanoTime();
+        for (int i = 0; i < entries; i++) {
+            String[] code = codes[random.nextInt(codes.length)];
+            Card preview = store.lookup(code[0], code[1]);
+            Card card = store.lookup(code[0], code[1]);
+            if (preview == null || card == null) continue;
+            found++;
+            trade.add(card);
+            if (card.getPrice() != null) total = total.add(new BigDecimal(card.getPrice()));
+            if (trade.size() >= tradeSize) {
+                history.addLast(trade);
+                if (history.size() > 500) history.removeFirst();
+                trade = new ArrayList<>();
+                tradeSize = 10 + random.nextInt(31);
+            }
+        }
+        long elapsed = System.nanoTime() - t0;
+        pauses.stop();
+
+        System.out.printf("Live heap after load: %,.1f MB   direct: %,.1f MB   mapped: %,.1f MB%n",
+                liveHeap / 1e6, bufferPoolBytes("direct") / 1e6, bufferPoolBytes("mapped") / 1e6);
+        System.out.printf("%,d entries (%,d found) in %.0f ms, %,.0f entries/s, trade total $%s%n",
+                entries, found, elapsed / 1e6, entries / (elapsed / 1e9), total.toPlainString());
+        pauses.report();
+    }
+
+    private static long bufferPoolBytes(String name) {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals(name)) return pool.getMemoryUsed();
+        }
+        return 0;
+    }
+
+    /** Collects every collection's duration per collector through GC notifications. */
+    private static final class PauseRecorder {
+        private final List<String> names = new ArrayList<>();
+        private final List<List<Long>> durations = new ArrayList<>();
+        private volatile boolean running = true;
+
+        PauseRecorder() {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (!(gc instanceof NotificationEmitter emitter)) continue;
+                int slot = names.size();
+                names.add(gc.getName());
+                durations.add(new ArrayList<>());
+                emitter.addNotificationListener((n, handback) -> {
+                    if (!running || !n.getType().equals(
+                            GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+                    GarbageCollectionNotificationInfo info =
+                            GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+                    synchronized (durations) {
+                        durations.get(slot).add(info.getGcInfo().getDuration());
+                    }
+                }, null, null);
+            }
+        }
+
+        void stop() { running = false; }
+
+        void report() {
+            synchronized (durations) {
+                for (int i = 0; i < names.size(); i++) {
+                    List<Long> d = durations.get(i);
+                    long sum = d.stream().mapToLong(Long::longValue).sum();
+                    long max = d.stream().mapToLong(Long::longValue).max().orElse(0);
+                    System.out.printf("%-22s %6d collections   total %6d ms   worst %4d ms%n",
+                            names.get(i), d.size(), sum, max);
+                }
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean hotspot) {
+            return hotspot.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return 0;
+    }
+
+    private static void reportParse(String label, long[] nanos, long allocPerRun, int cards, long bytes) {
+        long med = median(nanos);
+        System.out.printf("%-15s median %7.1f ms   %,8.0f cards/s   %6.1f MB/s   %,8d B allocated/card%n",
+                label, med / 1e6, cards / (med / 1e9), bytes / 1e6 / (med / 1e9), allocPerRun / Math.max(1, cards));
+    }
+
+    // ── Reporting ─────────────────────────────────────────────────────────────
+
+    private static void report(String label, long[] nanos, int cards) {
+        long med = median(nanos);
+        System.out.printf("%-16s min %7.1f ms   median %7.1f ms   %,10.0f cards/s%n",
+                label, Arrays.stream(nanos).min().orElse(0) / 1e6, med / 1e6, cards / (med / 1e9));
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
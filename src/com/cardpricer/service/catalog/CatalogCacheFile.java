@@ -0,0 +1,427 @@
+package com.cardpricer.service.catalog;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The portable NDJSON.gz catalog cache: one compact JSON object per printing.
+ *
+ * <p>The file is written as a sequence of independent gzip members of
+ * {@value #LINES_PER_CHUNK} lines each. Concatenated members are still one valid
+ * gzip stream, so any reader (including {@link GZIPInputStream}) can read the
+ * whole file sequentially; a small side file records where each member starts,
+ * which lets {@link #readParallel} inflate and parse the members concurrently on
+ * a {@link ForkJoinPool} and merge the partial {@link CompactCatalogStore.Builder}s.
+ *
+ * <p><b>Chunk index layout</b> (big-endian): magic, version, cache file length,
+ * CRC-32 of the cache file (from version 2), chunk count, then
+ * {@code (member offset, line count)} per chunk. An index whose recorded length
+ * does not match the cache file is ignored.
+ *
+ * <p><b>Line keys:</b> {@code k} index key, {@code nm} name, {@code s} set,
+ * {@code n} collector number, {@code r} rarity, {@code p}/{@code fp}/{@code ep}
+ * prices, {@code rl} reserved, {@code fx} frame effects, {@code a} artist,
+ * {@code i} image URL. Absent prices mean "N/A".
+ */
+public final class CatalogCacheFile {
+
+    private CatalogCacheFile() {}
+
+    /** Lines per gzip member; ~25 members for a full English catalog. */
+    public static final int LINES_PER_CHUNK = 4096;
+
+    private static final int INDEX_MAGIC   = 0x4F434349; // "OCCI"
+    private static final int INDEX_VERSION = 2;
+
+    /** Returns the chunk index file that belongs to {@code cacheFile}. */
+    public static File indexFileFor(File cacheFile) {
+        return new File(cacheFile.getParentFile(), cacheFile.getName() + ".idx");
+    }
+
+    // ── Line format ───────────────────────────────────────────────────────────
+
+    /** Serialises {@code rec} as one compact cache line. */
+    public static String toLine(CatalogRecord rec) {
+        JSONObject obj = new JSONObject();
+        obj.put("k",  rec.keySet + ":" + rec.keyCollector);
+        obj.put("nm", rec.name);
+        obj.put("s",  rec.setCode);
+        obj.put("n",  rec.collectorNumber);
+        obj.put("r",  rec.rarity);
+        if (rec.priceCents  >= 0) obj.put("p",  CatalogRecord.fromCents(rec.priceCents));
+        if (rec.foilCents   >= 0) obj.put("fp", CatalogRecord.fromCents(rec.foilCents));
+        if (rec.etchedCents >= 0) obj.put("ep", CatalogRecord.fromCents(rec.etchedCents));
+        if (rec.reserved)         obj.put("rl", true);
+        if (!rec.frameEffects.isEmpty()) {
+            JSONArray fxArr = new JSONArray();
+            rec.frameEffects.forEach(fxArr::put);
+            obj.put("fx", fxArr);
+        }
+        if (rec.artist   != null) obj.put("a", rec.artist);
+        if (rec.imageUrl != null) obj.put("i", rec.imageUrl);
+        return obj.toString();
+    }
+
+    /** Fills {@code rec} from one cache line. */
+    public static void parseLine(String line, CatalogRecord rec) {
+        JSONObject obj = new JSONObject(line);
+        rec.clear();
+        String key = obj.getString("k");
+        int colon = key.indexOf(':');
+        rec.keySet          = key.substring(0, colon);
+        rec.keyCollector    = key.substring(colon + 1);
+        rec.name            = obj.getString("nm");
+        rec.setCode         = obj.getString("s");
+        rec.collectorNumber = obj.getString("n");
+        rec.rarity          = obj.optString("r", "common");
+
+        // Prices: absent key → -1 → Card stores "N/A"
+        rec.priceCents  = CatalogRecord.toCents(obj.optString("p", null));
+        rec.foilCents   = CatalogRecord.toCents(obj.optString("fp", null));
+        rec.etchedCents = CatalogRecord.toCents(obj.optString("ep", null));
+
+        rec.reserved = obj.optBoolean("rl", false);
+
+        if (obj.has("fx")) {
+            JSONArray fxArr = obj.getJSONArray("fx");
+            for (int i = 0; i < fxArr.length(); i++) rec.frameEffects.add(fxArr.getString(i));
+        }
+        rec.artist   = obj.optString("a", null);
+        rec.imageUrl = obj.optString("i", null);
+    }
+
+    // ── Writing ───────────────────────────────────────────────────────────────
+
+    /**
+     * Writes cache lines as independent gzip members and, on {@link #close()}, the
+     * chunk index. Not thread-safe.
+     */
+    public static final class Writer implements Closeable {
+        private final File indexFile;
+        private final CountingOutputStream out;
+        private final List<long[]> chunks = new ArrayList<>(); // {offset, lines}
+        private GZIPOutputStream member;
+        private int linesInMember;
+        private boolean closed;
+
+        /**
+         * @param cacheFile NDJSON.gz file to create (overwritten)
+         * @param indexFile chunk index to write on close (overwritten)
+         */
+        public Writer(File cacheFile, File indexFile) throws IOException {
+            this.indexFile = indexFile;
+            this.out = new CountingOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(cacheFile), 65_536));
+        }
+
+        /** Appends one printing. */
+        public void write(CatalogRecord rec) throws IOException {
+            if (member == null) {
+                chunks.add(new long[]{out.count, 0});
+                member = new GZIPOutputStream(new NonClosingOutputStream(out), 65_536);
+            }
+            member.write(toLine(rec).getBytes(StandardCharsets.UTF_8));
+            member.write('\n');
+            chunks.get(chunks.size() - 1)[1]++;
+            if (++linesInMember == LINES_PER_CHUNK) finishMember();
+        }
+
+        private void finishMember() throws IOException {
+            if (member == null) return;
+            member.finish();
+            member.close(); // releases the deflater; the file stream stays open
+            member = null;
+            linesInMember = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                finishMember();
+            } finally {
+                out.close();
+            }
+            try (DataOutputStream idx = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+                idx.writeInt(INDEX_MAGIC);
+                idx.writeInt(INDEX_VERSION);
+                idx.writeLong(out.count);
+                idx.writeLong(out.crc.getValue());
+                idx.writeInt(chunks.size());
+                for (long[] chunk : chunks) {
+                    idx.writeLong(chunk[0]);
+                    idx.writeInt((int) chunk[1]);
+                }
+            }
+        }
+    }
+
+    // ── Reading ───────────────────────────────────────────────────────────────
+
+    /**
+     * Reads the chunk index for {@code cacheFile}.
+     *
+     * @return member offsets followed by the file length ({@code chunks + 1} entries),
+     *         or {@code null} if there is no usable index (e.g. a cache written as a
+     *         single gzip stream by an older version)
+     */
+    public static long[] readChunkOffsets(File cacheFile) {
+        File indexFile = indexFileFor(cacheFile);
+        if (!indexFile.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(indexFile))) {
+            if (in.readInt() != INDEX_MAGIC) return null;
+            int version = in.readInt();
+            if (version != 1 && version != INDEX_VERSION) return null;
+            long length = in.readLong();
+            if (length != cacheFile.length()) return null;
+            if (version >= 2) in.readLong(); // checksum — see checksum()
+            int count = in.readInt();
+            long[] offsets = new long[count + 1];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = in.readLong();
+                in.readInt(); // line count — informational
+                if (offsets[i] < 0 || offsets[i] > length || (i > 0 && offsets[i] <= offsets[i - 1])) {
+                    return null;
+                }
+            }
+            offsets[count] = length;
+            return offsets;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the CRC-32 of {@code cacheFile}, which identifies the cache that shards
+     * and deltas were built from. It is taken from the chunk index when that records
+     * one for a file of this length; otherwise the whole file is read.
+     *
+     * @throws IOException if the cache cannot be read
+     */
+    public static long checksum(File cacheFile) throws IOException {
+        File indexFile = indexFileFor(cacheFile);
+        if (indexFile.isFile()) {
+            try (DataInputStream in = new DataInputStream(new FileInputStream(indexFile))) {
+                if (in.readInt() == INDEX_MAGIC && in.readInt() == INDEX_VERSION
+                        && in.readLong() == cacheFile.length()) {
+                    return in.readLong();
+                }
+            } catch (IOException e) {
+                // unreadable index — fall back to reading the cache
+            }
+        }
+        CRC32 crc = new CRC32();
+        try (InputStream in = new FileInputStream(cacheFile)) {
+            byte[] buf = new byte[65_536];
+            for (int n; (n = in.read(buf)) > 0; ) crc.update(buf, 0, n);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Parses the whole cache on the calling thread.
+     *
+     * @param progress  receives the running card count every {@value #LINES_PER_CHUNK} lines; may be {@code null}
+     * @param cancelled polled between lines; may be {@code null}
+     * @throws InterruptedIOException if cancelled
+     */
+    public static CompactCatalogStore readSequential(File cacheFile, IntConsumer progress,
+                                                     BooleanSupplier cancelled) throws IOException {
+        CompactCatalogStore.Builder builder = new CompactCatalogStore.Builder(120_000);
+        CatalogRecord rec = new CatalogRecord();
+        int lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(cacheFile), 65_536), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (cancelled != null && cancelled.getAsBoolean()) {
+                    throw new InterruptedIOException("Catalog load cancelled");
+                }
+                if (++lines % LINES_PER_CHUNK == 0 && progress != null) progress.accept(builder.size());
+                addLine(builder, rec, line);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Inflates and parses the gzip members in parallel on {@code pool}, merging each
+     * chunk's builder into the result in file order as soon as it is ready.
+     *
+     * @param offsets   result of {@link #readChunkOffsets}
+     * @param progress  receives the running card count as chunks finish (from pool
+     *                  threads); may be {@code null}
+     * @param cancelled polled before each chunk; may be {@code null}
+     * @throws InterruptedIOException if cancelled
+     */
+    public static CompactCatalogStore readParallel(File cacheFile, long[] offsets, ForkJoinPool pool,
+                                                   IntConsumer progress, BooleanSupplier cancelled)
+            throws IOException {
+        AtomicInteger parsed = new AtomicInteger();
+        try {
+            return pool.invoke(new LoadTask(cacheFile, offsets, parsed, progress, cancelled)).build();
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Catalog load cancelled");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Forks one {@link ChunkTask} per member, then joins them in order. Merging is
+     * a single pass per record and overlaps with the chunks still being parsed.
+     */
+    private static final class LoadTask extends RecursiveTask<CompactCatalogStore.Builder> {
+        private final File file;
+        private final long[] offsets;
+        private final AtomicInteger parsed;
+        private final IntConsumer progress;
+        private final BooleanSupplier cancelled;
+
+        LoadTask(File file, long[] offsets, AtomicInteger parsed,
+                 IntConsumer progress, BooleanSupplier cancelled) {
+            this.file = file;
+            this.offsets = offsets;
+            this.parsed = parsed;
+            this.progress = progress;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected CompactCatalogStore.Builder compute() {
+            int chunks = offsets.length - 1;
+            if (chunks == 0) return new CompactCatalogStore.Builder(16);
+            List<ChunkTask> tasks = new ArrayList<>(chunks);
+            for (int i = chunks - 1; i >= 0; i--) {
+                ChunkTask task = new ChunkTask(file, offsets[i], offsets[i + 1], parsed, progress, cancelled);
+                tasks.add(0, task);
+                task.fork(); // forked last-to-first so this thread pops chunk 0 first
+            }
+            CompactCatalogStore.Builder result = tasks.get(0).join();
+            for (int i = 1; i < chunks; i++) result.merge(tasks.get(i).join());
+            return result;
+        }
+    }
+
+    /** Inflates and parses one gzip member into its own builder. */
+    private static final class ChunkTask extends RecursiveTask<CompactCatalogStore.Builder> {
+        private final File file;
+        private final long start, end;
+        private final AtomicInteger parsed;
+        private final IntConsumer progress;
+        private final BooleanSupplier cancelled;
+
+        ChunkTask(File file, long start, long end, AtomicInteger parsed,
+                  IntConsumer progress, BooleanSupplier cancelled) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.parsed = parsed;
+            this.progress = progress;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected CompactCatalogStore.Builder compute() {
+            if (cancelled != null && cancelled.getAsBoolean()) throw new CancellationException();
+            try {
+                CompactCatalogStore.Builder part = parseChunk(file, start, end);
+                int total = parsed.addAndGet(part.size());
+                if (progress != null) progress.accept(total);
+                return part;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static CompactCatalogStore.Builder parseChunk(File file, long start, long end) throws IOException {
+        byte[] compressed = new byte[Math.toIntExact(end - start)];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(start);
+            raf.readFully(compressed);
+        }
+        CompactCatalogStore.Builder builder = new CompactCatalogStore.Builder(LINES_PER_CHUNK);
+        CatalogRecord rec = new CatalogRecord();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(compressed), 65_536),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) addLine(builder, rec, line);
+        }
+        return builder;
+    }
+
+    private static void addLine(CompactCatalogStore.Builder builder, CatalogRecord rec, String line) {
+        if (line.isBlank()) return;
+        try {
+            parseLine(line, rec);
+            builder.add(rec);
+        } catch (Exception ignored) {
+            // Skip any malformed lines — they should not occur in a clean cache
+        }
+    }
+
+    // ── Stream helpers ────────────────────────────────────────────────────────
+
+    /** Counts and checksums the bytes written through it. */
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream out;
+        final CRC32 crc = new CRC32();
+        long count;
+
+        CountingOutputStream(OutputStream out) { this.out = out; }
+
+        @Override public void write(int b) throws IOException { out.write(b); crc.update(b); count++; }
+        @Override public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+            count += len;
+        }
+        @Override public void flush() throws IOException { out.flush(); }
+        @Override public void close() throws IOException { out.close(); }
+    }
+
+    /** Lets a gzip member be closed without closing the shared file stream. */
+    private static final class NonClosingOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        NonClosingOutputStream(OutputStream out) { this.out = out; }
+
+        @Override public void write(int b) throws IOException { out.write(b); }
+        @Override public void write(byte[] b, int off, int len) throws IOException { out.write(b, off, len); }
+        @Override public void flush() throws IOException { out.flush(); }
+        @Override public void close() {}
+    }
+}
@@ -0,0 +1,338 @@
+package com.cardpricer.service.catalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Difference between a base catalog (the NDJSON.gz cache and its snapshot) and a
+ * newer Scryfall bulk file, so a routine refresh only has to change what moved.
+ *
+ * <p>Between two daily bulk files almost every difference is a price. A delta
+ * therefore holds three parts:
+ * <ul>
+ *   <li><b>price patches</b> — base record number → new normal / foil / etched
+ *       cents, for printings whose other fields are unchanged;</li>
+ *   <li><b>added</b> — full records for new printings and for printings whose
+ *       name, image, frame effects, … changed (a small {@link CompactCatalogStore});</li>
+ *   <li><b>hidden</b> — base records that the bulk file no longer contains, or
+ *       that an added record supersedes.</li>
+ * </ul>
+ * A delta is always cumulative against the base, never against the previous
+ * delta, so applying one is a single step and the log does not grow with the
+ * number of refreshes. {@link PatchedCatalogStore} presents base + delta as one
+ * store.
+ *
+ * <p><b>File format</b> (gzip, big-endian {@link DataOutputStream}):
+ * <pre>
+ *   "OCCD", version, base record count, base cache checksum, released-at (UTF)
+ *   patch count,  (record, cents, foil cents, etched cents) × n   ascending records
+ *   hidden count, record × n                                      ascending
+ *   added count,  {@link CatalogCacheFile} line (UTF) × n
+ * </pre>
+ * The base record count and the cache file's {@link CatalogCacheFile#checksum
+ * checksum} identify the base the record numbers refer to; a delta read against
+ * any other base is rejected.
+ */
+public final class CatalogDelta {
+
+    private static final int MAGIC          = 0x4F434344; // "OCCD"
+    private static final int FORMAT_VERSION = 2;
+
+    private final int  baseCount;
+    private final long baseChecksum;
+    private final String releasedAt;
+
+    private final int[] patchRecords;   // ascending
+    private final int[] patchPrice;
+    private final int[] patchFoil;
+    private final int[] patchEtched;
+    private final BitSet hidden;
+    private final CompactCatalogStore added;
+    private final List<String> addedLines;  // cache lines of {@code added}, for writing
+
+    private CatalogDelta(int baseCount, long baseChecksum, String releasedAt,
+                         int[] patchRecords, int[] patchPrice, int[] patchFoil, int[] patchEtched,
+                         BitSet hidden, CompactCatalogStore added, List<String> addedLines) {
+        this.baseCount    = baseCount;
+        this.baseChecksum = baseChecksum;
+        this.releasedAt   = releasedAt;
+        this.patchRecords = patchRecords;
+        this.patchPrice   = patchPrice;
+        this.patchFoil    = patchFoil;
+        this.patchEtched  = patchEtched;
+        this.hidden       = hidden;
+        this.added        = added;
+        this.addedLines   = addedLines;
+    }
+
+    // ── Accessors ─────────────────────────────────────────────────────────────
+
+    /** Scryfall {@code updated_at} of the bulk file this delta brings the base to, or {@code null}. */
+    public String releasedAt() { return releasedAt; }
+
+    /** Number of base records whose prices are patched. */
+    public int patchCount() { return patchRecords.length; }
+
+    /** Number of base records hidden (removed or superseded). */
+    public int hiddenCount() { return hidden.cardinality(); }
+
+    /** Number of new or replaced printings. */
+    public int addedCount() { return added.size(); }
+
+    /** Total number of entries; compared with the base size to decide when to rebuild. */
+    public int entryCount() { return patchCount() + hiddenCount() + addedCount(); }
+
+    int baseCount() { return baseCount; }
+
+    CompactCatalogStore added() { return added; }
+
+    boolean hides(int baseRecord) { return hidden.get(baseRecord); }
+
+    /** Returns the patch slot for a base record, or -1 if its prices are unchanged. */
+    int patchSlot(int baseRecord) {
+        int slot = Arrays.binarySearch(patchRecords, baseRecord);
+        return slot >= 0 ? slot : -1;
+    }
+
+    int patchPrice(int slot)  { return patchPrice[slot]; }
+    int patchFoil(int slot)   { return patchFoil[slot]; }
+    int patchEtched(int slot) { return patchEtched[slot]; }
+
+    // ── Persistence ───────────────────────────────────────────────────────────
+
+    /** Writes this delta to {@code file}, replacing it atomically where possible. */
+    public void write(File file) throws IOException {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(tmp), 65_536)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(baseCount);
+            out.writeLong(baseChecksum);
+            out.writeUTF(releasedAt != null ? releasedAt : "");
+
+            out.writeInt(patchRecords.length);
+            for (int i = 0; i < patchRecords.length; i++) {
+                out.writeInt(patchRecords[i]);
+                out.writeInt(patchPrice[i]);
+                out.writeInt(patchFoil[i]);
+                out.writeInt(patchEtched[i]);
+            }
+
+            out.writeInt(hidden.cardinality());
+            for (int r = hidden.nextSetBit(0); r >= 0; r = hidden.nextSetBit(r + 1)) out.writeInt(r);
+
+            out.writeInt(addedLines.size());
+            for (String line : addedLines) out.writeUTF(line);
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads a delta written against {@code base}.
+     *
+     * @param baseChecksum {@link CatalogCacheFile#checksum} of the base NDJSON.gz cache (0 if absent)
+     * @return the delta, or {@code null} if it was written against a different base
+     * @throws IOException if the file is unreadable or corrupt
+     */
+    public static CatalogDelta read(File file, CatalogStore base, long baseChecksum) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file), 65_536)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a catalog delta: " + file.getName());
+            }
+            int  count    = in.readInt();
+            long checksum = in.readLong();
+            if (count != base.size() || checksum != baseChecksum) return null;
+            String releasedAt = in.readUTF();
+
+            int patches = in.readInt();
+            int[] records = new int[patches], price = new int[patches],
+                  foil = new int[patches], etched = new int[patches];
+            for (int i = 0; i < patches; i++) {
+                records[i] = checkRecord(in.readInt(), count);
+                price[i]   = in.readInt();
+                foil[i]    = in.readInt();
+                etched[i]  = in.readInt();
+            }
+
+            BitSet hidden = new BitSet(count);
+            for (int i = in.readInt(); i > 0; i--) hidden.set(checkRecord(in.readInt(), count));
+
+            int addedCount = in.readInt();
+            List<String> lines = new ArrayList<>(addedCount);
+            CompactCatalogStore.Builder added = new CompactCatalogStore.Builder(addedCount);
+            CatalogRecord rec = new CatalogRecord();
+            for (int i = 0; i < addedCount; i++) {
+                String line = in.readUTF();
+                CatalogCacheFile.parseLine(line, rec);
+                added.add(rec);
+                lines.add(line);
+            }
+            return new CatalogDelta(count, checksum, releasedAt.isEmpty() ? null : releasedAt,
+                    records, price, foil, etched, hidden, added.build(), lines);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt catalog delta: " + e.getMessage(), e);
+        }
+    }
+
+    private static int checkRecord(int record, int count) throws IOException {
+        if (record < 0 || record >= count) throw new IOException("Delta record out of range: " + record);
+        return record;
+    }
+
+    // ── Builder ───────────────────────────────────────────────────────────────
+
+    /**
+     * Diffs a stream of bulk records against the base while counting the churn
+     * relative to the catalog currently in use. Feed it every record of the new
+     * bulk file (e.g. as a {@link BulkImportPipeline.RecordSink}), then call
+     * {@link #build}. Not thread-safe.
+     */
+    public static final class Builder {
+        private final CatalogStore base;
+        private final CatalogStore live;
+        private final int baseCount;
+
+        private final BitSet seen;
+        private final BitSet patched;
+        private final BitSet superseded;
+        private final int[] price, foil, etched;
+        private final CompactCatalogStore.Builder added = new CompactCatalogStore.Builder(1_024);
+        private final List<String> addedLines = new ArrayList<>();
+
+        private int records, repriced, inserted, changed;
+
+        /**
+         * @param base the unpatched store the delta's record numbers refer to
+         * @param live the catalog in use: {@code base} itself or a
+         *             {@link PatchedCatalogStore} over it; churn is counted against it
+         */
+        public Builder(CatalogStore base, CatalogStore live) {
+            this.base  = base;
+            this.live  = live;
+            baseCount  = base.size();
+            seen       = new BitSet(baseCount);
+            patched    = new BitSet(baseCount);
+            superseded = new BitSet(baseCount);
+            price      = new int[baseCount];
+            foil       = new int[baseCount];
+            etched     = new int[baseCount];
+        }
+
+        /** Adds one record of the new bulk file. */
+        public void accept(CatalogRecord rec) {
+            records++;
+            countChurn(rec);
+
+            int r = base.find(rec.keySet, rec.keyCollector);
+            if (r >= 0) seen.set(r);
+            if (r >= 0 && sameDetails(base, r, rec)) {
+                if (samePrices(base, r, rec)) {
+                    patched.clear(r);
+                } else {
+                    patched.set(r);
+                    price[r]  = rec.priceCents;
+                    foil[r]   = rec.foilCents;
+                    etched[r] = rec.etchedCents;
+                }
+            } else {
+                if (r >= 0) superseded.set(r);
+                added.add(rec);
+                addedLines.add(CatalogCacheFile.toLine(rec));
+            }
+        }
+
+        private void countChurn(CatalogRecord rec) {
+            int l = live.find(rec.keySet, rec.keyCollector);
+            if (l < 0) {
+                inserted++;
+            } else if (!sameDetails(live, l, rec)) {
+                changed++;
+            } else if (!samePrices(live, l, rec)) {
+                repriced++;
+            }
+        }
+
+        /**
+         * Finishes the diff.
+         *
+         * @param baseChecksum {@link CatalogCacheFile#checksum} of the base NDJSON.gz cache (0 if absent)
+         * @param releasedAt   Scryfall {@code updated_at} of the bulk file, or {@code null}
+         */
+        public CatalogDelta build(long baseChecksum, String releasedAt) {
+            int n = patched.cardinality();
+            int[] records = new int[n], p = new int[n], f = new int[n], e = new int[n];
+            int i = 0;
+            for (int r = patched.nextSetBit(0); r >= 0; r = patched.nextSetBit(r + 1), i++) {
+                records[i] = r;
+                p[i] = price[r];
+                f[i] = foil[r];
+                e[i] = etched[r];
+            }
+            BitSet hidden = (BitSet) seen.clone();
+            hidden.flip(0, baseCount);
+            hidden.or(superseded);
+            return new CatalogDelta(baseCount, baseChecksum, releasedAt,
+                    records, p, f, e, hidden, added.build(), addedLines);
+        }
+
+        /** Number of base printings the new file no longer has and the live catalog still shows. */
+        private int removed() {
+            int n = 0;
+            for (int r = seen.nextClearBit(0); r < baseCount; r = seen.nextClearBit(r + 1)) {
+                if (!live.isRemoved(r)) n++;
+            }
+            return n;
+        }
+
+        /** One-line churn report against the live catalog, for the log and progress display. */
+        public String churnSummary() {
+            return String.format("%,d prices changed, %,d new printings, %,d printings updated, "
+                    + "%,d removed (of %,d)", repriced, inserted, changed, removed(), records);
+        }
+
+        /** Number of live printings whose prices changed. */
+        public int repriced() { return repriced; }
+
+        /** Number of printings the live catalog did not have. */
+        public int inserted() { return inserted; }
+
+        private static boolean samePrices(CatalogStore store, int r, CatalogRecord rec) {
+            return store.priceCents(r) == rec.priceCents
+                    && store.foilCents(r) == rec.foilCents
+                    && store.etchedCents(r) == rec.etchedCents;
+        }
+
+        private static boolean sameDetails(CatalogStore store, int r, CatalogRecord rec) {
+            return Objects.equals(store.name(r), rec.name)
+                    && Objects.equals(store.setCode(r), rec.setCode)
+                    && Objects.equals(store.collectorNumber(r), rec.collectorNumber)
+                    && Objects.equals(store.rarity(r), rec.rarity)
+                    && store.isReserved(r) == rec.reserved
+                    && Objects.equals(store.artist(r), rec.artist)
+                    && Objects.equals(store.imageUrl(r), rec.imageUrl)
+                    && store.frameEffects(r).equals(rec.frameEffects);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.cardpricer.service.catalog;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Open-addressing hash index from packed {@code (set id, collector number)} keys to
+ * record numbers, with linear probing over primitive {@code long[]}/{@code int[]}
+ * arrays.
+ *
+ * <p>A lookup resolves the set through a {@link SetCodeTable}, packs the collector
+ * number with {@link CatalogKeys#packCollector}, and probes — no regex, no string
+ * building, no boxing. The few collector numbers too long to pack live in a small
+ * string-keyed overflow map.
+ */
+public final class CatalogIndex {
+
+    /** Probes a slot table for a packed key; returns the record number or -1. */
+    interface SlotTable {
+        int probe(long key);
+    }
+
+    private final SetCodeTable sets;
+    private long[] keys;
+    private int[]  records; // record number + 1; 0 = empty slot
+    private int    mask;
+    private final Map<String, Integer> overflow = new HashMap<>();
+    private final SlotTable slotTable = this::probe;
+    private int size;
+
+    /**
+     * Creates an index sized for {@code expected} entries at a load factor of at most
+     * 0.5; it grows if more keys are added.
+     *
+     * @param sets set-code table shared with the store that owns this index
+     */
+    public CatalogIndex(SetCodeTable sets, int expected) {
+        this.sets = sets;
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        this.keys    = new long[capacity];
+        this.records = new int[capacity];
+        this.mask    = capacity - 1;
+    }
+
+    /**
+     * Adds a key unless it is already present.
+     *
+     * @param setCode canonical set code (interned into the shared table)
+     * @param coll    collector number in index form
+     * @param record  record number (≥ 0) to store for a new key
+     * @return -1 if the key was added, otherwise the record already stored for it
+     *         (left unchanged — the caller decides how to merge)
+     */
+    public int putIfAbsent(String setCode, String coll, int record) {
+        int setId = sets.intern(setCode);
+        long packed = CatalogKeys.packCollector(coll);
+        if (packed == CatalogKeys.UNPACKABLE) {
+            Integer existing = overflow.putIfAbsent(CatalogKeys.overflowKey(sets.code(setId), coll), record);
+            if (existing != null) return existing;
+            size++;
+            return -1;
+        }
+        long key = CatalogKeys.key(setId, packed);
+        int slot = (int) CatalogKeys.mix(key) & mask;
+        while (records[slot] != 0) {
+            if (keys[slot] == key) return records[slot] - 1;
+            slot = (slot + 1) & mask;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            slot = (int) CatalogKeys.mix(key) & mask;
+            while (records[slot] != 0) slot = (slot + 1) & mask;
+        }
+        keys[slot]    = key;
+        records[slot] = record + 1;
+        size++;
+        return -1;
+    }
+
+    /**
+     * Finds the record for a set code (or vintage alias) and collector number.
+     *
+     * @return the record number, or -1 if absent
+     */
+    public int find(CharSequence setCode, CharSequence coll) {
+        return find(sets, slotTable, overflow, setCode, coll);
+    }
+
+    /** Returns the number of keys in the index. */
+    public int size() { return size; }
+
+    /** Returns the set-code table this index interns into. */
+    public SetCodeTable sets() { return sets; }
+
+    private int probe(long key) {
+        int slot = (int) CatalogKeys.mix(key) & mask;
+        while (records[slot] != 0) {
+            if (keys[slot] == key) return records[slot] - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void grow() {
+        long[] oldKeys    = keys;
+        int[]  oldRecords = records;
+        keys    = new long[oldKeys.length * 2];
+        records = new int[oldRecords.length * 2];
+        mask    = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldRecords[i] == 0) continue;
+            int slot = (int) CatalogKeys.mix(oldKeys[i]) & mask;
+            while (records[slot] != 0) slot = (slot + 1) & mask;
+            keys[slot]    = oldKeys[i];
+            records[slot] = oldRecords[i];
+        }
+    }
+
+    // ── Shared lookup / serialisation support ─────────────────────────────────
+
+    /**
+     * Resolution shared by the heap index and the mapped snapshot: set id, then
+     * packed key probe, with the overflow map for unpackable collector numbers.
+     */
+    static int find(SetCodeTable sets, SlotTable slots, Map<String, Integer> overflow,
+                    CharSequence setCode, CharSequence coll) {
+        int setId = sets.find(setCode);
+        if (setId == 0) return -1;
+        long packed = CatalogKeys.packCollector(coll);
+        if (packed == CatalogKeys.UNPACKABLE) {
+            Integer rec = overflow.get(CatalogKeys.overflowKey(sets.code(setId), coll));
+            return rec != null ? rec : -1;
+        }
+        return slots.probe(CatalogKeys.key(setId, packed));
+    }
+
+    /** Slot keys, parallel to {@link #slotRecords()}; for serialisation. */
+    long[] slotKeys() { return keys; }
+
+    /** Slot records (record number + 1, 0 = empty); for serialisation. */
+    int[] slotRecords() { return records; }
+
+    /** Overflow entries keyed by {@code "SETCODE:COLLNUM"}; for serialisation. */
+    Map<String, Integer> overflow() { return overflow; }
+}
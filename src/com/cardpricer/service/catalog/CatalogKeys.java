@@ -0,0 +1,137 @@
+package com.cardpricer.service.catalog;
+
+/**
+ * Allocation-free key packing for the catalog index.
+ *
+ * <p>Set codes and collector numbers are packed into {@code long}s in base 38
+ * ({@code 0-9} → 1–10, {@code A-Z} → 11–36 case-insensitively, {@code -} → 37), so
+ * equal normalised keys always produce equal packed values. Characters outside that
+ * alphabet are skipped in collector numbers — the same stripping the old
+ * {@code replaceAll("[^0-9A-Za-z\\-]", "")} did, so {@code "73★"} packs like
+ * {@code "73"}. A full index key is the interned set id in the top bits and the
+ * packed collector number in the low {@value #COLLECTOR_BITS} bits.
+ *
+ * <p>Collector numbers longer than {@value #MAX_PACKED_COLLECTOR} significant
+ * characters do not fit; {@link #packCollector} returns {@link #UNPACKABLE} for
+ * them and callers fall back to a string key.
+ */
+public final class CatalogKeys {
+
+    private CatalogKeys() {}
+
+    /** Returned by the pack methods when the input cannot be packed. */
+    public static final long UNPACKABLE = -1L;
+
+    /** Longest normalised collector number that packs into a key (38^8 &lt; 2^42). */
+    public static final int MAX_PACKED_COLLECTOR = 8;
+
+    /** Longest set code that packs (38^12 &lt; 2^63). */
+    private static final int MAX_PACKED_SET = 12;
+
+    private static final int COLLECTOR_BITS = 42;
+
+    /** Largest set id that fits above the collector bits. */
+    public static final int MAX_SET_ID = (1 << (63 - COLLECTOR_BITS)) - 1;
+
+    /** Returns the base-38 symbol for {@code c}, or 0 if the character is not part of a key. */
+    static int symbol(char c) {
+        if (c >= '0' && c <= '9') return c - '0' + 1;
+        if (c >= 'A' && c <= 'Z') return c - 'A' + 11;
+        if (c >= 'a' && c <= 'z') return c - 'a' + 11;
+        if (c == '-') return 37;
+        return 0;
+    }
+
+    /**
+     * Packs a collector number, skipping characters outside {@code [0-9A-Za-z-]}.
+     *
+     * @return packed value, or {@link #UNPACKABLE} if more than
+     *         {@link #MAX_PACKED_COLLECTOR} significant characters remain
+     */
+    public static long packCollector(CharSequence coll) {
+        long v = 0;
+        int n = 0;
+        for (int i = 0, len = coll.length(); i < len; i++) {
+            int sym = symbol(coll.charAt(i));
+            if (sym == 0) continue;
+            if (++n > MAX_PACKED_COLLECTOR) return UNPACKABLE;
+            v = v * 38 + sym;
+        }
+        return v;
+    }
+
+    /**
+     * Packs a set code. Only plain alphanumeric codes pack; anything else
+     * (spaces, punctuation, friendly names that are too long) returns
+     * {@link #UNPACKABLE} so the caller can try the alias table instead.
+     */
+    public static long packSet(CharSequence set) {
+        int len = set.length();
+        if (len == 0 || len > MAX_PACKED_SET) return UNPACKABLE;
+        long v = 0;
+        for (int i = 0; i < len; i++) {
+            int sym = symbol(set.charAt(i));
+            if (sym == 0 || sym == 37) return UNPACKABLE;
+            v = v * 38 + sym;
+        }
+        return v;
+    }
+
+    /** Combines an interned set id (≥ 1) and a packed collector number into an index key. */
+    public static long key(int setId, long packedColl) {
+        return ((long) setId << COLLECTOR_BITS) | packedColl;
+    }
+
+    /** Finalising mix (MurmurHash3 fmix64) so that packed keys spread across slots. */
+    static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Normalises a collector number the way {@link #packCollector} sees it:
+     * upper-case with characters outside {@code [0-9A-Za-z-]} removed. Used only on
+     * build paths and for the rare keys that do not pack.
+     */
+    public static String normalizeCollector(CharSequence coll) {
+        StringBuilder sb = new StringBuilder(coll.length());
+        for (int i = 0, len = coll.length(); i < len; i++) {
+            char c = coll.charAt(i);
+            if (symbol(c) != 0) sb.append(Character.toUpperCase(c));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Removes characters outside {@code [0-9A-Za-z-]} from a collector number while
+     * keeping its case ({@code "73★"} → {@code "73"}); the display form stored on a card.
+     */
+    public static String stripCollector(CharSequence coll) {
+        StringBuilder sb = new StringBuilder(coll.length());
+        for (int i = 0, len = coll.length(); i < len; i++) {
+            char c = coll.charAt(i);
+            if (symbol(c) != 0) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Rebuilds the index-key collector number of a stored printing: the PLST
+     * composite ({@code "ARB-1"}) for The List, otherwise the upper-case collector
+     * number — the inverse of how the bulk import derives the stored fields.
+     */
+    public static String keyCollector(String keySet, String setCode, String collectorNumber) {
+        return "PLST".equals(keySet)
+                ? setCode + '-' + collectorNumber.toUpperCase()
+                : collectorNumber.toUpperCase();
+    }
+
+    /** Returns the {@code "SETCODE:COLLNUM"} string key used for unpackable collector numbers. */
+    static String overflowKey(String canonicalSet, CharSequence coll) {
+        return canonicalSet + ":" + normalizeCollector(coll);
+    }
+}
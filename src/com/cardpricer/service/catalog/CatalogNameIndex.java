@@ -0,0 +1,252 @@
+package com.cardpricer.service.catalog;
+
+import com.cardpricer.util.VintageUtil;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Typo-tolerant card-name search over a {@link CatalogStore}, fully offline.
+ *
+ * <p>Each distinct card name is normalised (accents stripped, lower case, every
+ * run of non-alphanumerics turned into one space) and split into trigrams,
+ * padded with a space at each end so word starts and ends count too. A query is
+ * split the same way; every name sharing at least half of the query's trigrams
+ * is a candidate, so a dropped, doubled or swapped letter still matches. Queries
+ * shorter than three characters are matched as substrings instead.
+ *
+ * <p>Candidates rank by how the query meets the name — exact, then prefix, then
+ * substring, then trigram overlap alone — and then by shorter name. Results are
+ * the printings of the ranked names, in catalog order within a name, optionally
+ * limited to one set.
+ *
+ * <p>Trigrams are codes over a 37-symbol alphabet (space, a–z, 0–9), so the
+ * posting lists are a plain array indexed by code. Safe for concurrent readers.
+ */
+public final class CatalogNameIndex {
+
+    private static final int ALPHABET = 37;
+    private static final int GRAMS    = ALPHABET * ALPHABET * ALPHABET;
+    private static final int[] EMPTY  = new int[0];
+
+    /** Share of the query's trigrams a name must contain to be a candidate. */
+    private static final double MIN_OVERLAP = 0.5;
+
+    private final CatalogStore store;
+    private final String[] names;
+    private final String[] normalized;
+    private final int[][] printings;
+    private final int[][] postings;
+
+    /** Indexes the names of every live record in {@code store}. */
+    public CatalogNameIndex(CatalogStore store) {
+        this.store = store;
+        int n = store.size();
+
+        // Distinct names, and each record's name id
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> nameList = new ArrayList<>();
+        int[] nameOf = new int[n];
+        int[] counts = new int[1024];
+        for (int r = 0; r < n; r++) {
+            if (store.isRemoved(r)) { nameOf[r] = -1; continue; }
+            String name = store.name(r);
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = nameList.size();
+                ids.put(name, id);
+                nameList.add(name);
+                if (id >= counts.length) counts = Arrays.copyOf(counts, counts.length * 2);
+            }
+            nameOf[r] = id;
+            counts[id]++;
+        }
+        names = nameList.toArray(new String[0]);
+        printings = new int[names.length][];
+        for (int i = 0; i < names.length; i++) printings[i] = new int[counts[i]];
+        int[] fill = new int[names.length];
+        for (int r = 0; r < n; r++) {
+            if (nameOf[r] >= 0) printings[nameOf[r]][fill[nameOf[r]]++] = r;
+        }
+
+        // Trigram posting lists: count, then fill (name ids ascending, no repeats)
+        normalized = new String[names.length];
+        int[][] grams = new int[names.length][];
+        int[] gramCounts = new int[GRAMS];
+        for (int i = 0; i < names.length; i++) {
+            normalized[i] = normalize(names[i]);
+            grams[i] = trigrams(normalized[i]);
+            for (int g : grams[i]) gramCounts[g]++;
+        }
+        postings = new int[GRAMS][];
+        for (int g = 0; g < GRAMS; g++) postings[g] = gramCounts[g] == 0 ? EMPTY : new int[gramCounts[g]];
+        Arrays.fill(gramCounts, 0);
+        for (int i = 0; i < names.length; i++) {
+            for (int g : grams[i]) postings[g][gramCounts[g]++] = i;
+        }
+    }
+
+    /** Returns the number of distinct card names indexed. */
+    public int nameCount() { return names.length; }
+
+    /** Approximate heap bytes held by this index. */
+    long residentBytes() {
+        long bytes = (long) GRAMS * 8;
+        for (int i = 0; i < names.length; i++) {
+            bytes += 96 + names[i].length() + normalized[i].length() + printings[i].length * 4L;
+        }
+        for (int[] p : postings) bytes += p.length * 4L;
+        return bytes;
+    }
+
+    /** Returns the store the record numbers from {@link #search} refer to. */
+    public CatalogStore store() { return store; }
+
+    // ── Search ────────────────────────────────────────────────────────────────
+
+    /**
+     * Finds the printings whose name matches {@code query}, best match first.
+     *
+     * @param query   name or part of a name; case, accents and punctuation are ignored
+     * @param setCode canonical or alias set code to restrict to, or {@code null}/blank for all sets
+     * @return record numbers (possibly empty, never {@code null})
+     */
+    public int[] search(String query, String setCode) {
+        String q = normalize(query == null ? "" : query);
+        if (q.isEmpty()) return EMPTY;
+
+        int[] candidates;
+        int[] shared;
+        if (q.length() < 3) {
+            candidates = substringMatches(q);
+            shared = null;
+        } else {
+            int[] qGrams = trigrams(q);
+            shared = new int[names.length];
+            int[] touched = new int[names.length];
+            int touchedCount = 0;
+            for (int g : qGrams) {
+                for (int id : postings[g]) {
+                    if (shared[id]++ == 0) touched[touchedCount++] = id;
+                }
+            }
+            int min = Math.max(1, (int) Math.ceil(qGrams.length * MIN_OVERLAP));
+            int kept = 0;
+            for (int k = 0; k < touchedCount; k++) {
+                if (shared[touched[k]] >= min) touched[kept++] = touched[k];
+            }
+            candidates = Arrays.copyOf(touched, kept);
+            // Turn counts into overlap per mille so ranking needs no doubles
+            for (int id : candidates) shared[id] = shared[id] * 1000 / qGrams.length;
+        }
+
+        Integer[] ranked = new Integer[candidates.length];
+        long[] score = new long[names.length];
+        for (int k = 0; k < candidates.length; k++) {
+            int id = candidates[k];
+            ranked[k] = id;
+            score[id] = score(q, normalized[id], shared == null ? 1000 : shared[id]);
+        }
+        Arrays.sort(ranked, (a, b) -> {
+            int c = Long.compare(score[b], score[a]);
+            if (c != 0) return c;
+            c = Integer.compare(names[a].length(), names[b].length());
+            return c != 0 ? c : names[a].compareTo(names[b]);
+        });
+
+        String set = setCode == null || setCode.isBlank() ? null
+                : VintageUtil.resolveSetAlias(setCode.trim()).toUpperCase(Locale.ROOT);
+
+        int total = 0;
+        for (Integer id : ranked) total += printings[id].length;
+        int[] out = new int[total];
+        int size = 0;
+        for (Integer id : ranked) {
+            for (int r : printings[id]) {
+                if (set == null || set.equals(store.keySet(r))) out[size++] = r;
+            }
+        }
+        return size == out.length ? out : Arrays.copyOf(out, size);
+    }
+
+    private int[] substringMatches(String q) {
+        int[] hits = new int[names.length];
+        int n = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (normalized[i].contains(q)) hits[n++] = i;
+        }
+        return Arrays.copyOf(hits, n);
+    }
+
+    /** Match tier (exact 3, prefix 2, substring 1, none 0) above the trigram overlap. */
+    private static long score(String q, String name, int overlap) {
+        int tier;
+        if (name.equals(q))           tier = 3;
+        else if (name.startsWith(q))  tier = 2;
+        else if (name.contains(q))    tier = 1;
+        else                          tier = 0;
+        return tier * 10_000L + overlap;
+    }
+
+    // ── Normalisation ─────────────────────────────────────────────────────────
+
+    /**
+     * Lower-cases {@code s}, strips accents ({@code "Lim-Dûl"} → {@code "lim dul"},
+     * {@code "Æther"} → {@code "aether"})
+     * and collapses every run of other characters into a single space.
+     */
+    public static String normalize(String s) {
+        String folded = Normalizer.normalize(s, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(folded.length());
+        boolean space = true;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+                space = false;
+            } else if (c == '\u00e6') {
+                sb.append("ae"); // Æther, Ætherling: no NFD decomposition
+                space = false;
+            } else if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                // accent left over from NFD: drop it
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int len = sb.length();
+        if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+        return sb.toString();
+    }
+
+    /** Distinct trigram codes of a normalised string padded with one space each side. */
+    private static int[] trigrams(String norm) {
+        int len = norm.length() + 2;
+        if (len < 3) return EMPTY;
+        int[] out = new int[len - 2];
+        int n = 0;
+        int a = 0, b = symbol(norm, 0);
+        for (int i = 1; i < len - 1; i++) {
+            int c = i < norm.length() ? symbol(norm, i) : 0;
+            int g = (a * ALPHABET + b) * ALPHABET + c;
+            boolean seen = false;
+            for (int k = 0; k < n && !seen; k++) seen = out[k] == g;
+            if (!seen) out[n++] = g;
+            a = b;
+            b = c;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static int symbol(String norm, int i) {
+        char c = norm.charAt(i);
+        if (c >= 'a' && c <= 'z') return 1 + c - 'a';
+        if (c >= '0' && c <= '9') return 27 + c - '0';
+        return 0;
+    }
+}
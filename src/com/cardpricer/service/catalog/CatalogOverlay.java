@@ -0,0 +1,299 @@
+package com.cardpricer.service.catalog;
+
+import com.cardpricer.model.Card;
+import com.cardpricer.model.ParsedCode;
+import com.cardpricer.util.SetRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cards fetched from the Scryfall API because the catalog did not have them
+ * (typically a set released after the last bulk download), kept so that the next
+ * entry of the same printing is answered from memory instead of another request.
+ *
+ * <p>Each entry carries its fetch time and is served for {@code ttlMs}; after that
+ * its prices are considered stale and the card is fetched again. Once a bulk
+ * refresh brings the printing into the catalog, {@link #evictCovered} drops it.
+ *
+ * <p>The overlay is kept in a small JSON file so it survives restarts. Changes are
+ * written {@value #SAVE_DELAY_MS} ms after the first one, in the background and
+ * outside the lock, so a burst of fetches costs one write and lookups never wait
+ * on the disk; changes made in that window are lost if the app exits, which only
+ * means those cards are fetched again. The file is read by {@link #preload} or on
+ * first use. All methods are thread-safe. Cards going in and out are copied —
+ * callers own what they receive.
+ */
+public final class CatalogOverlay {
+
+    /** Oldest entries are dropped beyond this many. */
+    private static final int MAX_ENTRIES = 5_000;
+    /** Changes are written this long after the first unsaved one. */
+    private static final long SAVE_DELAY_MS = 2_000;
+
+    private static final ScheduledExecutorService SAVER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "catalog-overlay-save");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private record Entry(Card card, long fetchedAt) {}
+
+    private final File file;
+    private final long ttlMs;
+    /** Insertion (fetch) order, oldest first. Guarded by {@code this}. */
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private boolean loaded;
+    /** Entries changed since the last write; guarded by {@code this}. */
+    private boolean dirty;
+    /** A write is scheduled and has not yet taken its snapshot; guarded by {@code this}. */
+    private boolean saveScheduled;
+    /** Serialises writes and deletion of {@link #file}; taken before {@code this}. */
+    private final Object fileLock = new Object();
+
+    /**
+     * @param file  where the overlay is persisted
+     * @param ttlMs how long a fetched card is served before it is fetched again
+     */
+    public CatalogOverlay(File file, long ttlMs) {
+        this.file  = file;
+        this.ttlMs = ttlMs;
+    }
+
+    // ── Lookup ────────────────────────────────────────────────────────────────
+
+    /**
+     * Returns a copy of the fetched card for this printing, or {@code null} if
+     * there is none or it has expired.
+     *
+     * @param setCode         Scryfall or user-facing set code (any case)
+     * @param collectorNumber collector number; finish markers are ignored
+     */
+    public synchronized Card get(String setCode, String collectorNumber) {
+        ensureLoaded();
+        String key = key(setCode, collectorNumber);
+        Entry e = entries.get(key);
+        if (e == null) return null;
+        if (System.currentTimeMillis() - e.fetchedAt > ttlMs) {
+            // Not worth a write: expired entries are skipped when the file is read
+            entries.remove(key);
+            return null;
+        }
+        return copy(e.card);
+    }
+
+    /** Records a card just fetched for this printing, replacing any older entry. */
+    public synchronized void put(String setCode, String collectorNumber, Card card) {
+        ensureLoaded();
+        add(setCode, collectorNumber, card, System.currentTimeMillis());
+        trim();
+        markDirty();
+    }
+
+    /** Records a batch of cards just fetched, keyed by the code each was asked for. */
+    public synchronized void putAll(Map<ParsedCode, Card> cards) {
+        if (cards.isEmpty()) return;
+        ensureLoaded();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<ParsedCode, Card> e : cards.entrySet()) {
+            add(e.getKey().setCode, e.getKey().collectorNumber, e.getValue(), now);
+        }
+        trim();
+        markDirty();
+    }
+
+    private void add(String setCode, String collectorNumber, Card card, long fetchedAt) {
+        String key = key(setCode, collectorNumber);
+        entries.remove(key);
+        entries.put(key, new Entry(copy(card), fetchedAt));
+    }
+
+    private void trim() {
+        Iterator<String> oldest = entries.keySet().iterator();
+        while (entries.size() > MAX_ENTRIES) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    /** Returns the number of entries, expired ones included until next touched. */
+    public synchronized int size() {
+        ensureLoaded();
+        return entries.size();
+    }
+
+    // ── Maintenance ───────────────────────────────────────────────────────────
+
+    /**
+     * Drops every entry whose printing {@code store} now holds, and every expired
+     * entry. Called after a bulk refresh.
+     *
+     * @return the number of entries dropped
+     */
+    public synchronized int evictCovered(CatalogStore store) {
+        ensureLoaded();
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        // Probe by key, not by the card's own set and number: a PLST entry is keyed
+        // by its composite number ("ARB-1"), which the card does not carry
+        entries.entrySet().removeIf(e -> {
+            int colon = e.getKey().indexOf(':');
+            return now - e.getValue().fetchedAt > ttlMs
+                    || store.find(e.getKey().substring(0, colon), e.getKey().substring(colon + 1)) >= 0;
+        });
+        int dropped = before - entries.size();
+        if (dropped > 0) markDirty();
+        return dropped;
+    }
+
+    /** Removes every entry and the file. */
+    public void clear() {
+        synchronized (fileLock) {
+            synchronized (this) {
+                entries.clear();
+                loaded = true;
+                dirty = false;
+                if (file.exists() && !file.delete()) {
+                    System.err.println("[Catalog] Could not delete " + file.getName());
+                }
+            }
+        }
+    }
+
+    // ── Persistence ───────────────────────────────────────────────────────────
+
+    /** Reads the file now if it has not been read, so the first lookup does no I/O. */
+    public synchronized void preload() {
+        ensureLoaded();
+    }
+
+    /** Writes unsaved changes now rather than after the delay. */
+    public void flush() {
+        synchronized (fileLock) {
+            String json;
+            synchronized (this) {
+                saveScheduled = false;
+                if (!dirty) return;
+                dirty = false;
+                json = toFileJson();
+            }
+            write(json);
+        }
+    }
+
+    /** Schedules a write unless one is already pending. Caller holds {@code this}. */
+    private void markDirty() {
+        dirty = true;
+        if (saveScheduled) return;
+        saveScheduled = true;
+        SAVER.schedule(this::flush, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        if (!file.isFile()) return;
+        try {
+            JSONArray data = new JSONObject(Files.readString(file.toPath(), StandardCharsets.UTF_8))
+                    .getJSONArray("entries");
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < data.length(); i++) {
+                JSONObject o = data.getJSONObject(i);
+                long fetchedAt = o.optLong("fetched_at", 0);
+                if (now - fetchedAt > ttlMs) continue;
+                entries.put(o.getString("key"), new Entry(fromJson(o), fetchedAt));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[Catalog] Fetched-card overlay unreadable, starting empty: " + e.getMessage());
+            entries.clear();
+        }
+    }
+
+    /** Serialises the entries. Caller holds {@code this}. */
+    private String toFileJson() {
+        JSONArray data = new JSONArray();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            JSONObject o = toJson(e.getValue().card);
+            o.put("key", e.getKey());
+            o.put("fetched_at", e.getValue().fetchedAt);
+            data.put(o);
+        }
+        return new JSONObject().put("entries", data).toString();
+    }
+
+    /** Writes {@code json} to the file (temp file, then atomic rename); failures are logged. */
+    private void write(String json) {
+        try {
+            File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+            Files.writeString(tmp.toPath(), json, StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("[Catalog] Could not save fetched-card overlay: " + e.getMessage());
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** {@code "SET:COLLNUM"} with the set resolved to its Scryfall code, both upper-case. */
+    private static String key(String setCode, String collectorNumber) {
+        return SetRegistry.current().toScryfallCode(setCode).toUpperCase(Locale.ROOT)
+                + ':' + CatalogKeys.normalizeCollector(collectorNumber);
+    }
+
+    private static Card copy(Card card) {
+        return fromJson(toJson(card));
+    }
+
+    private static JSONObject toJson(Card card) {
+        JSONObject o = new JSONObject();
+        o.put("name", card.getName());
+        o.put("set", card.getSetCode());
+        o.put("number", card.getCollectorNumber());
+        if (card.getRarity() != null)      o.put("rarity", card.getRarity());
+        if (card.getPrice() != null)       o.put("price", card.getPrice());
+        if (card.getFoilPrice() != null)   o.put("foil", card.getFoilPrice());
+        if (card.getEtchedPrice() != null) o.put("etched", card.getEtchedPrice());
+        if (card.hasFrameEffects())        o.put("frame_effects", new JSONArray(card.getFrameEffects()));
+        if (card.getArtist() != null)      o.put("artist", card.getArtist());
+        if (card.getImageUrl() != null)    o.put("image", card.getImageUrl());
+        if (card.isReserved())             o.put("reserved", true);
+        return o;
+    }
+
+    private static Card fromJson(JSONObject o) {
+        Card card = new Card(o.optString("name", null), o.optString("set", null), o.optString("number", null));
+        if (o.has("rarity")) card.setRarity(o.getString("rarity"));
+        card.setPrice(o.optString("price", null));
+        card.setFoilPrice(o.optString("foil", null));
+        card.setEtchedPrice(o.optString("etched", null));
+        JSONArray fx = o.optJSONArray("frame_effects");
+        if (fx != null) {
+            List<String> effects = new ArrayList<>(fx.length());
+            for (int i = 0; i < fx.length(); i++) effects.add(fx.getString(i));
+            card.setFrameEffects(effects);
+        }
+        card.setArtist(o.optString("artist", null));
+        card.setImageUrl(o.optString("image", null));
+        card.setReserved(o.optBoolean("reserved", false));
+        return card;
+    }
+}
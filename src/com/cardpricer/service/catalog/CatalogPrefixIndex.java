@@ -0,0 +1,203 @@
+package com.cardpricer.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Prefix index for as-you-type suggestions: the most valuable printings whose
+ * name, or set code and collector number, start with what has been typed.
+ *
+ * <p>Two kinds of input are understood:
+ * <ul>
+ *   <li>a name prefix — {@code "bla"} matches Black Lotus, and so does
+ *       {@code "lot"}, since every word of a name is indexed as a start;</li>
+ *   <li>a set code, optionally followed by the start of a collector number —
+ *       {@code "mh3"}, {@code "mh3 12"}, {@code "plst arb 1"}.</li>
+ * </ul>
+ * Both are tried and the matches ranked together by market price (normal price,
+ * or foil/etched for printings with no normal price). Name keys are kept in one
+ * sorted array, so a prefix is a binary search plus a scan, and each name's
+ * printings are pre-sorted by price so a query stops reading them as soon as they
+ * can no longer reach the top {@code k}.
+ *
+ * <p>Safe for concurrent readers.
+ */
+public final class CatalogPrefixIndex {
+
+    /** Distinct names examined at most per query; keeps one-letter prefixes fast. */
+    private static final int MAX_NAMES_SCANNED = 4_096;
+
+    /** One suggestion: the record, the code to type for it and its ranking price. */
+    public record Suggestion(int record, String code, int priceCents) {}
+
+    private final CatalogStore store;
+    private final CatalogSetIndex sets;
+    private final String[] keys;
+    private final int[] keyNames;
+    private final int[][] byPrice;
+
+    /** Indexes every live record of {@code store}; {@code sets} must index the same store. */
+    public CatalogPrefixIndex(CatalogStore store, CatalogSetIndex sets) {
+        this.store = store;
+        this.sets  = sets;
+
+        // Printings per distinct name, most valuable first
+        Map<String, List<Integer>> byName = new HashMap<>();
+        for (int r = 0; r < store.size(); r++) {
+            if (!store.isRemoved(r)) byName.computeIfAbsent(store.name(r), n -> new ArrayList<>()).add(r);
+        }
+        byPrice = new int[byName.size()][];
+        List<String> keyList = new ArrayList<>();
+        List<Integer> keyNameList = new ArrayList<>();
+        int id = 0;
+        for (Map.Entry<String, List<Integer>> e : byName.entrySet()) {
+            byPrice[id] = e.getValue().stream()
+                    .sorted((a, b) -> Integer.compare(rankPrice(b), rankPrice(a)))
+                    .mapToInt(Integer::intValue).toArray();
+            String norm = CatalogNameIndex.normalize(e.getKey());
+            for (int i = 0; i < norm.length(); i++) {
+                if (i == 0 || norm.charAt(i - 1) == ' ') {
+                    keyList.add(i == 0 ? norm : norm.substring(i));
+                    keyNameList.add(id);
+                }
+            }
+            id++;
+        }
+
+        Integer[] order = new Integer[keyList.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> keyList.get(a).compareTo(keyList.get(b)));
+        keys = new String[order.length];
+        keyNames = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = keyList.get(order[i]);
+            keyNames[i] = keyNameList.get(order[i]);
+        }
+    }
+
+    /** Approximate heap bytes held by this index. */
+    long residentBytes() {
+        long bytes = 0;
+        for (String key : keys) bytes += 48 + key.length() + 4;
+        for (int[] recs : byPrice) bytes += 16 + recs.length * 4L;
+        return bytes;
+    }
+
+    /**
+     * Returns up to {@code k} suggestions for {@code input}, most valuable first.
+     * Name prefixes shorter than two characters match nothing.
+     */
+    public List<Suggestion> suggest(String input, int k) {
+        if (input == null || input.isBlank() || k <= 0) return List.of();
+        TopK top = new TopK(k);
+        suggestBySet(input.trim(), top);
+        String q = CatalogNameIndex.normalize(input);
+        if (q.length() >= 2) suggestByName(q, top);
+        return top.sorted();
+    }
+
+    private void suggestByName(String q, TopK top) {
+        int i = lowerBound(q);
+        BitSet seen = new BitSet(byPrice.length);
+        int scanned = 0;
+        for (; i < keys.length && keys[i].startsWith(q) && scanned < MAX_NAMES_SCANNED; i++) {
+            int name = keyNames[i];
+            if (seen.get(name)) continue;
+            seen.set(name);
+            scanned++;
+            for (int r : byPrice[name]) {
+                if (!top.offer(r, rankPrice(r))) break; // the rest of this name is cheaper still
+            }
+        }
+    }
+
+    /** {@code SET}, {@code SET NUM…} or {@code PLST SRC NUM…}. */
+    private void suggestBySet(String input, TopK top) {
+        String[] parts = input.split("\\s+", 2);
+        int[] recs = sets.records(parts[0]);
+        if (recs == null) return;
+        String prefix = parts.length < 2 ? "" : parts[1].trim().replace(' ', '-').toUpperCase(Locale.ROOT);
+        for (int r : recs) {
+            if (!prefix.isEmpty() && !collectorKey(r).startsWith(prefix)) continue;
+            top.offer(r, rankPrice(r));
+        }
+    }
+
+    private int lowerBound(String q) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(q) < 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // ── Records ───────────────────────────────────────────────────────────────
+
+    private String collectorKey(int r) {
+        return CatalogKeys.keyCollector(store.keySet(r), store.setCode(r), store.collectorNumber(r));
+    }
+
+    /**
+     * Code that selects this printing in the trade code field, e.g.
+     * {@code "MH3 123"}, {@code "PLST ARB 1"}, or {@code "SLD 99f"} when only the
+     * foil has a price.
+     */
+    private String code(int r) {
+        String set = store.keySet(r);
+        String code = set.equals("PLST")
+                ? "PLST " + store.setCode(r).toUpperCase(Locale.ROOT) + " " + store.collectorNumber(r)
+                : set + " " + store.collectorNumber(r);
+        if (store.priceCents(r) < 0) {
+            if (store.foilCents(r) >= 0) return code + "f";
+            if (store.etchedCents(r) >= 0) return code + "e";
+        }
+        return code;
+    }
+
+    private int rankPrice(int r) {
+        int p = store.priceCents(r);
+        if (p >= 0) return p;
+        p = store.foilCents(r);
+        return p >= 0 ? p : store.etchedCents(r);
+    }
+
+    /** Bounded min-heap of (price, record), keeping the {@code k} highest prices. */
+    private final class TopK {
+        private final int k;
+        private final PriorityQueue<long[]> heap =
+                new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[1], a[1]));
+        private final BitSet taken = new BitSet();
+
+        TopK(int k) { this.k = k; }
+
+        /** @return {@code false} if {@code price} is too low to enter (heap full) */
+        boolean offer(int record, int price) {
+            if (taken.get(record)) return true;
+            if (heap.size() >= k) {
+                if (price <= heap.peek()[0]) return false;
+                taken.clear((int) heap.poll()[1]);
+            }
+            heap.add(new long[]{price, record});
+            taken.set(record);
+            return true;
+        }
+
+        List<Suggestion> sorted() {
+            List<long[]> entries = new ArrayList<>(heap);
+            entries.sort((a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+            List<Suggestion> out = new ArrayList<>(entries.size());
+            for (long[] e : entries) {
+                int r = (int) e[1];
+                out.add(new Suggestion(r, code(r), (int) e[0]));
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.cardpricer.service.catalog;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * How much of the catalog is kept in memory, for machines that cannot spare the
+ * full index.
+ *
+ * <ul>
+ *   <li>{@link #FULL} — every printing with every field;</li>
+ *   <li>{@link #PRICES_ONLY} — every printing with every field but the artist
+ *       and image URL, which are the bulk of the per-record strings; images are
+ *       then loaded through Scryfall's image endpoint (see
+ *       {@link CatalogStore#card});</li>
+ *   <li>{@link #HOT_SUBSET} — every field, but only the sets that appear in
+ *       recent trade history.</li>
+ * </ul>
+ *
+ * A reduced catalog is a plain {@link CatalogStore}: a printing it does not hold
+ * is a miss, which callers already answer from the API. It is kept off the heap
+ * (see {@link #keepsOffHeap}).
+ */
+public enum CatalogProfile {
+
+    FULL("Full catalog"),
+    PRICES_ONLY("Prices only"),
+    HOT_SUBSET("Recently traded sets");
+
+    private final String label;
+
+    CatalogProfile(String label) { this.label = label; }
+
+    /** Display name. */
+    public String label() { return label; }
+
+    /** Parses a saved {@link #name()}; anything unrecognised is {@link #FULL}. */
+    public static CatalogProfile parse(String name) {
+        if (name != null) {
+            for (CatalogProfile p : values()) {
+                if (p.name().equalsIgnoreCase(name)) return p;
+            }
+        }
+        return FULL;
+    }
+
+    /** Returns {@code true} if every printing is present (perhaps without every field). */
+    public boolean coversAllPrintings() { return this != HOT_SUBSET; }
+
+    /**
+     * Returns {@code true} if this profile's catalog is kept in native memory. The
+     * reduced profiles are meant for machines short of heap, so they are; the full
+     * catalog stays on the heap, where trade entry runs with shorter GC pauses.
+     */
+    public boolean keepsOffHeap() { return this != FULL; }
+
+    /**
+     * Builds this profile's catalog from {@code source}. {@link #FULL} returns
+     * {@code source} itself; the reduced profiles copy what they keep into a new
+     * off-heap {@link CatalogSnapshot}, so {@code source} can be released.
+     *
+     * @param hotSets index set codes (Scryfall, any case) kept by {@link #HOT_SUBSET};
+     *                ignored by the other profiles
+     */
+    public CatalogStore select(CatalogStore source, Collection<String> hotSets) {
+        if (this == FULL) return source;
+
+        Set<String> keep = new HashSet<>();
+        for (String code : hotSets) keep.add(code.toUpperCase(Locale.ROOT));
+
+        CompactCatalogStore.Builder builder = new CompactCatalogStore.Builder(
+                this == HOT_SUBSET ? 1_024 : source.liveCount());
+        CatalogRecord rec = new CatalogRecord();
+        for (int r = 0; r < source.size(); r++) {
+            if (source.isRemoved(r)) continue;
+            // Decide on the set before reading anything else: a sharded source only
+            // loads the shards of the sets that are kept
+            if (this == HOT_SUBSET && !keep.contains(source.keySet(r))) continue;
+            rec.copyFrom(source, r);
+            if (this == PRICES_ONLY) {
+                // Frame effects and the reserved flag stay: names, exports and
+                // queries depend on them, and they are dictionary-encoded
+                rec.artist   = null;
+                rec.imageUrl = null;
+            }
+            builder.add(rec);
+        }
+        return CatalogSnapshot.inMemory(builder.build(), keepsOffHeap());
+    }
+
+    @Override
+    public String toString() { return label; }
+}
@@ -0,0 +1,390 @@
+package com.cardpricer.service.catalog;
+
+import com.cardpricer.util.VintageUtil;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * A subset of Scryfall search syntax, compiled to a predicate over catalog
+ * columns and run locally.
+ *
+ * <p>Supported terms:
+ * <pre>
+ *   set:mh3  s:  e:           set code or alias (PLST lists The List)
+ *   r:mythic  r&gt;=rare        rarity, full or first letter; ordered as on Scryfall
+ *                               (common &lt; uncommon &lt; rare &lt; special &lt; mythic &lt; bonus)
+ *   usd&gt;20  usd&lt;=0.5  usd:5   normal price in dollars; printings without a price never match
+ *   is:reserved  is:foil  is:etched  is:nonfoil
+ *   is:showcase  frame:extendedart   frame effect
+ *   a:"john avon"  artist:      artist name contains
+ *   cn:73  number:              collector number
+ *   name:bolt  bolt  "black lotus"   name contains
+ * </pre>
+ * Terms are ANDed; {@code or} between terms separates alternatives and a leading
+ * {@code -} negates a term. Parentheses are not supported. Unlike the API,
+ * {@code frame:} only matches frame effects (the catalog does not keep frame
+ * versions such as 1993 or 2015).
+ *
+ * <p>{@link #run} splits the candidate records into chunks that are filtered on a
+ * parallel stream and handed to the caller as each chunk completes. A query with a
+ * {@code set:} term in every alternative only visits those sets' records.
+ * {@link #collect} gathers the matches in Scryfall's result order instead.
+ */
+public final class CatalogQuery {
+
+    /** Records filtered per parallel task and per batch handed to the caller. */
+    private static final int CHUNK = 4_096;
+
+    /** Scryfall's rarity order; first letters are unique, so {@code r:m} works. */
+    private static final List<String> RARITIES = List.of("common", "uncommon", "rare", "special", "mythic", "bonus");
+
+    /** One search term, e.g. {@code -usd>=20}. */
+    private record Term(boolean negated, String key, String op, String value) {}
+
+    private final String text;
+    private final List<List<Term>> alternatives;
+
+    private CatalogQuery(String text, List<List<Term>> alternatives) {
+        this.text = text;
+        this.alternatives = alternatives;
+    }
+
+    /** Returns the query as typed. */
+    @Override
+    public String toString() { return text; }
+
+    // ── Parse ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Parses a query.
+     *
+     * @throws IllegalArgumentException with a user-readable message if the query
+     *                                  is empty or uses unsupported syntax
+     */
+    public static CatalogQuery parse(String text) {
+        List<List<Term>> alternatives = new ArrayList<>();
+        List<Term> current = new ArrayList<>();
+        for (String token : tokenize(text == null ? "" : text)) {
+            if (token.equalsIgnoreCase("or")) {
+                if (current.isEmpty()) throw new IllegalArgumentException("'or' needs a term on each side");
+                alternatives.add(current);
+                current = new ArrayList<>();
+            } else if (token.equalsIgnoreCase("and")) {
+                // Terms are ANDed anyway
+            } else {
+                current.add(parseTerm(token));
+            }
+        }
+        if (current.isEmpty()) {
+            throw new IllegalArgumentException(alternatives.isEmpty() ? "Empty query" : "'or' needs a term on each side");
+        }
+        alternatives.add(current);
+        for (List<Term> terms : alternatives) {
+            for (Term t : terms) validate(t);
+        }
+        return new CatalogQuery(text, alternatives);
+    }
+
+    /**
+     * Returns {@code true} if {@code text} contains a keyword term such as
+     * {@code set:}, {@code usd>} or {@code is:}, i.e. it is meant as a query
+     * rather than a plain card name.
+     */
+    public static boolean looksLikeQuery(String text) {
+        if (text == null) return false;
+        for (String token : tokenize(text)) {
+            if (isKnownKey(parseTerm(token).key)) return true;
+        }
+        return false;
+    }
+
+    /** Splits on whitespace outside double quotes; quotes are kept in the token. */
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') quoted = !quoted;
+            if (Character.isWhitespace(c) && !quoted) {
+                if (sb.length() > 0) { tokens.add(sb.toString()); sb.setLength(0); }
+            } else {
+                sb.append(c);
+            }
+        }
+        if (sb.length() > 0) tokens.add(sb.toString());
+        return tokens;
+    }
+
+    private static Term parseTerm(String token) {
+        boolean negated = token.startsWith("-") && token.length() > 1;
+        String body = negated ? token.substring(1) : token;
+
+        // Keyword terms start with letters followed by an operator
+        int k = 0;
+        while (k < body.length() && Character.isLetter(body.charAt(k))) k++;
+        if (k > 0 && k < body.length()) {
+            String op = operatorAt(body, k);
+            if (op != null) {
+                String key = canonicalKey(body.substring(0, k).toLowerCase(Locale.ROOT));
+                return new Term(negated, key, op, unquote(body.substring(k + op.length())));
+            }
+        }
+        return new Term(negated, "name", ":", unquote(body));
+    }
+
+    private static String operatorAt(String s, int i) {
+        for (String op : new String[]{">=", "<=", "!=", ":", "=", ">", "<"}) {
+            if (s.startsWith(op, i)) return op;
+        }
+        return null;
+    }
+
+    private static String unquote(String s) {
+        if (s.length() >= 2 && s.startsWith("\"") && s.endsWith("\"")) return s.substring(1, s.length() - 1);
+        return s.replace("\"", "");
+    }
+
+    private static String canonicalKey(String key) {
+        switch (key) {
+            case "s": case "e": case "edition": return "set";
+            case "r":                           return "rarity";
+            case "a":                           return "artist";
+            case "cn": case "number":           return "number";
+            default:                            return key;
+        }
+    }
+
+    private static boolean isKnownKey(String key) {
+        switch (key) {
+            case "set": case "rarity": case "usd": case "is": case "frame":
+            case "artist": case "number":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void validate(Term t) {
+        if (!isKnownKey(t.key) && !t.key.equals("name")) {
+            throw new IllegalArgumentException("Unsupported keyword '" + t.key + "'");
+        }
+        if (t.value.isEmpty()) throw new IllegalArgumentException("Missing value for '" + t.key + "'");
+        boolean equality = t.op.equals(":") || t.op.equals("=") || t.op.equals("!=");
+        switch (t.key) {
+            case "usd":
+                try {
+                    new BigDecimal(t.value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Not a price: usd" + t.op + t.value);
+                }
+                break;
+            case "rarity":
+                if (rarityRank(t.value) < 0) throw new IllegalArgumentException("Unknown rarity '" + t.value + "'");
+                break;
+            case "is":
+                if (!t.op.equals(":")) throw new IllegalArgumentException("Use is:" + t.value);
+                break;
+            default:
+                if (!equality) throw new IllegalArgumentException("'" + t.key + "' does not support " + t.op);
+        }
+    }
+
+    /** Rank of a rarity in {@link #RARITIES}, accepting first letters; -1 if unknown. */
+    private static int rarityRank(String value) {
+        String v = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < RARITIES.size(); i++) {
+            String r = RARITIES.get(i);
+            if (r.equals(v) || (v.length() == 1 && r.charAt(0) == v.charAt(0))) return i;
+        }
+        return -1;
+    }
+
+    // ── Compile ───────────────────────────────────────────────────────────────
+
+    /** Compiles the query to a predicate over record numbers of {@code store}. */
+    public IntPredicate compile(CatalogStore store) {
+        IntPredicate any = null;
+        for (List<Term> terms : alternatives) {
+            IntPredicate all = r -> !store.isRemoved(r);
+            for (Term t : terms) all = all.and(compile(store, t));
+            any = any == null ? all : any.or(all);
+        }
+        return any;
+    }
+
+    private static IntPredicate compile(CatalogStore store, Term t) {
+        IntPredicate p;
+        String value = t.value.toLowerCase(Locale.ROOT);
+        boolean negate = t.negated != t.op.equals("!=");
+        switch (t.key) {
+            case "set": {
+                String code = canonicalSet(t.value);
+                p = r -> code.equals(store.keySet(r));
+                break;
+            }
+            case "rarity": {
+                // Negated inside the guard: a record of unknown rarity never matches
+                int rank = rarityRank(value);
+                return r -> {
+                    int actual = RARITIES.indexOf(store.rarity(r));
+                    return actual >= 0 && compare(actual, rank, t.op) != negate;
+                };
+            }
+            case "usd": {
+                // Negated inside the guard: a printing without a price never matches
+                int cents = CatalogRecord.toCents(t.value);
+                return r -> {
+                    int price = store.priceCents(r);
+                    return price >= 0 && compare(price, cents, t.op) != negate;
+                };
+            }
+            case "is":
+                p = isPredicate(store, value);
+                break;
+            case "frame":
+                p = r -> store.frameEffects(r).contains(value);
+                break;
+            case "artist": {
+                String needle = CatalogNameIndex.normalize(t.value);
+                p = r -> CatalogNameIndex.normalize(store.artist(r)).contains(needle);
+                break;
+            }
+            case "number":
+                p = r -> store.collectorNumber(r).equalsIgnoreCase(t.value);
+                break;
+            default: {
+                String needle = CatalogNameIndex.normalize(t.value);
+                p = r -> CatalogNameIndex.normalize(store.name(r)).contains(needle);
+            }
+        }
+        return negate ? p.negate() : p;
+    }
+
+    private static IntPredicate isPredicate(CatalogStore store, String value) {
+        switch (value) {
+            case "reserved": return store::isReserved;
+            case "foil":     return r -> store.foilCents(r) >= 0;
+            case "etched":   return r -> store.etchedCents(r) >= 0 || store.frameEffects(r).contains("etched");
+            case "nonfoil":  return r -> store.priceCents(r) >= 0;
+            default:         return r -> store.frameEffects(r).contains(value);
+        }
+    }
+
+    /** Applies a comparison operator; {@code :} means equality, as on Scryfall. */
+    private static boolean compare(int actual, int wanted, String op) {
+        switch (op) {
+            case ">":  return actual > wanted;
+            case ">=": return actual >= wanted;
+            case "<":  return actual < wanted;
+            case "<=": return actual <= wanted;
+            default:   return actual == wanted; // ":", "=", and "!=" (negated by the caller)
+        }
+    }
+
+    private static String canonicalSet(String value) {
+        return VintageUtil.resolveSetAlias(value).toUpperCase(Locale.ROOT);
+    }
+
+    // ── Run ───────────────────────────────────────────────────────────────────
+
+    /**
+     * Runs the query against a catalog version on a parallel stream.
+     *
+     * <p>Matches are handed to {@code sink} in batches (ascending record numbers
+     * within a batch, batches in no particular order) as soon as each chunk is
+     * filtered; {@code sink} is called from pool threads and must be thread-safe.
+     * Chunks not yet started are skipped once {@code cancelled} returns {@code true}.
+     *
+     * @return the number of matches delivered
+     */
+    public int run(CatalogVersion version, Consumer<int[]> sink, BooleanSupplier cancelled) {
+        CatalogStore store = version.store();
+        IntPredicate predicate = compile(store);
+        int[] candidates = candidates(version);
+        int total = candidates == null ? store.size() : candidates.length;
+        int chunks = (total + CHUNK - 1) / CHUNK;
+
+        return IntStream.range(0, chunks).parallel().map(c -> {
+            if (cancelled.getAsBoolean()) return 0;
+            int from = c * CHUNK, to = Math.min(from + CHUNK, total);
+            int[] hits = new int[to - from];
+            int n = 0;
+            for (int i = from; i < to; i++) {
+                int r = candidates == null ? i : candidates[i];
+                if (predicate.test(r)) hits[n++] = r;
+            }
+            if (n > 0) sink.accept(Arrays.copyOf(hits, n));
+            return n;
+        }).sum();
+    }
+
+    /**
+     * Runs the query like {@link #run} and returns every match sorted as Scryfall
+     * sorts search results: by name, then set, then collector number. Because
+     * chunks finish in no particular order, this is what makes the first page and
+     * paging of a query reproducible.
+     *
+     * @param progress told the size of each batch of matches as it is found (from
+     *                 pool threads), so a running count can be shown
+     * @return the matching record numbers, sorted; empty if cancelled early
+     */
+    public int[] collect(CatalogVersion version, IntConsumer progress, BooleanSupplier cancelled) {
+        List<int[]> found = new ArrayList<>();
+        run(version, hits -> {
+            synchronized (found) { found.add(hits); }
+            progress.accept(hits.length);
+        }, cancelled);
+        return sortByName(version.store(), found.stream().flatMapToInt(IntStream::of).toArray());
+    }
+
+    /** Sorts {@code records} by name (case ignored), index set, collector number, then record number. */
+    private static int[] sortByName(CatalogStore store, int[] records) {
+        Integer[] pos = new Integer[records.length];
+        String[] names = new String[records.length];
+        String[] sets = new String[records.length];
+        String[] numbers = new String[records.length];
+        for (int k = 0; k < records.length; k++) {
+            pos[k] = k;
+            names[k] = store.name(records[k]);
+            sets[k] = store.keySet(records[k]);
+            numbers[k] = store.collectorNumber(records[k]);
+        }
+        Arrays.sort(pos, Comparator.comparing((Integer k) -> names[k],
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(k -> sets[k])
+                .thenComparing(k -> numbers[k], CatalogSetIndex::compareCollectors)
+                .thenComparingInt(k -> records[k]));
+        int[] out = new int[pos.length];
+        for (int k = 0; k < out.length; k++) out[k] = records[pos[k]];
+        return out;
+    }
+
+    /**
+     * Returns the records of the sets named by a positive {@code set:} term in
+     * every alternative, or {@code null} if the query must scan every record.
+     */
+    private int[] candidates(CatalogVersion version) {
+        List<int[]> parts = new ArrayList<>();
+        for (List<Term> terms : alternatives) {
+            Term setTerm = null;
+            for (Term t : terms) {
+                if (t.key.equals("set") && !t.negated && !t.op.equals("!=")) { setTerm = t; break; }
+            }
+            if (setTerm == null) return null;
+            int[] recs = version.setIndex().records(canonicalSet(setTerm.value));
+            if (recs != null) parts.add(recs);
+        }
+        return parts.stream().flatMapToInt(IntStream::of).distinct().toArray();
+    }
+}
@@ -0,0 +1,89 @@
+package com.cardpricer.service.catalog;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mutable, reusable holder for one printing while the catalog is being built.
+ *
+ * <p>Parsers fill a record and hand it to {@link CompactCatalogStore.Builder#add};
+ * the builder copies what it needs, so the same instance can be cleared and
+ * refilled for the next card without allocating. Prices are held as integer
+ * cents, {@code -1} meaning "N/A".
+ */
+public final class CatalogRecord {
+
+    /** Set code of the index key (upper-case; {@code "PLST"} for The List). */
+    public String keySet;
+    /** Collector number of the index key (e.g. {@code "ARB-1"} for PLST). */
+    public String keyCollector;
+
+    /** Card name. */
+    public String name;
+    /** Set code stored on the {@link com.cardpricer.model.Card} (source set for PLST). */
+    public String setCode;
+    /** Collector number stored on the card ({@code ★} stripped). */
+    public String collectorNumber;
+    /** Rarity, lowercase. */
+    public String rarity = "common";
+    /** Normal, foil and etched prices in cents; {@code -1} when unavailable. */
+    public int priceCents  = -1;
+    public int foilCents   = -1;
+    public int etchedCents = -1;
+    /** Reserved List flag. */
+    public boolean reserved;
+    /** Frame effects; never {@code null}. */
+    public final List<String> frameEffects = new ArrayList<>(4);
+    /** Artist, or {@code null}. */
+    public String artist;
+    /** Scryfall "normal" image URL, or {@code null}. */
+    public String imageUrl;
+
+    /** Resets every field so the instance can be refilled. */
+    public void clear() {
+        keySet = keyCollector = name = setCode = collectorNumber = null;
+        rarity = "common";
+        priceCents = foilCents = etchedCents = -1;
+        reserved = false;
+        frameEffects.clear();
+        artist = imageUrl = null;
+    }
+
+    /** Refills this record from one printing of {@code store}, including its index key. */
+    public CatalogRecord copyFrom(CatalogStore store, int record) {
+        clear();
+        keySet          = store.keySet(record);
+        name            = store.name(record);
+        setCode         = store.setCode(record);
+        collectorNumber = store.collectorNumber(record);
+        keyCollector    = CatalogKeys.keyCollector(keySet, setCode, collectorNumber);
+        rarity          = store.rarity(record);
+        priceCents      = store.priceCents(record);
+        foilCents       = store.foilCents(record);
+        etchedCents     = store.etchedCents(record);
+        reserved        = store.isReserved(record);
+        frameEffects.addAll(store.frameEffects(record));
+        artist          = store.artist(record);
+        imageUrl        = store.imageUrl(record);
+        return this;
+    }
+
+    // ── Price helpers ─────────────────────────────────────────────────────────
+
+    /** Converts a Scryfall price string ({@code "1.23"}) to cents; {@code null}/"N/A" → {@code -1}. */
+    public static int toCents(String price) {
+        if (price == null || price.equals("N/A")) return -1;
+        try {
+            return new BigDecimal(price).movePointRight(2).intValue();
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Inverse of {@link #toCents(String)}; {@code -1} → {@code null} (stored by Card as "N/A"). */
+    public static String fromCents(int cents) {
+        if (cents < 0) return null;
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+}
@@ -0,0 +1,152 @@
+package com.cardpricer.service.catalog;
+
+import com.cardpricer.model.Card;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Secondary index of a {@link CatalogStore} by set: every set's record numbers,
+ * ordered by collector number.
+ *
+ * <p>Building the index is one pass over {@link CatalogStore#keySet(int)} (no
+ * other column is read, so a {@link ShardedCatalogStore} loads nothing). A set's
+ * records are sorted the first time it is listed — sorting reads collector
+ * numbers, which for a sharded store loads just that set — and the order is
+ * kept for later calls.
+ *
+ * <p>Collector numbers sort naturally: by their leading digits as a number, then
+ * by the rest as text, so {@code 2 < 10 < 10a < 10b < 11} and un-numbered
+ * promos ({@code "P1"}, {@code "★"}) come last. Removed records are left out.
+ *
+ * <p>Safe for concurrent readers; built against one immutable store.
+ */
+public final class CatalogSetIndex {
+
+    private final CatalogStore store;
+    private final SetCodeTable sets = new SetCodeTable();
+    private final int[][] records;
+    private final AtomicReferenceArray<int[]> sorted;
+
+    /** Groups the records of {@code store} by set. */
+    public CatalogSetIndex(CatalogStore store) {
+        this.store = store;
+        int n = store.size();
+
+        // Count per set, then fill in record order
+        int[] counts = new int[64];
+        int[] idOf = new int[n];
+        for (int r = 0; r < n; r++) {
+            if (store.isRemoved(r)) { idOf[r] = -1; continue; }
+            int id = sets.intern(store.keySet(r)) - 1;
+            if (id >= counts.length) counts = Arrays.copyOf(counts, counts.length * 2);
+            idOf[r] = id;
+            counts[id]++;
+        }
+        records = new int[sets.size()][];
+        for (int i = 0; i < records.length; i++) records[i] = new int[counts[i]];
+        int[] fill = new int[records.length];
+        for (int r = 0; r < n; r++) {
+            if (idOf[r] >= 0) records[idOf[r]][fill[idOf[r]]++] = r;
+        }
+        sorted = new AtomicReferenceArray<>(records.length);
+    }
+
+    /** Returns the number of sets with at least one printing. */
+    public int setCount() { return records.length; }
+
+    /** Approximate heap bytes held by this index. */
+    long residentBytes() {
+        long bytes = 0;
+        for (int[] recs : records) bytes += 16 + recs.length * 8L; // records plus lazily sorted copy
+        return bytes;
+    }
+
+    /** Returns {@code true} if {@code setCode} (canonical or alias, any case) has printings. */
+    public boolean contains(String setCode) {
+        return setCode != null && sets.find(setCode) > 0;
+    }
+
+    /**
+     * Returns the record numbers of a set in collector-number order.
+     *
+     * @param setCode canonical or alias set code, any case
+     * @return the records (do not modify), or {@code null} if the set has none
+     */
+    public int[] records(String setCode) {
+        if (setCode == null) return null;
+        int i = sets.find(setCode) - 1;
+        if (i < 0) return null;
+        int[] order = sorted.get(i);
+        if (order == null) {
+            order = sortByCollector(records[i]);
+            sorted.compareAndSet(i, null, order);
+        }
+        return order;
+    }
+
+    /**
+     * Returns every printing of a set in collector-number order, each as a new
+     * {@link Card}.
+     *
+     * @return the cards, or {@code null} if the set has none
+     */
+    public List<Card> cards(String setCode) {
+        int[] order = records(setCode);
+        if (order == null) return null;
+        List<Card> cards = new ArrayList<>(order.length);
+        for (int r : order) cards.add(store.card(r));
+        return cards;
+    }
+
+    // ── Collector order ───────────────────────────────────────────────────────
+
+    private int[] sortByCollector(int[] recs) {
+        // Sort positions into recs (ascending record number breaks ties)
+        Integer[] pos = new Integer[recs.length];
+        String[] numbers = new String[recs.length];
+        for (int k = 0; k < recs.length; k++) {
+            pos[k] = k;
+            numbers[k] = store.collectorNumber(recs[k]);
+        }
+        Arrays.sort(pos, Comparator.comparing((Integer k) -> numbers[k], CatalogSetIndex::compareCollectors)
+                .thenComparingInt(k -> k));
+        int[] out = new int[pos.length];
+        for (int k = 0; k < out.length; k++) out[k] = recs[pos[k]];
+        return out;
+    }
+
+    /**
+     * Natural order of collector numbers: numeric prefix first, then the suffix as
+     * text; numbers without a numeric prefix sort after all numbered ones.
+     */
+    static int compareCollectors(String a, String b) {
+        int da = digits(a), db = digits(b);
+        if (da == 0 || db == 0) {
+            if (da != db) return da == 0 ? 1 : -1;
+            return a.compareTo(b);
+        }
+        // Compare the numeric prefixes without parsing (they may exceed an int)
+        int ia = skipZeros(a, da), ib = skipZeros(b, db);
+        int la = da - ia, lb = db - ib;
+        if (la != lb) return Integer.compare(la, lb);
+        int c = a.substring(ia, da).compareTo(b.substring(ib, db));
+        if (c != 0) return c;
+        return a.substring(da).compareTo(b.substring(db));
+    }
+
+    private static int digits(String s) {
+        int i = 0;
+        while (i < s.length() && Character.isDigit(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static int skipZeros(String s, int end) {
+        int i = 0;
+        while (i < end - 1 && s.charAt(i) == '0') i++;
+        return i;
+    }
+}
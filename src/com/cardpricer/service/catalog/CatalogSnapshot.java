@@ -0,0 +1,454 @@
+package com.cardpricer.service.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-layout binary catalog snapshot, mapped as a {@link MemorySegment} so
+ * lookups work straight from the page cache without parsing anything at startup,
+ * or {@linkplain #allocate built} in native memory when there is no file to map.
+ * Either way the records and strings live outside the Java heap: the collector
+ * neither scans nor copies them, and the heap holds little more than the few
+ * fields of this object. Both kinds of segment belong to an automatic
+ * {@link Arena}, so the mapping or memory is released once the snapshot is
+ * collected.
+ *
+ * <p><b>File layout</b> (big-endian):
+ * <pre>
+ *   header     96 bytes   magic, format version, counts, section offsets
+ *   records    N × 48     fixed-width rows of string offsets and price cents
+ *   sets       T × 4      set-code string offsets in {@link SetCodeTable} id order
+ *   slot keys  S × 8      packed {@link CatalogKeys} index keys
+ *   slot recs  S × 4      record number + 1 per slot, 0 = empty
+ *   overflow   V × 8      (key string offset, record) for unpackable collector numbers
+ *   strings    variable   de-duplicated (u16 length, UTF-8 bytes) entries
+ * </pre>
+ *
+ * <p>The slot sections are a serialised {@link CatalogIndex}: lookups probe them
+ * in place with the same packed keys and hash as the heap index. Only the set
+ * table and the overflow entries (a few hundred small objects) are read onto the
+ * heap when the snapshot is opened; {@link com.cardpricer.model.Card}s are built
+ * from the mapped columns only when asked for. Prices are stored as integer
+ * cents, with {@code -1} meaning "N/A". Frame effects are stored as one comma-joined string so
+ * that the handful of distinct combinations de-duplicate in the string table.
+ */
+public final class CatalogSnapshot implements CatalogStore {
+
+    private static final int MAGIC          = 0x4F434353; // "OCCS"
+    private static final int FORMAT_VERSION = 3;
+    private static final int HEADER_BYTES   = 96;
+    private static final int RECORD_BYTES   = 48;
+
+    // Header field offsets
+    private static final int H_RECORDS      = 8;
+    private static final int H_SLOTS        = 12;
+    private static final int H_SETS         = 16;
+    private static final int H_OVERFLOW     = 20;
+    private static final int H_RECORDS_OFF  = 24;
+    private static final int H_SETS_OFF     = 32;
+    private static final int H_KEYS_OFF     = 40;
+    private static final int H_RECS_OFF     = 48;
+    private static final int H_OVERFLOW_OFF = 56;
+    private static final int H_STRINGS_OFF  = 64;
+    private static final int H_STRINGS_LEN  = 72;
+
+    // Record field offsets
+    private static final int R_KEY_SET = 0;
+    private static final int R_NAME    = 4;
+    private static final int R_SET     = 8;
+    private static final int R_COLL    = 12;
+    private static final int R_RARITY  = 16;
+    private static final int R_FX      = 20;
+    private static final int R_IMAGE   = 24;
+    private static final int R_PRICE   = 28;
+    private static final int R_FOIL    = 32;
+    private static final int R_ETCHED  = 36;
+    private static final int R_FLAGS   = 40;
+    private static final int R_ARTIST  = 44;
+
+    private static final int FLAG_RESERVED = 1;
+
+    // The layout is big-endian, and sections follow one another without padding
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt   INT   = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong  LONG  = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    /** Decoded-string cache slots; a power of two. */
+    private static final int STRING_CACHE_SLOTS = 4_096;
+
+    /**
+     * Per-thread buffer a string's bytes are copied into for decoding, grown as
+     * needed, so a cache miss allocates only the {@code String}.
+     */
+    private static final ThreadLocal<byte[]> DECODE_BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
+
+    /**
+     * System property that keeps catalogs built in memory off the heap (see
+     * {@link #inMemory}).
+     */
+    public static final String OFF_HEAP_PROPERTY = "cardpricer.catalog.offHeap";
+
+    private final MemorySegment data;
+    private final int  recordCount;
+    private final int  slotMask;
+    private final int  recordsOffset;
+    private final int  keysOffset;
+    private final int  recsOffset;
+    private final int  stringsOffset;
+    private final SetCodeTable sets;
+    private final Map<String, Integer> overflow;
+    private final CatalogIndex.SlotTable slotTable = this::probe;
+    /**
+     * Recently decoded strings by string-table offset. Rarities, set codes, artists
+     * and reprinted names repeat across records, so most reads hit and the
+     * lookup path allocates little more than the {@code Card} it returns.
+     */
+    private final DecodedString[] stringCache = new DecodedString[STRING_CACHE_SLOTS];
+
+    /** One cache slot; immutable, so racing readers see either the old or the new entry. */
+    private record DecodedString(int offset, String value) {}
+
+    private CatalogSnapshot(MemorySegment data) throws IOException {
+        this.data = data;
+        if (data.byteSize() < HEADER_BYTES || data.get(INT, 0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        if (data.get(INT, 4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported catalog snapshot version " + data.get(INT, 4));
+        }
+        recordCount   = data.get(INT, H_RECORDS);
+        int slotCount = data.get(INT, H_SLOTS);
+        recordsOffset = (int) data.get(LONG, H_RECORDS_OFF);
+        keysOffset    = (int) data.get(LONG, H_KEYS_OFF);
+        recsOffset    = (int) data.get(LONG, H_RECS_OFF);
+        stringsOffset = (int) data.get(LONG, H_STRINGS_OFF);
+        if (Integer.bitCount(slotCount) != 1
+                || (long) stringsOffset + data.get(LONG, H_STRINGS_LEN) != data.byteSize()) {
+            throw new IOException("Catalog snapshot is truncated or corrupt");
+        }
+        slotMask = slotCount - 1;
+
+        int setsOffset = (int) data.get(LONG, H_SETS_OFF);
+        List<String> codes = new ArrayList<>(data.get(INT, H_SETS));
+        for (int i = 0, n = data.get(INT, H_SETS); i < n; i++) {
+            codes.add(readString(data.get(INT, setsOffset + i * 4L)));
+        }
+        sets = SetCodeTable.of(codes);
+
+        int overflowOffset = (int) data.get(LONG, H_OVERFLOW_OFF);
+        overflow = new HashMap<>();
+        for (int i = 0, n = data.get(INT, H_OVERFLOW); i < n; i++) {
+            long pos = overflowOffset + i * 8L;
+            overflow.put(readString(data.get(INT, pos)), data.get(INT, pos + 4));
+        }
+    }
+
+    // ── Open ──────────────────────────────────────────────────────────────────
+
+    /**
+     * Memory-maps a snapshot file read-only and validates its header.
+     *
+     * @throws IOException if the file is missing, truncated, or not a snapshot
+     */
+    public static CatalogSnapshot open(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot too large: " + ch.size() + " bytes");
+            }
+            return new CatalogSnapshot(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size(), Arena.ofAuto()));
+        }
+    }
+
+    /**
+     * Encodes {@code store} into native (off-heap) memory in snapshot format,
+     * without touching the disk. The heap store can be dropped afterwards; the
+     * memory is freed when the returned snapshot is collected.
+     *
+     * @throws OutOfMemoryError if direct memory is exhausted
+     */
+    public static CatalogSnapshot allocate(CompactCatalogStore store) {
+        ByteBuffer[] sections = encode(store);
+        long total = 0;
+        for (ByteBuffer b : sections) total += b.capacity();
+        if (total > Integer.MAX_VALUE) throw new IllegalStateException("Catalog snapshot too large: " + total + " bytes");
+        MemorySegment memory = Arena.ofAuto().allocate(total, Long.BYTES);
+        long pos = 0;
+        for (ByteBuffer b : sections) {
+            b.clear();
+            MemorySegment.copy(MemorySegment.ofBuffer(b), 0, memory, pos, b.capacity());
+            pos += b.capacity();
+        }
+        try {
+            return new CatalogSnapshot(memory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Encoded snapshot failed validation", e);
+        }
+    }
+
+    /**
+     * Returns the form in which a catalog built in memory is kept: {@code store}
+     * itself, or an {@linkplain #allocate off-heap copy} when the
+     * {@value #OFF_HEAP_PROPERTY} system property is {@code true}.
+     *
+     * <p>The heap is the default for the full catalog. Replaying trade entry,
+     * off-heap storage doubled young-GC time and raised the worst pause, because
+     * every read decodes fresh strings that then live on in the trade's cards.
+     * A copy that does not fit in direct memory is logged and the heap store kept.
+     */
+    public static CatalogStore inMemory(CompactCatalogStore store) {
+        return inMemory(store, false);
+    }
+
+    /**
+     * As {@link #inMemory(CompactCatalogStore)}, but always off the heap when
+     * {@code offHeap} is set — for the reduced {@link CatalogProfile}s, whose
+     * point is a small heap.
+     */
+    public static CatalogStore inMemory(CompactCatalogStore store, boolean offHeap) {
+        if (!offHeap && !Boolean.getBoolean(OFF_HEAP_PROPERTY)) return store;
+        try {
+            return allocate(store);
+        } catch (OutOfMemoryError | RuntimeException e) {
+            System.err.println("[Catalog] Could not move catalog off-heap: " + e.getMessage());
+            return store;
+        }
+    }
+
+    /**
+     * Returns {@code true} if {@code file} has a snapshot header whose sections add
+     * up to the file size. Reads the header only, so the file is not left mapped
+     * (a mapped file cannot be moved or deleted on Windows).
+     */
+    public static boolean isValid(File file) {
+        if (!file.isFile()) return false;
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && ch.read(header) >= 0) { /* fill */ }
+            return !header.hasRemaining()
+                    && header.getInt(0) == MAGIC
+                    && header.getInt(4) == FORMAT_VERSION
+                    && header.getLong(H_STRINGS_OFF) + header.getLong(H_STRINGS_LEN) == ch.size();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // ── CatalogStore ──────────────────────────────────────────────────────────
+
+    @Override
+    public int size() { return recordCount; }
+
+    /** Returns the size of the snapshot data, which is held outside the Java heap. */
+    public long byteSize() { return data.byteSize(); }
+
+    @Override
+    public long residentBytes() { return byteSize() + (long) overflow.size() * 64; }
+
+    @Override
+    public int find(CharSequence setCode, CharSequence collectorNumber) {
+        return CatalogIndex.find(sets, slotTable, overflow, setCode, collectorNumber);
+    }
+
+    private int probe(long key) {
+        int slot = (int) CatalogKeys.mix(key) & slotMask;
+        while (true) {
+            int rec = data.get(INT, recsOffset + slot * 4L) - 1;
+            if (rec < 0) return -1;
+            if (data.get(LONG, keysOffset + slot * 8L) == key) return rec;
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    @Override public String  keySet(int r)          { return sets.code(field(r, R_KEY_SET)); }
+    @Override public String  name(int r)            { return readString(field(r, R_NAME)); }
+    @Override public String  setCode(int r)         { return readString(field(r, R_SET)); }
+    @Override public String  collectorNumber(int r) { return readString(field(r, R_COLL)); }
+    @Override public String  rarity(int r)          { return readString(field(r, R_RARITY)); }
+    @Override public int     priceCents(int r)      { return field(r, R_PRICE); }
+    @Override public int     foilCents(int r)       { return field(r, R_FOIL); }
+    @Override public int     etchedCents(int r)     { return field(r, R_ETCHED); }
+    @Override public boolean isReserved(int r)      { return (field(r, R_FLAGS) & FLAG_RESERVED) != 0; }
+    @Override public String  artist(int r)          { return readString(field(r, R_ARTIST)); }
+    @Override public String  imageUrl(int r)        { return readString(field(r, R_IMAGE)); }
+
+    @Override
+    public List<String> frameEffects(int r) {
+        String fx = readString(field(r, R_FX));
+        return fx == null ? List.of() : List.of(fx.split(","));
+    }
+
+    private int field(int record, int offset) {
+        return data.get(INT, recordsOffset + (long) record * RECORD_BYTES + offset);
+    }
+
+    // ── String table ──────────────────────────────────────────────────────────
+
+    private String readString(int offset) {
+        if (offset < 0) return null;
+        int slot = (int) CatalogKeys.mix(offset) & (STRING_CACHE_SLOTS - 1);
+        DecodedString cached = stringCache[slot];
+        if (cached != null && cached.offset == offset) return cached.value;
+
+        long pos = stringsOffset + (long) offset;
+        int len = data.get(SHORT, pos) & 0xFFFF;
+        byte[] bytes = DECODE_BUFFER.get();
+        if (bytes.length < len) {
+            bytes = new byte[Math.max(len, bytes.length * 2)];
+            DECODE_BUFFER.set(bytes);
+        }
+        MemorySegment.copy(data, ValueLayout.JAVA_BYTE, pos + 2, bytes, 0, len);
+        String value = new String(bytes, 0, len, StandardCharsets.UTF_8);
+        stringCache[slot] = new DecodedString(offset, value);
+        return value;
+    }
+
+    // ── Write ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Writes {@code store} to {@code file} in snapshot format, replacing any
+     * existing content.
+     *
+     * @throws IOException on any write failure
+     */
+    public static void write(File file, CompactCatalogStore store) throws IOException {
+        write(file, store, true);
+    }
+
+    /**
+     * As {@link #write(File, CompactCatalogStore)}; {@code sync} forces the data to
+     * the device before returning. Shard files skip it: there are hundreds, and a
+     * shard lost in a crash fails validation and is rebuilt.
+     */
+    static void write(File file, CompactCatalogStore store, boolean sync) throws IOException {
+        ByteBuffer[] sections = encode(store);
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (ByteBuffer b : sections) {
+                b.clear();
+                while (b.hasRemaining()) ch.write(b);
+            }
+            if (sync) ch.force(true);
+        }
+    }
+
+    /** Encodes {@code store} as the snapshot's sections, header first, in file order. */
+    private static ByteBuffer[] encode(CompactCatalogStore store) {
+        int n = store.size();
+        CatalogIndex index = store.index();
+        SetCodeTable setTable = index.sets();
+        long[] slotKeys = index.slotKeys();
+        int[]  slotRecs = index.slotRecords();
+        Map<String, Integer> overflowMap = index.overflow();
+
+        StringTable strings = new StringTable(n);
+        ByteBuffer records  = ByteBuffer.allocate(n * RECORD_BYTES);
+        for (int rec = 0; rec < n; rec++) {
+            List<String> fx = store.frameEffects(rec);
+            records.putInt(setTable.find(store.keySet(rec)));
+            records.putInt(strings.add(store.name(rec)));
+            records.putInt(strings.add(store.setCode(rec)));
+            records.putInt(strings.add(store.collectorNumber(rec)));
+            records.putInt(strings.add(store.rarity(rec)));
+            records.putInt(fx.isEmpty() ? -1 : strings.add(String.join(",", fx)));
+            records.putInt(strings.addUnique(store.imageUrl(rec)));
+            records.putInt(store.priceCents(rec));
+            records.putInt(store.foilCents(rec));
+            records.putInt(store.etchedCents(rec));
+            records.putInt(store.isReserved(rec) ? FLAG_RESERVED : 0);
+            records.putInt(strings.add(store.artist(rec)));
+        }
+
+        ByteBuffer setSection = ByteBuffer.allocate(setTable.size() * 4);
+        for (String code : setTable.codes()) setSection.putInt(strings.add(code));
+
+        ByteBuffer keySection = ByteBuffer.allocate(slotKeys.length * 8);
+        ByteBuffer recSection = ByteBuffer.allocate(slotRecs.length * 4);
+        for (int i = 0; i < slotKeys.length; i++) {
+            keySection.putLong(slotKeys[i]);
+            recSection.putInt(slotRecs[i]);
+        }
+
+        ByteBuffer overflowSection = ByteBuffer.allocate(overflowMap.size() * 8);
+        for (Map.Entry<String, Integer> e : overflowMap.entrySet()) {
+            overflowSection.putInt(strings.add(e.getKey())).putInt(e.getValue());
+        }
+
+        ByteBuffer stringSection = strings.toBuffer();
+        long recordsOffset  = HEADER_BYTES;
+        long setsOffset     = recordsOffset + records.capacity();
+        long keysOffset     = setsOffset + setSection.capacity();
+        long recsOffset     = keysOffset + keySection.capacity();
+        long overflowOffset = recsOffset + recSection.capacity();
+        long stringsOffset  = overflowOffset + overflowSection.capacity();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION)
+              .putInt(n).putInt(slotKeys.length).putInt(setTable.size()).putInt(overflowMap.size())
+              .putLong(recordsOffset).putLong(setsOffset).putLong(keysOffset)
+              .putLong(recsOffset).putLong(overflowOffset)
+              .putLong(stringsOffset).putLong(stringSection.capacity());
+
+        return new ByteBuffer[]{header, records, setSection, keySection, recSection,
+                                overflowSection, stringSection};
+    }
+
+    /** De-duplicating builder for the string section. */
+    private static final class StringTable {
+        private final Map<String, Integer> offsets;
+        private final Bytes out;
+
+        /** Sized for {@code records} rows (a full catalog or a single set shard). */
+        StringTable(int records) {
+            offsets = new HashMap<>(Math.min(200_000, records * 2 + 16));
+            out     = new Bytes(Math.min(8 << 20, records * 80 + 256));
+        }
+
+        int add(String s) {
+            if (s == null) return -1;
+            Integer existing = offsets.get(s);
+            if (existing != null) return existing;
+            int offset = append(s);
+            offsets.put(s, offset);
+            return offset;
+        }
+
+        /** Appends a string known to occur once (image URLs), without remembering it. */
+        int addUnique(String s) {
+            return s == null ? -1 : append(s);
+        }
+
+        private int append(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) bytes = Arrays.copyOf(bytes, 0xFFFF);
+            int offset = out.size();
+            out.write(bytes.length >>> 8);
+            out.write(bytes.length);
+            out.write(bytes, 0, bytes.length);
+            return offset;
+        }
+
+        /** The section, sharing the builder's array rather than copying it. */
+        ByteBuffer toBuffer() { return out.view(); }
+    }
+
+    /** Byte stream whose content can be viewed in place. */
+    private static final class Bytes extends ByteArrayOutputStream {
+        Bytes(int size) { super(size); }
+
+        ByteBuffer view() { return ByteBuffer.wrap(buf, 0, count).slice(); }
+    }
+}
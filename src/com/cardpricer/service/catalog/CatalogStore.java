@@ -0,0 +1,135 @@
+package com.cardpricer.service.catalog;
+
+import com.cardpricer.model.Card;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+
+/**
+ * Read-only backing store for the in-memory card catalog.
+ *
+ * <p>Printings are addressed by record number ({@code 0 … size()-1}).
+ * {@link #find} resolves a user-facing set code (or vintage alias) and collector
+ * number to a record through a primitive {@link CatalogIndex}-style lookup. The
+ * column accessors read single fields without building a {@link Card}; {@link #card}
+ * materialises a record as a new, caller-owned {@code Card}. Implementations must
+ * be safe for concurrent readers once constructed.
+ */
+public interface CatalogStore {
+
+    /**
+     * Returns the number of record numbers in this store. Every record is a live
+     * printing unless {@link #isRemoved} says otherwise.
+     */
+    int size();
+
+    /** Returns the number of live printings: {@link #size()} less removed records. */
+    default int liveCount() { return size(); }
+
+    /**
+     * Returns {@code true} if a later price refresh dropped or superseded the
+     * record (see {@link PatchedCatalogStore}); {@link #find} never returns it and
+     * code iterating over all records should skip it.
+     */
+    default boolean isRemoved(int record) { return false; }
+
+    /**
+     * Resolves a set code and collector number to a record number.
+     *
+     * @param setCode         Scryfall or alias set code, any case
+     * @param collectorNumber collector number; finish markers such as {@code ★} are ignored
+     * @return the record number, or -1 if the printing is not in this store
+     */
+    int find(CharSequence setCode, CharSequence collectorNumber);
+
+    /**
+     * Approximate bytes this store holds in memory — heap arrays and direct
+     * buffers, plus the length of any mapped file (which the OS pages in on
+     * demand). Search indexes built over the store are not included.
+     */
+    long residentBytes();
+
+    // ── Columns ───────────────────────────────────────────────────────────────
+
+    /** Set code of the record's index key ({@code "PLST"} for The List printings). */
+    String keySet(int record);
+
+    /** Card name. */
+    String name(int record);
+
+    /** Set code as stored on the card (source set for PLST printings). */
+    String setCode(int record);
+
+    /** Collector number as stored on the card. */
+    String collectorNumber(int record);
+
+    /** Rarity, lowercase. */
+    String rarity(int record);
+
+    /** Normal price in cents, or -1 if unavailable. */
+    int priceCents(int record);
+
+    /** Foil price in cents, or -1 if unavailable. */
+    int foilCents(int record);
+
+    /** Etched price in cents, or -1 if unavailable. */
+    int etchedCents(int record);
+
+    /** Reserved List flag. */
+    boolean isReserved(int record);
+
+    /** Frame effects; empty when none. The list is shared and unmodifiable. */
+    List<String> frameEffects(int record);
+
+    /** Artist, or {@code null}. */
+    String artist(int record);
+
+    /** Scryfall "normal" image URL, or {@code null}. */
+    String imageUrl(int record);
+
+    // ── Materialisation ───────────────────────────────────────────────────────
+
+    /**
+     * Builds a new {@link Card} for {@code record}; the catalog keeps no reference to it.
+     * A record without an image URL (the {@link CatalogProfile#PRICES_ONLY} profile
+     * drops them) gets Scryfall's image endpoint for the printing, which redirects
+     * to the picture, so image popups still work without fetching the card.
+     */
+    default Card card(int record) {
+        Card card = new Card();
+        card.setName(name(record));
+        card.setSetCode(setCode(record));
+        card.setCollectorNumber(collectorNumber(record));
+        card.setRarity(rarity(record));
+        card.setPrice(CatalogRecord.fromCents(priceCents(record)));
+        card.setFoilPrice(CatalogRecord.fromCents(foilCents(record)));
+        card.setEtchedPrice(CatalogRecord.fromCents(etchedCents(record)));
+        card.setReserved(isReserved(record));
+        List<String> fx = frameEffects(record);
+        if (!fx.isEmpty()) card.setFrameEffects(fx);
+        card.setArtist(artist(record));
+        String image = imageUrl(record);
+        card.setImageUrl(image != null ? image : apiImageUrl(card.getSetCode(), card.getCollectorNumber()));
+        return card;
+    }
+
+    /** {@code /cards/:set/:number?format=image} for a printing, or {@code null} if either part is missing. */
+    private static String apiImageUrl(String setCode, String collectorNumber) {
+        if (setCode == null || collectorNumber == null) return null;
+        try {
+            // Multi-arg URI percent-encodes collector numbers such as "73★"
+            return new URI("https", "api.scryfall.com",
+                    "/cards/" + setCode.toLowerCase() + "/" + collectorNumber,
+                    "format=image&version=normal", null).toASCIIString();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /** Convenience: {@link #find} then {@link #card}; returns {@code null} on a miss. */
+    default Card lookup(CharSequence setCode, CharSequence collectorNumber) {
+        int record = find(setCode, collectorNumber);
+        return record < 0 ? null : card(record);
+    }
+}
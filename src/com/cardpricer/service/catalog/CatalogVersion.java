@@ -0,0 +1,169 @@
+package com.cardpricer.service.catalog;
+
+import com.cardpricer.model.Card;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One published, immutable state of the card catalog.
+ *
+ * <p>The catalog service holds exactly one current version and replaces it with
+ * a single reference write when a load or refresh finishes, so readers never see
+ * a half-built catalog or an empty gap between two. A reader that needs
+ * consistent prices across many lookups — a trade in progress — keeps the
+ * version it started with; older versions stay fully usable for as long as
+ * someone holds them (a replaced snapshot file remains mapped until then).
+ *
+ * <p>Every {@link #lookup} returns a new {@link Card} owned by the caller, so
+ * editing a looked-up card (e.g. entering a manual price) never affects the
+ * catalog or other callers.
+ */
+public final class CatalogVersion {
+
+    private final long number;
+    private final CatalogStore store;
+    private final String releasedAt;
+    private final long publishedAt;
+    private final int cardCount;
+    private final CatalogProfile profile;
+    private volatile CatalogSetIndex setIndex;
+    private volatile CatalogNameIndex nameIndex;
+    private final Object nameIndexLock = new Object();
+    private volatile CatalogPrefixIndex prefixIndex;
+    private final Object prefixIndexLock = new Object();
+
+    /**
+     * @param number     sequence number, increasing with every publication
+     * @param store      the catalog contents; must not change afterwards
+     * @param releasedAt Scryfall {@code updated_at} of the data, or {@code null}
+     */
+    public CatalogVersion(long number, CatalogStore store, String releasedAt) {
+        this(number, store, releasedAt, CatalogProfile.FULL);
+    }
+
+    /**
+     * @param profile the profile {@code store} was built with
+     * @see #CatalogVersion(long, CatalogStore, String)
+     */
+    public CatalogVersion(long number, CatalogStore store, String releasedAt, CatalogProfile profile) {
+        this.number      = number;
+        this.store       = store;
+        this.releasedAt  = releasedAt;
+        this.publishedAt = System.currentTimeMillis();
+        this.cardCount   = store.liveCount();
+        this.profile     = profile;
+    }
+
+    /** Sequence number; a larger number is a newer version. */
+    public long number() { return number; }
+
+    /** The catalog contents. */
+    public CatalogStore store() { return store; }
+
+    /** Scryfall {@code updated_at} of the bulk data this version holds, or {@code null} if unknown. */
+    public String releasedAt() { return releasedAt; }
+
+    /** When this version became current (epoch millis). */
+    public long publishedAt() { return publishedAt; }
+
+    /** Number of printings in this version. */
+    public int cardCount() { return cardCount; }
+
+    /** The memory profile this version was built with. */
+    public CatalogProfile profile() { return profile; }
+
+    /**
+     * Returns {@code true} if every printing is in this version, so a miss in a
+     * search means there is no such card (rather than that its set was left out).
+     */
+    public boolean coversAllPrintings() { return profile.coversAllPrintings(); }
+
+    /** Approximate memory held by the store and the indexes built so far. */
+    public long residentBytes() {
+        long bytes = store.residentBytes();
+        CatalogSetIndex s = setIndex;
+        if (s != null) bytes += s.residentBytes();
+        CatalogNameIndex n = nameIndex;
+        if (n != null) bytes += n.residentBytes();
+        CatalogPrefixIndex p = prefixIndex;
+        if (p != null) bytes += p.residentBytes();
+        return bytes;
+    }
+
+    /**
+     * Looks up a printing in this version.
+     *
+     * @param setCode         Scryfall or user-facing set code (any case)
+     * @param collectorNumber collector number, possibly with finish markers
+     * @return a new {@link Card}, or {@link Optional#empty()} if not in this version
+     */
+    public Optional<Card> lookup(String setCode, String collectorNumber) {
+        if (setCode == null || collectorNumber == null) return Optional.empty();
+        return Optional.ofNullable(store.lookup(setCode, collectorNumber));
+    }
+
+    /**
+     * Lists every printing of a set in this version, ordered by collector number.
+     * The set index is built on first use and shared by later calls.
+     *
+     * @param setCode Scryfall or user-facing set code (any case)
+     * @return new {@link Card}s, or {@link Optional#empty()} if the set is not in this version
+     */
+    public Optional<List<Card>> cardsInSet(String setCode) {
+        return Optional.ofNullable(setIndex().cards(setCode));
+    }
+
+    /** Returns the by-set index of this version, building it on first use. */
+    public CatalogSetIndex setIndex() {
+        CatalogSetIndex index = setIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = setIndex;
+                if (index == null) setIndex = index = new CatalogSetIndex(store);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the name search index of this version, building it on first use.
+     * Building reads every name (and so loads every shard of a sharded store);
+     * call it off the EDT.
+     */
+    public CatalogNameIndex nameIndex() {
+        CatalogNameIndex index = nameIndex;
+        if (index == null) {
+            synchronized (nameIndexLock) {
+                index = nameIndex;
+                if (index == null) nameIndex = index = new CatalogNameIndex(store);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the autocomplete prefix index of this version, building it on first
+     * use. Like {@link #nameIndex()} it reads every name; call it off the EDT.
+     */
+    public CatalogPrefixIndex prefixIndex() {
+        CatalogPrefixIndex index = prefixIndex;
+        if (index == null) {
+            synchronized (prefixIndexLock) {
+                index = prefixIndex;
+                if (index == null) prefixIndex = index = new CatalogPrefixIndex(store, setIndex());
+            }
+        }
+        return index;
+    }
+
+    /** Returns {@code true} once {@link #prefixIndex()} has been built. */
+    public boolean hasPrefixIndex() { return prefixIndex != null; }
+
+    @Override
+    public String toString() {
+        return "CatalogVersion #" + number + " (" + cardCount + " cards"
+                + (profile != CatalogProfile.FULL ? ", " + profile.label().toLowerCase() : "")
+                + (releasedAt != null ? ", " + releasedAt : "") + ")";
+    }
+}
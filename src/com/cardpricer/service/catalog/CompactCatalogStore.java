@@ -0,0 +1,349 @@
+package com.cardpricer.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dictionary-encoded, column-oriented on-heap {@link CatalogStore}.
+ *
+ * <p>Across ~100k printings most field values repeat: a few hundred set codes,
+ * a handful of rarities and frame-effect combinations, a couple of thousand
+ * artists, and names shared by every reprint. Each of those is stored once in a
+ * dictionary and referenced by a small integer column. Prices are {@code int}
+ * cents. Image URLs that follow Scryfall's
+ * {@code https://cards.scryfall.io/normal/<face>/<a>/<b>/<id>.jpg?<stamp>} template
+ * are reduced to the Scryfall id (two {@code long}s), the face and the timestamp;
+ * anything else is kept verbatim in a small side map.
+ *
+ * <p>{@link com.cardpricer.model.Card} objects are never held — {@link #card(int)}
+ * builds one per call at the lookup boundary.
+ */
+public final class CompactCatalogStore implements CatalogStore {
+
+    private static final String IMAGE_PREFIX = "https://cards.scryfall.io/normal/";
+    private static final String[] IMAGE_FACES = {"front", "back"};
+    private static final byte NO_IMAGE  = -1;
+    private static final byte RAW_IMAGE = -2;
+
+    private static final byte FLAG_RESERVED = 1;
+
+    private final CatalogIndex index;
+    private final int size;
+
+    private final String[] names;
+    private final String[] collectors;
+    private final String[] sets;
+    private final String[] rarities;
+    private final String[] artists;
+    private final List<List<String>> frameEffectSets;
+
+    private final char[] keySetCol;
+    private final int[]  nameCol;
+    private final char[] setCol;
+    private final int[]  collCol;
+    private final char[] rarityCol;
+    private final char[] fxCol;
+    private final int[]  artistCol;   // -1 = none
+    private final int[]  priceCol;
+    private final int[]  foilCol;
+    private final int[]  etchedCol;
+    private final byte[] flagCol;
+    private final long[] imageIdHi;
+    private final long[] imageIdLo;
+    private final int[]  imageStamp;  // unsigned seconds
+    private final byte[] imageFace;   // index into IMAGE_FACES, NO_IMAGE or RAW_IMAGE
+    private final Map<Integer, String> rawImages;
+
+    private CompactCatalogStore(Builder b) {
+        int n = b.size;
+        index      = b.index;
+        size       = n;
+        names      = b.names.values.toArray(new String[0]);
+        collectors = b.collectors.values.toArray(new String[0]);
+        sets       = b.sets.values.toArray(new String[0]);
+        rarities   = b.rarities.values.toArray(new String[0]);
+        artists    = b.artists.values.toArray(new String[0]);
+        frameEffectSets = List.copyOf(b.frameEffects.values);
+
+        keySetCol  = Arrays.copyOf(b.keySetCol, n);
+        nameCol    = Arrays.copyOf(b.nameCol, n);
+        setCol     = Arrays.copyOf(b.setCol, n);
+        collCol    = Arrays.copyOf(b.collCol, n);
+        rarityCol  = Arrays.copyOf(b.rarityCol, n);
+        fxCol      = Arrays.copyOf(b.fxCol, n);
+        artistCol  = Arrays.copyOf(b.artistCol, n);
+        priceCol   = Arrays.copyOf(b.priceCol, n);
+        foilCol    = Arrays.copyOf(b.foilCol, n);
+        etchedCol  = Arrays.copyOf(b.etchedCol, n);
+        flagCol    = Arrays.copyOf(b.flagCol, n);
+        imageIdHi  = Arrays.copyOf(b.imageIdHi, n);
+        imageIdLo  = Arrays.copyOf(b.imageIdLo, n);
+        imageStamp = Arrays.copyOf(b.imageStamp, n);
+        imageFace  = Arrays.copyOf(b.imageFace, n);
+        rawImages  = b.rawImages;
+    }
+
+    // ── CatalogStore ──────────────────────────────────────────────────────────
+
+    @Override public int size() { return size; }
+
+    @Override
+    public int find(CharSequence setCode, CharSequence collectorNumber) {
+        return index.find(setCode, collectorNumber);
+    }
+
+    @Override public String  keySet(int r)          { return index.sets().code(keySetCol[r]); }
+    @Override public String  name(int r)            { return names[nameCol[r]]; }
+    @Override public String  setCode(int r)         { return sets[setCol[r]]; }
+    @Override public String  collectorNumber(int r) { return collectors[collCol[r]]; }
+    @Override public String  rarity(int r)          { return rarities[rarityCol[r]]; }
+    @Override public int     priceCents(int r)      { return priceCol[r]; }
+    @Override public int     foilCents(int r)       { return foilCol[r]; }
+    @Override public int     etchedCents(int r)     { return etchedCol[r]; }
+    @Override public boolean isReserved(int r)      { return (flagCol[r] & FLAG_RESERVED) != 0; }
+    @Override public List<String> frameEffects(int r) { return frameEffectSets.get(fxCol[r]); }
+    @Override public String  artist(int r)          { return artistCol[r] < 0 ? null : artists[artistCol[r]]; }
+
+    @Override
+    public String imageUrl(int r) {
+        byte face = imageFace[r];
+        if (face == NO_IMAGE) return null;
+        if (face == RAW_IMAGE) return rawImages.get(r);
+        String id = new UUID(imageIdHi[r], imageIdLo[r]).toString();
+        return IMAGE_PREFIX + IMAGE_FACES[face] + '/' + id.charAt(0) + '/' + id.charAt(1) + '/'
+                + id + ".jpg?" + Integer.toUnsignedString(imageStamp[r]);
+    }
+
+    @Override
+    public long residentBytes() {
+        long bytes = (long) size * 54;                                   // columns
+        bytes += (long) index.slotKeys().length * 12 + index.overflow().size() * 64L;
+        for (String[] dict : List.of(names, collectors, sets, rarities, artists)) {
+            for (String s : dict) bytes += 48 + s.length();
+        }
+        return bytes + rawImages.size() * 160L;
+    }
+
+    /** Returns the primitive index over this store's keys; used by the snapshot writer. */
+    CatalogIndex index() { return index; }
+
+    // ── Builder ───────────────────────────────────────────────────────────────
+
+    /**
+     * Accumulates records column by column. Not thread-safe; call {@link #build()}
+     * once when done.
+     */
+    public static final class Builder {
+        private final CatalogIndex index;
+        private int size;
+
+        private final Dictionary<String> names      = new Dictionary<>();
+        private final Dictionary<String> collectors = new Dictionary<>();
+        private final Dictionary<String> sets       = new Dictionary<>();
+        private final Dictionary<String> rarities   = new Dictionary<>();
+        private final Dictionary<String> artists    = new Dictionary<>();
+        private final Dictionary<List<String>> frameEffects = new Dictionary<>();
+        private final Dictionary<String> keyCollectors = new Dictionary<>(); // build-time only
+
+        private char[] keySetCol;
+        private int[]  keyCollCol;
+        private int[]  nameCol;
+        private char[] setCol;
+        private int[]  collCol;
+        private char[] rarityCol;
+        private char[] fxCol;
+        private int[]  artistCol;
+        private int[]  priceCol;
+        private int[]  foilCol;
+        private int[]  etchedCol;
+        private byte[] flagCol;
+        private long[] imageIdHi;
+        private long[] imageIdLo;
+        private int[]  imageStamp;
+        private byte[] imageFace;
+        private final Map<Integer, String> rawImages = new HashMap<>();
+
+        /** @param expected expected number of printings (sizes the index and columns) */
+        public Builder(int expected) {
+            index = new CatalogIndex(new SetCodeTable(), expected);
+            allocate(Math.max(16, expected));
+            frameEffects.intern(Collections.emptyList());
+        }
+
+        /**
+         * Adds a printing. A later record with the same index key replaces the
+         * earlier one, matching {@link Map#put} semantics.
+         *
+         * @param rec filled record; copied, so the caller may reuse it
+         */
+        public void add(CatalogRecord rec) {
+            int r = row(rec.keySet, rec.keyCollector);
+            nameCol[r]   = names.intern(rec.name);
+            setCol[r]    = toChar(sets.intern(rec.setCode));
+            collCol[r]   = collectors.intern(rec.collectorNumber);
+            rarityCol[r] = toChar(rarities.intern(rec.rarity));
+            fxCol[r]     = toChar(frameEffects.intern(rec.frameEffects.isEmpty()
+                    ? Collections.emptyList()
+                    : List.copyOf(rec.frameEffects)));
+            artistCol[r] = rec.artist != null ? artists.intern(rec.artist) : -1;
+            priceCol[r]  = rec.priceCents;
+            foilCol[r]   = rec.foilCents;
+            etchedCol[r] = rec.etchedCents;
+            flagCol[r]   = rec.reserved ? FLAG_RESERVED : 0;
+            encodeImage(r, rec.imageUrl);
+        }
+
+        /**
+         * Appends every printing of {@code part}, as if its records had been
+         * {@link #add added} here in order; keys already present are replaced.
+         * Dictionaries are remapped once per distinct value, and image columns are
+         * copied without decoding. {@code part} must not be used afterwards.
+         *
+         * <p>This is how partial builders filled by parallel chunk parsers are
+         * combined; merging them in chunk order keeps the last-one-wins result of a
+         * sequential load.
+         */
+        public void merge(Builder part) {
+            int[] nameMap   = names.remap(part.names);
+            int[] collMap   = collectors.remap(part.collectors);
+            int[] setMap    = sets.remap(part.sets);
+            int[] rarityMap = rarities.remap(part.rarities);
+            int[] artistMap = artists.remap(part.artists);
+            int[] fxMap     = frameEffects.remap(part.frameEffects);
+            SetCodeTable partSets = part.index.sets();
+
+            for (int pr = 0; pr < part.size; pr++) {
+                int r = row(partSets.code(part.keySetCol[pr]),
+                            part.keyCollectors.values.get(part.keyCollCol[pr]));
+                nameCol[r]    = nameMap[part.nameCol[pr]];
+                setCol[r]     = toChar(setMap[part.setCol[pr]]);
+                collCol[r]    = collMap[part.collCol[pr]];
+                rarityCol[r]  = toChar(rarityMap[part.rarityCol[pr]]);
+                fxCol[r]      = toChar(fxMap[part.fxCol[pr]]);
+                artistCol[r]  = part.artistCol[pr] < 0 ? -1 : artistMap[part.artistCol[pr]];
+                priceCol[r]   = part.priceCol[pr];
+                foilCol[r]    = part.foilCol[pr];
+                etchedCol[r]  = part.etchedCol[pr];
+                flagCol[r]    = part.flagCol[pr];
+                imageIdHi[r]  = part.imageIdHi[pr];
+                imageIdLo[r]  = part.imageIdLo[pr];
+                imageStamp[r] = part.imageStamp[pr];
+                imageFace[r]  = part.imageFace[pr];
+                if (imageFace[r] == RAW_IMAGE) rawImages.put(r, part.rawImages.get(pr));
+                else                           rawImages.remove(r);
+            }
+        }
+
+        /** Returns the number of distinct printings added so far. */
+        public int size() { return size; }
+
+        /** Freezes the columns into a store; the builder must not be used afterwards. */
+        public CompactCatalogStore build() {
+            return new CompactCatalogStore(this);
+        }
+
+        /** Returns the row for an index key, appending a new one if the key is new. */
+        private int row(String keySet, String keyCollector) {
+            int r = index.putIfAbsent(keySet, keyCollector, size);
+            if (r < 0) {
+                r = size++;
+                if (r == nameCol.length) allocate(r * 2);
+            }
+            keySetCol[r]  = toChar(index.sets().intern(keySet));
+            keyCollCol[r] = keyCollectors.intern(keyCollector);
+            return r;
+        }
+
+        private void encodeImage(int r, String url) {
+            rawImages.remove(r);
+            if (url == null) {
+                imageFace[r] = NO_IMAGE;
+                return;
+            }
+            int face = -1;
+            int pos = IMAGE_PREFIX.length();
+            if (url.startsWith(IMAGE_PREFIX)) {
+                for (int f = 0; f < IMAGE_FACES.length; f++) {
+                    if (url.startsWith(IMAGE_FACES[f] + '/', pos)) {
+                        face = f;
+                        pos += IMAGE_FACES[f].length() + 1;
+                        break;
+                    }
+                }
+            }
+            // Expect "<a>/<b>/<36-char id>.jpg?<stamp>"
+            if (face >= 0 && url.length() > pos + 4 + 36 + 5
+                    && url.charAt(pos + 1) == '/' && url.charAt(pos + 3) == '/'
+                    && url.startsWith(".jpg?", pos + 4 + 36)) {
+                try {
+                    String id = url.substring(pos + 4, pos + 4 + 36);
+                    long stamp = Long.parseLong(url.substring(pos + 4 + 36 + 5));
+                    UUID uuid = UUID.fromString(id);
+                    if (id.equals(uuid.toString())
+                            && id.charAt(0) == url.charAt(pos) && id.charAt(1) == url.charAt(pos + 2)
+                            && stamp >= 0 && stamp <= 0xFFFF_FFFFL) {
+                        imageIdHi[r]  = uuid.getMostSignificantBits();
+                        imageIdLo[r]  = uuid.getLeastSignificantBits();
+                        imageStamp[r] = (int) stamp;
+                        imageFace[r]  = (byte) face;
+                        return;
+                    }
+                } catch (IllegalArgumentException ignored) {
+                    // Not the standard template — keep verbatim below
+                }
+            }
+            imageFace[r] = RAW_IMAGE;
+            rawImages.put(r, url);
+        }
+
+        private void allocate(int capacity) {
+            keySetCol  = keySetCol  == null ? new char[capacity] : Arrays.copyOf(keySetCol, capacity);
+            keyCollCol = keyCollCol == null ? new int[capacity]  : Arrays.copyOf(keyCollCol, capacity);
+            nameCol    = nameCol    == null ? new int[capacity]  : Arrays.copyOf(nameCol, capacity);
+            setCol     = setCol     == null ? new char[capacity] : Arrays.copyOf(setCol, capacity);
+            collCol    = collCol    == null ? new int[capacity]  : Arrays.copyOf(collCol, capacity);
+            rarityCol  = rarityCol  == null ? new char[capacity] : Arrays.copyOf(rarityCol, capacity);
+            fxCol      = fxCol      == null ? new char[capacity] : Arrays.copyOf(fxCol, capacity);
+            artistCol  = artistCol  == null ? new int[capacity]  : Arrays.copyOf(artistCol, capacity);
+            priceCol   = priceCol   == null ? new int[capacity]  : Arrays.copyOf(priceCol, capacity);
+            foilCol    = foilCol    == null ? new int[capacity]  : Arrays.copyOf(foilCol, capacity);
+            etchedCol  = etchedCol  == null ? new int[capacity]  : Arrays.copyOf(etchedCol, capacity);
+            flagCol    = flagCol    == null ? new byte[capacity] : Arrays.copyOf(flagCol, capacity);
+            imageIdHi  = imageIdHi  == null ? new long[capacity] : Arrays.copyOf(imageIdHi, capacity);
+            imageIdLo  = imageIdLo  == null ? new long[capacity] : Arrays.copyOf(imageIdLo, capacity);
+            imageStamp = imageStamp == null ? new int[capacity]  : Arrays.copyOf(imageStamp, capacity);
+            imageFace  = imageFace  == null ? new byte[capacity] : Arrays.copyOf(imageFace, capacity);
+        }
+
+        private static char toChar(int code) {
+            if (code > Character.MAX_VALUE) throw new IllegalStateException("Dictionary overflow");
+            return (char) code;
+        }
+    }
+
+    /** Insertion-ordered value → code dictionary used while building. */
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int intern(T value) {
+            Integer code = codes.get(value);
+            if (code != null) return code;
+            codes.put(value, values.size());
+            values.add(value);
+            return values.size() - 1;
+        }
+
+        /** Interns every value of {@code other}; returns its code → this dictionary's code. */
+        int[] remap(Dictionary<T> other) {
+            int[] map = new int[other.values.size()];
+            for (int i = 0; i < map.length; i++) map[i] = intern(other.values.get(i));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.cardpricer.service.catalog;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental splitter for a top-level JSON array of objects, fed in arbitrary
+ * byte blocks. It tracks only nesting depth and string/escape state, never decodes
+ * the bytes, and emits each top-level {@code {…}} element as its own UTF-8 span,
+ * including elements that straddle block boundaries.
+ */
+final class JsonArraySplitter {
+
+    private int depth;
+    private boolean inString, escaped, sawArray;
+    private byte[] span = new byte[8_192];
+    private int spanLen;
+
+    /**
+     * Scans {@code len} bytes of {@code block} and appends every element completed
+     * in them to {@code out}.
+     *
+     * @throws IOException if the input is not an array of objects
+     */
+    void feed(byte[] block, int len, List<byte[]> out) throws IOException {
+        int start = depth >= 2 ? 0 : -1;
+        for (int i = 0; i < len; i++) {
+            byte b = block[i];
+            if (inString) {
+                if (escaped)        escaped = false;
+                else if (b == '\\') escaped = true;
+                else if (b == '"')  inString = false;
+                continue;
+            }
+            switch (b) {
+                case '"' -> inString = true;
+                case '[', '{' -> {
+                    if (depth == 0) {
+                        if (b != '[') throw new IOException("Expected '[' at start of bulk data");
+                        sawArray = true;
+                    } else if (depth == 1) {
+                        if (b != '{') throw new IOException("Unexpected '[' in bulk data array");
+                        start = i;
+                        spanLen = 0;
+                    }
+                    depth++;
+                }
+                case ']', '}' -> {
+                    depth--;
+                    if (depth == 1) {
+                        append(block, start, i + 1 - start);
+                        out.add(Arrays.copyOf(span, spanLen));
+                        spanLen = 0;
+                        start = -1;
+                    } else if (depth < 0) {
+                        throw new IOException("Unbalanced bulk data JSON");
+                    }
+                }
+                default -> {
+                    if (depth == 0 && !sawArray && !Character.isWhitespace(b)) {
+                        throw new IOException("Expected '[' at start of bulk data, got: '" + (char) b + "'");
+                    }
+                }
+            }
+        }
+        if (start >= 0) append(block, start, len - start); // element continues in the next block
+    }
+
+    private void append(byte[] block, int from, int len) {
+        if (spanLen + len > span.length) span = Arrays.copyOf(span, Math.max(span.length * 2, spanLen + len));
+        System.arraycopy(block, from, span, spanLen, len);
+        spanLen += len;
+    }
+}
@@ -0,0 +1,94 @@
+package com.cardpricer.service.catalog;
+
+import java.util.List;
+
+/**
+ * A base {@link CatalogStore} with a {@link CatalogDelta} laid over it.
+ *
+ * <p>The base (usually the memory-mapped {@link CatalogSnapshot}) is never
+ * copied or rewritten: price reads consult the delta's patch table first, and
+ * lookups try the delta's added printings before the base, skipping base records
+ * the delta hides. Record numbers {@code 0 … base.size()-1} are the base's own;
+ * added printings follow them. Applying a price refresh therefore costs one
+ * small object and a reference swap, however large the catalog.
+ *
+ * <p>Immutable and safe for concurrent readers, like its parts.
+ */
+public final class PatchedCatalogStore implements CatalogStore {
+
+    private final CatalogStore base;
+    private final CatalogDelta delta;
+    private final CompactCatalogStore added;
+    private final int baseSize;
+
+    /** @throws IllegalArgumentException if {@code delta} was built against a different base */
+    public PatchedCatalogStore(CatalogStore base, CatalogDelta delta) {
+        if (delta.baseCount() != base.size()) {
+            throw new IllegalArgumentException("Delta for " + delta.baseCount()
+                    + " records applied to a base of " + base.size());
+        }
+        this.base     = base;
+        this.delta    = delta;
+        this.added    = delta.added();
+        this.baseSize = base.size();
+    }
+
+    /** Returns the unpatched store. */
+    public CatalogStore base() { return base; }
+
+    /** Returns the delta applied to it. */
+    public CatalogDelta delta() { return delta; }
+
+    @Override public int size() { return baseSize + added.size(); }
+
+    @Override
+    public long residentBytes() {
+        return base.residentBytes() + added.residentBytes()
+                + delta.patchCount() * 16L + baseSize / 8 + delta.addedCount() * 200L;
+    }
+
+    @Override public int liveCount() { return size() - delta.hiddenCount(); }
+
+    @Override public boolean isRemoved(int r) { return r < baseSize && delta.hides(r); }
+
+    @Override
+    public int find(CharSequence setCode, CharSequence collectorNumber) {
+        int a = added.find(setCode, collectorNumber);
+        if (a >= 0) return baseSize + a;
+        int b = base.find(setCode, collectorNumber);
+        return b < 0 || delta.hides(b) ? -1 : b;
+    }
+
+    // ── Columns ───────────────────────────────────────────────────────────────
+
+    @Override
+    public int priceCents(int r) {
+        if (r >= baseSize) return added.priceCents(r - baseSize);
+        int slot = delta.patchSlot(r);
+        return slot < 0 ? base.priceCents(r) : delta.patchPrice(slot);
+    }
+
+    @Override
+    public int foilCents(int r) {
+        if (r >= baseSize) return added.foilCents(r - baseSize);
+        int slot = delta.patchSlot(r);
+        return slot < 0 ? base.foilCents(r) : delta.patchFoil(slot);
+    }
+
+    @Override
+    public int etchedCents(int r) {
+        if (r >= baseSize) return added.etchedCents(r - baseSize);
+        int slot = delta.patchSlot(r);
+        return slot < 0 ? base.etchedCents(r) : delta.patchEtched(slot);
+    }
+
+    @Override public String  keySet(int r)          { return r < baseSize ? base.keySet(r)          : added.keySet(r - baseSize); }
+    @Override public String  name(int r)            { return r < baseSize ? base.name(r)            : added.name(r - baseSize); }
+    @Override public String  setCode(int r)         { return r < baseSize ? base.setCode(r)         : added.setCode(r - baseSize); }
+    @Override public String  collectorNumber(int r) { return r < baseSize ? base.collectorNumber(r) : added.collectorNumber(r - baseSize); }
+    @Override public String  rarity(int r)          { return r < baseSize ? base.rarity(r)          : added.rarity(r - baseSize); }
+    @Override public boolean isReserved(int r)      { return r < baseSize ? base.isReserved(r)      : added.isReserved(r - baseSize); }
+    @Override public List<String> frameEffects(int r) { return r < baseSize ? base.frameEffects(r) : added.frameEffects(r - baseSize); }
+    @Override public String  artist(int r)          { return r < baseSize ? base.artist(r)          : added.artist(r - baseSize); }
+    @Override public String  imageUrl(int r)        { return r < baseSize ? base.imageUrl(r)        : added.imageUrl(r - baseSize); }
+}
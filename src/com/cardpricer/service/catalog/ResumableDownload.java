@@ -0,0 +1,395 @@
+package com.cardpricer.service.catalog;
+
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Downloads one large file into a checkpointed partial file, resuming with HTTP
+ * {@code Range} requests after a dropped connection, while {@link #openStream()}
+ * lets a consumer read the bytes as they arrive.
+ *
+ * <p>The partial file holds the response body exactly as served (still gzip-encoded
+ * if the server compressed it), so byte offsets always match the server's ranges.
+ * Next to it a small JSON checkpoint records the URL, the identity of the published
+ * file and its validators ({@code ETag} / {@code Last-Modified}). A later attempt for
+ * the same identity continues from the partial file's length with
+ * {@code If-Range}, so an interrupted download costs only the missing bytes, even
+ * across application restarts.
+ *
+ * <p>The transfer runs on its own daemon thread after {@link #start}; failed reads
+ * are retried with back-off as long as each retry makes progress.
+ */
+public final class ResumableDownload implements Closeable {
+
+    /** Opens a connection with the caller's headers (User-Agent, timeouts). */
+    @FunctionalInterface
+    public interface Connector {
+        HttpURLConnection open(String url) throws Exception;
+    }
+
+    /** Read timeout per attempt; short because a retry no longer starts from zero. */
+    private static final int  READ_TIMEOUT_MS   = 30_000;
+    private static final int  MAX_IDLE_ATTEMPTS = 5;
+    private static final long MAX_BACKOFF_MS    = 30_000;
+
+    private final String url;
+    private final File partFile;
+    private final File checkpointFile;
+    private final String identity;
+    private final Connector connector;
+    private final BooleanSupplier cancelled;
+
+    private final Object lock = new Object();
+    private long committed;       // bytes safely in the partial file
+    private long total = -1;      // expected length, -1 if unknown
+    private boolean complete;
+    private IOException failure;
+    private volatile boolean closed;
+
+    private String etag, lastModified;
+    private Thread transfer;
+
+    /**
+     * @param url       file to download
+     * @param partFile  partial file; its checkpoint is written beside it
+     * @param identity  identity of the published file (e.g. Scryfall {@code updated_at}
+     *                  and size); a checkpoint for another identity is discarded
+     * @param cancelled polled by the transfer and the reader; may be {@code null}
+     */
+    public ResumableDownload(String url, File partFile, String identity,
+                             Connector connector, BooleanSupplier cancelled) {
+        this.url            = url;
+        this.partFile       = partFile;
+        this.checkpointFile = new File(partFile.getParentFile(), partFile.getName() + ".json");
+        this.identity       = identity;
+        this.connector      = connector;
+        this.cancelled      = cancelled;
+    }
+
+    /**
+     * Makes the first request and starts the background transfer.
+     *
+     * <p>A matching checkpoint is resumed with a {@code Range} request. Otherwise
+     * the download starts from zero, conditional on the given validators.
+     *
+     * @param ifNoneMatch     {@code ETag} of the copy the caller already has, or {@code null}
+     * @param ifModifiedSince {@code Last-Modified} of that copy, or {@code null}
+     * @return {@code false} if the server answered 304 Not Modified (nothing is started)
+     */
+    public boolean start(String ifNoneMatch, String ifModifiedSince) throws IOException {
+        long resumeFrom = loadCheckpoint();
+        HttpURLConnection conn = connect(resumeFrom);
+        if (resumeFrom == 0) {
+            if (ifNoneMatch != null)     conn.setRequestProperty("If-None-Match", ifNoneMatch);
+            if (ifModifiedSince != null) conn.setRequestProperty("If-Modified-Since", ifModifiedSince);
+        }
+        int code = conn.getResponseCode();
+        if (code == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            conn.disconnect();
+            return false;
+        }
+
+        long offset = accept(conn, code, resumeFrom);
+        synchronized (lock) { committed = offset; }
+        if (complete) {
+            conn.disconnect();
+            return true;
+        }
+        transfer = new Thread(() -> run(conn, offset), "catalog-download");
+        transfer.setDaemon(true);
+        transfer.start();
+        return true;
+    }
+
+    /** {@code ETag} of the file being downloaded, or {@code null}. */
+    public String etag() { return etag; }
+
+    /** {@code Last-Modified} of the file being downloaded, or {@code null}. */
+    public String lastModified() { return lastModified; }
+
+    /** Returns {@code true} once every byte is in the partial file. */
+    public boolean isComplete() {
+        synchronized (lock) { return complete; }
+    }
+
+    /** Returns the downloaded share in percent, or -1 if the length is unknown. */
+    public int percent() {
+        synchronized (lock) {
+            return total > 0 ? (int) (committed * 100 / total) : -1;
+        }
+    }
+
+    /**
+     * Opens a stream over the partial file from byte 0. Reads block until the
+     * transfer has written the requested bytes; end-of-stream is reported only
+     * once the download is complete, and a failed transfer surfaces as an
+     * {@link IOException}.
+     */
+    public InputStream openStream() throws IOException {
+        return new TailStream(new RandomAccessFile(partFile, "r"));
+    }
+
+    /** Deletes the partial file and its checkpoint; call after a successful build. */
+    public void discard() {
+        close();
+        partFile.delete();
+        checkpointFile.delete();
+    }
+
+    /** Stops the transfer; the partial file and checkpoint stay for a later resume. */
+    @Override
+    public void close() {
+        closed = true;
+        if (transfer != null) transfer.interrupt();
+        synchronized (lock) { lock.notifyAll(); }
+    }
+
+    // ── Transfer ──────────────────────────────────────────────────────────────
+
+    /**
+     * Copies the body, reconnecting after each failed attempt. A failed reconnect
+     * counts as an attempt like a failed read, so a connection that is briefly
+     * unavailable is waited out rather than ending the download.
+     */
+    private void run(HttpURLConnection first, long offset) {
+        HttpURLConnection conn = first;
+        int idleAttempts = 0;
+        long backoff = 1_000;
+        try (OutputStream out = new FileOutputStream(partFile, true)) {
+            while (true) {
+                long before = offset;
+                try {
+                    if (conn == null) conn = resume(offset);
+                    offset = copy(conn, out, offset);
+                    finish(null);
+                    return;
+                } catch (NotResumableException e) {
+                    throw e;
+                } catch (IOException e) {
+                    if (conn != null) conn.disconnect();
+                    conn = null;
+                    synchronized (lock) { offset = committed; }
+                    if (closed || isCancelled()) throw new InterruptedIOException("Download stopped");
+                    if (offset > before) {
+                        idleAttempts = 0;
+                        backoff = 1_000;
+                    }
+                    if (++idleAttempts > MAX_IDLE_ATTEMPTS) throw e;
+                    System.err.println("[Catalog] Download interrupted at " + offset
+                            + " bytes, resuming: " + e.getMessage());
+                    Thread.sleep(backoff);
+                    backoff = Math.min(MAX_BACKOFF_MS, backoff * 2);
+                }
+            }
+        } catch (InterruptedException e) {
+            finish(new InterruptedIOException("Download stopped"));
+        } catch (IOException e) {
+            finish(e);
+        } finally {
+            if (conn != null) conn.disconnect();
+        }
+    }
+
+    /** Requests the rest of the file from {@code offset}. */
+    private HttpURLConnection resume(long offset) throws IOException {
+        HttpURLConnection conn = connect(offset);
+        int code = conn.getResponseCode();
+        if (code != HttpURLConnection.HTTP_PARTIAL) {
+            // The file changed (If-Range failed) or ranges are not supported —
+            // bytes already handed to the reader cannot be replaced.
+            conn.disconnect();
+            checkpointFile.delete(); // the next attempt starts from zero
+            throw new NotResumableException("Download could not be resumed (HTTP " + code + ")");
+        }
+        checkRangeStart(conn, offset);
+        return conn;
+    }
+
+    /** Appends the response body to the partial file; returns the new offset. */
+    private long copy(HttpURLConnection conn, OutputStream out, long offset) throws IOException {
+        byte[] buf = new byte[65_536];
+        try (InputStream in = conn.getInputStream()) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                if (closed || isCancelled()) throw new InterruptedIOException("Download stopped");
+                out.write(buf, 0, n);
+                offset += n;
+                synchronized (lock) {
+                    committed = offset;
+                    lock.notifyAll();
+                }
+            }
+        }
+        out.flush();
+        synchronized (lock) {
+            if (total >= 0 && offset < total) {
+                throw new IOException("Connection closed at " + offset + " of " + total + " bytes");
+            }
+        }
+        return offset;
+    }
+
+    private void finish(IOException error) {
+        synchronized (lock) {
+            if (error == null) complete = true;
+            else               failure  = error;
+            lock.notifyAll();
+        }
+    }
+
+    // ── Requests and checkpoint ───────────────────────────────────────────────
+
+    private HttpURLConnection connect(long from) throws IOException {
+        HttpURLConnection conn;
+        try {
+            conn = connector.open(url);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        conn.setReadTimeout(READ_TIMEOUT_MS);
+        if (from > 0) {
+            conn.setRequestProperty("Range", "bytes=" + from + "-");
+            String validator = etag != null && !etag.startsWith("W/") ? etag : lastModified;
+            if (validator != null) conn.setRequestProperty("If-Range", validator);
+        }
+        return conn;
+    }
+
+    /**
+     * Interprets the first response and prepares the partial file.
+     *
+     * @return the offset the body starts at
+     */
+    private long accept(HttpURLConnection conn, int code, long resumeFrom) throws IOException {
+        if (code == 416 && resumeFrom > 0 && resumeFrom == total) { // already have every byte
+            synchronized (lock) { complete = true; }
+            return resumeFrom;
+        }
+        long offset;
+        if (code == HttpURLConnection.HTTP_PARTIAL && resumeFrom > 0) {
+            checkRangeStart(conn, resumeFrom);
+            offset = resumeFrom;
+            String range = conn.getHeaderField("Content-Range"); // "bytes 100-999/1000"
+            int slash = range != null ? range.lastIndexOf('/') : -1;
+            if (slash > 0 && !range.endsWith("*")) total = Long.parseLong(range.substring(slash + 1).trim());
+        } else if (code == HttpURLConnection.HTTP_OK) {
+            offset = 0;
+            etag         = conn.getHeaderField("ETag");
+            lastModified = conn.getHeaderField("Last-Modified");
+            total        = conn.getContentLengthLong();
+            try (RandomAccessFile raf = new RandomAccessFile(partFile, "rw")) {
+                raf.setLength(0);
+            }
+        } else {
+            conn.disconnect();
+            throw new IOException("Bulk download returned HTTP " + code);
+        }
+        saveCheckpoint();
+        return offset;
+    }
+
+    /** The server answered, but not with the requested range; retrying would not help. */
+    private static final class NotResumableException extends IOException {
+        NotResumableException(String message) { super(message); }
+    }
+
+    private static void checkRangeStart(HttpURLConnection conn, long expected) throws IOException {
+        String range = conn.getHeaderField("Content-Range");
+        if (range == null || !range.startsWith("bytes " + expected + "-")) {
+            conn.disconnect();
+            throw new NotResumableException("Unexpected Content-Range: " + range);
+        }
+    }
+
+    /** Returns the offset to resume from, or 0 (after discarding stale state). */
+    private long loadCheckpoint() {
+        if (checkpointFile.isFile() && partFile.isFile()) {
+            try {
+                JSONObject cp = new JSONObject(Files.readString(checkpointFile.toPath(), StandardCharsets.UTF_8));
+                if (url.equals(cp.optString("url")) && identity.equals(cp.optString("identity"))) {
+                    etag         = cp.optString("etag", null);
+                    lastModified = cp.optString("last_modified", null);
+                    total        = cp.optLong("total", -1);
+                    if (etag != null || lastModified != null) return partFile.length();
+                }
+            } catch (Exception ignored) {
+                // Unreadable checkpoint — start over
+            }
+        }
+        partFile.delete();
+        checkpointFile.delete();
+        etag = lastModified = null;
+        total = -1;
+        return 0;
+    }
+
+    private void saveCheckpoint() throws IOException {
+        JSONObject cp = new JSONObject();
+        cp.put("url", url);
+        cp.put("identity", identity);
+        if (etag != null)         cp.put("etag", etag);
+        if (lastModified != null) cp.put("last_modified", lastModified);
+        cp.put("total", total);
+        Files.writeString(checkpointFile.toPath(), cp.toString(), StandardCharsets.UTF_8);
+    }
+
+    private boolean isCancelled() {
+        return cancelled != null && cancelled.getAsBoolean();
+    }
+
+    // ── Reader ────────────────────────────────────────────────────────────────
+
+    /** Reads the partial file, waiting at its end until more bytes are committed. */
+    private final class TailStream extends InputStream {
+        private final RandomAccessFile raf;
+        private long pos;
+
+        TailStream(RandomAccessFile raf) { this.raf = raf; }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            long available;
+            synchronized (lock) {
+                while ((available = committed - pos) <= 0) {
+                    if (complete)        return -1;
+                    if (failure != null) throw new IOException(failure.getMessage(), failure);
+                    if (closed || isCancelled()) throw new InterruptedIOException("Download stopped");
+                    try {
+                        lock.wait(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Download stopped");
+                    }
+                }
+            }
+            raf.seek(pos);
+            int n = raf.read(b, off, (int) Math.min(len, available));
+            if (n > 0) pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException { raf.close(); }
+    }
+}
@@ -0,0 +1,112 @@
+package com.cardpricer.service.catalog;
+
+import com.cardpricer.util.SetRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Interns catalog set codes to small integer ids (1, 2, 3, …) and resolves user
+ * input to those ids without regex or allocation.
+ *
+ * <p>Lookup first tries the input as a literal set code (case-insensitive); if
+ * that misses, the {@link SetRegistry} resolves custom codes, friendly aliases and
+ * set names, so {@code "COK"}, {@code "alpha"} and {@code "Arabian Nights"} still
+ * resolve to CHK, LEA and ARN.
+ */
+public final class SetCodeTable {
+
+    private final List<String> codes = new ArrayList<>();
+    private long[] keys = new long[2048];
+    private int[]  ids  = new int[2048];
+
+    /** Creates an empty table; ids are assigned by {@link #intern(String)}. */
+    public SetCodeTable() {}
+
+    /** Rebuilds a table from codes in id order (id = position + 1). */
+    public static SetCodeTable of(List<String> codesInIdOrder) {
+        SetCodeTable table = new SetCodeTable();
+        for (String code : codesInIdOrder) table.intern(code);
+        return table;
+    }
+
+    /**
+     * Returns the id for {@code code}, assigning the next id if it is new.
+     *
+     * @param code canonical set code (stored upper-case)
+     * @throws IllegalArgumentException if the code is not plain alphanumeric or
+     *                                  the table is full
+     */
+    public int intern(String code) {
+        long packed = CatalogKeys.packSet(code);
+        if (packed == CatalogKeys.UNPACKABLE) {
+            throw new IllegalArgumentException("Unsupported set code: " + code);
+        }
+        int existing = probe(packed);
+        if (existing != 0) return existing;
+        if (codes.size() >= CatalogKeys.MAX_SET_ID) {
+            throw new IllegalArgumentException("Too many set codes");
+        }
+        if ((codes.size() + 1) * 2 > keys.length) grow();
+        codes.add(code.toUpperCase());
+        insert(packed, codes.size());
+        return codes.size();
+    }
+
+    /**
+     * Resolves a literal set code or friendly alias to its id.
+     *
+     * @return the id, or 0 if the set is not in the table
+     */
+    public int find(CharSequence input) {
+        long packed = CatalogKeys.packSet(input);
+        if (packed != CatalogKeys.UNPACKABLE) {
+            int id = probe(packed);
+            if (id != 0) return id;
+        }
+        SetRegistry.SetInfo set = SetRegistry.current().find(input);
+        if (set == null) return 0;
+        long target = CatalogKeys.packSet(set.code());
+        return target == CatalogKeys.UNPACKABLE ? 0 : probe(target);
+    }
+
+    /** Returns the canonical upper-case code for {@code id}. */
+    public String code(int id) { return codes.get(id - 1); }
+
+    /** Returns the number of interned set codes. */
+    public int size() { return codes.size(); }
+
+    /** Returns all codes in id order (id = position + 1). */
+    public List<String> codes() { return Collections.unmodifiableList(codes); }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private int probe(long packed) {
+        int mask = keys.length - 1;
+        int slot = (int) CatalogKeys.mix(packed) & mask;
+        while (ids[slot] != 0) {
+            if (keys[slot] == packed) return ids[slot];
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    private void insert(long packed, int id) {
+        int mask = keys.length - 1;
+        int slot = (int) CatalogKeys.mix(packed) & mask;
+        while (ids[slot] != 0) slot = (slot + 1) & mask;
+        keys[slot] = packed;
+        ids[slot]  = id;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[]  oldIds  = ids;
+        keys = new long[oldKeys.length * 2];
+        ids  = new int[oldIds.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldIds[i] != 0) insert(oldKeys[i], oldIds[i]);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.cardpricer.service.catalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link CatalogStore} split into one {@link CatalogSnapshot} file per set,
+ * memory-mapped the first time a lookup touches that set.
+ *
+ * <p>A shop trades from a few dozen sets at a time, so most of the catalog is
+ * never read in a session. Opening the store only reads a small manifest (set
+ * codes, row counts and which set each record belongs to); a set's shard is
+ * mapped on first use, which parses nothing and puts nothing but the snapshot's
+ * few fields on the heap, so touching every set — a name search or a whole-catalog
+ * query — costs a few hundred maps rather than a parse of the catalog.
+ * {@link #preload} maps a known working set in the background.
+ *
+ * <p>Record numbers are the base catalog's own: row {@code k} of a shard is the
+ * {@code k}-th record of that set in record order, which the manifest gives. A
+ * {@link CatalogDelta} written against the snapshot or NDJSON cache therefore
+ * applies to this store unchanged.
+ *
+ * <p>A shard that cannot be read is logged once and its printings are treated as
+ * gone: {@link #find} misses, {@link #isRemoved} is {@code true} from then on,
+ * and the column accessors return empty values rather than throwing.
+ *
+ * <p><b>Directory layout:</b>
+ * <pre>
+ *   manifest.bin   gzip: "OCSM", version, base record count, base cache checksum,
+ *                  shard count, (set code, rows) × shards, shard index (u16) × records
+ *   &lt;N&gt;.snap       {@link CatalogSnapshot} of the set's rows, in record order
+ * </pre>
+ * Shard files are named by their index in the manifest, never by set code: a code
+ * such as {@code CON} or {@code AUX} is a reserved device name on Windows. The
+ * manifest is written last; the base count and cache checksum tie the shards to
+ * the cache they were split from, like a delta. A manifest of an older format is
+ * ignored, so its directory is rewritten by the next full load.
+ */
+public final class ShardedCatalogStore implements CatalogStore {
+
+    private static final int MAGIC          = 0x4F43534D; // "OCSM"
+    private static final int FORMAT_VERSION = 3;
+    private static final String MANIFEST    = "manifest.bin";
+
+    /** Stands in for a shard that could not be read; never queried. */
+    private static final CatalogStore UNREADABLE = new CompactCatalogStore.Builder(0).build();
+
+    private final File dir;
+    private final String[] codes;
+    private final char[] shardOf;
+    /** Record numbers grouped by shard, ascending within each: shard i is order[start[i] … start[i+1]). */
+    private final int[] order;
+    private final int[] start;
+    private final SetCodeTable sets;
+    private final AtomicReferenceArray<CatalogStore> shards;
+    private final Object[] locks;
+
+    private ShardedCatalogStore(File dir, String[] codes, int[] rowCounts, char[] shardOf) {
+        this.dir     = dir;
+        this.codes   = codes;
+        this.shardOf = shardOf;
+        this.start   = new int[codes.length + 1];
+        for (int i = 0; i < codes.length; i++) start[i + 1] = start[i] + rowCounts[i];
+        this.order   = groupBySet(shardOf, start);
+        this.sets    = SetCodeTable.of(Arrays.asList(codes));
+        this.shards  = new AtomicReferenceArray<>(codes.length);
+        this.locks   = new Object[codes.length];
+        for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+    }
+
+    /** Counting sort of record numbers by shard, keeping record order within a shard. */
+    private static int[] groupBySet(char[] shardOf, int[] start) {
+        int[] order = new int[shardOf.length];
+        int[] fill = Arrays.copyOf(start, start.length - 1);
+        for (int r = 0; r < shardOf.length; r++) order[fill[shardOf[r]]++] = r;
+        return order;
+    }
+
+    // ── Open ──────────────────────────────────────────────────────────────────
+
+    /**
+     * Opens the shard directory by reading its manifest.
+     *
+     * @param baseChecksum {@link CatalogCacheFile#checksum} of the NDJSON.gz cache the
+     *                     shards must match
+     * @return the store, or {@code null} if there is no manifest or it was split
+     *         from a different cache
+     * @throws IOException if the manifest is unreadable or corrupt
+     */
+    public static ShardedCatalogStore open(File dir, long baseChecksum) throws IOException {
+        File manifest = new File(dir, MANIFEST);
+        if (!manifest.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(manifest), 65_536)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a shard manifest: " + manifest);
+            if (in.readInt() != FORMAT_VERSION) return null;
+            int  count    = in.readInt();
+            long checksum = in.readLong();
+            if (checksum != baseChecksum) return null;
+
+            int shardCount = in.readInt();
+            String[] codes = new String[shardCount];
+            int[] rows = new int[shardCount];
+            int total = 0;
+            for (int i = 0; i < shardCount; i++) {
+                codes[i] = in.readUTF();
+                rows[i]  = in.readInt();
+                total   += rows[i];
+            }
+            if (total != count) throw new IOException("Shard rows do not add up to " + count);
+            char[] shardOf = new char[count];
+            for (int r = 0; r < count; r++) {
+                shardOf[r] = in.readChar();
+                if (shardOf[r] >= shardCount) throw new IOException("Shard index out of range");
+            }
+            return new ShardedCatalogStore(dir, codes, rows, shardOf);
+        }
+    }
+
+    // ── Shards ────────────────────────────────────────────────────────────────
+
+    /**
+     * Maps the shards for {@code setCodes} (canonical or alias, any case) that
+     * are not mapped yet. Unknown codes are ignored.
+     *
+     * @return the number of shards mapped
+     */
+    public int preload(Collection<String> setCodes) {
+        int read = 0;
+        for (String code : setCodes) {
+            int i = sets.find(code) - 1;
+            if (i < 0 || isLoaded(i)) continue;
+            shard(i);
+            read++;
+        }
+        return read;
+    }
+
+    /** Returns how many shards are currently mapped. */
+    public int loadedShards() {
+        int n = 0;
+        for (int i = 0; i < codes.length; i++) if (isLoaded(i)) n++;
+        return n;
+    }
+
+    /** Returns how many printings are in the shards currently mapped. */
+    public int residentRecords() {
+        int n = 0;
+        for (int i = 0; i < codes.length; i++) if (isLoaded(i)) n += start[i + 1] - start[i];
+        return n;
+    }
+
+    /** Returns the manifest plus the shards currently mapped. */
+    @Override
+    public long residentBytes() {
+        long n = shardOf.length * 6L + codes.length * 64L;
+        for (int i = 0; i < codes.length; i++) {
+            CatalogStore s = shards.get(i);
+            if (s != null) n += s.residentBytes();
+        }
+        return n;
+    }
+
+    /** Returns the number of shards (sets). */
+    public int shardCount() { return codes.length; }
+
+    private boolean isLoaded(int i) {
+        CatalogStore s = shards.get(i);
+        return s != null && s != UNREADABLE;
+    }
+
+    /** Returns shard {@code i}, mapping it on first use; {@link #UNREADABLE} if it cannot be. */
+    private CatalogStore shard(int i) {
+        CatalogStore s = shards.get(i);
+        if (s != null) return s;
+        synchronized (locks[i]) {
+            s = shards.get(i);
+            if (s == null) {
+                try {
+                    s = openShard(shardFile(dir, i), start[i + 1] - start[i]);
+                } catch (IOException e) {
+                    System.err.println("[Catalog] Catalog shard " + codes[i] + " unreadable, treating its "
+                            + (start[i + 1] - start[i]) + " printings as missing: " + e.getMessage());
+                    s = UNREADABLE;
+                }
+                shards.set(i, s);
+            }
+            return s;
+        }
+    }
+
+    private static CatalogSnapshot openShard(File file, int expectedRows) throws IOException {
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+        if (snapshot.size() != expectedRows) {
+            throw new IOException("Expected " + expectedRows + " rows, found " + snapshot.size());
+        }
+        return snapshot;
+    }
+
+    /** Returns the file of shard {@code i}. */
+    private static File shardFile(File dir, int i) {
+        return new File(dir, i + ".snap");
+    }
+
+    /** Returns the shard holding {@code record}, or {@code null} if it is unreadable. */
+    private CatalogStore rowsOf(int record) {
+        CatalogStore s = shard(shardOf[record]);
+        return s == UNREADABLE ? null : s;
+    }
+
+    /** Row of {@code record} within its shard. */
+    private int local(int record) {
+        int i = shardOf[record];
+        return Arrays.binarySearch(order, start[i], start[i + 1], record) - start[i];
+    }
+
+    // ── CatalogStore ──────────────────────────────────────────────────────────
+
+    @Override public int size() { return shardOf.length; }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Maps the set's shard if it is not mapped yet; a shard that cannot be read
+     * is a miss.
+     */
+    @Override
+    public int find(CharSequence setCode, CharSequence collectorNumber) {
+        int i = sets.find(setCode) - 1;
+        if (i < 0) return -1;
+        CatalogStore s = shard(i);
+        if (s == UNREADABLE) return -1;
+        int local = s.find(codes[i], collectorNumber);
+        return local < 0 ? -1 : order[start[i] + local];
+    }
+
+    /** {@inheritDoc} Also {@code true} for every printing of a shard found unreadable. */
+    @Override
+    public boolean isRemoved(int r) { return shards.get(shardOf[r]) == UNREADABLE; }
+
+    @Override public String keySet(int r) { return codes[shardOf[r]]; }
+
+    // Printings of an unreadable shard read as empty, like a miss in find
+    @Override public String name(int r)            { CatalogStore s = rowsOf(r); return s == null ? "" : s.name(local(r)); }
+    @Override public String setCode(int r)         { CatalogStore s = rowsOf(r); return s == null ? "" : s.setCode(local(r)); }
+    @Override public String collectorNumber(int r) { CatalogStore s = rowsOf(r); return s == null ? "" : s.collectorNumber(local(r)); }
+    @Override public String rarity(int r)          { CatalogStore s = rowsOf(r); return s == null ? null : s.rarity(local(r)); }
+    @Override public int    priceCents(int r)      { CatalogStore s = rowsOf(r); return s == null ? -1 : s.priceCents(local(r)); }
+    @Override public int    foilCents(int r)       { CatalogStore s = rowsOf(r); return s == null ? -1 : s.foilCents(local(r)); }
+    @Override public int    etchedCents(int r)     { CatalogStore s = rowsOf(r); return s == null ? -1 : s.etchedCents(local(r)); }
+    @Override public boolean isReserved(int r)     { CatalogStore s = rowsOf(r); return s != null && s.isReserved(local(r)); }
+    @Override public List<String> frameEffects(int r) { CatalogStore s = rowsOf(r); return s == null ? List.of() : s.frameEffects(local(r)); }
+    @Override public String artist(int r)          { CatalogStore s = rowsOf(r); return s == null ? null : s.artist(local(r)); }
+    @Override public String imageUrl(int r)        { CatalogStore s = rowsOf(r); return s == null ? null : s.imageUrl(local(r)); }
+
+    // ── Write ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Splits {@code base} into per-set shards under {@code dir}, replacing what is
+     * there. The shards are written to a sibling directory first and swapped in
+     * once complete.
+     *
+     * @param baseChecksum {@link CatalogCacheFile#checksum} of the NDJSON.gz cache
+     *                     {@code base} was read from
+     * @throws IOException on any write failure; {@code dir} is then left as it was
+     *                     or removed, never half-written
+     */
+    public static void write(File dir, CatalogStore base, long baseChecksum) throws IOException {
+        int n = base.size();
+
+        Map<String, Integer> shardIds = new LinkedHashMap<>();
+        char[] shardOf = new char[n];
+        int[] counts = new int[64];
+        for (int r = 0; r < n; r++) {
+            String code = base.keySet(r);
+            Integer id = shardIds.get(code);
+            if (id == null) {
+                id = shardIds.size();
+                if (id > Character.MAX_VALUE) throw new IOException("Too many sets to shard");
+                shardIds.put(code, id);
+                if (id >= counts.length) counts = Arrays.copyOf(counts, counts.length * 2);
+            }
+            shardOf[r] = (char) (int) id;
+            counts[id]++;
+        }
+        int shardCount = shardIds.size();
+        int[] start = new int[shardCount + 1];
+        for (int i = 0; i < shardCount; i++) start[i + 1] = start[i] + counts[i];
+        int[] order = groupBySet(shardOf, start);
+
+        File tmpDir = new File(dir.getParentFile(), dir.getName() + ".tmp");
+        deleteTree(tmpDir);
+        if (!tmpDir.mkdirs()) throw new IOException("Could not create " + tmpDir);
+
+        String[] codes = shardIds.keySet().toArray(new String[0]);
+        CatalogRecord rec = new CatalogRecord();
+        for (int i = 0; i < shardCount; i++) {
+            int rows = start[i + 1] - start[i];
+            CompactCatalogStore.Builder builder = new CompactCatalogStore.Builder(rows);
+            for (int k = start[i]; k < start[i + 1]; k++) builder.add(rec.copyFrom(base, order[k]));
+            if (builder.size() != rows) throw new IOException("Duplicate keys in set " + codes[i]);
+            CatalogSnapshot.write(shardFile(tmpDir, i), builder.build(), false);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(new File(tmpDir, MANIFEST)), 65_536)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(n);
+            out.writeLong(baseChecksum);
+            out.writeInt(shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                out.writeUTF(codes[i]);
+                out.writeInt(start[i + 1] - start[i]);
+            }
+            for (int r = 0; r < n; r++) out.writeChar(shardOf[r]);
+        }
+
+        deleteTree(dir);
+        if (!tmpDir.renameTo(dir)) {
+            deleteTree(tmpDir);
+            throw new IOException("Could not move shards into " + dir);
+        }
+    }
+
+    /**
+     * Deletes {@code dir} and its files (shard directories have no subdirectories).
+     * The manifest goes first, so an interrupted delete never leaves a manifest
+     * pointing at missing shards.
+     */
+    public static void deleteTree(File dir) throws IOException {
+        Files.deleteIfExists(new File(dir, MANIFEST).toPath());
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) Files.deleteIfExists(f.toPath());
+        }
+        Files.deleteIfExists(dir.toPath());
+    }
+}
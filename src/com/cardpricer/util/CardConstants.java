@@ -49,14 +49,6 @@ public final class CardConstants {
     /** Exact divisor for check-payment cost calculation (price ÷ 3). */
     public static final BigDecimal PAYMENT_DIVISOR_CHECK = new BigDecimal("3");
 
-    /**
-     * Minimum delay between individual card lookups (/cards/{set}/{num} — 10 req/sec limit = 100 ms).
-     * Kept at 1000 ms for conservative compliance. Used between sets in BulkPricerPanel
-     * and between lookups in PasteImportDialog.
-     * Note: /cards/search pagination uses ScryfallApiService.SEARCH_RATE_LIMIT_MS (500 ms).
-     */
-    public static final int API_RATE_LIMIT_MS = 1000;
-
     /** Debounce delay for the card-preview live-search field (ms). */
     public static final int PREVIEW_DEBOUNCE_MS = 400;
 }
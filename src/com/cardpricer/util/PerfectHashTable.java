@@ -0,0 +1,163 @@
+package com.cardpricer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable string → int map built with hash-and-displace, so every key has its
+ * own slot: a lookup is two hashes, one slot read and one key comparison, with no
+ * probing and no collisions to resolve.
+ *
+ * <p>Keys are compared <em>normalised</em> — lower-case ASCII letters and digits
+ * only, every other character ignored — and lookups normalise the input as they
+ * hash it, without building a string or running a regex. {@code "Arabian
+ * Nights"}, {@code "arabian-nights"} and {@code "ARABIANNIGHTS"} are the same key.
+ *
+ * <p>Construction: keys are grouped into buckets by one hash; buckets are placed
+ * largest first, each trying seeds 1, 2, 3… for a second hash until all its keys
+ * land on free slots. The winning seed is stored per bucket.
+ */
+final class PerfectHashTable {
+
+    private static final int[] NO_SEEDS = new int[1];
+
+    private final int[] seeds;
+    private final String[] keys;
+    private final int[] values;
+
+    private PerfectHashTable(int[] seeds, String[] keys, int[] values) {
+        this.seeds  = seeds;
+        this.keys   = keys;
+        this.values = values;
+    }
+
+    /**
+     * Builds a table. Keys are normalised first; a key that normalises to the same
+     * string as an earlier one, or to the empty string, is skipped, so earlier
+     * keys take precedence.
+     *
+     * @param keys   keys in precedence order
+     * @param values value for each key (same order)
+     */
+    static PerfectHashTable build(List<String> keys, int[] values) {
+        List<String> uniqueKeys = new ArrayList<>(keys.size());
+        List<Integer> uniqueValues = new ArrayList<>(keys.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String k = normalize(keys.get(i));
+            if (!k.isEmpty() && seen.add(k)) {
+                uniqueKeys.add(k);
+                uniqueValues.add(values[i]);
+            }
+        }
+        int n = uniqueKeys.size();
+        if (n == 0) return new PerfectHashTable(NO_SEEDS, new String[1], new int[1]);
+
+        int bucketCount = n / 2 + 1;
+        int slotCount = n + n / 4 + 1;
+
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) buckets.add(new ArrayList<>(4));
+        for (int i = 0; i < n; i++) {
+            buckets.get(Math.floorMod(hash(uniqueKeys.get(i), 0), bucketCount)).add(i);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; b++) order[b] = b;
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        int[] seeds = new int[bucketCount];
+        String[] slotKeys = new String[slotCount];
+        int[] slotValues = new int[slotCount];
+        int[] trial = new int[64];
+        for (int b : order) {
+            List<Integer> members = buckets.get(b);
+            if (members.isEmpty()) break;
+            if (members.size() > trial.length) trial = new int[members.size()];
+            for (int seed = 1; ; seed++) {
+                boolean fits = true;
+                for (int m = 0; m < members.size() && fits; m++) {
+                    int slot = Math.floorMod(hash(uniqueKeys.get(members.get(m)), seed), slotCount);
+                    fits = slotKeys[slot] == null;
+                    for (int p = 0; p < m && fits; p++) fits = trial[p] != slot;
+                    trial[m] = slot;
+                }
+                if (fits) {
+                    seeds[b] = seed;
+                    for (int m = 0; m < members.size(); m++) {
+                        slotKeys[trial[m]] = uniqueKeys.get(members.get(m));
+                        slotValues[trial[m]] = uniqueValues.get(members.get(m));
+                    }
+                    break;
+                }
+            }
+        }
+        return new PerfectHashTable(seeds, slotKeys, slotValues);
+    }
+
+    /** Returns the value for {@code input} (normalised as it is read), or -1 if absent. */
+    int get(CharSequence input) {
+        if (input == null) return -1;
+        int bucket = Math.floorMod(hash(input, 0), seeds.length);
+        int slot = Math.floorMod(hash(input, seeds[bucket]), keys.length);
+        String key = keys[slot];
+        return key != null && matches(input, key) ? values[slot] : -1;
+    }
+
+    /** Returns the number of keys. */
+    int size() {
+        int n = 0;
+        for (String k : keys) if (k != null) n++;
+        return n;
+    }
+
+    // ── Normalised hashing ────────────────────────────────────────────────────
+
+    /** Lower-case ASCII letters and digits of {@code s}, in order. */
+    static String normalize(CharSequence s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            int c = fold(s.charAt(i));
+            if (c >= 0) sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    /** Seeded FNV-1a over the normalised characters, finished with a murmur mix. */
+    private static int hash(CharSequence s, int seed) {
+        int h = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+        for (int i = 0; i < s.length(); i++) {
+            int c = fold(s.charAt(i));
+            if (c < 0) continue;
+            h ^= c;
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static boolean matches(CharSequence input, String key) {
+        int j = 0;
+        for (int i = 0; i < input.length(); i++) {
+            int c = fold(input.charAt(i));
+            if (c < 0) continue;
+            if (j >= key.length() || key.charAt(j) != c) return false;
+            j++;
+        }
+        return j == key.length();
+    }
+
+    /** The character lower-cased if it is an ASCII letter or digit, else -1. */
+    private static int fold(char c) {
+        if (c >= 'a' && c <= 'z') return c;
+        if (c >= '0' && c <= '9') return c;
+        if (c >= 'A' && c <= 'Z') return c + ('a' - 'A');
+        return -1;
+    }
+}
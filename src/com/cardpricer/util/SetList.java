@@ -1,12 +1,17 @@
 package com.cardpricer.util;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Contains hardcoded list of Magic: The Gathering set codes
- * for bulk processing operations.
+ * for bulk processing operations, and our custom-code mappings.
+ *
+ * <p>Code conversion and validation go through the {@link SetRegistry}, which
+ * knows every set Scryfall lists once a set list has been downloaded; the tables
+ * here seed it and carry what Scryfall cannot know (our custom codes).
  */
 public class SetList {
 
@@ -100,14 +105,8 @@ public class SetList {
      */
     private static final Map<String, String> CUSTOM_TO_API = new HashMap<>();
 
-    /**
-     * Map: SCRYFALL API CODE -> OUR CUSTOM CODE
-     * Use this when parsing API responses
-     */
-    private static final Map<String, String> API_TO_CUSTOM = new HashMap<>();
-
     static {
-        // Initialize the bidirectional mapping
+        // Initialize the custom-code mapping
         addMapping("XED", "10e");
         addMapping("COK", "chk");
         addMapping("AVNB", "ddh");
@@ -133,26 +132,30 @@ public class SetList {
     }
 
     /**
-     * Helper to add bidirectional mapping
+     * Helper to add a custom-code mapping (the registry resolves it both ways)
      */
     private static void addMapping(String customCode, String apiCode) {
         CUSTOM_TO_API.put(customCode.toUpperCase(), apiCode.toLowerCase());
-        API_TO_CUSTOM.put(apiCode.toLowerCase(), customCode.toUpperCase());
+    }
+
+    /**
+     * Returns the custom code → Scryfall code table (upper-case keys, lower-case
+     * values), for building the {@link SetRegistry}.
+     */
+    static Map<String, String> customMappings() {
+        return Collections.unmodifiableMap(CUSTOM_TO_API);
     }
 
     /**
      * Converts OUR custom code to Scryfall API code for making API calls
-     * Example: "COK" -> "chk"
+     * Example: "COK" -> "chk". Set names and aliases are not resolved; use
+     * {@link VintageUtil#resolveSetAlias} for those.
      *
      * @param customCode Our internal set code
      * @return Scryfall API code (lowercase)
      */
     public static String toScryfallCode(String customCode) {
-        if (customCode == null) {
-            return null;
-        }
-        String upperCode = customCode.toUpperCase();
-        return CUSTOM_TO_API.getOrDefault(upperCode, upperCode.toLowerCase());
+        return SetRegistry.current().codeToScryfallCode(customCode);
     }
 
     /**
@@ -163,11 +166,7 @@ public class SetList {
      * @return Our custom code (uppercase)
      */
     public static String fromScryfallCode(String scryfallCode) {
-        if (scryfallCode == null) {
-            return null;
-        }
-        String lowerCode = scryfallCode.toLowerCase();
-        return API_TO_CUSTOM.getOrDefault(lowerCode, scryfallCode.toUpperCase());
+        return SetRegistry.current().toCustomCode(scryfallCode);
     }
 
     /**
@@ -178,17 +177,25 @@ public class SetList {
         return toScryfallCode(setCode);
     }
 
+    /**
+     * Set codes offered for bulk processing: {@link #ALL_SETS_CUSTOM_CODES}, preceded
+     * by any newer set in the downloaded Scryfall set list (newest first)
+     */
+    public static List<String> getBulkSets() {
+        return SetRegistry.current().bulkPricerSets();
+    }
+
     /**
      * Returns the total number of unique set codes
      */
     public static int getSetCount() {
-        return ALL_SETS_CUSTOM_CODES.size();
+        return getBulkSets().size();
     }
 
     /**
-     * Checks if a set code exists in our custom code list
+     * Checks if a set code (custom or Scryfall code, or a set name) is a known set
      */
     public static boolean isValidSetCode(String setCode) {
-        return ALL_SETS_CUSTOM_CODES.contains(setCode.toUpperCase());
+        return SetRegistry.current().isKnown(setCode);
     }
 }
\ No newline at end of file
@@ -0,0 +1,280 @@
+package com.cardpricer.util;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every known Magic set, resolvable by Scryfall code, our custom code, set name
+ * or friendly alias through one {@link PerfectHashTable}.
+ *
+ * <p>The registry is compiled from Scryfall's {@code /sets} list, which the
+ * catalog service downloads with each catalog refresh and caches as
+ * {@code sets.json}, so new releases are known without a code change. Until a
+ * list has been downloaded the registry is built from the tables in
+ * {@link SetList} and {@link VintageUtil}; that built-in registry is
+ * {@linkplain #isComplete() incomplete} and never used to reject a code.
+ *
+ * <p>Keys, in precedence order (an earlier key wins if two normalise alike):
+ * custom codes ({@code COK} → chk), Scryfall codes, friendly aliases
+ * ({@code "alpha"}), full set names ({@code "Arabian Nights"}). Matching ignores
+ * case and anything but letters and digits.
+ */
+public final class SetRegistry {
+
+    /** One set. {@code customCode} is what we display and save; {@code code} is Scryfall's. */
+    public record SetInfo(String code, String customCode, String name, String setType,
+                          String releasedAt, boolean digital) {}
+
+    private static final String CACHE_FILENAME = "sets.json";
+
+    /** Set types offered for bulk pricing when Scryfall adds a new set of that type. */
+    private static final Set<String> PRICED_TYPES = Set.of(
+            "core", "expansion", "masters", "draft_innovation", "commander", "funny",
+            "eternal", "arsenal", "from_the_vault", "spellbook", "premium_deck",
+            "duel_deck", "planechase", "archenemy", "starter", "box");
+
+    private static volatile SetRegistry current;
+
+    private final List<SetInfo> sets;
+    private final PerfectHashTable table;
+    private final boolean complete;
+
+    private SetRegistry(List<SetInfo> sets, boolean complete) {
+        this.sets     = Collections.unmodifiableList(sets);
+        this.complete = complete;
+
+        List<String> keys = new ArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        Map<String, Integer> byCode = new HashMap<>();
+        for (int i = 0; i < sets.size(); i++) byCode.put(sets.get(i).code(), i);
+
+        for (Map.Entry<String, String> e : SetList.customMappings().entrySet()) {
+            Integer idx = byCode.get(e.getValue());
+            if (idx != null) { keys.add(e.getKey()); values.add(idx); }
+        }
+        for (int i = 0; i < sets.size(); i++) { keys.add(sets.get(i).code()); values.add(i); }
+        for (Map.Entry<String, String> e : VintageUtil.getSetAliases().entrySet()) {
+            Integer idx = byCode.get(e.getValue());
+            if (idx != null) { keys.add(e.getKey()); values.add(idx); }
+        }
+        for (int i = 0; i < sets.size(); i++) {
+            if (sets.get(i).name() != null) { keys.add(sets.get(i).name()); values.add(i); }
+        }
+        this.table = PerfectHashTable.build(keys, values.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // ── Current registry ──────────────────────────────────────────────────────
+
+    /**
+     * Returns the registry in use: the one last {@linkplain #install installed},
+     * else the cached {@code /sets} list, else the built-in tables.
+     */
+    public static SetRegistry current() {
+        SetRegistry r = current;
+        if (r == null) {
+            synchronized (SetRegistry.class) {
+                r = current;
+                if (r == null) {
+                    File cache = cacheFile();
+                    if (cache.isFile()) {
+                        try {
+                            r = read(cache);
+                        } catch (IOException | RuntimeException e) {
+                            System.err.println("[Sets] Cached set list unreadable, using built-in: " + e.getMessage());
+                        }
+                    }
+                    if (r == null) r = builtIn();
+                    current = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    /** Makes {@code registry} the one returned by {@link #current()}. */
+    public static void install(SetRegistry registry) {
+        current = registry;
+    }
+
+    /** Location of the cached {@code /sets} list. */
+    public static File cacheFile() {
+        return new File(AppDataDirectory.cache(), CACHE_FILENAME);
+    }
+
+    // ── Construction ──────────────────────────────────────────────────────────
+
+    /** Builds the (incomplete) registry from the hard-coded tables. */
+    public static SetRegistry builtIn() {
+        Map<String, String> names = new HashMap<>();
+        for (String[] row : VintageUtil.REF_ROWS) {
+            if (!row[0].startsWith("---")) names.put(row[0].toLowerCase(), row[1]);
+        }
+        List<SetInfo> sets = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String custom : SetList.ALL_SETS_CUSTOM_CODES) {
+            String code = SetList.customMappings().getOrDefault(custom, custom.toLowerCase());
+            if (seen.add(code)) sets.add(new SetInfo(code, custom, names.get(code), null, null, false));
+        }
+        for (String code : VintageUtil.getSetAliases().values()) {
+            if (seen.add(code)) sets.add(new SetInfo(code, code.toUpperCase(), names.get(code), null, null, false));
+        }
+        return new SetRegistry(sets, false);
+    }
+
+    /**
+     * Builds a complete registry from the {@code data} array of a Scryfall
+     * {@code /sets} response (or of the cache file, which has the same shape).
+     */
+    public static SetRegistry fromJson(JSONArray data) {
+        Map<String, String> toCustom = new HashMap<>();
+        for (Map.Entry<String, String> e : SetList.customMappings().entrySet()) toCustom.put(e.getValue(), e.getKey());
+
+        List<SetInfo> sets = new ArrayList<>(data.length());
+        for (int i = 0; i < data.length(); i++) {
+            JSONObject o = data.getJSONObject(i);
+            String code = o.optString("code", "").toLowerCase();
+            if (code.isEmpty()) continue;
+            sets.add(new SetInfo(code, toCustom.getOrDefault(code, code.toUpperCase()),
+                    o.optString("name", null), o.optString("set_type", null),
+                    o.optString("released_at", null), o.optBoolean("digital", false)));
+        }
+        // Newest first; sets without a date last
+        sets.sort(Comparator.comparing(SetInfo::releasedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return new SetRegistry(sets, true);
+    }
+
+    /** Reads a registry written by {@link #write}. */
+    public static SetRegistry read(File file) throws IOException {
+        JSONObject root = new JSONObject(Files.readString(file.toPath(), StandardCharsets.UTF_8));
+        return fromJson(root.getJSONArray("data"));
+    }
+
+    /** Writes the set list to {@code file} (temp file, then atomic rename). */
+    public void write(File file) throws IOException {
+        JSONArray data = new JSONArray();
+        for (SetInfo s : sets) {
+            JSONObject o = new JSONObject();
+            o.put("code", s.code());
+            if (s.name() != null)       o.put("name", s.name());
+            if (s.setType() != null)    o.put("set_type", s.setType());
+            if (s.releasedAt() != null) o.put("released_at", s.releasedAt());
+            o.put("digital", s.digital());
+            data.put(o);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        Files.writeString(tmp.toPath(), new JSONObject().put("data", data).toString(), StandardCharsets.UTF_8);
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ── Lookup ────────────────────────────────────────────────────────────────
+
+    /**
+     * Resolves a Scryfall code, custom code, alias or set name (any case,
+     * punctuation and spaces ignored).
+     *
+     * @return the set, or {@code null} if unknown
+     */
+    public SetInfo find(CharSequence input) {
+        int idx = table.get(input);
+        return idx < 0 ? null : sets.get(idx);
+    }
+
+    /** Returns {@code true} if {@code input} resolves to a set. */
+    public boolean isKnown(CharSequence input) {
+        return table.get(input) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if the registry came from Scryfall's full set list, so
+     * an unknown code is really invalid rather than merely missing from the
+     * built-in tables.
+     */
+    public boolean isComplete() { return complete; }
+
+    /** Scryfall code (lower case) for {@code input}; unknown input is returned lower-cased. */
+    public String toScryfallCode(String input) {
+        if (input == null) return null;
+        SetInfo s = find(input);
+        return s != null ? s.code() : input.toLowerCase();
+    }
+
+    /**
+     * Scryfall code (lower case) for a Scryfall or custom code only; set names and
+     * aliases are not resolved, so a word that merely names a set ({@code "mirage"})
+     * is returned lower-cased like any unknown input. For parsing typed codes,
+     * where the first word may start a card name.
+     */
+    public String codeToScryfallCode(String code) {
+        if (code == null) return null;
+        SetInfo s = findCode(code);
+        return s != null ? s.code() : code.toLowerCase();
+    }
+
+    /** Returns {@code true} if {@code code} is a Scryfall or custom code; names and aliases do not count. */
+    public boolean isKnownCode(String code) {
+        return code != null && findCode(code) != null;
+    }
+
+    private SetInfo findCode(String code) {
+        SetInfo s = find(code);
+        return s != null && (code.equalsIgnoreCase(s.code()) || code.equalsIgnoreCase(s.customCode())) ? s : null;
+    }
+
+    /** Our custom code (upper case) for a Scryfall code; unknown codes are returned upper-cased. */
+    public String toCustomCode(String scryfallCode) {
+        if (scryfallCode == null) return null;
+        SetInfo s = find(scryfallCode);
+        return s != null ? s.customCode() : scryfallCode.toUpperCase();
+    }
+
+    /** All sets, newest first (built-in registry: list order). */
+    public List<SetInfo> sets() { return sets; }
+
+    /** Number of distinct lookup keys. */
+    public int keyCount() { return table.size(); }
+
+    /**
+     * Custom codes offered for bulk pricing: the curated {@link SetList} list,
+     * preceded by any paper set of a priced type that Scryfall released after the
+     * newest set on that list — newest first. Sets announced but not yet released
+     * are left out until their release date.
+     */
+    public List<String> bulkPricerSets() {
+        String newestCurated = null;
+        for (String custom : SetList.ALL_SETS_CUSTOM_CODES) {
+            SetInfo s = find(custom);
+            if (s != null && s.releasedAt() != null
+                    && (newestCurated == null || s.releasedAt().compareTo(newestCurated) > 0)) {
+                newestCurated = s.releasedAt();
+            }
+        }
+        List<String> out = new ArrayList<>();
+        if (newestCurated != null) {
+            String today = LocalDate.now().toString();
+            Set<String> curated = new HashSet<>(SetList.ALL_SETS_CUSTOM_CODES);
+            for (SetInfo s : sets) {
+                if (s.releasedAt() == null || s.releasedAt().compareTo(newestCurated) <= 0) continue;
+                if (s.digital() || !PRICED_TYPES.contains(s.setType())) continue;
+                if (s.releasedAt().compareTo(today) > 0 || curated.contains(s.customCode())) continue;
+                out.add(s.customCode());
+            }
+        }
+        out.addAll(SetList.ALL_SETS_CUSTOM_CODES);
+        return Collections.unmodifiableList(out);
+    }
+}
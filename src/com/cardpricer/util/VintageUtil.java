@@ -119,8 +119,15 @@ public final class VintageUtil {
      */
     public static String resolveSetAlias(String input) {
         if (input == null || input.isBlank()) return input;
-        String normalized = input.toLowerCase().replaceAll("[^a-z0-9]", "");
-        return SET_ALIASES.getOrDefault(normalized, input.toLowerCase());
+        return SetRegistry.current().toScryfallCode(input);
+    }
+
+    /**
+     * Returns the friendly-name alias table: normalised alias (lowercase, alphanumeric
+     * only) → Scryfall set code (lowercase). The map is unmodifiable.
+     */
+    public static Map<String, String> getSetAliases() {
+        return SET_ALIASES;
     }
 
     /**